@@ -0,0 +1,59 @@
+package benchmarks;
+
+/**
+ * An operation to be timed, on inputs of several sizes.
+ * 
+ * For each size, the benchmark is set up once; then, before every run of
+ * the operation, it is prepared. Neither is timed. Preparing lets an
+ * operation whose result is cached run from the start every time.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public abstract class Benchmark {
+
+	private final String name;
+
+	/**
+	 * Create a benchmark.
+	 * 
+	 * @param name
+	 *            the name of the benchmark, usually the method it times.
+	 */
+	protected Benchmark(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Get the name of the benchmark.
+	 * 
+	 * @return the name of the benchmark.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Create the input of a size.
+	 * 
+	 * @param size
+	 *            the number of vertices of the input graph.
+	 */
+	public abstract void setUp(int size);
+
+	/**
+	 * Get ready for a run of the operation. Nothing is done by default.
+	 */
+	public void prepare() {
+	}
+
+	/**
+	 * Run the operation once.
+	 * 
+	 * @param blackhole
+	 *            consumes the result of the operation.
+	 */
+	public abstract void run(Blackhole blackhole);
+
+}
@@ -0,0 +1,591 @@
+package benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import logging.FileLogger;
+
+/**
+ * Runs the benchmarks, in the manner of JMH.
+ * 
+ * Each benchmark is run on graphs of each size, in its own JVM (a fork), so
+ * what the JIT compiler learnt from one benchmark doesn't affect the next.
+ * In a fork, the operation is first run for a number of warmup iterations,
+ * which aren't measured, then for a number of measurement iterations. Each
+ * iteration runs the operation as many times as fit in the iteration time,
+ * and scores the average time of one operation. The scores of every fork are
+ * summarized by their mean, and the error of the mean at 99.9% confidence.
+ * 
+ * The options are those of JMH:
+ * 
+ * <pre>
+ * java benchmarks.BenchmarkRunner [options] [regexp...]
+ * 
+ *   -f forks           the number of forks of each benchmark (1); 0 runs
+ *                      every benchmark in this JVM.
+ *   -wi iterations     the number of warmup iterations (3).
+ *   -i iterations      the number of measurement iterations (5).
+ *   -w seconds         the time of each warmup iteration (1).
+ *   -r seconds         the time of each measurement iteration (1).
+ *   -p size=n,n,...    the graph sizes to run on (100,250,500).
+ *   -rff file          write the results to a file, as JSON.
+ *   -l                 list the benchmarks.
+ *   regexp             only run the benchmarks whose name matches.
+ * </pre>
+ * 
+ * The JSON results are in the format written by JMH, so tools reading those
+ * can read these.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class BenchmarkRunner {
+
+	// Marks the line of scores a fork writes to its output.
+	private static final String SCORES = "# Scores:";
+
+	// Two-sided 99.9% quantile of the normal distribution, as used by JMH.
+	private static final double Z_999 = 3.2905267314919255;
+
+	private int forks = 1;
+	private int warmupIterations = 3;
+	private int measurementIterations = 5;
+	private double warmupSeconds = 1;
+	private double measurementSeconds = 1;
+	private int[] sizes = { 100, 250, 500 };
+	private String resultFile = null;
+	private boolean list = false;
+	private final List<Pattern> includes = new ArrayList<Pattern>();
+
+	// When run as a fork, the benchmark and size to run.
+	private String forkName = null;
+	private int forkSize = 0;
+
+	private BenchmarkRunner() {
+	}
+
+	/**
+	 * Get every benchmark.
+	 * 
+	 * @return the benchmarks.
+	 */
+	static List<Benchmark> getBenchmarks() {
+
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+		benchmarks.add(new DijkstraBenchmark());
+		benchmarks.add(new PrimBenchmark());
+		benchmarks.add(new NetworkBenchmark(false));
+		benchmarks.add(new NetworkBenchmark(true));
+		benchmarks.add(new ParseBenchmark());
+
+		for (StatisticsBenchmark.Statistic statistic : StatisticsBenchmark.Statistic
+				.values()) {
+			benchmarks.add(new StatisticsBenchmark(statistic));
+		}
+
+		return benchmarks;
+	}
+
+	public static void main(String[] args) throws IOException,
+			InterruptedException {
+
+		FileLogger.disableLogging();
+
+		BenchmarkRunner runner = new BenchmarkRunner();
+
+		try {
+			runner.parseOptions(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+
+		if (runner.forkName != null) {
+			runner.runFork();
+		} else {
+			runner.run();
+		}
+	}
+
+	private void parseOptions(String[] args) {
+
+		for (int i = 0; i < args.length; i++) {
+
+			String arg = args[i];
+
+			if (arg.equals("-l")) {
+				list = true;
+			} else if (arg.equals("-fork")) {
+				forkName = value(args, ++i, arg);
+				forkSize = Integer.parseInt(value(args, ++i, arg));
+			} else if (arg.startsWith("-")) {
+
+				String value = value(args, ++i, arg);
+
+				try {
+					if (arg.equals("-f")) {
+						forks = Integer.parseInt(value);
+					} else if (arg.equals("-wi")) {
+						warmupIterations = Integer.parseInt(value);
+					} else if (arg.equals("-i")) {
+						measurementIterations = Integer.parseInt(value);
+					} else if (arg.equals("-w")) {
+						warmupSeconds = Double.parseDouble(value);
+					} else if (arg.equals("-r")) {
+						measurementSeconds = Double.parseDouble(value);
+					} else if (arg.equals("-p")) {
+						sizes = parseSizes(value);
+					} else if (arg.equals("-rff")) {
+						resultFile = value;
+					} else {
+						throw new IllegalArgumentException("Unknown option: "
+								+ arg);
+					}
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Not a number: "
+							+ value);
+				}
+
+			} else {
+				includes.add(Pattern.compile(arg));
+			}
+		}
+
+		if (measurementIterations < 1) {
+			throw new IllegalArgumentException(
+					"At least one measurement iteration is needed.");
+		}
+	}
+
+	private static String value(String[] args, int i, String option) {
+
+		if (i >= args.length) {
+			throw new IllegalArgumentException("Missing value for " + option);
+		}
+
+		return args[i];
+	}
+
+	private static int[] parseSizes(String parameter) {
+
+		if (!parameter.startsWith("size=")) {
+			throw new IllegalArgumentException("Unknown parameter: "
+					+ parameter);
+		}
+
+		String[] values = parameter.substring("size=".length()).split(",");
+		int[] parsed = new int[values.length];
+
+		for (int i = 0; i < values.length; i++) {
+			parsed[i] = Integer.parseInt(values[i].trim());
+		}
+
+		return parsed;
+	}
+
+	private boolean isIncluded(Benchmark benchmark) {
+
+		if (includes.isEmpty()) {
+			return true;
+		}
+
+		for (Pattern include : includes) {
+			if (include.matcher(benchmark.getName()).find()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	// Run every benchmark included on every size, and report the results.
+	private void run() throws IOException, InterruptedException {
+
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+		for (Benchmark benchmark : getBenchmarks()) {
+			if (isIncluded(benchmark)) {
+				benchmarks.add(benchmark);
+			}
+		}
+
+		if (list) {
+			for (Benchmark benchmark : benchmarks) {
+				System.out.println(benchmark.getName());
+			}
+			return;
+		}
+
+		List<Result> results = new ArrayList<Result>();
+
+		for (Benchmark benchmark : benchmarks) {
+			for (int size : sizes) {
+
+				System.out.println();
+				System.out.println("# Benchmark: " + benchmark.getName());
+				System.out.println("# Parameters: (size = " + size + ")");
+
+				Result result = new Result(benchmark.getName(), size);
+
+				if (forks == 0) {
+					result.forks.add(measure(benchmark, size));
+				}
+
+				for (int fork = 1; fork <= forks; fork++) {
+					System.out.println("# Fork: " + fork + " of " + forks);
+					result.forks.add(fork(benchmark, size));
+				}
+
+				System.out.println();
+				System.out.println(String.format(Locale.ROOT,
+						"Result \"%s\":%n  %.3f +-(99.9%%) %.3f ms/op",
+						benchmark.getName(), result.getScore(),
+						result.getScoreError()));
+
+				results.add(result);
+			}
+		}
+
+		printSummary(results, System.out);
+
+		if (resultFile != null) {
+			writeJson(results, new File(resultFile));
+			System.out.println();
+			System.out.println("Results written to " + resultFile);
+		}
+	}
+
+	// Run a benchmark in a new JVM, with the same options as this one, and
+	// read the scores it reports.
+	private double[] fork(Benchmark benchmark, int size) throws IOException,
+			InterruptedException {
+
+		List<String> command = new ArrayList<String>();
+
+		command.add(new File(System.getProperty("java.home"), "bin"
+				+ File.separator + "java").getPath());
+		command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(BenchmarkRunner.class.getName());
+		command.add("-wi");
+		command.add(Integer.toString(warmupIterations));
+		command.add("-i");
+		command.add(Integer.toString(measurementIterations));
+		command.add("-w");
+		command.add(Double.toString(warmupSeconds));
+		command.add("-r");
+		command.add(Double.toString(measurementSeconds));
+		command.add("-fork");
+		command.add(benchmark.getName());
+		command.add(Integer.toString(size));
+
+		Process process = new ProcessBuilder(command).redirectErrorStream(
+				true).start();
+		BufferedReader output = new BufferedReader(new InputStreamReader(
+				process.getInputStream()));
+
+		double[] scores = null;
+
+		try {
+			String line;
+
+			while ((line = output.readLine()) != null) {
+
+				if (line.startsWith(SCORES)) {
+					scores = parseScores(line.substring(SCORES.length()));
+				} else {
+					System.out.println(line);
+				}
+			}
+		} finally {
+			output.close();
+		}
+
+		int status = process.waitFor();
+
+		if (status != 0 || scores == null) {
+			throw new IllegalStateException("The fork of "
+					+ benchmark.getName() + " failed, with status " + status
+					+ ".");
+		}
+
+		return scores;
+	}
+
+	private static double[] parseScores(String line) {
+
+		String[] values = line.trim().split(" ");
+		double[] scores = new double[values.length];
+
+		for (int i = 0; i < values.length; i++) {
+			scores[i] = Double.parseDouble(values[i]);
+		}
+
+		return scores;
+	}
+
+	// Run the benchmark this JVM was forked for, and report its scores.
+	private void runFork() {
+
+		Benchmark forked = null;
+
+		for (Benchmark benchmark : getBenchmarks()) {
+			if (benchmark.getName().equals(forkName)) {
+				forked = benchmark;
+			}
+		}
+
+		if (forked == null) {
+			throw new IllegalArgumentException("No benchmark named "
+					+ forkName);
+		}
+
+		double[] scores = measure(forked, forkSize);
+		StringBuilder line = new StringBuilder(SCORES);
+
+		for (double score : scores) {
+			line.append(' ').append(score);
+		}
+
+		System.out.println(line);
+	}
+
+	// Warm up, then measure, a benchmark in this JVM.
+	private double[] measure(Benchmark benchmark, int size) {
+
+		Blackhole blackhole = new Blackhole();
+		benchmark.setUp(size);
+
+		for (int i = 1; i <= warmupIterations; i++) {
+			double score = iterate(benchmark, blackhole, warmupSeconds);
+			System.out.println(String.format(Locale.ROOT,
+					"# Warmup Iteration %3d: %.3f ms/op", i, score));
+		}
+
+		double[] scores = new double[measurementIterations];
+
+		for (int i = 0; i < measurementIterations; i++) {
+			scores[i] = iterate(benchmark, blackhole, measurementSeconds);
+			System.out.println(String.format(Locale.ROOT,
+					"Iteration %3d: %.3f ms/op", i + 1, scores[i]));
+		}
+
+		return scores;
+	}
+
+	// Run the operation until the time is up (and at least once), and give
+	// the average time of a run in milliseconds. Preparing for a run isn't
+	// timed.
+	private static double iterate(Benchmark benchmark, Blackhole blackhole,
+			double seconds) {
+
+		long deadline = System.nanoTime() + (long) (seconds * 1e9);
+		long nanos = 0;
+		long operations = 0;
+
+		do {
+			benchmark.prepare();
+
+			long start = System.nanoTime();
+			benchmark.run(blackhole);
+			nanos += System.nanoTime() - start;
+
+			operations++;
+
+		} while (System.nanoTime() < deadline);
+
+		return nanos / 1e6 / operations;
+	}
+
+	private void printSummary(List<Result> results, PrintStream out) {
+
+		int nameWidth = "Benchmark".length();
+
+		for (Result result : results) {
+			nameWidth = Math.max(nameWidth, result.name.length());
+		}
+
+		String header = "%-" + nameWidth + "s  %6s  %4s  %4s  %12s   %10s  %5s%n";
+		String row = "%-" + nameWidth
+				+ "s  %6d  %4s  %4d  %12.3f +- %10.3f  %5s%n";
+
+		out.println();
+		out.printf(Locale.ROOT, header, "Benchmark", "(size)", "Mode", "Cnt",
+				"Score", "Error", "Units");
+
+		for (Result result : results) {
+			out.printf(Locale.ROOT, row, result.name, result.size, "avgt",
+					result.getCount(), result.getScore(),
+					result.getScoreError(), "ms/op");
+		}
+	}
+
+	private void writeJson(List<Result> results, File file) throws IOException {
+
+		PrintStream out = new PrintStream(file, "UTF-8");
+
+		try {
+			out.println("[");
+
+			for (int r = 0; r < results.size(); r++) {
+
+				Result result = results.get(r);
+
+				out.println("    {");
+				out.println("        \"benchmark\" : \"" + json(result.name)
+						+ "\",");
+				out.println("        \"mode\" : \"avgt\",");
+				out.println("        \"threads\" : 1,");
+				out.println("        \"forks\" : " + forks + ",");
+				out.println("        \"jvm\" : \""
+						+ json(new File(System.getProperty("java.home"),
+								"bin" + File.separator + "java").getPath())
+						+ "\",");
+				out.println("        \"jdkVersion\" : \""
+						+ json(System.getProperty("java.version")) + "\",");
+				out.println("        \"warmupIterations\" : "
+						+ warmupIterations + ",");
+				out.println("        \"warmupTime\" : \"" + warmupSeconds
+						+ " s\",");
+				out.println("        \"measurementIterations\" : "
+						+ measurementIterations + ",");
+				out.println("        \"measurementTime\" : \""
+						+ measurementSeconds + " s\",");
+				out.println("        \"params\" : {");
+				out.println("            \"size\" : \"" + result.size + "\"");
+				out.println("        },");
+				out.println("        \"primaryMetric\" : {");
+				out.println("            \"score\" : "
+						+ number(result.getScore()) + ",");
+				out.println("            \"scoreError\" : "
+						+ number(result.getScoreError()) + ",");
+				out.println("            \"scoreUnit\" : \"ms/op\",");
+				out.println("            \"rawData\" : [");
+
+				for (int f = 0; f < result.forks.size(); f++) {
+
+					double[] scores = result.forks.get(f);
+					StringBuilder line = new StringBuilder("                [");
+
+					for (int i = 0; i < scores.length; i++) {
+						line.append(i == 0 ? " " : ", ").append(
+								number(scores[i]));
+					}
+
+					line.append(" ]");
+					line.append(f < result.forks.size() - 1 ? "," : "");
+					out.println(line);
+				}
+
+				out.println("            ]");
+				out.println("        }");
+				out.println(r < results.size() - 1 ? "    }," : "    }");
+			}
+
+			out.println("]");
+
+		} finally {
+			out.close();
+		}
+	}
+
+	private static String json(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+
+	// JSON has no NaN; an error which can't be computed is written as such.
+	private static String number(double value) {
+		return Double.isNaN(value) ? "\"NaN\"" : Double.toString(value);
+	}
+
+	/**
+	 * The scores of a benchmark on one size, from every fork.
+	 */
+	private static final class Result {
+
+		final String name;
+		final int size;
+		final List<double[]> forks = new ArrayList<double[]>();
+
+		Result(String name, int size) {
+			this.name = name;
+			this.size = size;
+		}
+
+		int getCount() {
+
+			int count = 0;
+
+			for (double[] scores : forks) {
+				count += scores.length;
+			}
+
+			return count;
+		}
+
+		double getScore() {
+
+			double sum = 0;
+
+			for (double[] scores : forks) {
+				for (double score : scores) {
+					sum += score;
+				}
+			}
+
+			return sum / getCount();
+		}
+
+		// Half the width of the 99.9% confidence interval of the score.
+		double getScoreError() {
+
+			int count = getCount();
+
+			if (count < 2) {
+				return Double.NaN;
+			}
+
+			double mean = getScore();
+			double squares = 0;
+
+			for (double[] scores : forks) {
+				for (double score : scores) {
+					squares += (score - mean) * (score - mean);
+				}
+			}
+
+			double deviation = Math.sqrt(squares / (count - 1));
+
+			return studentT(count - 1) * deviation / Math.sqrt(count);
+		}
+	}
+
+	// The two-sided 99.9% quantile of Student's t distribution, by the
+	// Cornish-Fisher expansion around the normal quantile. It is within a
+	// five percent from four degrees of freedom up, which is plenty for an
+	// error bar.
+	static double studentT(int degrees) {
+
+		double z = Z_999;
+		double z3 = z * z * z;
+		double z5 = z3 * z * z;
+		double z7 = z5 * z * z;
+		double n = degrees;
+
+		return z + (z3 + z) / (4 * n) + (5 * z5 + 16 * z3 + 3 * z)
+				/ (96 * n * n) + (3 * z7 + 19 * z5 + 17 * z3 - 15 * z)
+				/ (384 * n * n * n);
+	}
+
+}
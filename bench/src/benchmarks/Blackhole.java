@@ -0,0 +1,50 @@
+package benchmarks;
+
+/**
+ * Consumes the results of a benchmark, so the JIT compiler can't find them
+ * unused and remove the work which computed them.
+ * 
+ * Every value is written to a volatile field. That costs a few nanoseconds,
+ * which is nothing next to the milliseconds the benchmarked operations take.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class Blackhole {
+
+	private volatile Object object;
+	private volatile long integer;
+	private volatile double real;
+
+	/**
+	 * Consume an object.
+	 * 
+	 * @param value
+	 *            the object.
+	 */
+	public void consume(Object value) {
+		object = value;
+	}
+
+	/**
+	 * Consume an integer.
+	 * 
+	 * @param value
+	 *            the integer.
+	 */
+	public void consume(long value) {
+		integer = value;
+	}
+
+	/**
+	 * Consume a real number.
+	 * 
+	 * @param value
+	 *            the number.
+	 */
+	public void consume(double value) {
+		real = value;
+	}
+
+}
@@ -0,0 +1,36 @@
+package benchmarks;
+
+import model.Link;
+import model.Node;
+import model.WeightedGraph;
+import algorithms.DijkstraSSSP;
+
+/**
+ * Times Dijkstra's algorithm, from one node to every other node of the
+ * physical network.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class DijkstraBenchmark extends Benchmark {
+
+	private WeightedGraph<Node, Link> graph;
+	private Node source;
+
+	public DijkstraBenchmark() {
+		super("DijkstraSSSP");
+	}
+
+	@Override
+	public void setUp(int size) {
+		graph = Graphs.create(size);
+		source = graph.vertices().iterator().next();
+	}
+
+	@Override
+	public void run(Blackhole blackhole) {
+		blackhole.consume(new DijkstraSSSP<Node, Link>(graph, source));
+	}
+
+}
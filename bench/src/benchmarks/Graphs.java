@@ -0,0 +1,125 @@
+package benchmarks;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import model.GraphParser;
+import model.Link;
+import model.Node;
+import model.WeightedGraph;
+
+/**
+ * Creates the graphs benchmarks are run on.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+final class Graphs {
+
+	// Nodes are placed near the points of a grid, and linked to the nodes
+	// within a distance. Neighbouring grid points are always within the
+	// distance, so the graph is connected, and each node has a dozen or so
+	// links whatever the size of the graph.
+	private static final float SPACING = 10f;
+	private static final float JITTER = 4f;
+	private static final float LINK_DISTANCE = 20f;
+
+	private static final long SEED = 42;
+
+	private Graphs() {
+	}
+
+	/**
+	 * Create a physical network. The same size always gives the same
+	 * network.
+	 * 
+	 * @param size
+	 *            the number of nodes.
+	 * 
+	 * @return the physical network.
+	 */
+	static WeightedGraph<Node, Link> create(int size) {
+
+		Random random = new Random(SEED);
+		WeightedGraph<Node, Link> graph = new WeightedGraph<Node, Link>(true);
+		int columns = (int) Math.ceil(Math.sqrt(size));
+
+		for (int i = 0; i < size; i++) {
+
+			float x = (i % columns) * SPACING + jitter(random);
+			float y = (i / columns) * SPACING + jitter(random);
+
+			graph.insertVertex(new Node("n" + i, x, y));
+		}
+
+		new GraphParser().linkNodes(graph, LINK_DISTANCE);
+
+		return graph;
+	}
+
+	private static float jitter(Random random) {
+		return (random.nextFloat() * 2f - 1f) * JITTER;
+	}
+
+	/**
+	 * Copy a graph, with the same vertices and new links. The copy has none
+	 * of the statistics of the graph computed.
+	 * 
+	 * @param graph
+	 *            the graph to copy.
+	 * 
+	 * @return the copy.
+	 */
+	static WeightedGraph<Node, Link> copy(WeightedGraph<Node, Link> graph) {
+
+		WeightedGraph<Node, Link> copy = new WeightedGraph<Node, Link>(
+				graph.isUndirected());
+
+		for (Node node : graph.vertices()) {
+			copy.insertVertex(node);
+		}
+
+		for (Link link : graph.edges()) {
+
+			Iterator<Node> ends = graph.endVertices(link).iterator();
+			Node u = ends.next();
+			Node v = ends.next();
+
+			copy.insertEdge(u, v,
+					new Link(copy.getVertexId(u), copy.getVertexId(v)));
+		}
+
+		return copy;
+	}
+
+	/**
+	 * Write a graph in the text format read by the graph parser.
+	 * 
+	 * @param graph
+	 *            the graph to write.
+	 * 
+	 * @return the text of the graph.
+	 */
+	static String toText(WeightedGraph<Node, Link> graph) {
+
+		StringBuilder text = new StringBuilder();
+
+		for (Node node : graph.vertices()) {
+			text.append("NODE(").append(node.getName()).append(", ")
+					.append(node.getX()).append(", ").append(node.getY())
+					.append(")\n");
+		}
+
+		for (Link link : graph.edges()) {
+
+			Iterator<Node> ends = graph.endVertices(link).iterator();
+
+			text.append("EDGE(").append(ends.next().getName()).append(", ")
+					.append(ends.next().getName()).append(")\n");
+		}
+
+		return text.toString();
+	}
+
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import model.NetworkFactory;
+import model.WirelessNetwork;
+
+/**
+ * Times building an oriented network from the logical network. The logical
+ * network is computed when the benchmark is set up, and the network cache is
+ * cleared before every run, so only the orientation is timed.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class NetworkBenchmark extends Benchmark {
+
+	private final boolean directional;
+
+	private NetworkFactory factory;
+	private WirelessNetwork network;
+
+	/**
+	 * Create a benchmark of building a network. Omnidirectional networks are
+	 * built with every sensor given the range of the longest link, and
+	 * directional networks with the optimal range for each sensor.
+	 * 
+	 * @param directional
+	 *            whether to build directional networks.
+	 */
+	public NetworkBenchmark(boolean directional) {
+
+		super(directional ? "DirectionalNetwork.createOptimalNetwork"
+				: "OmnidirectionalNetwork.createNetwork");
+
+		this.directional = directional;
+	}
+
+	@Override
+	public void setUp(int size) {
+
+		factory = new NetworkFactory(Graphs.create(size));
+		network = directional ? factory.getDirectionalNetwork() : factory
+				.getOmnidirectionalNetwork();
+	}
+
+	@Override
+	public void prepare() {
+		factory.getCache().clear();
+	}
+
+	@Override
+	public void run(Blackhole blackhole) {
+
+		if (directional) {
+			blackhole.consume(network.createOptimalNetwork(false));
+		} else {
+			blackhole.consume(network.createNetwork(factory.getLongestLink()));
+		}
+	}
+
+}
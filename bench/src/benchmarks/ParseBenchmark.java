@@ -0,0 +1,39 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import model.GraphParser;
+
+/**
+ * Times parsing a graph from text held in memory, so the disk isn't timed.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class ParseBenchmark extends Benchmark {
+
+	private String text;
+
+	public ParseBenchmark() {
+		super("GraphParser.parse");
+	}
+
+	@Override
+	public void setUp(int size) {
+		text = Graphs.toText(Graphs.create(size));
+	}
+
+	@Override
+	public void run(Blackhole blackhole) {
+
+		try {
+			blackhole.consume(new GraphParser().parse(new StringReader(text)));
+		} catch (IOException e) {
+			// A string can always be read.
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
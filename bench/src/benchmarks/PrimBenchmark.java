@@ -0,0 +1,34 @@
+package benchmarks;
+
+import model.Link;
+import model.Node;
+import model.WeightedGraph;
+import algorithms.PrimMST;
+
+/**
+ * Times finding the minimum spanning tree of the physical network with
+ * Prim's algorithm.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class PrimBenchmark extends Benchmark {
+
+	private WeightedGraph<Node, Link> graph;
+
+	public PrimBenchmark() {
+		super("PrimMST");
+	}
+
+	@Override
+	public void setUp(int size) {
+		graph = Graphs.create(size);
+	}
+
+	@Override
+	public void run(Blackhole blackhole) {
+		blackhole.consume(new PrimMST<Node, Link>(graph).getMst());
+	}
+
+}
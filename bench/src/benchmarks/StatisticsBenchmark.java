@@ -0,0 +1,78 @@
+package benchmarks;
+
+import model.Link;
+import model.Node;
+import model.WeightedGraph;
+
+/**
+ * Times computing one of the statistics of the physical network. A graph
+ * keeps the statistics it has computed, so each run is given a fresh copy of
+ * the network.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class StatisticsBenchmark extends Benchmark {
+
+	/**
+	 * The statistics of a graph.
+	 */
+	public enum Statistic {
+		DIAMETER("getDiameter"), DIAMETER_HOPS("getDiameterHops"), AVERAGE_PATH(
+				"getAverageShortestPathLength"), AVERAGE_PATH_HOPS(
+				"getAverageShortestPathLengthHops");
+
+		private final String method;
+
+		private Statistic(String method) {
+			this.method = method;
+		}
+	}
+
+	private final Statistic statistic;
+
+	private WeightedGraph<Node, Link> graph;
+	private WeightedGraph<Node, Link> copy;
+
+	/**
+	 * Create a benchmark of computing a statistic.
+	 * 
+	 * @param statistic
+	 *            the statistic to compute.
+	 */
+	public StatisticsBenchmark(Statistic statistic) {
+		super("WeightedGraph." + statistic.method);
+		this.statistic = statistic;
+	}
+
+	@Override
+	public void setUp(int size) {
+		graph = Graphs.create(size);
+	}
+
+	@Override
+	public void prepare() {
+		copy = Graphs.copy(graph);
+	}
+
+	@Override
+	public void run(Blackhole blackhole) {
+
+		switch (statistic) {
+		case DIAMETER:
+			blackhole.consume(copy.getDiameter());
+			break;
+		case DIAMETER_HOPS:
+			blackhole.consume(copy.getDiameterHops());
+			break;
+		case AVERAGE_PATH:
+			blackhole.consume(copy.getAverageShortestPathLength());
+			break;
+		case AVERAGE_PATH_HOPS:
+			blackhole.consume(copy.getAverageShortestPathLengthHops());
+			break;
+		}
+	}
+
+}
@@ -8,6 +8,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.PriorityQueue;
 
+import metrics.Counter;
+import metrics.DijkstraEvent;
+import metrics.Metrics;
+import metrics.Timer;
 import model.Vertex;
 import model.WeightedEdgeInterface;
 import model.WeightedGraph;
@@ -33,6 +37,14 @@ import model.WeightedGraph;
  */
 public class DijkstraSSSP<V extends Vertex, E extends WeightedEdgeInterface> {
 
+	private static final Timer RUNS = Metrics.timer("dijkstra");
+	private static final Counter SETTLED = Metrics
+			.counter("dijkstra.verticesSettled");
+	private static final Counter RELAXED = Metrics
+			.counter("dijkstra.edgesRelaxed");
+	private static final Counter HEAP_OPERATIONS = Metrics
+			.counter("dijkstra.heapOperations");
+
 	// Passed in parameters.
 	private WeightedGraph<V, E> graph;
 	private V source;
@@ -42,6 +54,10 @@ public class DijkstraSSSP<V extends Vertex, E extends WeightedEdgeInterface> {
 	private HashMap<V, V> predecessor = new HashMap<V, V>();
 	private HashMap<V, Float> distance = new HashMap<V, Float>();
 
+	// The work done by the run, for the metrics.
+	private long verticesSettled = 0;
+	private long edgesRelaxed = 0;
+
 	// Fields used to hold current generated path properties.
 	private ArrayList<V> currentPathVerts;
 	private ArrayList<E> currentPathEdges;
@@ -86,7 +102,18 @@ public class DijkstraSSSP<V extends Vertex, E extends WeightedEdgeInterface> {
 
 		// Calculate the vertex distances & predecessors.
 		// Basically we just run the algorithm.
-		dijkstra();
+		Timer.Sample sample = RUNS.start();
+		DijkstraEvent event = new DijkstraEvent();
+		event.begin();
+
+		try {
+			dijkstra();
+		} finally {
+			sample.stop();
+		}
+
+		event.record(source.getName(), graph.vertices().size(), graph.edges()
+				.size(), verticesSettled, edgesRelaxed);
 	}
 
 	/**
@@ -119,8 +146,10 @@ public class DijkstraSSSP<V extends Vertex, E extends WeightedEdgeInterface> {
 	 *            the 'to' vertex for the edge which is to be relaxed.
 	 * @param w
 	 *            the weight of the edge connecting vertices u and v.
+	 * 
+	 * @return true if the distance of vertex v was lowered.
 	 */
-	private void relax(V u, V v, float w) {
+	private boolean relax(V u, V v, float w) {
 
 		if (distance.get(v) > (distance.get(u) + w)) {
 
@@ -133,7 +162,11 @@ public class DijkstraSSSP<V extends Vertex, E extends WeightedEdgeInterface> {
 			predecessor.put(v, u);
 
 			vertices.add(v);
+
+			return true;
 		}
+
+		return false;
 	}
 
 	/**
@@ -154,10 +187,16 @@ public class DijkstraSSSP<V extends Vertex, E extends WeightedEdgeInterface> {
 		vertices = new PriorityQueue<V>(pqInitialCapacity, pqComparator);
 		vertices.addAll(graph.vertices());
 
+		// Counted here, and added to the metrics once done.
+		long settled = 0;
+		long relaxed = 0;
+		long heapOperations = vertices.size();
+
 		while (!vertices.isEmpty()) {
 
 			// Get vertex with smallest distance to the source.
 			V u = vertices.poll();
+			settled++;
 
 			// For each vertex adjacent to u (the closest vertex to source)
 			// relax the edge connecting them.
@@ -170,14 +209,25 @@ public class DijkstraSSSP<V extends Vertex, E extends WeightedEdgeInterface> {
 
 				// Only use outgoing edges from u to v. An edge from u -> v will
 				// show as having u in the first position of its connecting edge
-				// end vertices, with v in the second position. (we already know
-				// the edge has v in the second position as we used u and the
-				// edge to find it)
-				if (graph.endVertices(e).iterator().next().equals(u)) {
-					relax(u, v, e.getWeight());
+				// end vertices, with v in the second position, unless the graph
+				// is undirected, where every edge is outgoing.
+				if (graph.isOutgoing(u, e)) {
+
+					relaxed++;
+
+					if (relax(u, v, graph.getWeight(u, v, e))) {
+						heapOperations += 2;
+					}
 				}
 			}
 		}
+
+		verticesSettled = settled;
+		edgesRelaxed = relaxed;
+
+		SETTLED.add(settled);
+		RELAXED.add(relaxed);
+		HEAP_OPERATIONS.add(heapOperations + settled);
 	}
 
 	/**
@@ -221,14 +271,9 @@ public class DijkstraSSSP<V extends Vertex, E extends WeightedEdgeInterface> {
 
 				E e = incidentEdgesIter.next();
 
-				Iterator<V> endVerticesIter = graph.endVertices(e).iterator();
-
-				V from = endVerticesIter.next();
-				V to = endVerticesIter.next();
-
-				if (from.equals(v) && to.equals(u)) {
+				if (graph.isOutgoing(v, e) && u.equals(graph.opposite(v, e))) {
 					currentPathEdges.add(e);
-					currentPathWeight += e.getWeight();
+					currentPathWeight += graph.getWeight(v, u, e);
 				}
 			}
 		}
@@ -0,0 +1,220 @@
+package algorithms;
+
+import java.util.Arrays;
+
+import model.Vertex;
+
+/**
+ * <p>
+ * This class finds the orientation of a directional antenna which must cover
+ * a set of neighbouring points. The antenna is oriented by locating the
+ * largest angular gap between the neighbours (as seen from the antenna), and
+ * then covering everything except for that gap.
+ * </p>
+ * <p>
+ * The kernel works on primitive coordinate arrays so that it does not allocate
+ * while orienting a sensor. Each thread is given its own instance (see
+ * {@link #get()}), whose scratch buffers are grown as needed and then reused
+ * for every subsequent sensor.
+ * </p>
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class OrientationKernel {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	// One kernel per thread, so the scratch buffers never need locking.
+	private static final ThreadLocal<OrientationKernel> kernels = new ThreadLocal<OrientationKernel>() {
+
+		@Override
+		protected OrientationKernel initialValue() {
+			return new OrientationKernel();
+		}
+	};
+
+	// Scratch buffers; neighbour coordinates and their polar angles.
+	private float[] xs = new float[INITIAL_CAPACITY];
+	private float[] ys = new float[INITIAL_CAPACITY];
+	private float[] angles = new float[INITIAL_CAPACITY];
+	private int size = 0;
+
+	// Results of the last orientation.
+	private float direction = 0f;
+	private float angle = 0f;
+
+	private OrientationKernel() {
+	}
+
+	/**
+	 * Get the kernel for the current thread.
+	 * 
+	 * The returned kernel is cleared, and is ready to have neighbours added.
+	 * 
+	 * @return the kernel for the current thread.
+	 */
+	public static OrientationKernel get() {
+
+		OrientationKernel kernel = kernels.get();
+		kernel.clear();
+
+		return kernel;
+	}
+
+	/**
+	 * Remove all neighbours from the kernel.
+	 */
+	public void clear() {
+		size = 0;
+		direction = 0f;
+		angle = 0f;
+	}
+
+	/**
+	 * Add a neighbour which the antenna must cover.
+	 * 
+	 * @param x
+	 *            the x position of the neighbour.
+	 * @param y
+	 *            the y position of the neighbour.
+	 */
+	public void add(float x, float y) {
+
+		if (size == xs.length) {
+			int capacity = size * 2;
+
+			xs = Arrays.copyOf(xs, capacity);
+			ys = Arrays.copyOf(ys, capacity);
+			angles = new float[capacity];
+		}
+
+		xs[size] = x;
+		ys[size] = y;
+		size++;
+	}
+
+	/**
+	 * Get the number of neighbours added to the kernel.
+	 * 
+	 * @return the number of neighbours.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Orient an antenna at the given position so that it covers all of the
+	 * added neighbours.
+	 * 
+	 * The results can then be retrieved with {@link #getDirection()} and
+	 * {@link #getAngle()}. If no neighbours were added both are zero.
+	 * 
+	 * @param fromX
+	 *            the x position of the antenna.
+	 * @param fromY
+	 *            the y position of the antenna.
+	 */
+	public void orient(float fromX, float fromY) {
+
+		if (size == 0) {
+			direction = 0f;
+			angle = 0f;
+			return;
+		}
+
+		// Get the angles wrt/ the polar 0 degree position. From these we need
+		// to find the difference between each pair (in sorted order), so that
+		// we can find our desired angle, and from that the direction.
+		for (int i = 0; i < size; i++) {
+			angles[i] = Vertex.getDirection(fromX, fromY, xs[i], ys[i]);
+		}
+
+		Arrays.sort(angles, 0, size);
+
+		float largestAngle = -Float.MAX_VALUE;
+		int largestAngleIdx = Integer.MIN_VALUE;
+
+		// So we're walking around the unit circle looking for the largest
+		// angle. First iteration we look at our first and last static angles.
+		// With angles 40 and 270 as an example, we'll get a negative angle;
+		// 40 - 270 = -230. So we correct this by adding 360 followed by a
+		// modulus 360 to get the actual angle; -230 + 360 = 130, which is the
+		// angle between polar coordinates 270 to 40.
+		for (int i = 0; i < size; i++) {
+
+			int lastIdx = ((i - 1) + size) % size;
+
+			float gap = ((angles[i] - angles[lastIdx]) + 360) % 360;
+
+			if (gap > largestAngle) {
+				largestAngle = gap;
+				largestAngleIdx = i;
+			}
+		}
+
+		// If a vertex only connects to one other vertex give it an angle which
+		// can be seen on the ui.
+		angle = (largestAngle == 0f) ? 10f : (360f - largestAngle);
+
+		// The largest angle is the part that is removed from the sensor range,
+		// so point the antenna directly away from its middle.
+		int lastAngleIdx = ((largestAngleIdx - 1) + size) % size;
+
+		direction = getDirection(angles[lastAngleIdx], angles[largestAngleIdx]);
+	}
+
+	/**
+	 * Get the antenna direction found by the last orientation.
+	 * 
+	 * @return the direction in degrees.
+	 */
+	public float getDirection() {
+		return direction;
+	}
+
+	/**
+	 * Get the antenna angle found by the last orientation.
+	 * 
+	 * @return the angle in degrees.
+	 */
+	public float getAngle() {
+		return angle;
+	}
+
+	/**
+	 * Get the direction of a sensor.
+	 * 
+	 * The direction is found given two angles which make up the largest angle.
+	 * The angle at which the largest angle (between connected vertices) starts
+	 * is the start angle, and the angle at which the largest angle ends is the
+	 * end angle. The largest angle found between static angles is the
+	 * difference between these.
+	 * 
+	 * @param startAngle
+	 *            the static angle where the largest angle begins.
+	 * 
+	 * @param endAngle
+	 *            the static angle where the largest angle ends.
+	 * 
+	 * @return the direction of a sensor wrt/ the input static angles.
+	 */
+	private static float getDirection(float startAngle, float endAngle) {
+
+		// Set the direction to initially be half way between the static angles.
+		float direction = ((endAngle + startAngle) / 2f);
+
+		// Add 180 degrees if the largest angle doesn't lay across the fourth
+		// quadrant -> first quadrant divide.
+		if (endAngle > startAngle) {
+			direction += 180f;
+		}
+
+		// Make sure the calculated direction is a valid degree value.
+		direction %= 360f;
+
+		return direction;
+	}
+
+}
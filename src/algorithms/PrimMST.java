@@ -5,6 +5,10 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.PriorityQueue;
 
+import metrics.Counter;
+import metrics.Metrics;
+import metrics.PrimEvent;
+import metrics.Timer;
 import model.Vertex;
 import model.WeightedEdgeInterface;
 import model.WeightedGraph;
@@ -12,9 +16,10 @@ import model.WeightedGraph;
 /**
  * <p>
  * This class is an implementation of Prim's minimum spanning tree (MST)
- * algorithm. The algorithm solves the MST on a weighted directed graph for
- * which edge weights are non-negative. Currently, the graph must also not
- * contain any one-way traversals between two vertices (both edges must exist).
+ * algorithm. The algorithm solves the MST on a weighted graph for which edge
+ * weights are non-negative. The graph is either undirected, or a directed
+ * graph which doesn't contain any one-way traversals between two vertices
+ * (both edges must exist).
  * </p>
  * <p>
  * For more information on the algorithm itself, please see:
@@ -30,15 +35,23 @@ import model.WeightedGraph;
  */
 public class PrimMST<V extends Vertex, E extends WeightedEdgeInterface> {
 
+	private static final Timer RUNS = Metrics.timer("prim");
+	private static final Counter SETTLED = Metrics
+			.counter("prim.verticesSettled");
+	private static final Counter RELAXED = Metrics.counter("prim.edgesRelaxed");
+	private static final Counter HEAP_OPERATIONS = Metrics
+			.counter("prim.heapOperations");
+
 	private WeightedGraph<V, E> graph;
-	private HashMap<V, HashMap<V, E>> verticesToEdges = new HashMap<V, HashMap<V, E>>();
 
 	// v.key is the min weight of any edge connecting v to a vertex in the tree.
-	// v.parent names the parent of a vertex v in the tree.
+	// v.parent names the parent of a vertex v in the tree, and v.parentEdge
+	// the edge from the parent to v.
 	private HashMap<V, Float> key = new HashMap<V, Float>();
 	private HashMap<V, V> parent = new HashMap<V, V>();
+	private HashMap<V, E> parentEdge = new HashMap<V, E>();
 
-	private WeightedGraph<V, E> mst = new WeightedGraph<V, E>();
+	private WeightedGraph<V, E> mst;
 	private float mstWeight = 0f;
 
 	// Comparator used to order vertices in the min-priority queue used.
@@ -59,50 +72,36 @@ public class PrimMST<V extends Vertex, E extends WeightedEdgeInterface> {
 		}
 	}
 
-	// This function isn't a part of prim's algorithm, though it's needed
-	// to keep a record of edges with respect to both vertices.
-	private void parseGraphEdges() {
-
-		Iterator<E> edgesIter = graph.edges().iterator();
-
-		while (edgesIter.hasNext()) {
-
-			E edge = edgesIter.next();
-			Iterator<V> endVerts = graph.endVertices(edge).iterator();
-
-			V from = endVerts.next();
-			V to = endVerts.next();
-
-			if (verticesToEdges.get(from) != null) {
-				verticesToEdges.get(from).put(to, edge);
-			} else {
-				HashMap<V, E> fromToEdge = new HashMap<V, E>();
-				fromToEdge.put(to, edge);
-
-				verticesToEdges.put(from, fromToEdge);
-			}
-		}
-	}
-
 	/**
 	 * Create a Prim's minimum spanning tree algorithm instance from the input
 	 * graph.
 	 * 
-	 * Currently, the input graph must be a weighted directed graph where each
-	 * edge connecting two vertices u & v is of the same length, and where two
-	 * vertices u & v are either connected by 2 or 0 edges. Basically, a
-	 * directed graph with no one-way traversals between two vertices.
+	 * The input graph must either be undirected, or be a weighted directed
+	 * graph where each edge connecting two vertices u & v is of the same
+	 * length, and where two vertices u & v are either connected by 2 or 0
+	 * edges. Basically, a directed graph with no one-way traversals between
+	 * two vertices. The mst is undirected if the input graph is.
 	 * 
 	 * @param graph
-	 *            a directed weighted graph to use for Prim's algorithm.
+	 *            a weighted graph to use for Prim's algorithm.
 	 */
 	public PrimMST(WeightedGraph<V, E> graph) {
 
 		this.graph = graph;
+		this.mst = new WeightedGraph<V, E>(graph.isUndirected());
 
-		parseGraphEdges();
-		prim();
-		generateMst();
+		Timer.Sample sample = RUNS.start();
+		PrimEvent event = new PrimEvent();
+		event.begin();
+
+		try {
+			prim();
+			generateMst();
+		} finally {
+			sample.stop();
+		}
+
+		event.record(graph.vertices().size(), graph.edges().size(), mstWeight);
 	}
 
 	/**
@@ -148,11 +147,17 @@ public class PrimMST<V extends Vertex, E extends WeightedEdgeInterface> {
 		vertices = new PriorityQueue<V>(pqInitialCapacity, pqComparator);
 		vertices.addAll(graph.vertices());
 
+		// Counted here, and added to the metrics once done.
+		long settled = 0;
+		long relaxed = 0;
+		long heapOperations = vertices.size();
+
 		// While we have more vertices which are not in the mst, we get the next
 		// one of minimum edge weight connecting to the current mst being built.
 		while (!vertices.isEmpty()) {
 
 			V u = vertices.poll();
+			settled++;
 
 			// For each vertex adjacent to the current vertex, we update the key
 			// and parent values if necessary. Get an adjacent vertex &
@@ -164,14 +169,12 @@ public class PrimMST<V extends Vertex, E extends WeightedEdgeInterface> {
 			while (edgesIter.hasNext()) {
 
 				E edge = edgesIter.next();
-				Iterator<V> endVertsIter = graph.endVertices(edge).iterator();
 
-				V from = endVertsIter.next();
+				if (graph.isOutgoing(u, edge)) {
 
-				if (from.equals(u)) {
-
-					V v = endVertsIter.next();
-					float weight = edge.getWeight();
+					V v = graph.opposite(u, edge);
+					float weight = graph.getWeight(u, v, edge);
+					relaxed++;
 
 					// We only update the vertex properties if it is both not
 					// already in the mst (still in the priority queue), and if
@@ -184,20 +187,27 @@ public class PrimMST<V extends Vertex, E extends WeightedEdgeInterface> {
 						vertices.remove(v);
 
 						parent.put(v, u);
+						parentEdge.put(v, edge);
 						key.put(v, weight);
 
 						vertices.add(v);
+						heapOperations += 2;
 					}
 				}
 			}
 		}
+
+		SETTLED.add(settled);
+		RELAXED.add(relaxed);
+		HEAP_OPERATIONS.add(heapOperations + settled);
 	}
 
 	/**
 	 * Generate the mst graph from the calculated values of vertex parent.
 	 * 
-	 * This method rebuilds the directed graph by using the verticesToEdges
-	 * HashMap to connect the proper vertices with edges in both directions.
+	 * Each vertex is connected to its parent by the edge which was found from
+	 * the parent. In a directed graph the edge back from the vertex to its
+	 * parent is inserted too.
 	 */
 	private void generateMst() {
 
@@ -219,19 +229,44 @@ public class PrimMST<V extends Vertex, E extends WeightedEdgeInterface> {
 
 			if (u != null) {
 
-				E vToU = verticesToEdges.get(v).get(u);
-				E uToV = verticesToEdges.get(u).get(v);
+				E uToV = parentEdge.get(v);
+
+				if (graph.isUndirected()) {
+					mst.insertEdge(u, v, uToV);
+					mstWeight += graph.getWeight(u, v, uToV);
+					continue;
+				}
+
+				E vToU = findEdge(v, u);
 
 				mst.insertEdge(v, u, vToU);
 				mst.insertEdge(u, v, uToV);
 
-				mstWeight += (vToU.getWeight() + uToV.getWeight());
+				mstWeight += (graph.getWeight(v, u, vToU) + graph.getWeight(u, v,
+						uToV));
+			}
+		}
+	}
+
+	// Find the edge leading from v to u in a directed graph.
+	private E findEdge(V v, V u) {
+
+		Iterator<E> edgesIter = graph.incidentEdges(v).iterator();
+
+		while (edgesIter.hasNext()) {
+
+			E edge = edgesIter.next();
+
+			if (graph.isOutgoing(v, edge) && u.equals(graph.opposite(v, edge))) {
+				return edge;
 			}
 		}
+
+		return null;
 	}
 
 	/**
-	 * Get the generated mst as a weighted directed graph.
+	 * Get the generated mst as a weighted graph.
 	 * 
 	 * @return the generated mst.
 	 */
@@ -240,7 +275,7 @@ public class PrimMST<V extends Vertex, E extends WeightedEdgeInterface> {
 	}
 
 	/**
-	 * Get the weight of the generated mst.
+	 * Get the weight of the generated mst; the total weight of its edges.
 	 * 
 	 * @return the weight of the generated mst.
 	 */
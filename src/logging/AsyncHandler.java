@@ -0,0 +1,198 @@
+package logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * A log handler which hands records to another handler on a background
+ * thread.
+ *
+ * Records are put in a bounded ring buffer without locking, and a single
+ * thread writes them to the other handler in batches, flushing it once per
+ * batch. The calling thread neither formats the record nor waits for the
+ * file. When the buffer is full, a record is either dropped or the caller
+ * waits for room, as chosen; the number of dropped records is logged once
+ * there is room again.
+ *
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class AsyncHandler extends Handler {
+
+	/**
+	 * What is done with a record when the buffer is full.
+	 */
+	public enum Overflow {
+		/** The record is dropped, and counted. */
+		DROP,
+		/** The caller waits until there is room for the record. */
+		BLOCK
+	}
+
+	// The most records written to the other handler between flushes.
+	private static final int BATCH_SIZE = 256;
+
+	// How long the writer sleeps when there is nothing to write, and how
+	// long a blocked caller waits before trying again.
+	private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+	private static final long RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private final Handler target;
+	private final RingBuffer<LogRecord> buffer;
+	private final Overflow overflow;
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	// The number of records written to the other handler; only changed by
+	// the background thread.
+	private volatile long written = 0;
+
+	private final Thread writer;
+	private volatile boolean sleeping = false;
+	private volatile boolean closed = false;
+
+	/**
+	 * Create a handler which writes to another handler in the background.
+	 *
+	 * @param target
+	 *            the handler to write the records to.
+	 * @param capacity
+	 *            the number of records which may wait to be written.
+	 * @param overflow
+	 *            what to do with a record when that many are waiting.
+	 */
+	public AsyncHandler(Handler target, int capacity, Overflow overflow) {
+
+		this.target = target;
+		this.buffer = new RingBuffer<LogRecord>(capacity);
+		this.overflow = overflow;
+
+		writer = new Thread(new Runnable() {
+			public void run() {
+				write();
+			}
+		}, "AsyncHandler");
+
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	@Override
+	public void publish(LogRecord record) {
+
+		if (closed || !isLoggable(record)) {
+			return;
+		}
+
+		while (!buffer.offer(record)) {
+
+			if (overflow == Overflow.DROP) {
+				dropped.incrementAndGet();
+				return;
+			}
+
+			LockSupport.unpark(writer);
+			LockSupport.parkNanos(this, RETRY_NANOS);
+
+			if (closed) {
+				return;
+			}
+		}
+
+		if (sleeping) {
+			LockSupport.unpark(writer);
+		}
+	}
+
+	// Write the records in the buffer to the other handler, until closed.
+	private void write() {
+
+		List<LogRecord> batch = new ArrayList<LogRecord>(BATCH_SIZE);
+
+		while (true) {
+
+			int count = buffer.drainTo(batch, BATCH_SIZE);
+
+			if (count == 0) {
+
+				if (closed) {
+					break;
+				}
+
+				// Check the buffer again once the flag is set, as a record
+				// may have been added before producers could see it.
+				sleeping = true;
+
+				if (buffer.getClaimed() == buffer.getTaken()) {
+					LockSupport.parkNanos(this, IDLE_NANOS);
+				}
+
+				sleeping = false;
+				continue;
+			}
+
+			for (LogRecord record : batch) {
+				target.publish(record);
+			}
+
+			batch.clear();
+
+			long lost = dropped.getAndSet(0);
+
+			if (lost > 0) {
+				LogRecord record = new LogRecord(Level.WARNING, lost
+						+ " log records were dropped; the log buffer was full.");
+				record.setLoggerName(Logger.GLOBAL_LOGGER_NAME);
+				target.publish(record);
+			}
+
+			target.flush();
+			written += count;
+		}
+	}
+
+	/**
+	 * Wait until every record published so far is written, then flush the
+	 * other handler.
+	 */
+	@Override
+	public void flush() {
+
+		long published = buffer.getClaimed();
+
+		while (written < published && writer.isAlive()) {
+			LockSupport.unpark(writer);
+			LockSupport.parkNanos(this, RETRY_NANOS);
+		}
+
+		target.flush();
+	}
+
+	/**
+	 * Write the records still waiting, stop the background thread and close
+	 * the other handler.
+	 */
+	@Override
+	public void close() {
+
+		closed = true;
+		LockSupport.unpark(writer);
+
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		target.close();
+	}
+
+}
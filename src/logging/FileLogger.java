@@ -2,21 +2,59 @@ package logging;
 
 import java.io.IOException;
 import java.util.logging.FileHandler;
+import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
 
 /**
+ * Logs messages to the file log.txt.
+ * 
+ * Messages may be written on the calling thread, or handed to a background
+ * thread through a bounded buffer (see {@link #enableAsync}). Asynchronous
+ * logging can also be turned on without changing code, by setting the
+ * system property logging.async to "drop" or "block", and optionally
+ * logging.async.capacity to the size of the buffer.
+ * 
  * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
  * @version 1.0
  * @since 2011-09-10
  */
 public class FileLogger {
 
-    private static FileHandler fileTxt;
+    private static final int DEFAULT_CAPACITY = 8192;
+
+    private static Handler fileTxt;
     private final static SimpleFormatter formatterTxt = new SimpleFormatter();
 
-    private static Logger logger = null;
+    private static volatile Logger logger = null;
+
+    // The level of the logger, kept apart so it can be checked before the
+    // logger is set up.
+    private static volatile int levelValue = Level.INFO.intValue();
+
+    // How messages are written once the logger is set up; on the calling
+    // thread unless overflow is set.
+    private static AsyncHandler.Overflow overflow = null;
+    private static int capacity = DEFAULT_CAPACITY;
+
+    static {
+        String mode = System.getProperty("logging.async");
+
+        if (mode != null) {
+            try {
+                overflow = AsyncHandler.Overflow.valueOf(mode.toUpperCase());
+                capacity = Integer.getInteger("logging.async.capacity",
+                        DEFAULT_CAPACITY);
+            } catch (IllegalArgumentException e) {
+                // A mistyped property shouldn't stop the class loading, and
+                // with it the program; the messages are written as usual.
+                Logger.getLogger(FileLogger.class.getName()).warning(
+                        "Unknown logging.async mode \"" + mode
+                                + "\"; logging synchronously.");
+            }
+        }
+    }
 
     /**
      * Constructor, private as we'll use the singleton pattern.
@@ -30,14 +68,23 @@ public class FileLogger {
      * @throws IOException
      * @throws SecurityException
      */
-    private static void setup() throws IOException, SecurityException {
+    private static synchronized void setup() throws IOException,
+            SecurityException {
         // Only allow setup to occur once, so log files can't be overwritten
         // while within a single execution of the program.
         if (logger == null) {
-            setupLogger(Level.INFO);
-            fileTxt = new FileHandler("log.txt");
-            fileTxt.setFormatter(formatterTxt);
-            logger.addHandler(fileTxt);
+            FileHandler file = new FileHandler("log.txt");
+            file.setFormatter(formatterTxt);
+
+            if (overflow != null) {
+                fileTxt = new AsyncHandler(file, capacity, overflow);
+            } else {
+                fileTxt = file;
+            }
+
+            Logger global = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+            global.addHandler(fileTxt);
+            setupLogger(global, Level.INFO);
         }
     }
 
@@ -46,9 +93,39 @@ public class FileLogger {
      * 
      * @param level a level of logging. ie. Level.INFO, Level.WARNING, &c.
      */
-    static private void setupLogger(Level level) {
-        logger = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
-        logger.setLevel(level);
+    static private synchronized void setupLogger(Logger global, Level level) {
+        global.setLevel(level);
+        levelValue = level.intValue();
+        logger = global;
+    }
+
+    /**
+     * Write messages on a background thread from now on. Messages are put in
+     * a buffer of the given size; the calling thread only checks the level of
+     * the message and adds it to the buffer. The message is formatted, along
+     * with its parameters, when it is written. This must be called before
+     * the first message is logged.
+     * 
+     * @param capacity the number of messages which may wait to be written.
+     * @param overflow whether a message is dropped or the caller waits when
+     *            the buffer is full.
+     */
+    static public synchronized void enableAsync(int capacity,
+            AsyncHandler.Overflow overflow) {
+        FileLogger.capacity = capacity;
+        FileLogger.overflow = overflow;
+    }
+
+    /**
+     * Check whether messages of a level are logged. This is cheap, so it can
+     * guard the building of a message on a hot path.
+     * 
+     * @param level the level of logging. ie. Level.INFO, &c.
+     * @return true if messages of the level are logged.
+     */
+    static public boolean isLoggable(Level level) {
+        return level.intValue() >= levelValue
+                && levelValue != Level.OFF.intValue();
     }
 
     /**
@@ -60,13 +137,36 @@ public class FileLogger {
      * @param message the logged message.
      */
     static public void log(Level level, String message) {
+        log(level, message, (Object[]) null);
+    }
+
+    /**
+     * Log a message with parameters, such as "settled {0} vertices". The
+     * message is only formatted if it is logged, and then on the thread
+     * writing the log, so the parameters should not change afterwards.
+     * 
+     * @param level the level of logging to do. ie. Level.INFO, &c.
+     * @param message the logged message, in MessageFormat form.
+     * @param params the parameters of the message.
+     */
+    static public void log(Level level, String message, Object... params) {
+        if (!isLoggable(level)) {
+            return;
+        }
+
         try {
-            setup();
-            logger.log(level, message);
+            // Checked again under the lock by setup(); once the logger is
+            // set, logging threads don't contend for the lock at all.
+            if (logger == null) {
+                setup();
+            }
+            // The source is given, so the writing thread doesn't look for
+            // the caller of the logger on its own stack.
+            logger.logp(level, null, null, message, params);
         } catch (Exception e) {
             // If we can't create an output file for the info, then don't
             // bother even logging the info.
-            logger.setLevel(Level.OFF);
+            disableLogging();
         }
     }
 
@@ -74,7 +174,7 @@ public class FileLogger {
      * Disable logging.
      */
     static public void disableLogging() {
-        setupLogger(Level.OFF);
+        setupLogger(Logger.getLogger(Logger.GLOBAL_LOGGER_NAME), Level.OFF);
     }
 
 }
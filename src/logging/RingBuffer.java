@@ -0,0 +1,156 @@
+package logging;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded queue of many producers and a single consumer, which never
+ * locks.
+ * 
+ * The elements are kept in a ring of slots, each with a sequence number. A
+ * producer claims a position by advancing the tail, fills the slot, and then
+ * publishes it by advancing its sequence; the consumer takes a slot once its
+ * sequence shows it is filled, and frees it for the next round of the ring.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+final class RingBuffer<T> {
+
+	private final int mask;
+	private final Object[] elements;
+	private final AtomicLongArray sequences;
+
+	// The next position to be claimed by a producer.
+	private final AtomicLong tail = new AtomicLong();
+
+	// The next position to be taken by the consumer; only written by it.
+	private volatile long head = 0;
+
+	/**
+	 * Create an empty buffer.
+	 * 
+	 * @param capacity
+	 *            the least number of elements the buffer can hold; it is
+	 *            rounded up to a power of two.
+	 */
+	RingBuffer(int capacity) {
+
+		if (capacity < 1 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		}
+
+		int size = Integer.highestOneBit(capacity);
+
+		if (size < capacity) {
+			size <<= 1;
+		}
+
+		mask = size - 1;
+		elements = new Object[size];
+		sequences = new AtomicLongArray(size);
+
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * Add an element, unless the buffer is full.
+	 * 
+	 * @param element
+	 *            the element to add.
+	 * 
+	 * @return true if the element was added, false if the buffer is full.
+	 */
+	boolean offer(T element) {
+
+		long position = tail.get();
+		int slot;
+
+		while (true) {
+
+			slot = (int) position & mask;
+			long difference = sequences.get(slot) - position;
+
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					break;
+				}
+				position = tail.get();
+			} else if (difference < 0) {
+				// The slot still holds the element of the previous round.
+				return false;
+			} else {
+				position = tail.get();
+			}
+		}
+
+		elements[slot] = element;
+		sequences.set(slot, position + 1);
+
+		return true;
+	}
+
+	/**
+	 * Take up to a number of elements, in the order they were added. Only the
+	 * consumer may call this.
+	 * 
+	 * @param batch
+	 *            the list to add the elements to.
+	 * @param max
+	 *            the most elements to take.
+	 * 
+	 * @return the number of elements taken.
+	 */
+	int drainTo(List<? super T> batch, int max) {
+
+		long position = head;
+		int count = 0;
+
+		while (count < max) {
+
+			int slot = (int) position & mask;
+
+			if (sequences.get(slot) != position + 1) {
+				break;
+			}
+
+			@SuppressWarnings("unchecked")
+			T element = (T) elements[slot];
+
+			elements[slot] = null;
+			sequences.set(slot, position + elements.length);
+
+			batch.add(element);
+			position++;
+			count++;
+		}
+
+		head = position;
+
+		return count;
+	}
+
+	/**
+	 * Get the number of elements ever added to the buffer, including those
+	 * still being added.
+	 * 
+	 * @return the number of positions claimed.
+	 */
+	long getClaimed() {
+		return tail.get();
+	}
+
+	/**
+	 * Get the number of elements ever taken from the buffer.
+	 * 
+	 * @return the number of elements taken.
+	 */
+	long getTaken() {
+		return head;
+	}
+
+}
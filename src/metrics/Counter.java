@@ -0,0 +1,85 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A count of events, such as edges relaxed, which many threads may add to at
+ * once.
+ * 
+ * Threads add to one of several cells, spread apart so that threads on
+ * different cells don't share a cache line; the count is their sum. Nothing
+ * is added while metrics are disabled.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class Counter {
+
+	private static final int CELLS = 16;
+
+	// Longs between cells; 64 bytes, the size of a cache line.
+	private static final int SPACING = 8;
+
+	private final String name;
+	private final AtomicLongArray cells = new AtomicLongArray(CELLS * SPACING);
+
+	Counter(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Get the name of the counter.
+	 * 
+	 * @return the name of the counter.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Count a single event.
+	 */
+	public void increment() {
+		add(1);
+	}
+
+	/**
+	 * Count a number of events. Loops which count many events should count
+	 * them locally, and add them once the loop is done.
+	 * 
+	 * @param count
+	 *            the number of events.
+	 */
+	public void add(long count) {
+
+		if (Metrics.isEnabled()) {
+			int cell = (int) (Thread.currentThread().getId() % CELLS);
+			cells.addAndGet(cell * SPACING, count);
+		}
+	}
+
+	/**
+	 * Get the number of events counted.
+	 * 
+	 * @return the count.
+	 */
+	public long get() {
+
+		long sum = 0;
+
+		for (int i = 0; i < CELLS; i++) {
+			sum += cells.get(i * SPACING);
+		}
+
+		return sum;
+	}
+
+	void reset() {
+
+		for (int i = 0; i < CELLS; i++) {
+			cells.set(i * SPACING, 0);
+		}
+	}
+
+}
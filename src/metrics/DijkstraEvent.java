@@ -0,0 +1,68 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event for a run of Dijkstra's single source shortest
+ * path algorithm.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Name("networkgraph.Dijkstra")
+@Label("Dijkstra Shortest Paths")
+@Category({ "Network Graph", "Algorithms" })
+@Description("A run of Dijkstra's single source shortest path algorithm")
+public final class DijkstraEvent extends Event {
+
+	@Label("Source")
+	@Description("The name of the source vertex")
+	String source;
+
+	@Label("Vertices")
+	int vertexCount;
+
+	@Label("Edges")
+	int edgeCount;
+
+	@Label("Vertices Settled")
+	long verticesSettled;
+
+	@Label("Edges Relaxed")
+	long edgesRelaxed;
+
+	/**
+	 * End the event, and commit it if it is being recorded.
+	 * 
+	 * @param source
+	 *            the name of the source vertex.
+	 * @param vertexCount
+	 *            the number of vertices in the graph.
+	 * @param edgeCount
+	 *            the number of edges in the graph.
+	 * @param verticesSettled
+	 *            the number of vertices taken from the queue.
+	 * @param edgesRelaxed
+	 *            the number of edges relaxed.
+	 */
+	public void record(String source, int vertexCount, int edgeCount,
+			long verticesSettled, long edgesRelaxed) {
+
+		end();
+
+		if (shouldCommit()) {
+			this.source = source;
+			this.vertexCount = vertexCount;
+			this.edgeCount = edgeCount;
+			this.verticesSettled = verticesSettled;
+			this.edgesRelaxed = edgesRelaxed;
+			commit();
+		}
+	}
+
+}
@@ -0,0 +1,225 @@
+package metrics;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The registry of the timers and counters the program is instrumented with.
+ *
+ * Metrics are disabled unless the program is started with the system
+ * property metrics set to true, or {@link #setEnabled(boolean)} is called.
+ * While disabled, timers and counters only check a flag. When metrics are
+ * enabled by the property, a report of every metric is written once the
+ * program exits; to the file named by the property metrics.report, or else
+ * to the standard error stream.
+ *
+ * Timers and counters are looked up once by name, and kept by the code they
+ * measure:
+ *
+ * <pre>
+ * private static final Timer PARSE = Metrics.timer(&quot;parse&quot;);
+ * </pre>
+ *
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class Metrics {
+
+	private static volatile boolean enabled = Boolean.getBoolean("metrics");
+
+	// Kept sorted by name, so reports list related metrics together.
+	private static final ConcurrentMap<String, Timer> timers = new ConcurrentSkipListMap<String, Timer>();
+	private static final ConcurrentMap<String, Counter> counters = new ConcurrentSkipListMap<String, Counter>();
+
+	static {
+		if (enabled) {
+			Runtime.getRuntime().addShutdownHook(new Thread("Metrics report") {
+				@Override
+				public void run() {
+					writeReport(System.getProperty("metrics.report"));
+				}
+			});
+		}
+	}
+
+	private Metrics() {
+	}
+
+	/**
+	 * Check whether metrics are being recorded.
+	 *
+	 * @return true if metrics are enabled.
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Start or stop recording metrics. What was recorded before is kept.
+	 *
+	 * @param enabled
+	 *            whether to record metrics.
+	 */
+	public static void setEnabled(boolean enabled) {
+		Metrics.enabled = enabled;
+	}
+
+	/**
+	 * Get the timer of a name, creating it the first time.
+	 *
+	 * @param name
+	 *            the name of the timer.
+	 *
+	 * @return the timer.
+	 */
+	public static Timer timer(String name) {
+
+		Timer timer = timers.get(name);
+
+		if (timer == null) {
+			Timer created = new Timer(name);
+			timer = timers.putIfAbsent(name, created);
+
+			if (timer == null) {
+				timer = created;
+			}
+		}
+
+		return timer;
+	}
+
+	/**
+	 * Get the counter of a name, creating it the first time.
+	 *
+	 * @param name
+	 *            the name of the counter.
+	 *
+	 * @return the counter.
+	 */
+	public static Counter counter(String name) {
+
+		Counter counter = counters.get(name);
+
+		if (counter == null) {
+			Counter created = new Counter(name);
+			counter = counters.putIfAbsent(name, created);
+
+			if (counter == null) {
+				counter = created;
+			}
+		}
+
+		return counter;
+	}
+
+	/**
+	 * Get every timer, sorted by name.
+	 *
+	 * @return the timers.
+	 */
+	public static List<Timer> getTimers() {
+		return new ArrayList<Timer>(timers.values());
+	}
+
+	/**
+	 * Get every counter, sorted by name.
+	 *
+	 * @return the counters.
+	 */
+	public static List<Counter> getCounters() {
+		return new ArrayList<Counter>(counters.values());
+	}
+
+	/**
+	 * Forget everything recorded so far, such as at the start of a run.
+	 */
+	public static void reset() {
+
+		for (Timer timer : timers.values()) {
+			timer.reset();
+		}
+
+		for (Counter counter : counters.values()) {
+			counter.reset();
+		}
+	}
+
+	/**
+	 * Describe every metric recorded, one per line. Timers give the number of
+	 * runs, the total, mean and longest time in milliseconds, and the memory
+	 * allocated in megabytes; metrics which were never recorded are left
+	 * out.
+	 *
+	 * @return the report.
+	 */
+	public static String report() {
+
+		StringBuilder report = new StringBuilder();
+
+		for (Timer timer : timers.values()) {
+
+			long count = timer.getCount();
+
+			if (count == 0) {
+				continue;
+			}
+
+			report.append(String.format(Locale.ROOT,
+					"timer   %-36s %8d runs %12.3f ms %10.3f ms mean"
+							+ " %10.3f ms max %10.1f MB%n", timer.getName(),
+					count, timer.getTotalNanos() / 1e6,
+					timer.getTotalNanos() / 1e6 / count,
+					timer.getMaxNanos() / 1e6,
+					timer.getAllocatedBytes() / (1024d * 1024d)));
+		}
+
+		for (Counter counter : counters.values()) {
+
+			long count = counter.get();
+
+			if (count == 0) {
+				continue;
+			}
+
+			report.append(String.format(Locale.ROOT, "counter %-36s %14d%n",
+					counter.getName(), count));
+		}
+
+		return report.toString();
+	}
+
+	/**
+	 * Write the report to a file, or to the standard error stream.
+	 *
+	 * @param fileName
+	 *            the name of the file, or null for the standard error
+	 *            stream.
+	 */
+	public static void writeReport(String fileName) {
+
+		if (fileName == null) {
+			System.err.print(report());
+			return;
+		}
+
+		try {
+			PrintStream out = new PrintStream(fileName);
+
+			try {
+				out.print(report());
+			} finally {
+				out.close();
+			}
+
+		} catch (FileNotFoundException e) {
+			System.err.print(report());
+		}
+	}
+
+}
@@ -0,0 +1,76 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event for the creation of an oriented network, whether
+ * it was built or taken from the cache.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Name("networkgraph.Network")
+@Label("Create Network")
+@Category({ "Network Graph", "Networks" })
+@Description("The creation of a network from the logical network")
+public final class NetworkEvent extends Event {
+
+	@Label("Antenna Type")
+	String antennaType;
+
+	@Label("Same Range")
+	@Description("Whether all sensors have the same range")
+	boolean sameRange;
+
+	@Label("Range")
+	@Description("The range of the sensors, if they have the same range")
+	float range;
+
+	@Label("Cached")
+	@Description("Whether the network was taken from the cache")
+	boolean cached;
+
+	@Label("Vertices")
+	int vertexCount;
+
+	@Label("Edges")
+	int edgeCount;
+
+	/**
+	 * End the event, and commit it if it is being recorded.
+	 * 
+	 * @param antennaType
+	 *            the antenna type of the network.
+	 * @param sameRange
+	 *            whether all sensors have the same range.
+	 * @param range
+	 *            the range of the sensors, if they have the same range.
+	 * @param cached
+	 *            whether the network was taken from the cache.
+	 * @param vertexCount
+	 *            the number of sensors in the network.
+	 * @param edgeCount
+	 *            the number of links in the network.
+	 */
+	public void record(String antennaType, boolean sameRange, float range,
+			boolean cached, int vertexCount, int edgeCount) {
+
+		end();
+
+		if (shouldCommit()) {
+			this.antennaType = antennaType;
+			this.sameRange = sameRange;
+			this.range = range;
+			this.cached = cached;
+			this.vertexCount = vertexCount;
+			this.edgeCount = edgeCount;
+			commit();
+		}
+	}
+
+}
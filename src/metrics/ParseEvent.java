@@ -0,0 +1,54 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event for parsing a graph.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Name("networkgraph.Parse")
+@Label("Parse Graph")
+@Category({ "Network Graph", "Input" })
+@Description("Parsing a graph file into a physical network")
+public final class ParseEvent extends Event {
+
+	@Label("Vertices")
+	int vertexCount;
+
+	@Label("Edges")
+	int edgeCount;
+
+	@Label("Parallel")
+	@Description("Whether the file was parsed in parts, in parallel")
+	boolean parallel;
+
+	/**
+	 * End the event, and commit it if it is being recorded.
+	 * 
+	 * @param vertexCount
+	 *            the number of vertices parsed.
+	 * @param edgeCount
+	 *            the number of edges parsed.
+	 * @param parallel
+	 *            whether the file was parsed in parts, in parallel.
+	 */
+	public void record(int vertexCount, int edgeCount, boolean parallel) {
+
+		end();
+
+		if (shouldCommit()) {
+			this.vertexCount = vertexCount;
+			this.edgeCount = edgeCount;
+			this.parallel = parallel;
+			commit();
+		}
+	}
+
+}
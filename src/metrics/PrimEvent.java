@@ -0,0 +1,55 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event for the construction of a minimum spanning tree by
+ * Prim's algorithm.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Name("networkgraph.Prim")
+@Label("Prim Minimum Spanning Tree")
+@Category({ "Network Graph", "Algorithms" })
+@Description("The construction of a minimum spanning tree by Prim's algorithm")
+public final class PrimEvent extends Event {
+
+	@Label("Vertices")
+	int vertexCount;
+
+	@Label("Edges")
+	int edgeCount;
+
+	@Label("Tree Weight")
+	@Description("The total weight of the edges of the tree")
+	float mstWeight;
+
+	/**
+	 * End the event, and commit it if it is being recorded.
+	 * 
+	 * @param vertexCount
+	 *            the number of vertices in the graph.
+	 * @param edgeCount
+	 *            the number of edges in the graph.
+	 * @param mstWeight
+	 *            the weight of the minimum spanning tree.
+	 */
+	public void record(int vertexCount, int edgeCount, float mstWeight) {
+
+		end();
+
+		if (shouldCommit()) {
+			this.vertexCount = vertexCount;
+			this.edgeCount = edgeCount;
+			this.mstWeight = mstWeight;
+			commit();
+		}
+	}
+
+}
@@ -0,0 +1,61 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event for a pass computing a statistic of a graph, over
+ * the shortest paths between all pairs of vertices.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Name("networkgraph.Statistics")
+@Label("Graph Statistic")
+@Category({ "Network Graph", "Statistics" })
+@Description("A pass computing a statistic of a graph")
+public final class StatisticsEvent extends Event {
+
+	@Label("Statistic")
+	String statistic;
+
+	@Label("Vertices")
+	int vertexCount;
+
+	@Label("Edges")
+	int edgeCount;
+
+	@Label("Value")
+	double value;
+
+	/**
+	 * End the event, and commit it if it is being recorded.
+	 * 
+	 * @param statistic
+	 *            the name of the statistic.
+	 * @param vertexCount
+	 *            the number of vertices in the graph.
+	 * @param edgeCount
+	 *            the number of edges in the graph.
+	 * @param value
+	 *            the value of the statistic.
+	 */
+	public void record(String statistic, int vertexCount, int edgeCount,
+			double value) {
+
+		end();
+
+		if (shouldCommit()) {
+			this.statistic = statistic;
+			this.vertexCount = vertexCount;
+			this.edgeCount = edgeCount;
+			this.value = value;
+			commit();
+		}
+	}
+
+}
@@ -0,0 +1,208 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The time taken by a phase of work, such as parsing a graph, over every
+ * time it was run.
+ * 
+ * Each run is timed with the monotonic clock of System.nanoTime. Where the
+ * JVM can tell, the memory the thread allocated during the run is recorded
+ * as well; work the phase hands to other threads isn't included. Nothing is
+ * timed, and nothing allocated, while metrics are disabled.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class Timer {
+
+	// Reports the memory allocated by each thread, when the JVM supports it.
+	private static final com.sun.management.ThreadMXBean ALLOCATIONS = getAllocations();
+
+	private final String name;
+
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong maxNanos = new AtomicLong();
+	private final AtomicLong lastNanos = new AtomicLong();
+	private final AtomicLong allocatedBytes = new AtomicLong();
+
+	Timer(String name) {
+		this.name = name;
+	}
+
+	private static com.sun.management.ThreadMXBean getAllocations() {
+
+		try {
+			ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+			if (threads instanceof com.sun.management.ThreadMXBean) {
+
+				com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+
+				if (allocations.isThreadAllocatedMemorySupported()
+						&& allocations.isThreadAllocatedMemoryEnabled()) {
+					return allocations;
+				}
+			}
+		} catch (LinkageError e) {
+			// Not a JVM which reports allocations.
+		}
+
+		return null;
+	}
+
+	/**
+	 * Get the name of the timer.
+	 * 
+	 * @return the name of the timer.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Start timing a run of the phase. The run is recorded once the sample
+	 * is stopped:
+	 * 
+	 * <pre>
+	 * Timer.Sample sample = TIMER.start();
+	 * try {
+	 *     ...
+	 * } finally {
+	 *     sample.stop();
+	 * }
+	 * </pre>
+	 * 
+	 * @return the sample to stop once the run is done.
+	 */
+	public Sample start() {
+
+		if (!Metrics.isEnabled()) {
+			return Sample.NONE;
+		}
+
+		return new Sample(this);
+	}
+
+	private void record(long nanos, long bytes) {
+
+		count.incrementAndGet();
+		totalNanos.addAndGet(nanos);
+		lastNanos.set(nanos);
+
+		if (bytes > 0) {
+			allocatedBytes.addAndGet(bytes);
+		}
+
+		long max = maxNanos.get();
+
+		while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+			max = maxNanos.get();
+		}
+	}
+
+	/**
+	 * Get the number of runs timed.
+	 * 
+	 * @return the number of runs.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Get the time taken by all the runs together.
+	 * 
+	 * @return the total time, in nanoseconds.
+	 */
+	public long getTotalNanos() {
+		return totalNanos.get();
+	}
+
+	/**
+	 * Get the time taken by the longest run.
+	 * 
+	 * @return the longest time, in nanoseconds.
+	 */
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * Get the time taken by the last run to finish.
+	 * 
+	 * @return the last time, in nanoseconds.
+	 */
+	public long getLastNanos() {
+		return lastNanos.get();
+	}
+
+	/**
+	 * Get the memory allocated by the runs, on the threads which ran them.
+	 * 
+	 * @return the memory allocated, in bytes, or 0 if the JVM doesn't tell.
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes.get();
+	}
+
+	void reset() {
+		count.set(0);
+		totalNanos.set(0);
+		maxNanos.set(0);
+		lastNanos.set(0);
+		allocatedBytes.set(0);
+	}
+
+	/**
+	 * A run of a phase being timed.
+	 */
+	public static final class Sample {
+
+		// Returned while metrics are disabled; stopping it does nothing.
+		static final Sample NONE = new Sample(null);
+
+		private final Timer timer;
+		private final long startNanos;
+		private final long startBytes;
+
+		private Sample(Timer timer) {
+
+			this.timer = timer;
+
+			if (timer != null) {
+				startBytes = allocatedBytes();
+				startNanos = System.nanoTime();
+			} else {
+				startBytes = 0;
+				startNanos = 0;
+			}
+		}
+
+		/**
+		 * Stop timing the run, and record it.
+		 */
+		public void stop() {
+
+			if (timer != null) {
+				long nanos = System.nanoTime() - startNanos;
+				timer.record(nanos, allocatedBytes() - startBytes);
+			}
+		}
+
+		private static long allocatedBytes() {
+
+			if (ALLOCATIONS == null) {
+				return 0;
+			}
+
+			return ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread()
+					.getId());
+		}
+	}
+
+}
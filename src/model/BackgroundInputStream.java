@@ -0,0 +1,235 @@
+package model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * An input stream which reads another stream ahead on a background thread.
+ * 
+ * The background thread fills buffers from the source stream and hands them
+ * over through a short bounded queue, so reading the source (for example,
+ * decompressing it) overlaps with the work done on the data by the thread
+ * reading this stream. Consumed buffers are handed back to be filled again.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+final class BackgroundInputStream extends InputStream implements Runnable {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int QUEUE_LENGTH = 8;
+
+	// Marks the end of the source in the queue.
+	private static final Buffer END = new Buffer(0);
+
+	private final InputStream source;
+
+	private final BlockingQueue<Buffer> filled = new ArrayBlockingQueue<Buffer>(
+			QUEUE_LENGTH);
+	private final ConcurrentLinkedQueue<Buffer> free = new ConcurrentLinkedQueue<Buffer>();
+
+	// Set by the background thread before it queues the end marker.
+	private volatile IOException failure = null;
+	private volatile boolean closed = false;
+
+	// The buffer being read from.
+	private Buffer current = null;
+	private int position = 0;
+	private boolean ended = false;
+
+	private BackgroundInputStream(InputStream source) {
+		this.source = source;
+	}
+
+	/**
+	 * Start reading a stream on a background thread.
+	 * 
+	 * @param source
+	 *            the stream to read; it is closed by the background thread
+	 *            once its end is reached, or this stream is closed.
+	 * @param name
+	 *            the name of the background thread.
+	 * 
+	 * @return a stream of the data read from the source.
+	 */
+	static BackgroundInputStream start(InputStream source, String name) {
+
+		BackgroundInputStream stream = new BackgroundInputStream(source);
+
+		Thread thread = new Thread(stream, name);
+		thread.setDaemon(true);
+		thread.start();
+
+		return stream;
+	}
+
+	// Fill buffers from the source until its end, or until closed.
+	public void run() {
+
+		boolean completed = false;
+
+		try {
+			while (!closed) {
+
+				Buffer buffer = free.poll();
+
+				if (buffer == null) {
+					buffer = new Buffer(BUFFER_SIZE);
+				}
+
+				buffer.length = 0;
+
+				while (buffer.length < buffer.data.length) {
+
+					int count = source.read(buffer.data, buffer.length,
+							buffer.data.length - buffer.length);
+
+					if (count < 0) {
+						break;
+					}
+
+					buffer.length += count;
+				}
+
+				if (buffer.length > 0) {
+					filled.put(buffer);
+				}
+
+				if (buffer.length < buffer.data.length) {
+					completed = true;
+					break;
+				}
+			}
+
+		} catch (InterruptedException e) {
+			// Stop reading.
+		} catch (IOException e) {
+			failure = e;
+		} catch (RuntimeException e) {
+			failure = new IOException(e.toString());
+		} finally {
+
+			try {
+				source.close();
+			} catch (IOException e) {
+				// The source has been read as far as it will be.
+			}
+
+			if (!completed && failure == null) {
+				failure = new IOException("Reading in the background failed.");
+			}
+
+			if (!closed) {
+				try {
+					filled.put(END);
+				} catch (InterruptedException e) {
+					// Nothing is left to tell the reader.
+				}
+			}
+		}
+	}
+
+	@Override
+	public int read() throws IOException {
+
+		if (!nextBuffer()) {
+			return -1;
+		}
+
+		return current.data[position++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+
+		if (len == 0) {
+			return 0;
+		}
+
+		if (!nextBuffer()) {
+			return -1;
+		}
+
+		int count = Math.min(len, current.length - position);
+		System.arraycopy(current.data, position, b, off, count);
+		position += count;
+
+		return count;
+	}
+
+	@Override
+	public int available() {
+		return (current == null) ? 0 : current.length - position;
+	}
+
+	@Override
+	public void close() {
+
+		closed = true;
+
+		// Make room in the queue, in case the background thread is waiting
+		// on it; it stops once it sees the stream is closed.
+		filled.clear();
+		current = null;
+		ended = true;
+	}
+
+	// Make sure there is data left in the current buffer, waiting for the
+	// background thread if necessary. Returns false at the end of the data.
+	private boolean nextBuffer() throws IOException {
+
+		if (current != null && position < current.length) {
+			return true;
+		}
+
+		if (ended) {
+			return false;
+		}
+
+		if (current != null) {
+			free.offer(current);
+			current = null;
+		}
+
+		Buffer buffer;
+
+		try {
+			buffer = filled.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Reading was interrupted.");
+		}
+
+		if (buffer == END) {
+
+			ended = true;
+
+			if (failure != null) {
+				throw new IOException(failure.getMessage(), failure);
+			}
+
+			return false;
+		}
+
+		current = buffer;
+		position = 0;
+
+		return true;
+	}
+
+	private static final class Buffer {
+
+		final byte[] data;
+		int length = 0;
+
+		Buffer(int size) {
+			data = new byte[size];
+		}
+	}
+
+}
@@ -0,0 +1,332 @@
+package model;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A graph read from a file in the binary graph format (see
+ * {@link BinaryGraphWriter}).
+ * 
+ * The file is memory mapped, and its nodes, positions, edges and weights are
+ * read straight from the mapping by index. No objects are created for them
+ * until the graph is converted with {@link #toWeightedGraph()}.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class BinaryGraph {
+
+	private final int nodeCount;
+	private final int edgeCount;
+
+	// Views of the sections of the mapped file.
+	private final IntBuffer nameOffsets;
+	private final ByteBuffer names;
+	private final FloatBuffer xs;
+	private final FloatBuffer ys;
+	private final IntBuffer edgeOffsets;
+	private final IntBuffer edgeTargets;
+	private final FloatBuffer edgeWeights;
+
+	private BinaryGraph(ByteBuffer buffer) throws IOException {
+
+		if (buffer.limit() < BinaryGraphWriter.HEADER_INTS * 4
+				|| buffer.getInt(0) != BinaryGraphWriter.MAGIC) {
+			throw new IOException("Not a binary graph file.");
+		}
+
+		if (buffer.getInt(4) != BinaryGraphWriter.VERSION) {
+			throw new IOException("Unsupported binary graph version "
+					+ buffer.getInt(4) + ".");
+		}
+
+		nodeCount = buffer.getInt(8);
+		edgeCount = buffer.getInt(12);
+		int nameBytes = buffer.getInt(16);
+
+		// Find where each section starts, and check the file is complete.
+		long nameOffsetsStart = BinaryGraphWriter.HEADER_INTS * 4;
+		long namesStart = nameOffsetsStart + 4L * (nodeCount + 1);
+		long xsStart = namesStart + ((nameBytes + 3) & ~3);
+		long ysStart = xsStart + 4L * nodeCount;
+		long edgeOffsetsStart = ysStart + 4L * nodeCount;
+		long edgeTargetsStart = edgeOffsetsStart + 4L * (nodeCount + 1);
+		long edgeWeightsStart = edgeTargetsStart + 4L * edgeCount;
+		long length = edgeWeightsStart + 4L * edgeCount;
+
+		if (nodeCount < 0 || edgeCount < 0 || nameBytes < 0
+				|| length != buffer.limit()) {
+			throw new IOException("The binary graph file is damaged.");
+		}
+
+		nameOffsets = slice(buffer, nameOffsetsStart, 4 * (nodeCount + 1))
+				.asIntBuffer();
+		names = slice(buffer, namesStart, nameBytes);
+		xs = slice(buffer, xsStart, 4 * nodeCount).asFloatBuffer();
+		ys = slice(buffer, ysStart, 4 * nodeCount).asFloatBuffer();
+		edgeOffsets = slice(buffer, edgeOffsetsStart, 4 * (nodeCount + 1))
+				.asIntBuffer();
+		edgeTargets = slice(buffer, edgeTargetsStart, 4 * edgeCount)
+				.asIntBuffer();
+		edgeWeights = slice(buffer, edgeWeightsStart, 4 * edgeCount)
+				.asFloatBuffer();
+	}
+
+	/**
+	 * Open a binary graph file.
+	 * 
+	 * @param file
+	 *            the file to open.
+	 * 
+	 * @return the graph in the file.
+	 * 
+	 * @throws IOException
+	 *             if the file can't be read, or isn't a binary graph file.
+	 */
+	public static BinaryGraph open(File file) throws IOException {
+
+		FileInputStream stream = new FileInputStream(file);
+
+		try {
+			FileChannel channel = stream.getChannel();
+
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("The binary graph file is too large.");
+			}
+
+			// The mapping stays valid after the channel is closed.
+			MappedByteBuffer buffer = channel.map(
+					FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			return new BinaryGraph(buffer);
+
+		} finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * Check whether a file is in the binary graph format, by its magic
+	 * number.
+	 * 
+	 * @param file
+	 *            the file to check.
+	 * 
+	 * @return true if the file starts with the binary graph magic number.
+	 */
+	public static boolean isBinaryGraph(File file) {
+
+		try {
+			FileInputStream stream = new FileInputStream(file);
+
+			try {
+				ByteBuffer magic = ByteBuffer.allocate(4);
+				FileChannel channel = stream.getChannel();
+
+				while (magic.hasRemaining() && channel.read(magic) >= 0) {
+				}
+
+				return !magic.hasRemaining()
+						&& magic.getInt(0) == BinaryGraphWriter.MAGIC;
+
+			} finally {
+				stream.close();
+			}
+
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Get the number of nodes.
+	 * 
+	 * @return the number of nodes.
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Get the number of (directed) edges.
+	 * 
+	 * @return the number of edges.
+	 */
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Get the name of a node.
+	 * 
+	 * @param node
+	 *            the index of the node.
+	 * 
+	 * @return the name of the node.
+	 */
+	public String getNodeName(int node) {
+
+		int start = nameOffsets.get(node);
+		int end = nameOffsets.get(node + 1);
+
+		byte[] bytes = new byte[end - start];
+
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = names.get(start + i);
+		}
+
+		return new String(bytes, BinaryGraphWriter.UTF8);
+	}
+
+	/**
+	 * Get the x position of a node.
+	 * 
+	 * @param node
+	 *            the index of the node.
+	 * 
+	 * @return the x position.
+	 */
+	public float getX(int node) {
+		return xs.get(node);
+	}
+
+	/**
+	 * Get the y position of a node.
+	 * 
+	 * @param node
+	 *            the index of the node.
+	 * 
+	 * @return the y position.
+	 */
+	public float getY(int node) {
+		return ys.get(node);
+	}
+
+	/**
+	 * Get the index of the first outgoing edge of a node. The outgoing edges
+	 * of a node are numbered consecutively, from the first edge up to (but
+	 * not including) the first edge of the next node.
+	 * 
+	 * @param node
+	 *            the index of the node.
+	 * 
+	 * @return the index of the first outgoing edge.
+	 */
+	public int getFirstEdge(int node) {
+		return edgeOffsets.get(node);
+	}
+
+	/**
+	 * Get the number of outgoing edges of a node.
+	 * 
+	 * @param node
+	 *            the index of the node.
+	 * 
+	 * @return the number of outgoing edges.
+	 */
+	public int getDegree(int node) {
+		return edgeOffsets.get(node + 1) - edgeOffsets.get(node);
+	}
+
+	/**
+	 * Get the node an edge leads to.
+	 * 
+	 * @param edge
+	 *            the index of the edge.
+	 * 
+	 * @return the index of the target node.
+	 */
+	public int getEdgeTarget(int edge) {
+		return edgeTargets.get(edge);
+	}
+
+	/**
+	 * Get the weight of an edge.
+	 * 
+	 * @param edge
+	 *            the index of the edge.
+	 * 
+	 * @return the weight of the edge.
+	 */
+	public float getEdgeWeight(int edge) {
+		return edgeWeights.get(edge);
+	}
+
+	/**
+	 * Create an undirected weighted graph holding the nodes and links of this
+	 * graph. A pair of edges between two nodes, one each way, becomes a single
+	 * link, weighted as the edge from the first of the nodes. The links keep
+	 * the weights of the file, rather than being weighed again by distance.
+	 * Edges from a node to itself are left out.
+	 * 
+	 * @return the weighted graph.
+	 */
+	public WeightedGraph<Node, Link> toWeightedGraph() {
+
+		WeightedGraph<Node, Link> pn = new WeightedGraph<Node, Link>(true,
+				WeightProviders.<Node, Link> stored());
+		Node[] nodes = new Node[nodeCount];
+
+		for (int i = 0; i < nodeCount; i++) {
+			nodes[i] = new Node(getNodeName(i), getX(i), getY(i));
+			pn.insertVertex(nodes[i]);
+		}
+
+		for (int i = 0; i < nodeCount; i++) {
+
+			Node from = nodes[i];
+			int end = edgeOffsets.get(i + 1);
+
+			for (int j = edgeOffsets.get(i); j < end; j++) {
+
+				int target = edgeTargets.get(j);
+
+				// The edge back was already linked from the other node.
+				if (target == i || (target < i && hasEdge(target, i))) {
+					continue;
+				}
+
+				Node to = nodes[target];
+				// The graph numbers the nodes in the order of the file.
+				Link link = new Link(i, target);
+
+				link.setWeight(edgeWeights.get(j));
+				pn.insertEdge(from, to, link);
+			}
+		}
+
+		return pn;
+	}
+
+	// Check whether there is an edge from one node to another.
+	private boolean hasEdge(int from, int to) {
+
+		int end = edgeOffsets.get(from + 1);
+
+		for (int j = edgeOffsets.get(from); j < end; j++) {
+			if (edgeTargets.get(j) == to) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	// A view of part of the mapped file.
+	private static ByteBuffer slice(ByteBuffer buffer, long start, int length) {
+
+		ByteBuffer view = buffer.duplicate();
+		view.position((int) start);
+		view.limit((int) start + length);
+
+		return view.slice();
+	}
+
+}
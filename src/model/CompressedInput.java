@@ -0,0 +1,123 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Opens input which may be compressed with gzip or zstd.
+ * 
+ * The compression is detected from the magic number at the start of the
+ * input, so compressed files need no particular name. Compressed input is
+ * decompressed on a background thread, ahead of the thread reading it.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class CompressedInput {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private CompressedInput() {
+	}
+
+	/**
+	 * Open a stream of input which may be compressed.
+	 * 
+	 * @param in
+	 *            the input stream; it is closed when the returned stream is
+	 *            closed, or once compressed input has been read to its end.
+	 * 
+	 * @return a stream of the decompressed input, or of the input itself if
+	 *         it isn't compressed.
+	 * 
+	 * @throws IOException
+	 *             if reading the start of the input fails.
+	 */
+	public static InputStream open(InputStream in) throws IOException {
+
+		BufferedInputStream buffered = new BufferedInputStream(in,
+				BUFFER_SIZE);
+
+		byte[] magic = new byte[4];
+		buffered.mark(magic.length);
+		int length = readMagic(buffered, magic);
+		buffered.reset();
+
+		if (isGzip(magic, length)) {
+			return BackgroundInputStream.start(new GZIPInputStream(buffered,
+					BUFFER_SIZE), "Decompression");
+		}
+
+		if (isZstd(magic, length)) {
+			return BackgroundInputStream.start(new ZstdInputStream(buffered),
+					"Decompression");
+		}
+
+		return buffered;
+	}
+
+	/**
+	 * Check whether a file is compressed with gzip or zstd, by its magic
+	 * number.
+	 * 
+	 * @param file
+	 *            the file to check.
+	 * 
+	 * @return true if the file is compressed.
+	 */
+	public static boolean isCompressed(File file) {
+
+		try {
+			InputStream stream = new FileInputStream(file);
+
+			try {
+				byte[] magic = new byte[4];
+				int length = readMagic(stream, magic);
+
+				return isGzip(magic, length) || isZstd(magic, length);
+
+			} finally {
+				stream.close();
+			}
+
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static int readMagic(InputStream in, byte[] magic)
+			throws IOException {
+
+		int length = 0;
+
+		while (length < magic.length) {
+
+			int count = in.read(magic, length, magic.length - length);
+
+			if (count < 0) {
+				break;
+			}
+
+			length += count;
+		}
+
+		return length;
+	}
+
+	private static boolean isGzip(byte[] magic, int length) {
+		return length >= 2 && magic[0] == (byte) 0x1F
+				&& magic[1] == (byte) 0x8B;
+	}
+
+	private static boolean isZstd(byte[] magic, int length) {
+		return length >= 4 && magic[0] == (byte) 0x28
+				&& magic[1] == (byte) 0xB5 && magic[2] == (byte) 0x2F
+				&& magic[3] == (byte) 0xFD;
+	}
+
+}
@@ -0,0 +1,392 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+
+import metrics.Counter;
+import metrics.Metrics;
+
+/**
+ * Provides the distances between the sensors of a logical network.
+ * 
+ * Network construction asks for the same distances again and again; once for
+ * every network built, and several times within a single build. The provider
+ * caches them so that each distance is computed at most once.
+ * 
+ * For small networks the distance between every pair of sensors is cached, in
+ * a packed triangular matrix which is filled in as distances are requested.
+ * For large networks only the distances between sensors in the same
+ * neighbourhood (within a fixed radius of each other, found with a spatial
+ * index) are cached, in a compact array per sensor. A sensor in a dense
+ * cluster keeps only its nearest neighbours, so the cache grows with the
+ * number of sensors rather than its square; distances beyond a sensor's
+ * neighbourhood are computed directly. Range tests which aren't answered by
+ * the cache compare squared distances, so they do not need a square root.
+ * 
+ * Sensors are referred to by their index in the logical network. The
+ * distances actually computed, rather than found in the cache, are counted by
+ * the distance.evaluations counter.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class DistanceProvider {
+
+	// Distances computed rather than taken from the cache. Range queries
+	// report their count to the caller, and a network build adds them up and
+	// counts them once it is done.
+	static final Counter EVALUATIONS = Metrics.counter("distance.evaluations");
+
+	// Above this many sensors the full matrix takes too much memory, and only
+	// neighbourhoods are cached.
+	static final int MATRIX_LIMIT = 1024;
+
+	// The most neighbours cached for a sensor, bar those tied with the
+	// furthest of them.
+	static final int NEIGHBOURHOOD_LIMIT = 64;
+
+	// Squared distances within this relative margin of the squared range are
+	// settled by comparing actual distances, exactly as Vertex does.
+	private static final double RANGE_MARGIN = 1e-6;
+
+	private final int count;
+	private final float[] xs;
+	private final float[] ys;
+
+	// Small networks; the packed lower triangle of the distance matrix. Not
+	// yet computed distances are NaN. Filling this in from several threads is
+	// harmless, as every thread would store the same value.
+	private float[] matrix = null;
+
+	// Large networks; for each sensor the sorted indices of the sensors within
+	// its neighbourhood, and their distances. Each neighbourhood holds every
+	// sensor within its radius, which is the neighbourhood radius unless that
+	// would hold too many.
+	private float[] neighbourRadius = null;
+	private int[] neighbourStart = null;
+	private int[] neighbours = null;
+	private float[] neighbourDistances = null;
+	private SpatialIndex index = null;
+
+	/**
+	 * Create a distance provider for a set of sensors.
+	 * 
+	 * @param sensors
+	 *            the sensors, ordered by their index.
+	 * @param radius
+	 *            the neighbourhood radius. In large networks, distances
+	 *            between sensors further apart than this are not cached. This
+	 *            should be the largest range that is normally tested.
+	 */
+	public DistanceProvider(List<? extends Vertex> sensors, float radius) {
+
+		count = sensors.size();
+		xs = new float[count];
+		ys = new float[count];
+
+		for (int i = 0; i < count; i++) {
+			Vertex v = sensors.get(i);
+			xs[i] = v.getX();
+			ys[i] = v.getY();
+		}
+
+		if (count <= MATRIX_LIMIT) {
+			matrix = new float[count * (count - 1) / 2];
+			Arrays.fill(matrix, Float.NaN);
+		} else {
+			initializeNeighbourhoods(radius);
+		}
+	}
+
+	// Find the neighbourhood of every sensor, and compute the distances to
+	// the sensors in it.
+	private void initializeNeighbourhoods(float radius) {
+
+		index = new SpatialIndex(xs, ys, count, radius);
+
+		IntList candidates = new IntList();
+		float[] candidateDistances = new float[NEIGHBOURHOOD_LIMIT];
+		float[] nearest = new float[NEIGHBOURHOOD_LIMIT];
+
+		IntList found = new IntList(count);
+		float[] foundDistances = new float[count];
+		neighbourStart = new int[count + 1];
+		neighbourRadius = new float[count];
+		long evaluations = 0;
+
+		for (int i = 0; i < count; i++) {
+
+			candidates.clear();
+			index.query(xs[i], ys[i], radius, candidates);
+			candidates.sort();
+
+			if (candidateDistances.length < candidates.size()) {
+				candidateDistances = new float[candidates.size()];
+				nearest = new float[candidates.size()];
+			}
+
+			int within = 0;
+
+			for (int k = 0; k < candidates.size(); k++) {
+
+				int j = candidates.get(k);
+				float distance = Float.NaN;
+
+				if (j != i) {
+					distance = computeDistance(i, j);
+					evaluations++;
+				}
+
+				candidateDistances[k] = distance;
+
+				if (distance <= radius) {
+					nearest[within++] = distance;
+				}
+			}
+
+			// Too many neighbours; shrink the neighbourhood to the nearest.
+			float limit = radius;
+
+			if (within > NEIGHBOURHOOD_LIMIT) {
+				Arrays.sort(nearest, 0, within);
+				limit = nearest[NEIGHBOURHOOD_LIMIT - 1];
+			}
+
+			neighbourRadius[i] = limit;
+
+			for (int k = 0; k < candidates.size(); k++) {
+
+				if (candidateDistances[k] <= limit) {
+
+					if (found.size() == foundDistances.length) {
+						foundDistances = Arrays.copyOf(foundDistances,
+								foundDistances.length * 2);
+					}
+
+					foundDistances[found.size()] = candidateDistances[k];
+					found.add(candidates.get(k));
+				}
+			}
+
+			neighbourStart[i + 1] = found.size();
+		}
+
+		neighbours = found.toArray();
+		neighbourDistances = Arrays.copyOf(foundDistances, neighbours.length);
+
+		EVALUATIONS.add(evaluations);
+	}
+
+	/**
+	 * Get the number of sensors the provider knows about.
+	 * 
+	 * @return the number of sensors.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Get the distance between two sensors.
+	 * 
+	 * @param i
+	 *            the index of a sensor.
+	 * @param j
+	 *            the index of a sensor.
+	 * 
+	 * @return the distance between the sensors.
+	 */
+	public float getDistance(int i, int j) {
+
+		if (i == j) {
+			return 0f;
+		}
+
+		float distance = getCachedDistance(i, j);
+
+		if (distance != distance) {
+			distance = computeDistance(i, j);
+			EVALUATIONS.increment();
+
+			if (matrix != null) {
+				matrix[matrixIndex(i, j)] = distance;
+			}
+		}
+
+		return distance;
+	}
+
+	/**
+	 * Check whether two sensors are within a range of each other.
+	 * 
+	 * The result is the same as comparing getDistance(i, j) with the range,
+	 * though the distance is only computed when it is very close to the range.
+	 * 
+	 * @param i
+	 *            the index of a sensor.
+	 * @param j
+	 *            the index of a sensor.
+	 * @param range
+	 *            the range to test against.
+	 * 
+	 * @return whether the distance between the sensors is at most the range.
+	 */
+	public boolean isWithinRange(int i, int j, float range) {
+
+		if (i == j) {
+			return 0f <= range;
+		}
+
+		float distance = getCachedDistance(i, j);
+
+		if (distance == distance) {
+			return distance <= range;
+		}
+
+		EVALUATIONS.increment();
+
+		return isWithin(distanceSquared(i, j), range, i, j);
+	}
+
+	/**
+	 * Find all of the sensors within a range of a sensor.
+	 * 
+	 * @param i
+	 *            the index of a sensor.
+	 * @param range
+	 *            the range to search within.
+	 * @param result
+	 *            a list to add the indices of the sensors found to. The
+	 *            sensor itself is not added.
+	 * 
+	 * @return the number of distances which had to be computed, rather than
+	 *         taken from the cache. These aren't counted by the provider;
+	 *         the caller adds them to {@link #EVALUATIONS} once it is done.
+	 */
+	public int getWithinRange(int i, float range, IntList result) {
+
+		// Within the neighbourhood the distances are already known.
+		if (matrix == null && range <= neighbourRadius[i]) {
+
+			for (int k = neighbourStart[i]; k < neighbourStart[i + 1]; k++) {
+				if (neighbourDistances[k] <= range) {
+					result.add(neighbours[k]);
+				}
+			}
+
+			return 0;
+		}
+
+		int evaluations = 0;
+
+		if (matrix == null) {
+
+			IntList candidates = new IntList();
+			index.query(xs[i], ys[i], range, candidates);
+
+			for (int k = 0; k < candidates.size(); k++) {
+
+				int j = candidates.get(k);
+
+				if (j != i) {
+					evaluations += testRange(i, j, range, result);
+				}
+			}
+
+			return evaluations;
+		}
+
+		for (int j = 0; j < count; j++) {
+			if (j != i) {
+				evaluations += testRange(i, j, range, result);
+			}
+		}
+
+		return evaluations;
+	}
+
+	// Add j to the result if it is within range of i. Returns 1 if the
+	// distance had to be computed, or 0 if it was cached.
+	private int testRange(int i, int j, float range, IntList result) {
+
+		float distance = getCachedDistance(i, j);
+
+		if (distance == distance) {
+
+			if (distance <= range) {
+				result.add(j);
+			}
+
+			return 0;
+		}
+
+		if (isWithin(distanceSquared(i, j), range, i, j)) {
+			result.add(j);
+		}
+
+		return 1;
+	}
+
+	// Get a distance from the cache, or NaN if it isn't cached.
+	private float getCachedDistance(int i, int j) {
+
+		if (matrix != null) {
+			return matrix[matrixIndex(i, j)];
+		}
+
+		// Neighbourhoods are cut short separately, so a pair may be cached
+		// for only one of the two sensors.
+		int k = Arrays.binarySearch(neighbours, neighbourStart[i],
+				neighbourStart[i + 1], j);
+
+		if (k < 0) {
+			k = Arrays.binarySearch(neighbours, neighbourStart[j],
+					neighbourStart[j + 1], i);
+		}
+
+		return (k >= 0) ? neighbourDistances[k] : Float.NaN;
+	}
+
+	// Compare a squared distance with a range. Only when the two are too close
+	// to call is the actual distance computed.
+	private boolean isWithin(double distanceSquared, float range, int i, int j) {
+
+		double rangeSquared = (double) range * range;
+
+		if (!(range >= 0f)) {
+			return false;
+		} else if (distanceSquared < rangeSquared * (1d - RANGE_MARGIN)) {
+			return true;
+		} else if (distanceSquared > rangeSquared * (1d + RANGE_MARGIN)) {
+			return false;
+		}
+
+		return computeDistance(i, j) <= range;
+	}
+
+	private double distanceSquared(int i, int j) {
+
+		double xDist = xs[i] - xs[j];
+		double yDist = ys[i] - ys[j];
+
+		return xDist * xDist + yDist * yDist;
+	}
+
+	private float computeDistance(int i, int j) {
+		return (float) Math.sqrt(distanceSquared(i, j));
+	}
+
+	// Position of the pair (i, j) in the packed lower triangle.
+	private static int matrixIndex(int i, int j) {
+
+		if (i < j) {
+			int swap = i;
+			i = j;
+			j = swap;
+		}
+
+		return i * (i - 1) / 2 + j;
+	}
+
+}
@@ -0,0 +1,255 @@
+package model;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The styles and level of detail of the graphs drawn by the model.
+ * 
+ * Fonts and colors are made once and shared by everything drawn. Labels keep
+ * their size on screen as the graph is zoomed. When the
+ * vertices of a graph are too close together on screen to be made out, the
+ * graph is drawn as the density of its vertices instead; labels, edges,
+ * arrowheads and antenna coverage are left out. Labels are left out before
+ * that, once they would overlap.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+final class Drawing {
+
+	private static final Font LABEL_FONT = new Font("Dialog", Font.BOLD, 14);
+
+	// Labels keep the same size on screen however far the graph is zoomed;
+	// the font for each scale is derived once.
+	private static final int MAX_LABEL_FONTS = 64;
+	private static final Map<Double, Font> LABEL_FONTS = new ConcurrentHashMap<Double, Font>();
+
+	static final Color VERTEX_COLOR = Color.black;
+	static final Color EDGE_COLOR = Color.black;
+
+	// Edges are drawn one pixel wide at any scale.
+	static final Stroke EDGE_STROKE = new BasicStroke(0f);
+
+	/**
+	 * Whether vertices are drawn with their labels. Graphs set this for the
+	 * vertices they draw; when it isn't set, labels are drawn.
+	 */
+	static final RenderingHints.Key LABELS = new RenderingHints.Key(0) {
+		@Override
+		public boolean isCompatibleValue(Object value) {
+			return value instanceof Boolean;
+		}
+	};
+
+	// Antenna coverage is drawn in translucent blue.
+	static final Color ANTENNA_COLOR = new Color(
+			Color.BLUE.getRGB() & 0x28FFFFFF, true);
+
+	// How far, in pixels, a vertex may be outside the visible area and still
+	// have its label show.
+	static final float LABEL_MARGIN = 100f;
+
+	// Vertices spaced closer than this many pixels apart are drawn as
+	// density, and closer than this many without their labels.
+	private static final float DETAIL_SPACING = 12f;
+	private static final float LABEL_SPACING = 24f;
+
+	// The side length, in pixels, of the squares density is drawn in.
+	private static final int DENSITY_CELL = 2;
+
+	// Shades of grey for density, for 1, 2-3, 4-7, ... vertices per square.
+	private static final Color[] DENSITY_SHADES = new Color[8];
+
+	static {
+		for (int i = 0; i < DENSITY_SHADES.length; i++) {
+			int grey = 160 - 160 * i / (DENSITY_SHADES.length - 1);
+			DENSITY_SHADES[i] = new Color(grey, grey, grey);
+		}
+	}
+
+	private Drawing() {
+	}
+
+	/**
+	 * Get the scale from the units of the graph to pixels.
+	 * 
+	 * @param g
+	 *            the graphics object being drawn on.
+	 * 
+	 * @return the number of pixels per unit.
+	 */
+	static double getScale(Graphics2D g) {
+		return Math.sqrt(Math.abs(g.getTransform().getDeterminant()));
+	}
+
+	/**
+	 * Get the font for labels, sized to appear the same on screen at any
+	 * scale.
+	 * 
+	 * @param g
+	 *            the graphics object being drawn on.
+	 * 
+	 * @return the font for labels.
+	 */
+	static Font getLabelFont(Graphics2D g) {
+
+		double scale = getScale(g);
+
+		if (scale == 1d) {
+			return LABEL_FONT;
+		}
+
+		Font font = LABEL_FONTS.get(scale);
+
+		if (font == null) {
+
+			if (LABEL_FONTS.size() >= MAX_LABEL_FONTS) {
+				LABEL_FONTS.clear();
+			}
+
+			font = LABEL_FONT.deriveFont((float) (LABEL_FONT.getSize2D() / scale));
+			LABEL_FONTS.put(scale, font);
+		}
+
+		return font;
+	}
+
+	/**
+	 * Check whether a graph is drawn in detail, or as density.
+	 * 
+	 * @param g
+	 *            the graphics object being drawn on.
+	 * @param index
+	 *            the drawing index of the graph.
+	 * 
+	 * @return true if the graph is drawn in detail.
+	 */
+	static boolean isDetailed(Graphics2D g, DrawingIndex<?, ?> index) {
+		return index.getSpacing() * getScale(g) >= DETAIL_SPACING;
+	}
+
+	/**
+	 * Set whether the vertices of a graph are drawn with their labels, by
+	 * how far apart they are on screen.
+	 * 
+	 * @param g
+	 *            the graphics object being drawn on.
+	 * @param index
+	 *            the drawing index of the graph.
+	 */
+	static void setLabelled(Graphics2D g, DrawingIndex<?, ?> index) {
+		g.setRenderingHint(LABELS, index.getSpacing() * getScale(g) >= LABEL_SPACING);
+	}
+
+	/**
+	 * Check whether vertices are drawn with their labels.
+	 * 
+	 * @param g
+	 *            the graphics object being drawn on.
+	 * 
+	 * @return true if labels are drawn.
+	 */
+	static boolean isLabelled(Graphics2D g) {
+		return !Boolean.FALSE.equals(g.getRenderingHint(LABELS));
+	}
+
+	/**
+	 * Get the area of the graph which is visible.
+	 * 
+	 * @param g
+	 *            the graphics object being drawn on.
+	 * 
+	 * @return the visible area, in the units of the graph.
+	 */
+	static Rectangle2D getVisibleArea(Graphics2D g) {
+
+		Rectangle clip = g.getClipBounds();
+
+		if (clip == null) {
+			return new Rectangle2D.Float(-Float.MAX_VALUE / 2,
+					-Float.MAX_VALUE / 2, Float.MAX_VALUE, Float.MAX_VALUE);
+		}
+
+		return clip;
+	}
+
+	/**
+	 * Draw the density of a set of vertices; the number of vertices which
+	 * fall in each small square of the screen.
+	 * 
+	 * @param g
+	 *            the graphics object being drawn on.
+	 * @param index
+	 *            the drawing index of the graph.
+	 * @param visible
+	 *            the indices of the vertices to draw.
+	 */
+	static void paintDensity(Graphics2D g, DrawingIndex<?, ?> index,
+			IntList visible) {
+
+		AffineTransform transform = g.getTransform();
+		Rectangle clip = g.getClipBounds();
+		Rectangle device;
+
+		if (clip != null) {
+			device = transform.createTransformedShape(clip).getBounds();
+		} else {
+			device = g.getDeviceConfiguration().getBounds();
+		}
+
+		int columns = device.width / DENSITY_CELL + 1;
+		int rows = device.height / DENSITY_CELL + 1;
+		int[] counts = new int[columns * rows];
+		float[] point = new float[2];
+
+		for (int k = 0; k < visible.size(); k++) {
+
+			int i = visible.get(k);
+
+			point[0] = index.getX(i);
+			point[1] = index.getY(i);
+			transform.transform(point, 0, point, 0, 1);
+
+			int column = (int) Math.floor((point[0] - device.x) / DENSITY_CELL);
+			int row = (int) Math.floor((point[1] - device.y) / DENSITY_CELL);
+
+			if (column >= 0 && column < columns && row >= 0 && row < rows) {
+				counts[row * columns + column]++;
+			}
+		}
+
+		// Draw the squares in pixels.
+		g.setTransform(new AffineTransform());
+
+		for (int row = 0; row < rows; row++) {
+			for (int column = 0; column < columns; column++) {
+
+				int count = counts[row * columns + column];
+
+				if (count > 0) {
+
+					int shade = 31 - Integer.numberOfLeadingZeros(count);
+
+					g.setColor(DENSITY_SHADES[Math.min(shade,
+							DENSITY_SHADES.length - 1)]);
+					g.fillRect(device.x + column * DENSITY_CELL, device.y
+							+ row * DENSITY_CELL, DENSITY_CELL, DENSITY_CELL);
+				}
+			}
+		}
+
+		g.setTransform(transform);
+	}
+
+}
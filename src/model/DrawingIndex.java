@@ -0,0 +1,270 @@
+package model;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The vertices and edges of a graph, indexed by position so only the visible
+ * part of the graph needs to be drawn.
+ * 
+ * Each edge is listed under the first of its end vertices. An edge which
+ * crosses an area has that vertex within the length of the longest edge of
+ * the area, so the edges to draw are found from the vertices near the area.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+final class DrawingIndex<V extends Vertex, E extends EdgeInterface> {
+
+	// About this many vertices share a cell of the grid.
+	private static final int VERTICES_PER_CELL = 16;
+
+	private final int version;
+
+	private final List<V> vertices;
+	private final float[] xs;
+	private final float[] ys;
+
+	// The edges listed under each vertex, and the vertices they lead to.
+	private final int[] edgeStart;
+	private final List<E> edges;
+	private final int[] edgeTargets;
+
+	private final float longestEdge;
+	private final float spacing;
+	private final Rectangle2D bounds;
+
+	private final SpatialIndex index;
+
+	// Made once a vertex is first picked, as most graphs are only drawn.
+	private KdTree nearestIndex = null;
+
+	/**
+	 * Index the current version of a graph.
+	 * 
+	 * @param graph
+	 *            the graph to index.
+	 * @param version
+	 *            the version of the graph.
+	 */
+	DrawingIndex(Graph<V, E> graph, int version) {
+
+		this.version = version;
+
+		int count = graph.vertices().size();
+
+		vertices = new ArrayList<V>(count);
+		xs = new float[count];
+		ys = new float[count];
+
+		Map<V, Integer> indices = new IdentityHashMap<V, Integer>(count);
+
+		for (V v : graph.vertices()) {
+			xs[vertices.size()] = v.getX();
+			ys[vertices.size()] = v.getY();
+			indices.put(v, vertices.size());
+			vertices.add(v);
+		}
+
+		// Count the edges of each vertex, then place them.
+		List<E> allEdges = new ArrayList<E>(graph.edges());
+		int[] sources = new int[allEdges.size()];
+		int[] targets = new int[allEdges.size()];
+		float longest = 0f;
+
+		edgeStart = new int[count + 1];
+
+		for (int i = 0; i < allEdges.size(); i++) {
+
+			Iterator<V> ends = graph.endVertices(allEdges.get(i)).iterator();
+
+			V v = ends.next();
+			V u = ends.hasNext() ? ends.next() : v;
+
+			sources[i] = indices.get(v);
+			targets[i] = indices.get(u);
+			longest = Math.max(longest, v.getDistance(u));
+
+			edgeStart[sources[i] + 1]++;
+		}
+
+		for (int i = 0; i < count; i++) {
+			edgeStart[i + 1] += edgeStart[i];
+		}
+
+		int[] next = new int[count];
+		edgeTargets = new int[allEdges.size()];
+		edges = new ArrayList<E>(allEdges);
+
+		for (int i = 0; i < allEdges.size(); i++) {
+			int k = edgeStart[sources[i]] + next[sources[i]]++;
+			edges.set(k, allEdges.get(i));
+			edgeTargets[k] = targets[i];
+		}
+
+		longestEdge = longest;
+
+		// The average distance between neighbouring vertices, were they
+		// spread evenly over their bounds.
+		float minX = Float.MAX_VALUE;
+		float minY = Float.MAX_VALUE;
+		float maxX = -Float.MAX_VALUE;
+		float maxY = -Float.MAX_VALUE;
+
+		for (int i = 0; i < count; i++) {
+			minX = Math.min(minX, xs[i]);
+			minY = Math.min(minY, ys[i]);
+			maxX = Math.max(maxX, xs[i]);
+			maxY = Math.max(maxY, ys[i]);
+		}
+
+		bounds = (count > 0) ? new Rectangle2D.Float(minX, minY, maxX - minX,
+				maxY - minY) : new Rectangle2D.Float();
+
+		if (count > 1) {
+			double area = Math.max((double) (maxX - minX) * (maxY - minY),
+					(double) Math.max(maxX - minX, maxY - minY));
+			spacing = (float) Math.sqrt(area / count);
+		} else {
+			spacing = Float.POSITIVE_INFINITY;
+		}
+
+		float cellSize = (count > 1) ? (float) (spacing * Math
+				.sqrt(VERTICES_PER_CELL)) : 1f;
+
+		index = new SpatialIndex(xs, ys, count, cellSize);
+	}
+
+	/**
+	 * Get the version of the graph which was indexed.
+	 * 
+	 * @return the version of the graph.
+	 */
+	int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Find the vertices within an area, grown by a margin.
+	 * 
+	 * @param area
+	 *            the area.
+	 * @param margin
+	 *            the distance to grow the area by on each side.
+	 * @param result
+	 *            a list to add the indices of the vertices to.
+	 */
+	void query(Rectangle2D area, float margin, IntList result) {
+
+		float fromX = (float) area.getMinX() - margin;
+		float fromY = (float) area.getMinY() - margin;
+		float toX = (float) area.getMaxX() + margin;
+		float toY = (float) area.getMaxY() + margin;
+
+		IntList candidates = new IntList();
+		index.query(fromX, fromY, toX, toY, candidates);
+
+		for (int k = 0; k < candidates.size(); k++) {
+
+			int i = candidates.get(k);
+
+			if (xs[i] >= fromX && xs[i] <= toX && ys[i] >= fromY
+					&& ys[i] <= toY) {
+				result.add(i);
+			}
+		}
+	}
+
+	/**
+	 * Find the vertex nearest to a position.
+	 * 
+	 * @param x
+	 *            the x position.
+	 * @param y
+	 *            the y position.
+	 * @param maxDistance
+	 *            the furthest the vertex may be from the position.
+	 * 
+	 * @return the index of the nearest vertex, or -1 if none is within the
+	 *         distance.
+	 */
+	int nearest(float x, float y, float maxDistance) {
+		return getNearestIndex().nearest(x, y, maxDistance);
+	}
+
+	private synchronized KdTree getNearestIndex() {
+
+		if (nearestIndex == null) {
+			nearestIndex = new KdTree(xs, ys, vertices.size());
+		}
+
+		return nearestIndex;
+	}
+
+	V getVertex(int i) {
+		return vertices.get(i);
+	}
+
+	float getX(int i) {
+		return xs[i];
+	}
+
+	float getY(int i) {
+		return ys[i];
+	}
+
+	/**
+	 * Get the position of the first edge listed under a vertex; the edges of
+	 * vertex i are at positions getEdgeStart(i) to getEdgeStart(i + 1).
+	 * 
+	 * @param i
+	 *            the index of the vertex.
+	 * 
+	 * @return the position of its first edge.
+	 */
+	int getEdgeStart(int i) {
+		return edgeStart[i];
+	}
+
+	E getEdge(int k) {
+		return edges.get(k);
+	}
+
+	int getEdgeTarget(int k) {
+		return edgeTargets[k];
+	}
+
+	/**
+	 * Get the length of the longest edge.
+	 * 
+	 * @return the length of the longest edge.
+	 */
+	float getLongestEdge() {
+		return longestEdge;
+	}
+
+	/**
+	 * Get the smallest rectangle holding every vertex.
+	 * 
+	 * @return the bounds of the vertices.
+	 */
+	Rectangle2D getBounds() {
+		return (Rectangle2D) bounds.clone();
+	}
+
+	/**
+	 * Get the average distance between neighbouring vertices, were they
+	 * spread evenly over the area they cover.
+	 * 
+	 * @return the average spacing of the vertices.
+	 */
+	float getSpacing() {
+		return spacing;
+	}
+
+}
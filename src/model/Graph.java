@@ -1,20 +1,28 @@
 package model;
 
-import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.Polygon;
-import java.awt.Shape;
-import java.awt.geom.AffineTransform;
+import java.awt.Stroke;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import ui.Drawable;
 
 /**
+ * A graph of vertices connected by edges.
+ * 
+ * Edges are directed, unless the graph is created as an undirected graph. An
+ * undirected graph holds a single edge for each connection between two
+ * vertices, which leads both ways; it is outgoing from (and incoming to) both
+ * of its end vertices. Undirected edges are drawn without arrows.
+ * 
  * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
  * @version 1.0
  * @since 2011-09-10
@@ -30,6 +38,99 @@ public class Graph<V extends Vertex, E extends EdgeInterface> implements
 	protected Set<V> vertices = new HashSet<V>();
 	protected Set<E> edges = new HashSet<E>();
 
+	// Incremented whenever a vertex or edge is inserted or removed. Caches
+	// and background workers on other threads check it, so it is volatile;
+	// the graph itself is only changed by one thread at a time.
+	protected volatile int version = 0;
+
+	// The graph indexed for drawing; only ever replaced, so it may be read
+	// while a newer one is being made. Tiles are drawn on several threads at
+	// once, so the index is made under its own lock, apart from the lock of
+	// the graph, to be made only once.
+	private volatile DrawingIndex<V, E> drawingIndex = null;
+	private final Object drawingIndexLock = new Object();
+
+	// The size of the arrowheads of directed edges, in pixels.
+	private static final float ARROW_HEIGHT = 4f;
+	private static final float ARROW_LENGTH = 10f;
+
+	// Whether each edge leads both ways.
+	private final boolean undirected;
+
+	// The vertices numbered densely from zero, in the order they were
+	// inserted; when a vertex is removed, the last vertex takes its number.
+	// The numbers belong to this graph, so a vertex may be numbered
+	// differently by each graph holding it. The list is indexed by number.
+	private final IdentityIntMap<V> vertexIds = new IdentityIntMap<V>();
+	private final List<V> vertexList = new ArrayList<V>();
+
+	/**
+	 * Create an empty directed graph.
+	 */
+	public Graph() {
+		this(false);
+	}
+
+	/**
+	 * Create an empty graph.
+	 * 
+	 * @param undirected
+	 *            true for an undirected graph, where each edge leads both
+	 *            ways, or false for a directed graph.
+	 */
+	public Graph(boolean undirected) {
+		this.undirected = undirected;
+	}
+
+	/**
+	 * Check whether the graph is undirected.
+	 * 
+	 * @return true if each edge of the graph leads both ways.
+	 */
+	public boolean isUndirected() {
+		return undirected;
+	}
+
+	/**
+	 * Check whether an edge leads away from a vertex. An edge of a directed
+	 * graph leads away from the first of its end vertices; an edge of an
+	 * undirected graph leads away from both of them.
+	 * 
+	 * @param vertex
+	 *            a vertex.
+	 * @param edge
+	 *            an edge incident to the vertex.
+	 * 
+	 * @return true if the edge is an outgoing edge of the vertex.
+	 */
+	public boolean isOutgoing(V vertex, E edge) {
+
+		Set<V> ends = edgesToVertices.get(edge);
+
+		if (ends == null) {
+			return false;
+		}
+
+		if (undirected) {
+			return ends.contains(vertex);
+		}
+
+		return ends.iterator().next().equals(vertex);
+	}
+
+	/**
+	 * Get the version of the graph.
+	 * 
+	 * The version changes whenever a vertex or edge is inserted into or
+	 * removed from the graph, so anything computed from the graph can be
+	 * reused for as long as the version stays the same.
+	 * 
+	 * @return the version of the graph.
+	 */
+	public int getVersion() {
+		return version;
+	}
+
 	@Override
 	public Set<V> vertices() {
 		return vertices;
@@ -109,6 +210,10 @@ public class Graph<V extends Vertex, E extends EdgeInterface> implements
 			if (from.equals(v) && to.equals(u)) {
 				return true;
 			}
+
+			if (undirected && from.equals(u) && to.equals(v)) {
+				return true;
+			}
 		}
 
 		return false;
@@ -129,9 +234,13 @@ public class Graph<V extends Vertex, E extends EdgeInterface> implements
 		// Housekeeping for generic hashset.
 		vertices.add(vertex);
 
+		vertexIds.put(vertex, vertexList.size());
+		vertexList.add(vertex);
+
 		// Add into our dictionary (for completeness)
 		// Don't change verticesMap since no edges map to the vertex yet.
 		verticesToEdges.put(vertex, new HashSet<E>());
+		version++;
 
 		return vertex;
 	}
@@ -167,6 +276,7 @@ public class Graph<V extends Vertex, E extends EdgeInterface> implements
 		// Add to the vertices -> edges dictionary.
 		verticesToEdges.get(v).add(edge);
 		verticesToEdges.get(u).add(edge);
+		version++;
 
 		return edge;
 	}
@@ -196,9 +306,48 @@ public class Graph<V extends Vertex, E extends EdgeInterface> implements
 
 		verticesToEdges.remove(vertex);
 
+		// Keep the numbering dense; the last vertex takes the number of the
+		// removed one.
+		int id = vertexIds.remove(vertex);
+		V last = vertexList.remove(vertexList.size() - 1);
+
+		if (last != vertex) {
+			vertexList.set(id, last);
+			vertexIds.put(last, id);
+		}
+
+		version++;
+
 		return vertex;
 	}
 
+	/**
+	 * Get the number of a vertex in the graph. Vertices are numbered densely
+	 * from zero, in the order they were inserted; when a vertex is removed,
+	 * the last vertex takes its number.
+	 * 
+	 * @param vertex
+	 *            the vertex.
+	 * 
+	 * @return the number of the vertex, or -1 if it isn't in the graph.
+	 */
+	public int getVertexId(V vertex) {
+		return vertexIds.get(vertex);
+	}
+
+	/**
+	 * Get the vertex of a number in the graph.
+	 * 
+	 * @param id
+	 *            the number of the vertex, from zero to one less than the
+	 *            number of vertices.
+	 * 
+	 * @return the vertex.
+	 */
+	public V getVertex(int id) {
+		return vertexList.get(id);
+	}
+
 	@Override
 	public E removeEdge(E edge) {
 
@@ -220,6 +369,7 @@ public class Graph<V extends Vertex, E extends EdgeInterface> implements
 		}
 
 		edgesToVertices.remove(edge);
+		version++;
 
 		return edge;
 	}
@@ -232,77 +382,217 @@ public class Graph<V extends Vertex, E extends EdgeInterface> implements
 
 	@Override
 	public void paint(Graphics g) {
+		paintEdges(g);
+		paintVertices(g);
+	}
 
-		// Draw the edges of the graph.
-		// For each edge get its vertices, and then draw a line between the
-		// vertices.
-		Iterator<E> edgesIterator = edges().iterator();
+	/**
+	 * Draw the edges of the graph, with an arrow indicating the direction of
+	 * directed edges. Only the edges crossing the visible area are drawn, and
+	 * none at all when the graph is drawn as density.
+	 * 
+	 * @param g
+	 *            a graphics object for the edges to be drawn on.
+	 */
+	public void paintEdges(Graphics g) {
+
+		Graphics2D g2 = (Graphics2D) g;
+		DrawingIndex<V, E> index = getDrawingIndex();
+
+		if (!Drawing.isDetailed(g2, index)) {
+			return;
+		}
+
+		// Draw the edges of the graph. Any edge crossing the visible area
+		// leads from a vertex within the longest edge length of the area.
+		Rectangle2D area = Drawing.getVisibleArea(g2);
+		IntList visible = new IntList();
+
+		index.query(area, index.getLongestEdge(), visible);
+
+		// Arrowheads may reach a little past the end of an edge.
+		float scale = (float) Drawing.getScale(g2);
+		float arrowLength = ARROW_LENGTH / scale;
+		Rectangle2D edgeArea = new Rectangle2D.Double(area.getX()
+				- arrowLength, area.getY() - arrowLength, area.getWidth() + 2
+				* arrowLength, area.getHeight() + 2 * arrowLength);
+
+		// All the edges are drawn as a single path, and all the arrowheads
+		// filled as another, rather than one shape at a time.
+		Path2D.Float lines = new Path2D.Float(Path2D.WIND_NON_ZERO,
+				visible.size() * 4);
+		Path2D.Float arrows = undirected ? null : new Path2D.Float(
+				Path2D.WIND_NON_ZERO, visible.size() * 8);
+
+		for (int k = 0; k < visible.size(); k++) {
+
+			int i = visible.get(k);
+			V v = index.getVertex(i);
 
-		while (edgesIterator.hasNext()) {
+			if (!(v instanceof Drawable)) {
+				continue;
+			}
+
+			for (int j = index.getEdgeStart(i); j < index.getEdgeStart(i + 1); j++) {
 
-			E edge = edgesIterator.next();
-			Iterator<V> connectedVerticesIter = endVertices(edge).iterator();
+				V u = index.getVertex(index.getEdgeTarget(j));
 
-			// We know each edge connects exactly two vertices.
-			V v = connectedVerticesIter.next();
-			V u = connectedVerticesIter.next();
+				float vx = v.getX();
+				float vy = v.getY();
+				float ux = u.getX();
+				float uy = u.getY();
 
-			int vx = (int) v.getX();
-			int vy = (int) v.getY();
-			int ux = (int) u.getX();
-			int uy = (int) u.getY();
+				if (u instanceof Drawable
+						&& edgeArea.intersectsLine(vx, vy, ux, uy)) {
 
-			if (v instanceof Drawable && u instanceof Drawable) {
-				g.setColor(Color.black);
-				g.drawLine(vx, vy, ux, uy);
+					lines.moveTo(vx, vy);
+					lines.lineTo(ux, uy);
 
-				// Draw an arrow to indicate edge direction.
-				((Graphics2D) g).fill(getArrowHead(vx, vy, ux, uy));
+					// Draw an arrow to indicate edge direction.
+					if (arrows != null) {
+						appendArrowHead(arrows, vx, vy, ux, uy, scale);
+					}
+				}
 			}
 		}
 
-		// Draw the vertices of the graph.
-		Iterator<V> verticesIterator = vertices().iterator();
+		Stroke stroke = g2.getStroke();
 
-		while (verticesIterator.hasNext()) {
+		g.setColor(Drawing.EDGE_COLOR);
+		g2.setStroke(Drawing.EDGE_STROKE);
+		g2.draw(lines);
+		g2.setStroke(stroke);
 
-			V vertex = verticesIterator.next();
+		if (arrows != null) {
+			g2.fill(arrows);
+		}
+	}
+
+	/**
+	 * Draw the vertices of the graph which are in the visible area, or the
+	 * density of all of them when they are too close together on screen to
+	 * be made out.
+	 * 
+	 * @param g
+	 *            a graphics object for the vertices to be drawn on.
+	 */
+	public void paintVertices(Graphics g) {
+
+		Graphics2D g2 = (Graphics2D) g;
+		DrawingIndex<V, E> index = getDrawingIndex();
+		Rectangle2D area = Drawing.getVisibleArea(g2);
+		IntList visible = new IntList();
+
+		if (!Drawing.isDetailed(g2, index)) {
+			index.query(area, 0f, visible);
+			Drawing.paintDensity(g2, index, visible);
+			return;
+		}
+
+		// Vertices just outside the area may still have their label show.
+		float margin = (float) (Drawing.LABEL_MARGIN / Drawing.getScale(g2));
+		index.query(area, margin, visible);
+
+		Drawing.setLabelled(g2, index);
+
+		for (int k = 0; k < visible.size(); k++) {
+
+			V vertex = index.getVertex(visible.get(k));
 
 			if (vertex instanceof Drawable) {
-				g.setColor(Color.black);
+				g.setColor(Drawing.VERTEX_COLOR);
 				((Drawable) vertex).paint(g);
 			}
 		}
 
+		g2.setRenderingHint(Drawing.LABELS, Boolean.TRUE);
 	}
 
-	// Get a polygon resembling an arrowhead pointing in the direction from
-	// point vx, vy towards ux, uy.
-	private Shape getArrowHead(float vx, float vy, float ux, float uy) {
+	/**
+	 * Get the graph indexed for drawing. The index is made again once the
+	 * graph changes.
+	 * 
+	 * @return the drawing index of the graph.
+	 */
+	DrawingIndex<V, E> getDrawingIndex() {
 
-		int height = 4;
-		int length = 10;
-		int[] xPoints = { (int) (ux - length), (int) ux, (int) (ux - length) };
-		int[] yPoints = { (int) (uy - height), (int) uy, (int) (uy + height) };
+		DrawingIndex<V, E> index = drawingIndex;
 
-		Polygon arrow = new Polygon(xPoints, yPoints, 3);
+		if (index == null || index.getVersion() != version) {
 
-		// Get the angle of the slope made by the passed in points.
-		float x = ux - vx;
-		float y = uy - vy;
+			synchronized (drawingIndexLock) {
 
-		double direction = Math.atan2(y, x);
+				index = drawingIndex;
 
-		if (direction < 0) {
-			direction += 2 * Math.PI;
+				if (index == null || index.getVersion() != version) {
+					index = new DrawingIndex<V, E>(this, version);
+					drawingIndex = index;
+				}
+			}
 		}
 
-		AffineTransform transform = new AffineTransform();
-		transform.rotate(direction, ux, uy);
+		return index;
+	}
+
+	/**
+	 * Find the vertex of the graph nearest to a position, such as one picked
+	 * on screen.
+	 * 
+	 * @param x
+	 *            the x position.
+	 * @param y
+	 *            the y position.
+	 * @param maxDistance
+	 *            the furthest the vertex may be from the position.
+	 * 
+	 * @return the nearest vertex, or null if none is within the distance.
+	 */
+	public V getNearestVertex(float x, float y, float maxDistance) {
+
+		DrawingIndex<V, E> index = getDrawingIndex();
+		int i = index.nearest(x, y, maxDistance);
+
+		return (i >= 0) ? index.getVertex(i) : null;
+	}
+
+	/**
+	 * Get the smallest rectangle holding every vertex of the graph.
+	 * 
+	 * @return the bounds of the vertices.
+	 */
+	public Rectangle2D getBounds() {
+		return getDrawingIndex().getBounds();
+	}
+
+	// Add a triangle resembling an arrowhead pointing in the direction from
+	// point vx, vy towards ux, uy to a path. Arrowheads keep the same size on
+	// screen however far the graph is zoomed.
+	private static void appendArrowHead(Path2D.Float arrows, float vx,
+			float vy, float ux, float uy, float scale) {
+
+		float height = ARROW_HEIGHT / scale;
+		float length = ARROW_LENGTH / scale;
+
+		// The direction of the edge, as a unit vector.
+		float dx = ux - vx;
+		float dy = uy - vy;
+		float edgeLength = (float) Math.sqrt(dx * dx + dy * dy);
+
+		if (edgeLength > 0f) {
+			dx /= edgeLength;
+			dy /= edgeLength;
+		} else {
+			dx = 1f;
+			dy = 0f;
+		}
 
-		Shape arrowTransformed = transform.createTransformedShape(arrow);
+		float baseX = ux - dx * length;
+		float baseY = uy - dy * length;
 
-		return arrowTransformed;
+		arrows.moveTo(ux, uy);
+		arrows.lineTo(baseX - dy * height, baseY + dx * height);
+		arrows.lineTo(baseX + dy * height, baseY - dx * height);
+		arrows.closePath();
 	}
 
 }
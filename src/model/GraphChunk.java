@@ -0,0 +1,310 @@
+package model;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+/**
+ * Parses the records of one part of a memory mapped graph file.
+ * 
+ * A chunk owns every record on the lines which start within its part of the
+ * file. The line a part starts in the middle of belongs to the part before,
+ * so it is skipped, and the last line of a part, or a record running onto
+ * further lines, may extend into the next part; a little more than the part
+ * is mapped to finish them. Records found only by their NODE or EDGE token
+ * can't be told apart from names, so a chunk never starts reading in the
+ * middle of a line. Parsed records are only collected;
+ * they are inserted into a graph afterwards, in file order, by
+ * {@link GraphParser}.
+ * 
+ * The file is tokenized byte by byte, which works for any charset where the
+ * separators are single ASCII bytes (such as UTF-8 or ISO-8859-1).
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+final class GraphChunk implements Callable<GraphChunk> {
+
+	// How far past the end of its part a chunk may read to finish a line.
+	static final int RECORD_SLACK = 1 << 20;
+
+	private static final byte[] NODE = { 'N', 'O', 'D', 'E' };
+	private static final byte[] EDGE = { 'E', 'D', 'G', 'E' };
+
+	private final FileChannel channel;
+	private final Charset charset;
+	private final long start;
+	private final long end;
+
+	// The mapped part of the file, and the current token within it.
+	private MappedByteBuffer buffer;
+	private int position;
+	private int limit;
+	private int tokenStart;
+	private int tokenEnd;
+	private int lineStart;
+	private byte[] scratch = new byte[64];
+
+	// Parsed nodes.
+	private final ArrayList<String> nodeNames = new ArrayList<String>();
+	private float[] nodeXs = new float[16];
+	private float[] nodeYs = new float[16];
+
+	// Parsed edges, by the names of the nodes they connect.
+	private final ArrayList<String> edgeFrom = new ArrayList<String>();
+	private final ArrayList<String> edgeTo = new ArrayList<String>();
+
+	/**
+	 * Create a chunk for part of a file.
+	 * 
+	 * @param channel
+	 *            the channel of the file.
+	 * @param charset
+	 *            the charset names are decoded with.
+	 * @param start
+	 *            the position in the file where the part starts.
+	 * @param end
+	 *            the position in the file where the part ends.
+	 */
+	GraphChunk(FileChannel channel, Charset charset, long start, long end) {
+		this.channel = channel;
+		this.charset = charset;
+		this.start = start;
+		this.end = end;
+	}
+
+	@Override
+	public GraphChunk call() throws IOException {
+
+		// Map the byte before the part as well, to tell whether the part
+		// starts in the middle of a line.
+		long mapStart = (start == 0) ? 0 : start - 1;
+		long mapEnd = Math.min(channel.size(), end + RECORD_SLACK);
+
+		buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd
+				- mapStart);
+		limit = buffer.limit();
+		position = (int) (start - mapStart);
+
+		// A line running over the start of the part belongs to the chunk
+		// before.
+		if (position > 0 && buffer.get(position - 1) != '\n') {
+			while (position < limit && buffer.get(position) != '\n') {
+				position++;
+			}
+		}
+
+		lineStart = position;
+
+		int ownedLimit = (int) (end - mapStart);
+
+		try {
+			while (advance() && lineStart < ownedLimit) {
+
+				if (isToken(NODE)) {
+					parseNode();
+				} else if (isToken(EDGE)) {
+					parseEdge();
+				}
+			}
+		} finally {
+			buffer = null;
+		}
+
+		return this;
+	}
+
+	/**
+	 * Get the number of nodes parsed.
+	 * 
+	 * @return the number of nodes.
+	 */
+	int getNodeCount() {
+		return nodeNames.size();
+	}
+
+	/**
+	 * Create a parsed node.
+	 * 
+	 * @param index
+	 *            the index of the node, in file order.
+	 * 
+	 * @return the node.
+	 */
+	Node createNode(int index) {
+		return new Node(nodeNames.get(index), nodeXs[index], nodeYs[index]);
+	}
+
+	/**
+	 * Get the number of edges parsed.
+	 * 
+	 * @return the number of edges.
+	 */
+	int getEdgeCount() {
+		return edgeFrom.size();
+	}
+
+	/**
+	 * Get the name of the node an edge starts at.
+	 * 
+	 * @param index
+	 *            the index of the edge, in file order.
+	 * 
+	 * @return the name of the node.
+	 */
+	String getEdgeFrom(int index) {
+		return edgeFrom.get(index);
+	}
+
+	/**
+	 * Get the name of the node an edge ends at.
+	 * 
+	 * @param index
+	 *            the index of the edge, in file order.
+	 * 
+	 * @return the name of the node.
+	 */
+	String getEdgeTo(int index) {
+		return edgeTo.get(index);
+	}
+
+	private void parseNode() {
+
+		if (!advance()) {
+			return;
+		}
+		String nodeName = getToken();
+
+		if (!advance()) {
+			return;
+		}
+		String nodeX = getToken();
+
+		if (!advance()) {
+			return;
+		}
+		String nodeY = getToken();
+
+		float nodeXPos;
+		float nodeYPos;
+
+		try {
+			nodeXPos = Float.parseFloat(nodeX);
+			nodeYPos = Float.parseFloat(nodeY);
+		} catch (NumberFormatException e) {
+			return;
+		}
+
+		int index = nodeNames.size();
+
+		if (index == nodeXs.length) {
+			nodeXs = Arrays.copyOf(nodeXs, index * 2);
+			nodeYs = Arrays.copyOf(nodeYs, index * 2);
+		}
+
+		nodeNames.add(nodeName);
+		nodeXs[index] = nodeXPos;
+		nodeYs[index] = nodeYPos;
+	}
+
+	private void parseEdge() {
+
+		if (!advance()) {
+			return;
+		}
+		String from = getToken();
+
+		if (!advance()) {
+			return;
+		}
+		String to = getToken();
+
+		edgeFrom.add(from);
+		edgeTo.add(to);
+	}
+
+	// Move to the next token, returning false at the end of the mapping.
+	// Tokens don't span lines, so only the separators before a token can
+	// start a new line.
+	private boolean advance() {
+
+		while (position < limit && isSeparator(buffer.get(position))) {
+
+			if (buffer.get(position) == '\n') {
+				lineStart = position + 1;
+			}
+
+			position++;
+		}
+
+		if (position == limit) {
+			return false;
+		}
+
+		tokenStart = position;
+
+		while (position < limit && !isSeparator(buffer.get(position))) {
+			position++;
+		}
+
+		tokenEnd = position;
+
+		return true;
+	}
+
+	private boolean isToken(byte[] text) {
+
+		if (text.length != tokenEnd - tokenStart) {
+			return false;
+		}
+
+		for (int i = 0; i < text.length; i++) {
+			if (buffer.get(tokenStart + i) != text[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private String getToken() {
+
+		int length = tokenEnd - tokenStart;
+
+		if (length > scratch.length) {
+			scratch = new byte[Math.max(length, scratch.length * 2)];
+		}
+
+		for (int i = 0; i < length; i++) {
+			scratch[i] = buffer.get(tokenStart + i);
+		}
+
+		return new String(scratch, 0, length, charset);
+	}
+
+	// Whitespace, commas and parentheses separate the tokens.
+	private static boolean isSeparator(byte c) {
+
+		switch (c) {
+		case ' ':
+		case '\t':
+		case '\n':
+		case '\u000B':
+		case '\f':
+		case '\r':
+		case ',':
+		case '(':
+		case ')':
+			return true;
+
+		default:
+			return false;
+		}
+	}
+
+}
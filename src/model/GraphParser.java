@@ -1,16 +1,48 @@
 package model;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.Hashtable;
-import java.util.Iterator;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import metrics.Metrics;
+import metrics.ParseEvent;
+import metrics.Timer;
 
 /**
+ * Parses a graph file into a physical network.
+ * 
+ * The input is tokenized while it is read, and the nodes and edges are
+ * inserted into the network as soon as they are parsed, so the whole file is
+ * never held in memory. Edges may name nodes which are only created later in
+ * the file; such edges are kept aside until the end of the file.
+ * 
+ * Very large files can instead be parsed in parallel, see
+ * {@link #parse(File, ExecutorService)}.
+ * 
+ * Instead of listing every edge, a file may list only its nodes, which are
+ * then linked to every other node within a given distance; see
+ * {@link #parse(File, float)}.
+ * 
+ * Files and channels may be compressed with gzip or zstd; they are
+ * decompressed on a background thread while the graph is parsed (see
+ * {@link CompressedInput}).
+ * 
  * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
  * @version 1.0
  * @since 2012-09-09
@@ -21,63 +53,281 @@ public class GraphParser {
 	private final String NODE = "NODE";
 	private final String EDGE = "EDGE";
 
-	private final String OPEN_PARENTH = "\\(";
-	private final String CLOSE_PARENTH = "\\)";
-	private final String COMMA = "\\,";
-	private final String WHITESPACE = "\\s";
+	// The size of the parts a file is split into for parallel parsing.
+	private static final long MIN_CHUNK_SIZE = 1 << 20;
+	private static final long MAX_CHUNK_SIZE = 64 << 20;
+
+	private static final Timer PARSE = Metrics.timer("parse");
+	private static final Timer LINK_NODES = Metrics.timer("parse.linkNodes");
 
 	public WeightedGraph<Node, Link> parse(File file) {
 
-		String fileText = readFile(file);
+		WeightedGraph<Node, Link> pn = new WeightedGraph<Node, Link>(true);
 
-		// Tokenize the file content.
-		String[] tokens = fileText.split("(" + WHITESPACE + "+|" + COMMA + "|"
-				+ OPEN_PARENTH + "|" + CLOSE_PARENTH + ")+");
+		try {
+			InputStream stream = new FileInputStream(file);
 
-		// Parse & Create the representation.
-		WeightedGraph<Node, Link> pn = new WeightedGraph<Node, Link>();
-		Hashtable<String, Node> nodes = new Hashtable<String, Node>();
+			try {
+				Reader reader = new InputStreamReader(
+						CompressedInput.open(stream));
 
-		List<String> tokensList = Arrays.asList(tokens);
-		Iterator<String> tokensIter = tokensList.iterator();
+				try {
+					parse(reader, pn, true);
+				} finally {
+					reader.close();
+				}
 
-		String currentObj = "";
-		String nodeName = "";
-		String nodeX = "";
-		String nodeY = "";
-		String edgeFrom = "";
-		String edgeTo = "";
+			} finally {
+				stream.close();
+			}
 
-		while (tokensIter.hasNext()) {
+		} catch (FileNotFoundException fnfException) {
+			// Opening the file failed.
+		} catch (IOException ioException) {
+			// Reading or closing the file failed.
+		}
 
-			currentObj = tokensIter.next();
+		return pn;
+	}
 
-			// We will have either a node or an edge.
-			// If not throw away tokens until we are back in our grammar.
-			if (!currentObj.equals(NODE) && !currentObj.equals(EDGE)) {
-				continue;
+	/**
+	 * Parse a graph from a channel. The channel is read until its end, but is
+	 * not closed.
+	 * 
+	 * @param channel
+	 *            the channel to read the graph from.
+	 * 
+	 * @return the parsed graph.
+	 * 
+	 * @throws IOException
+	 *             if reading the channel fails.
+	 */
+	public WeightedGraph<Node, Link> parse(ReadableByteChannel channel)
+			throws IOException {
+
+		// Leave the channel open when the stream is closed.
+		InputStream stream = new FilterInputStream(
+				Channels.newInputStream(channel)) {
+			@Override
+			public void close() {
 			}
+		};
 
-			// After we know the current object get its properties.
-			if (currentObj.equals(NODE)) {
+		Reader reader = new InputStreamReader(CompressedInput.open(stream),
+				Charset.defaultCharset().newDecoder());
 
-				float nodeXPos;
-				float nodeYPos;
+		try {
+			return parse(reader);
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Parse a graph from a reader. The reader is read until its end, but is
+	 * not closed.
+	 * 
+	 * @param reader
+	 *            the reader to read the graph from.
+	 * 
+	 * @return the parsed graph.
+	 * 
+	 * @throws IOException
+	 *             if reading fails.
+	 */
+	public WeightedGraph<Node, Link> parse(Reader reader) throws IOException {
+
+		WeightedGraph<Node, Link> pn = new WeightedGraph<Node, Link>(true);
+		parse(reader, pn, true);
+
+		return pn;
+	}
+
+	/**
+	 * Parse the nodes of a graph file, and link every pair of nodes which are
+	 * within a distance of each other. Any edges in the file are ignored.
+	 * 
+	 * Since the file only lists nodes, its size and the time taken to parse
+	 * it grow linearly with the number of nodes, however densely they are
+	 * linked.
+	 * 
+	 * @param file
+	 *            the file to parse.
+	 * @param linkDistance
+	 *            the greatest distance between linked nodes.
+	 * 
+	 * @return the parsed graph.
+	 * 
+	 * @throws IOException
+	 *             if reading the file fails.
+	 */
+	public WeightedGraph<Node, Link> parse(File file, float linkDistance)
+			throws IOException {
+
+		InputStream stream = new FileInputStream(file);
+
+		try {
+			Reader reader = new InputStreamReader(CompressedInput.open(stream));
+
+			try {
+				return parse(reader, linkDistance);
+			} finally {
+				reader.close();
+			}
+
+		} finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * Parse the nodes of a graph from a reader, and link every pair of nodes
+	 * which are within a distance of each other. Any edges read are ignored.
+	 * The reader is read until its end, but is not closed.
+	 * 
+	 * @param reader
+	 *            the reader to read the graph from.
+	 * @param linkDistance
+	 *            the greatest distance between linked nodes.
+	 * 
+	 * @return the parsed graph.
+	 * 
+	 * @throws IOException
+	 *             if reading fails.
+	 */
+	public WeightedGraph<Node, Link> parse(Reader reader, float linkDistance)
+			throws IOException {
+
+		WeightedGraph<Node, Link> pn = new WeightedGraph<Node, Link>(true);
+
+		parse(reader, pn, false);
+		linkNodes(pn, linkDistance);
+
+		return pn;
+	}
+
+	/**
+	 * Link every pair of nodes of a graph which are within a distance of each
+	 * other. An undirected graph gets one link for each pair, and a directed
+	 * graph a link in each direction.
+	 * 
+	 * The nodes are placed in a spatial index, so each node is only compared
+	 * with the nodes near it.
+	 * 
+	 * @param pn
+	 *            the graph to link the nodes of.
+	 * @param linkDistance
+	 *            the greatest distance between linked nodes.
+	 */
+	public void linkNodes(WeightedGraph<Node, Link> pn, float linkDistance) {
+
+		Timer.Sample sample = LINK_NODES.start();
+
+		try {
+			linkNodesWithin(pn, linkDistance);
+		} finally {
+			sample.stop();
+		}
+	}
+
+	private void linkNodesWithin(WeightedGraph<Node, Link> pn,
+			float linkDistance) {
+
+		List<Node> nodes = new ArrayList<Node>(pn.vertices());
+		int count = nodes.size();
+
+		float[] xs = new float[count];
+		float[] ys = new float[count];
+
+		for (int i = 0; i < count; i++) {
+			xs[i] = nodes.get(i).getX();
+			ys[i] = nodes.get(i).getY();
+		}
+
+		SpatialIndex index = new SpatialIndex(xs, ys, count, linkDistance);
+		IntList candidates = new IntList();
+
+		for (int i = 0; i < count; i++) {
+
+			Node from = nodes.get(i);
+
+			candidates.clear();
+			index.query(xs[i], ys[i], linkDistance, candidates);
+			candidates.sort();
+
+			for (int k = 0; k < candidates.size(); k++) {
+
+				int j = candidates.get(k);
+
+				// Each pair is linked once, from the lower index.
+				if (j <= i) {
+					continue;
+				}
+
+				Node to = nodes.get(j);
+
+				if (from.getDistance(to) <= linkDistance) {
+					insertLink(pn, from, to);
+				}
+			}
+		}
+	}
+
+	// Parse & Create the representation. Edges are only read if asked for.
+	private void parse(Reader reader, WeightedGraph<Node, Link> pn,
+			boolean readEdges) throws IOException {
+
+		Timer.Sample sample = PARSE.start();
+		ParseEvent event = new ParseEvent();
+		event.begin();
+
+		try {
+			parseTokens(reader, pn, readEdges);
+		} finally {
+			sample.stop();
+		}
+
+		event.record(pn.vertices().size(), pn.edges().size(), false);
+	}
+
+	private void parseTokens(Reader reader, WeightedGraph<Node, Link> pn,
+			boolean readEdges) throws IOException {
 
-				if (tokensIter.hasNext()) {
-					nodeName = tokensIter.next();
+		GraphTokenizer tokens = new GraphTokenizer(reader);
+		HashMap<String, Node> nodes = new HashMap<String, Node>();
+
+		// Edges naming nodes which haven't been created yet.
+		ArrayList<String> pendingEdges = new ArrayList<String>();
+
+		while (tokens.advance()) {
+
+			// We will have either a node or an edge.
+			// If not throw away tokens until we are back in our grammar.
+			if (tokens.isToken(NODE)) {
+
+				// After we know the current object get its properties.
+				if (!tokens.advance()) {
+					break;
 				}
-				if (tokensIter.hasNext()) {
-					nodeX = tokensIter.next();
+				String nodeName = tokens.getToken();
+
+				if (!tokens.advance()) {
+					break;
 				}
-				if (tokensIter.hasNext()) {
-					nodeY = tokensIter.next();
+				String nodeX = tokens.getToken();
+
+				if (!tokens.advance()) {
+					break;
 				}
+				String nodeY = tokens.getToken();
+
+				float nodeXPos;
+				float nodeYPos;
 
 				try {
 					nodeXPos = Float.parseFloat(nodeX);
 					nodeYPos = Float.parseFloat(nodeY);
-				} catch (Exception e) {
+				} catch (NumberFormatException e) {
 					continue;
 				}
 
@@ -86,52 +336,199 @@ public class GraphParser {
 				pn.insertVertex(n);
 				nodes.put(nodeName, n);
 
-			} else if (currentObj.equals(EDGE)) {
+			} else if (readEdges && tokens.isToken(EDGE)) {
 
-				if (tokensIter.hasNext()) {
-					edgeFrom = tokensIter.next();
+				if (!tokens.advance()) {
+					break;
 				}
-				if (tokensIter.hasNext()) {
-					edgeTo = tokensIter.next();
+				String edgeFrom = tokens.getToken();
+
+				if (!tokens.advance()) {
+					break;
 				}
+				String edgeTo = tokens.getToken();
 
 				Node from = nodes.get(edgeFrom);
 				Node to = nodes.get(edgeTo);
 
-				// Trying to add an edge to node(s) which don't exist.
+				// The node(s) may be created further on in the file.
 				if (from == null || to == null) {
+					pendingEdges.add(edgeFrom);
+					pendingEdges.add(edgeTo);
 					continue;
 				}
 
-				pn.insertEdge(from, to, new Link(from.getName() + to.getName()));
-				pn.insertEdge(to, from, new Link(to.getName() + from.getName()));
+				insertLink(pn, from, to);
+			}
+		}
+
+		for (int i = 0; i < pendingEdges.size(); i += 2) {
+
+			Node from = nodes.get(pendingEdges.get(i));
+			Node to = nodes.get(pendingEdges.get(i + 1));
+
+			// Trying to add an edge to node(s) which don't exist.
+			if (from == null || to == null) {
+				continue;
 			}
+
+			insertLink(pn, from, to);
+		}
+	}
+
+	/**
+	 * Parse a graph file in parallel.
+	 * 
+	 * The file is memory mapped and split into parts, whose records are
+	 * tokenized and parsed as separate tasks of the executor. All nodes are
+	 * then inserted into the graph, followed by all edges. Each part owns the
+	 * records on the lines which start within it, and reads on past its end
+	 * to finish its last line, so a record broken across two parts is still
+	 * parsed once. Records should start on a new line; a line continuing a
+	 * record from the line before must not start with a name like NODE or
+	 * EDGE, as it may be read from its start as a record of its own.
+	 * 
+	 * A compressed file can't be split, so it is parsed as it is
+	 * decompressed instead.
+	 * 
+	 * @param file
+	 *            the file to parse.
+	 * @param executor
+	 *            the executor to parse the parts of the file with.
+	 * 
+	 * @return the parsed graph.
+	 * 
+	 * @throws IOException
+	 *             if reading the file fails, or parsing is interrupted.
+	 */
+	public WeightedGraph<Node, Link> parse(File file, ExecutorService executor)
+			throws IOException {
+
+		if (CompressedInput.isCompressed(file)) {
+
+			FileInputStream stream = new FileInputStream(file);
+
+			try {
+				return parse(stream.getChannel());
+			} finally {
+				stream.close();
+			}
+		}
+
+		Timer.Sample sample = PARSE.start();
+		ParseEvent event = new ParseEvent();
+		event.begin();
+
+		WeightedGraph<Node, Link> pn;
+
+		try {
+			pn = parseChunks(file, executor);
+		} finally {
+			sample.stop();
 		}
 
+		event.record(pn.vertices().size(), pn.edges().size(), true);
+
 		return pn;
 	}
 
-	private String readFile(File file) {
+	// Parse the parts of a file in parallel, then join them into one graph.
+	private WeightedGraph<Node, Link> parseChunks(File file,
+			ExecutorService executor) throws IOException {
 
-		String text = "";
+		FileInputStream stream = new FileInputStream(file);
+		List<GraphChunk> chunks = new ArrayList<GraphChunk>();
 
 		try {
-			BufferedReader reader = new BufferedReader(new FileReader(file));
-			String line = null;
+			FileChannel channel = stream.getChannel();
+			long size = channel.size();
+
+			// Aim for a few parts per processor, so uneven parts still keep
+			// every thread busy.
+			int processors = Runtime.getRuntime().availableProcessors();
+			long chunkSize = size / (processors * 4);
+			chunkSize = Math.max(MIN_CHUNK_SIZE, chunkSize);
+			chunkSize = Math.min(MAX_CHUNK_SIZE, chunkSize);
+
+			List<Future<GraphChunk>> futures = new ArrayList<Future<GraphChunk>>();
 
-			while ((line = reader.readLine()) != null) {
-				text = text.concat(line).concat("\n");
+			for (long start = 0; start < size; start += chunkSize) {
+
+				long end = Math.min(size, start + chunkSize);
+				GraphChunk chunk = new GraphChunk(channel,
+						Charset.defaultCharset(), start, end);
+
+				futures.add(executor.submit(chunk));
 			}
 
-			reader.close();
+			for (int i = 0; i < futures.size(); i++) {
+				chunks.add(futures.get(i).get());
+			}
 
-		} catch (FileNotFoundException fnfException) {
-			// Opening the file failed.
-		} catch (IOException ioException) {
-			// Reading or closing the file failed.
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Parsing was interrupted.");
+
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+
+		} finally {
+			stream.close();
+		}
+
+		// Insert the nodes first, so that edges may name any node.
+		WeightedGraph<Node, Link> pn = new WeightedGraph<Node, Link>(true);
+		HashMap<String, Node> nodes = new HashMap<String, Node>();
+
+		for (int i = 0; i < chunks.size(); i++) {
+
+			GraphChunk chunk = chunks.get(i);
+
+			for (int j = 0; j < chunk.getNodeCount(); j++) {
+
+				Node n = chunk.createNode(j);
+
+				pn.insertVertex(n);
+				nodes.put(n.getName(), n);
+			}
 		}
 
-		return text;
+		for (int i = 0; i < chunks.size(); i++) {
+
+			GraphChunk chunk = chunks.get(i);
+
+			for (int j = 0; j < chunk.getEdgeCount(); j++) {
+
+				Node from = nodes.get(chunk.getEdgeFrom(j));
+				Node to = nodes.get(chunk.getEdgeTo(j));
+
+				// Trying to add an edge to node(s) which don't exist.
+				if (from == null || to == null) {
+					continue;
+				}
+
+				insertLink(pn, from, to);
+			}
+		}
+
+		return pn;
+	}
+
+	// Edges are undirected, so one link joins the nodes both ways. A directed
+	// graph needs a link in each direction.
+	private void insertLink(WeightedGraph<Node, Link> pn, Node from, Node to) {
+
+		int fromId = pn.getVertexId(from);
+		int toId = pn.getVertexId(to);
+
+		pn.insertEdge(from, to, new Link(fromId, toId));
+
+		if (!pn.isUndirected()) {
+			pn.insertEdge(to, from, new Link(toId, fromId));
+		}
 	}
 
 }
@@ -0,0 +1,156 @@
+package model;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Splits the text of a graph file into tokens, while reading it.
+ * 
+ * Tokens are separated by any run of whitespace, commas and parentheses, so
+ * NODE(a, 1, 2) is read as the tokens NODE, a, 1 and 2. Only a fixed size
+ * buffer of the input is held at any time.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+class GraphTokenizer {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final Reader reader;
+
+	// The characters read but not yet tokenized.
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int position = 0;
+	private int limit = 0;
+
+	// The current token.
+	private char[] token = new char[64];
+	private int tokenLength = 0;
+
+	/**
+	 * Create a tokenizer which reads from the given reader.
+	 * 
+	 * @param reader
+	 *            the reader to tokenize.
+	 */
+	GraphTokenizer(Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Move to the next token of the input.
+	 * 
+	 * @return true if there is a next token, or false at the end of input.
+	 * 
+	 * @throws IOException
+	 *             if reading the input fails.
+	 */
+	boolean advance() throws IOException {
+
+		tokenLength = 0;
+
+		// Skip over the separators before the token.
+		int c;
+
+		do {
+			c = read();
+
+			if (c < 0) {
+				return false;
+			}
+		} while (isSeparator(c));
+
+		// Then collect the characters up to the next separator.
+		do {
+			if (tokenLength == token.length) {
+				char[] larger = new char[token.length * 2];
+				System.arraycopy(token, 0, larger, 0, tokenLength);
+				token = larger;
+			}
+
+			token[tokenLength++] = (char) c;
+			c = read();
+
+		} while (c >= 0 && !isSeparator(c));
+
+		return true;
+	}
+
+	/**
+	 * Check whether the current token is the given text, without creating a
+	 * string for the token.
+	 * 
+	 * @param text
+	 *            the text to compare with.
+	 * 
+	 * @return true if the current token equals the text.
+	 */
+	boolean isToken(String text) {
+
+		if (text.length() != tokenLength) {
+			return false;
+		}
+
+		for (int i = 0; i < tokenLength; i++) {
+			if (token[i] != text.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Get the current token.
+	 * 
+	 * @return the current token.
+	 */
+	String getToken() {
+		return new String(token, 0, tokenLength);
+	}
+
+	// Read the next character of the input, or -1 at the end of input.
+	private int read() throws IOException {
+
+		if (position == limit) {
+
+			limit = reader.read(buffer, 0, buffer.length);
+			position = 0;
+
+			// Readers may return no characters without being at the end.
+			while (limit == 0) {
+				limit = reader.read(buffer, 0, buffer.length);
+			}
+
+			if (limit < 0) {
+				limit = 0;
+				return -1;
+			}
+		}
+
+		return buffer[position++];
+	}
+
+	// Whitespace, commas and parentheses separate the tokens.
+	private static boolean isSeparator(int c) {
+
+		switch (c) {
+		case ' ':
+		case '\t':
+		case '\n':
+		case '\u000B':
+		case '\f':
+		case '\r':
+		case ',':
+		case '(':
+		case ')':
+			return true;
+
+		default:
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,203 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * A map from objects, compared by identity, to primitive int values.
+ * 
+ * This is used in place of an IdentityHashMap of Integer values where an int
+ * is looked up once per vertex or edge, so that no boxing occurs. Keys are
+ * held in a single open addressed table, probed linearly; values may not be
+ * negative, as -1 stands for a missing key.
+ * 
+ * @param <K>
+ *            the type of the keys.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class IdentityIntMap<K> {
+
+	private Object[] keys;
+	private int[] values;
+	private int size = 0;
+
+	/**
+	 * Create an empty map.
+	 */
+	public IdentityIntMap() {
+		this(16);
+	}
+
+	/**
+	 * Create an empty map with room for the given number of keys.
+	 * 
+	 * @param capacity
+	 *            the number of keys the map can hold before growing.
+	 */
+	public IdentityIntMap(int capacity) {
+
+		// Kept no more than half full, so probes stay short.
+		int length = Integer.highestOneBit(Math.max(capacity, 4) * 2 - 1) << 1;
+
+		keys = new Object[length];
+		values = new int[length];
+	}
+
+	/**
+	 * Get the value of a key.
+	 * 
+	 * @param key
+	 *            the key.
+	 * 
+	 * @return the value of the key, or -1 if it isn't in the map.
+	 */
+	public int get(Object key) {
+
+		int mask = keys.length - 1;
+
+		for (int i = slot(key, mask);; i = (i + 1) & mask) {
+
+			Object k = keys[i];
+
+			if (k == key) {
+				return values[i];
+			} else if (k == null) {
+				return -1;
+			}
+		}
+	}
+
+	/**
+	 * Set the value of a key, replacing any value it had.
+	 * 
+	 * @param key
+	 *            the key, which may not be null.
+	 * @param value
+	 *            the value, which may not be negative.
+	 */
+	public void put(K key, int value) {
+
+		if (key == null || value < 0) {
+			throw new IllegalArgumentException();
+		}
+
+		if (2 * (size + 1) > keys.length) {
+			resize(keys.length * 2);
+		}
+
+		int mask = keys.length - 1;
+		int i = slot(key, mask);
+
+		while (keys[i] != null && keys[i] != key) {
+			i = (i + 1) & mask;
+		}
+
+		if (keys[i] == null) {
+			keys[i] = key;
+			size++;
+		}
+
+		values[i] = value;
+	}
+
+	/**
+	 * Remove a key from the map.
+	 * 
+	 * @param key
+	 *            the key.
+	 * 
+	 * @return the value the key had, or -1 if it wasn't in the map.
+	 */
+	public int remove(Object key) {
+
+		int mask = keys.length - 1;
+		int i = slot(key, mask);
+
+		while (keys[i] != key) {
+
+			if (keys[i] == null) {
+				return -1;
+			}
+
+			i = (i + 1) & mask;
+		}
+
+		int value = values[i];
+
+		// Move back any later keys of the run which would no longer be found
+		// past the gap.
+		int gap = i;
+
+		for (int j = (i + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+
+			int home = slot(keys[j], mask);
+
+			if (((j - home) & mask) >= ((j - gap) & mask)) {
+				keys[gap] = keys[j];
+				values[gap] = values[j];
+				gap = j;
+			}
+		}
+
+		keys[gap] = null;
+		size--;
+
+		return value;
+	}
+
+	/**
+	 * Get the number of keys in the map.
+	 * 
+	 * @return the number of keys in the map.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Remove all keys from the map. The capacity of the map is kept.
+	 */
+	public void clear() {
+
+		Arrays.fill(keys, null);
+		size = 0;
+	}
+
+	private void resize(int length) {
+
+		Object[] oldKeys = keys;
+		int[] oldValues = values;
+
+		keys = new Object[length];
+		values = new int[length];
+
+		int mask = length - 1;
+
+		for (int i = 0; i < oldKeys.length; i++) {
+
+			if (oldKeys[i] != null) {
+
+				int j = slot(oldKeys[i], mask);
+
+				while (keys[j] != null) {
+					j = (j + 1) & mask;
+				}
+
+				keys[j] = oldKeys[i];
+				values[j] = oldValues[i];
+			}
+		}
+	}
+
+	// The slot a key is first looked for in. Identity hash codes often
+	// differ only in their high bits, so they are spread over the low ones.
+	private static int slot(Object key, int mask) {
+
+		int hash = System.identityHashCode(key) * 0x9E3779B9;
+
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+
+}
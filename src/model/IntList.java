@@ -0,0 +1,103 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive int values.
+ * 
+ * This is used in place of a List of Integer objects in code which is run
+ * once per vertex (or per pair of vertices), so that no boxing occurs. A list
+ * is normally cleared and reused rather than being reallocated.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class IntList {
+
+	private int[] values;
+	private int size = 0;
+
+	/**
+	 * Create an empty list.
+	 */
+	public IntList() {
+		this(16);
+	}
+
+	/**
+	 * Create an empty list with the given initial capacity.
+	 * 
+	 * @param capacity
+	 *            the number of values the list can hold before growing.
+	 */
+	public IntList(int capacity) {
+		values = new int[Math.max(capacity, 1)];
+	}
+
+	/**
+	 * Add a value to the end of the list.
+	 * 
+	 * @param value
+	 *            the value to add.
+	 */
+	public void add(int value) {
+
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+		}
+
+		values[size++] = value;
+	}
+
+	/**
+	 * Get the value at a position in the list.
+	 * 
+	 * @param index
+	 *            a position in the list.
+	 * 
+	 * @return the value at the position.
+	 */
+	public int get(int index) {
+
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+					+ size);
+		}
+
+		return values[index];
+	}
+
+	/**
+	 * Get the number of values in the list.
+	 * 
+	 * @return the number of values in the list.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Remove all values from the list. The capacity of the list is kept.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Sort the values in the list in ascending order.
+	 */
+	public void sort() {
+		Arrays.sort(values, 0, size);
+	}
+
+	/**
+	 * Get a copy of the values in the list.
+	 * 
+	 * @return an array holding the values in the list.
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+
+}
@@ -0,0 +1,184 @@
+package model;
+
+/**
+ * A two dimensional k-d tree over a set of points in the plane, for finding
+ * the point nearest to a position.
+ *
+ * Points are referred to by their index in the coordinate arrays the tree
+ * was built from. The tree is stored implicitly in a single array of point
+ * indices; the point splitting each range of the array is at its middle, and
+ * the ranges alternate between splitting by x and by y.
+ *
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class KdTree {
+
+	private final float[] xs;
+	private final float[] ys;
+
+	private final int[] points;
+
+	/**
+	 * Build a tree over a set of points.
+	 *
+	 * @param xs
+	 *            the x positions of the points.
+	 * @param ys
+	 *            the y positions of the points.
+	 * @param count
+	 *            the number of points; the first count entries of the arrays
+	 *            are used.
+	 */
+	public KdTree(float[] xs, float[] ys, int count) {
+
+		this.xs = xs;
+		this.ys = ys;
+
+		points = new int[count];
+
+		for (int i = 0; i < count; i++) {
+			points[i] = i;
+		}
+
+		build(0, count, true);
+	}
+
+	// Place the median point of a range, by x or by y, at its middle, with
+	// the points before it no greater and the points after it no smaller.
+	// Then do the same for either half, by the other coordinate.
+	private void build(int from, int to, boolean byX) {
+
+		while (to - from > 1) {
+
+			int middle = (from + to) >>> 1;
+
+			select(from, to, middle, byX);
+			build(from, middle, !byX);
+
+			from = middle + 1;
+			byX = !byX;
+		}
+	}
+
+	// Move the point which would be at position k, were the range sorted by
+	// one coordinate, to that position; smaller points before it, and larger
+	// points after it.
+	private void select(int from, int to, int k, boolean byX) {
+
+		while (to - from > 1) {
+
+			float pivot = coordinate(points[(from + to) >>> 1], byX);
+
+			// Partition into points less than, equal to, and greater than the
+			// pivot.
+			int less = from;
+			int i = from;
+			int greater = to - 1;
+
+			while (i <= greater) {
+
+				float c = coordinate(points[i], byX);
+
+				if (c < pivot) {
+					swap(less++, i++);
+				} else if (c > pivot) {
+					swap(i, greater--);
+				} else {
+					i++;
+				}
+			}
+
+			if (k < less) {
+				to = less;
+			} else if (k > greater) {
+				from = greater + 1;
+			} else {
+				return;
+			}
+		}
+	}
+
+	private float coordinate(int point, boolean byX) {
+		return byX ? xs[point] : ys[point];
+	}
+
+	private void swap(int i, int j) {
+		int point = points[i];
+		points[i] = points[j];
+		points[j] = point;
+	}
+
+	/**
+	 * Find the point nearest to a position.
+	 *
+	 * @param x
+	 *            the x position.
+	 * @param y
+	 *            the y position.
+	 * @param maxDistance
+	 *            the furthest a point may be from the position.
+	 *
+	 * @return the index of the nearest point, or -1 if no point is within
+	 *         the distance.
+	 */
+	public int nearest(float x, float y, float maxDistance) {
+
+		Nearest result = new Nearest((double) maxDistance * maxDistance);
+		nearest(0, points.length, true, x, y, result);
+
+		return result.point;
+	}
+
+	// Look for a nearer point in a range. The side of the splitting point
+	// holding the position is searched first, and the other side only if it
+	// may hold a nearer point.
+	private void nearest(int from, int to, boolean byX, float x, float y,
+			Nearest result) {
+
+		if (from >= to) {
+			return;
+		}
+
+		int middle = (from + to) >>> 1;
+		int point = points[middle];
+
+		double dx = x - xs[point];
+		double dy = y - ys[point];
+		double distance = dx * dx + dy * dy;
+
+		if (distance <= result.distance) {
+			result.point = point;
+			result.distance = distance;
+		}
+
+		double split = byX ? dx : dy;
+
+		if (split < 0) {
+			nearest(from, middle, !byX, x, y, result);
+
+			if (split * split <= result.distance) {
+				nearest(middle + 1, to, !byX, x, y, result);
+			}
+		} else {
+			nearest(middle + 1, to, !byX, x, y, result);
+
+			if (split * split <= result.distance) {
+				nearest(from, middle, !byX, x, y, result);
+			}
+		}
+	}
+
+	// The nearest point found so far, and its squared distance.
+	private static final class Nearest {
+
+		int point = -1;
+		double distance;
+
+		Nearest(double distance) {
+			this.distance = distance;
+		}
+	}
+
+}
@@ -13,6 +13,31 @@ public class Link implements WeightedEdgeInterface {
 	private String name = null;
 	private float weight = 0f;
 
+	// The numbers of the vertices the link is named after, if it isn't
+	// given a name.
+	private int fromId = -1;
+	private int toId = -1;
+
+	/**
+	 * Constructor for a Link object named after the vertices it connects.
+	 * 
+	 * The vertices are given by the numbers the graph holding the link gives
+	 * them (see {@link Graph#getVertexId}). The name isn't made until it is
+	 * asked for; it is then "from-to", so it depends on nothing but the two
+	 * numbers. Vertices named alike still have different numbers, though
+	 * links between the same two vertices share a name.
+	 * 
+	 * @param fromId
+	 *            the number of the vertex the link leads from.
+	 * @param toId
+	 *            the number of the vertex the link leads to.
+	 */
+	public Link(int fromId, int toId) {
+
+		this.fromId = fromId;
+		this.toId = toId;
+	}
+
 	/**
 	 * Basic constructor for a Link object.
 	 * 
@@ -64,6 +89,11 @@ public class Link implements WeightedEdgeInterface {
 
 	@Override
 	public String getName() {
+
+		if (name == null && fromId >= 0) {
+			name = fromId + "-" + toId;
+		}
+
 		return name;
 	}
 
@@ -74,7 +104,7 @@ public class Link implements WeightedEdgeInterface {
 
 	@Override
 	public String toString() {
-		return name;
+		return getName();
 	}
 
 }
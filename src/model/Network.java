@@ -1,9 +1,6 @@
 package model;
 
-import java.util.Hashtable;
-import java.util.Iterator;
-
-import algorithms.PrimMST;
+import java.util.List;
 
 /**
  * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
@@ -12,18 +9,22 @@ import algorithms.PrimMST;
  */
 public abstract class Network {
 
+	// The minimum spanning tree, logical network, and sensor distances are
+	// computed by the factory, and shared with any other network it creates.
+	private NetworkFactory factory = null;
+
 	protected WeightedGraph<Node, Link> physicalNetwork = null;
-	private PrimMST<Node, Link> physicalNetworkMst = null;
 
 	/**
-	 * The logical network will always have the same graph structure, though
-	 * sensor properties may be changed by antenna orientation methods.
+	 * The logical network will always have the same graph structure. Antenna
+	 * orientation methods never modify it, or its sensors.
 	 */
-	protected WeightedGraph<Sensor, Link> logicalNetwork = new WeightedGraph<Sensor, Link>();
+	protected WeightedGraph<Sensor, Link> logicalNetwork = null;
 
-	protected double averageAngle = 0;
-	protected double averageRange = 0;
-	protected double totalEnergyUse = 0;
+	/**
+	 * The sensors of the logical network, ordered by their index.
+	 */
+	protected List<Sensor> sensors = null;
 
 	/**
 	 * Constructor for a network.
@@ -33,116 +34,72 @@ public abstract class Network {
 	 *            physical network configuration.
 	 */
 	public Network(WeightedGraph<Node, Link> physicalNetwork) {
-
-		this.physicalNetwork = physicalNetwork;
-		physicalNetworkMst = new PrimMST<Node, Link>(physicalNetwork);
-
-		initializeLogicalNetwork();
+		this(new NetworkFactory(physicalNetwork));
 	}
 
 	/**
-	 * Initialize the logical network from the physical network.
+	 * Constructor for a network which shares its logical network with the
+	 * other networks of a factory.
 	 * 
-	 * This will create a weighted graph of sensors with links connecting them,
-	 * based on the physical network's minimum spanning tree.
+	 * @param factory
+	 *            the factory which computes the logical network.
 	 */
-	private void initializeLogicalNetwork() {
-
-		Hashtable<Node, Sensor> nodesToSensors = new Hashtable<Node, Sensor>();
-
-		WeightedGraph<Node, Link> mstGraph = physicalNetworkMst.getMst();
-
-		Iterator<Node> mstNodesIter = mstGraph.vertices().iterator();
-		Iterator<Link> mstLinksIter = mstGraph.edges().iterator();
-
-		// Insert all of the vertices first. For each node create a sensor,
-		// record it in the map, then insert into the network.
-		while (mstNodesIter.hasNext()) {
-
-			Node node = mstNodesIter.next();
+	protected Network(NetworkFactory factory) {
 
-			Sensor sensor = new Sensor(node);
-			nodesToSensors.put(node, sensor);
-			logicalNetwork.insertVertex(sensor);
-		}
+		this.factory = factory;
 
-		// Insert all of the edges. For each edge we get the connected vertices,
-		// and then insert the edge between them.
-		while (mstLinksIter.hasNext()) {
-
-			Link link = mstLinksIter.next();
-
-			Iterator<Node> endNodes = mstGraph.endVertices(link).iterator();
-
-			// Each edge connects exactly two vertices.
-			Sensor u = nodesToSensors.get(endNodes.next());
-			Sensor v = nodesToSensors.get(endNodes.next());
-
-			String edgeName = u.getName() + v.getName();
-
-			logicalNetwork.insertEdge(u, v, new Link(edgeName));
-		}
+		physicalNetwork = factory.getPhysicalNetwork();
+		logicalNetwork = factory.getLogicalNetwork();
+		sensors = factory.getSensors();
 	}
 
 	/**
-	 * Get the physical network.
+	 * Get the distances between the sensors of the logical network. These are
+	 * kept for the lifetime of the network, so are shared by every network
+	 * built.
 	 * 
-	 * @return a weighted graph of nodes and links, representing the physical
-	 *         network configuration.
+	 * @return the distance provider for the logical network.
 	 */
-	public WeightedGraph<Node, Link> getPhysicalNetwork() {
-		return physicalNetwork;
+	protected DistanceProvider getDistances() {
+		return factory.getDistances();
 	}
 
 	/**
-	 * Get the logical network.
+	 * Get the length of the longest link in the logical network.
 	 * 
-	 * @return a weighted graph of sensors and links, representing the logical
-	 *         network configuration.
+	 * @return the length of the longest link.
 	 */
-	public WeightedGraph<Sensor, Link> getLogicalNetwork() {
-
-		// Reset the sensor properties as they may be set by subclass methods.
-		Iterator<Sensor> vertsIter = logicalNetwork.vertices().iterator();
-
-		while (vertsIter.hasNext()) {
-
-			Sensor v = vertsIter.next();
-
-			v.setAntennaRange(0f);
-			v.setAntennaDirection(0f);
-			v.setAntennaAngle(0f);
-			v.setAntennaType(AntennaType.OMNIDIRECTIONAL);
-		}
-
-		return logicalNetwork;
+	protected float getLongestLink() {
+		return factory.getLongestLink();
 	}
 
 	/**
-	 * Get the average sensor angle for all sensors in the logical network.
+	 * Get the factory which created this network.
 	 * 
-	 * @return the average sensor angle.
+	 * @return the network factory.
 	 */
-	public double getAverageAngle() {
-		return averageAngle;
+	public NetworkFactory getFactory() {
+		return factory;
 	}
 
 	/**
-	 * Get the average sensor range for all sensors in the logical newtork.
+	 * Get the physical network.
 	 * 
-	 * @return the average sensor range.
+	 * @return a weighted graph of nodes and links, representing the physical
+	 *         network configuration.
 	 */
-	public double getAverageRange() {
-		return averageRange;
+	public WeightedGraph<Node, Link> getPhysicalNetwork() {
+		return physicalNetwork;
 	}
 
 	/**
-	 * Get the total energy use for all sensors in the logical network.
+	 * Get the logical network.
 	 * 
-	 * @return the total energy use.
+	 * @return a weighted graph of sensors and links, representing the logical
+	 *         network configuration.
 	 */
-	public double getTotalEnergyUse() {
-		return totalEnergyUse;
+	public WeightedGraph<Sensor, Link> getLogicalNetwork() {
+		return logicalNetwork;
 	}
 
 }
@@ -0,0 +1,139 @@
+package model;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * What the networks of a factory have been doing, for monitoring; how long
+ * each phase took when last run, how many builds are under way, and which
+ * network was asked for last.
+ * 
+ * Everything is updated by the threads doing the work, and may be read from
+ * any thread.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+final class NetworkActivity {
+
+	private final ConcurrentMap<String, Long> phaseNanos = new ConcurrentSkipListMap<String, Long>();
+
+	private final AtomicInteger pendingJobs = new AtomicInteger();
+	private final AtomicInteger runningBuilds = new AtomicInteger();
+
+	private volatile Latest latest = null;
+
+	/**
+	 * Record the time a phase took.
+	 * 
+	 * @param phase
+	 *            the name of the phase.
+	 * @param nanos
+	 *            the time taken, in nanoseconds.
+	 */
+	void recordPhase(String phase, long nanos) {
+		phaseNanos.put(phase, nanos);
+	}
+
+	/**
+	 * Get the time each phase took when it was last run.
+	 * 
+	 * @return the times in nanoseconds, by phase name.
+	 */
+	Map<String, Long> getPhaseNanos() {
+		return new TreeMap<String, Long>(phaseNanos);
+	}
+
+	/**
+	 * Note that a job was handed to an executor.
+	 */
+	void jobSubmitted() {
+		pendingJobs.incrementAndGet();
+	}
+
+	/**
+	 * Note that a job handed to an executor finished or was cancelled.
+	 */
+	void jobDone() {
+		pendingJobs.decrementAndGet();
+	}
+
+	/**
+	 * Get the number of jobs handed to an executor which aren't done.
+	 * 
+	 * @return the number of pending jobs.
+	 */
+	int getPendingJobs() {
+		return pendingJobs.get();
+	}
+
+	/**
+	 * Note that a network started to be built.
+	 */
+	void buildStarted() {
+		runningBuilds.incrementAndGet();
+	}
+
+	/**
+	 * Note that a network was built, or failed to be.
+	 */
+	void buildFinished() {
+		runningBuilds.decrementAndGet();
+	}
+
+	/**
+	 * Get the number of networks being built.
+	 * 
+	 * @return the number of running builds.
+	 */
+	int getRunningBuilds() {
+		return runningBuilds.get();
+	}
+
+	/**
+	 * Note the network which was asked for last.
+	 * 
+	 * @param network
+	 *            the wireless network which created it.
+	 * @param key
+	 *            the key of the network.
+	 * @param configuration
+	 *            the configuration of the network.
+	 */
+	void setLatest(WirelessNetwork network, NetworkCache.Key key,
+			NetworkConfiguration configuration) {
+		latest = new Latest(network, key, configuration);
+	}
+
+	/**
+	 * Get the network which was asked for last.
+	 * 
+	 * @return the latest network, or null if none was asked for.
+	 */
+	Latest getLatest() {
+		return latest;
+	}
+
+	/**
+	 * A network which was asked for, with what it was created by.
+	 */
+	static final class Latest {
+
+		final WirelessNetwork network;
+		final NetworkCache.Key key;
+		final NetworkConfiguration configuration;
+
+		Latest(WirelessNetwork network, NetworkCache.Key key,
+				NetworkConfiguration configuration) {
+
+			this.network = network;
+			this.key = key;
+			this.configuration = configuration;
+		}
+	}
+
+}
@@ -0,0 +1,342 @@
+package model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of constructed networks.
+ * 
+ * Building an oriented network from a logical network is expensive, and the
+ * same few networks are asked for over and over again (every time the ui
+ * switches between them). The cache keeps constructed networks, along with
+ * their statistics, so that they only need to be built once.
+ * 
+ * Networks are keyed by the antenna type, whether all sensors share a range,
+ * the range, and the logical network (and its version) they were built from.
+ * The least recently used networks are evicted once the estimated memory use
+ * of the cache goes over its limit. A cache may be shared by any number of
+ * wireless networks.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class NetworkCache {
+
+	/**
+	 * The default memory limit of a cache, in bytes.
+	 */
+	public static final long DEFAULT_MEMORY_LIMIT = 64L * 1024 * 1024;
+
+	// Rough memory use of the graph structures, in bytes. A vertex costs its
+	// map entries and incident edge set, an edge costs the link, its name,
+	// the end vertex set and its map entries.
+	private static final long VERTEX_BYTES = 200;
+	private static final long EDGE_BYTES = 300;
+
+	// Memory use of the antenna properties, per sensor.
+	private static final long SENSOR_BYTES = 24;
+
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(
+			16, 0.75f, true);
+
+	private long memoryLimit;
+	private long memoryUse = 0;
+
+	private long hits = 0;
+	private long misses = 0;
+
+	/**
+	 * Create a cache with the default memory limit.
+	 */
+	public NetworkCache() {
+		this(DEFAULT_MEMORY_LIMIT);
+	}
+
+	/**
+	 * Create a cache with the given memory limit.
+	 * 
+	 * @param memoryLimit
+	 *            the estimated number of bytes the cached networks may use.
+	 */
+	public NetworkCache(long memoryLimit) {
+		this.memoryLimit = memoryLimit;
+	}
+
+	/**
+	 * Look up a network in the cache.
+	 * 
+	 * @param key
+	 *            the key of the network.
+	 * 
+	 * @return the cached network, or null if it isn't cached.
+	 */
+	synchronized NetworkConfiguration get(Key key) {
+
+		Entry entry = entries.get(key);
+
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+
+		hits++;
+
+		return entry.configuration;
+	}
+
+	/**
+	 * Add a network to the cache, evicting other networks if needed.
+	 * 
+	 * @param key
+	 *            the key of the network.
+	 * @param configuration
+	 *            the network to add.
+	 */
+	synchronized void put(Key key, NetworkConfiguration configuration) {
+
+		Entry entry = new Entry(configuration);
+		Entry previous = entries.put(key, entry);
+
+		if (previous != null) {
+			memoryUse -= previous.memoryUse;
+		}
+
+		memoryUse += entry.memoryUse;
+
+		evict();
+	}
+
+	/**
+	 * Remove a network from the cache, so it is built again when next asked
+	 * for.
+	 * 
+	 * @param key
+	 *            the key of the network.
+	 */
+	synchronized void remove(Key key) {
+
+		Entry entry = entries.remove(key);
+
+		if (entry != null) {
+			memoryUse -= entry.memoryUse;
+		}
+	}
+
+	// Remove least recently used networks until we are within the limit. The
+	// most recently added network is always kept.
+	private void evict() {
+
+		Iterator<Entry> entriesIter = entries.values().iterator();
+
+		while (memoryUse > memoryLimit && entries.size() > 1) {
+
+			Entry eldest = entriesIter.next();
+
+			memoryUse -= eldest.memoryUse;
+			entriesIter.remove();
+		}
+	}
+
+	/**
+	 * Get a copy of the cached networks, from least to most recently used.
+	 * 
+	 * @return the cached networks, by key.
+	 */
+	synchronized LinkedHashMap<Key, NetworkConfiguration> getEntries() {
+
+		LinkedHashMap<Key, NetworkConfiguration> copy;
+		copy = new LinkedHashMap<Key, NetworkConfiguration>();
+
+		for (Map.Entry<Key, Entry> entry : entries.entrySet()) {
+			copy.put(entry.getKey(), entry.getValue().configuration);
+		}
+
+		return copy;
+	}
+
+	/**
+	 * Remove all networks from the cache.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		memoryUse = 0;
+	}
+
+	/**
+	 * Get the number of networks in the cache.
+	 * 
+	 * @return the number of cached networks.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Get the estimated memory use of the cached networks.
+	 * 
+	 * @return the estimated memory use, in bytes.
+	 */
+	public synchronized long getMemoryUse() {
+		return memoryUse;
+	}
+
+	/**
+	 * Get the memory limit of the cache.
+	 * 
+	 * @return the memory limit, in bytes.
+	 */
+	public synchronized long getMemoryLimit() {
+		return memoryLimit;
+	}
+
+	/**
+	 * Set the memory limit of the cache. Networks are evicted immediately if
+	 * the cache is over the new limit.
+	 * 
+	 * @param memoryLimit
+	 *            the memory limit, in bytes.
+	 */
+	public synchronized void setMemoryLimit(long memoryLimit) {
+		this.memoryLimit = memoryLimit;
+		evict();
+	}
+
+	/**
+	 * Get the number of lookups which found a cached network.
+	 * 
+	 * @return the number of cache hits.
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Get the number of lookups which didn't find a cached network.
+	 * 
+	 * @return the number of cache misses.
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * The key of a cached network.
+	 */
+	static final class Key {
+
+		private final Graph<?, ?> logicalNetwork;
+		private final int version;
+		private final AntennaType type;
+		private final boolean sameRange;
+		private final float range;
+
+		/**
+		 * Create a key for a network.
+		 * 
+		 * @param logicalNetwork
+		 *            the logical network the network is built from.
+		 * @param type
+		 *            the antenna type used by the network.
+		 * @param sameRange
+		 *            whether all sensors of the network have the same range.
+		 * @param range
+		 *            the range of the sensors, if they have the same range.
+		 */
+		Key(Graph<?, ?> logicalNetwork, AntennaType type, boolean sameRange,
+				float range) {
+
+			this.logicalNetwork = logicalNetwork;
+			this.version = logicalNetwork.getVersion();
+			this.type = type;
+			this.sameRange = sameRange;
+			this.range = sameRange ? range : 0f;
+		}
+
+		/**
+		 * Get the logical network the network is built from.
+		 * 
+		 * @return the logical network.
+		 */
+		Graph<?, ?> getLogicalNetwork() {
+			return logicalNetwork;
+		}
+
+		/**
+		 * Get the antenna type used by the network.
+		 * 
+		 * @return the antenna type.
+		 */
+		AntennaType getType() {
+			return type;
+		}
+
+		/**
+		 * Check whether all sensors of the network have the same range.
+		 * 
+		 * @return true if all sensors have the same range.
+		 */
+		boolean isSameRange() {
+			return sameRange;
+		}
+
+		/**
+		 * Get the range of the sensors, if they have the same range.
+		 * 
+		 * @return the range of the sensors.
+		 */
+		float getRange() {
+			return range;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+
+			if (!(o instanceof Key)) {
+				return false;
+			}
+
+			Key key = (Key) o;
+
+			return logicalNetwork == key.logicalNetwork
+					&& version == key.version && type == key.type
+					&& sameRange == key.sameRange
+					&& Float.floatToIntBits(range) == Float
+							.floatToIntBits(key.range);
+		}
+
+		@Override
+		public int hashCode() {
+
+			int hash = System.identityHashCode(logicalNetwork);
+			hash = 31 * hash + version;
+			hash = 31 * hash + type.hashCode();
+			hash = 31 * hash + (sameRange ? 1 : 0);
+			hash = 31 * hash + Float.floatToIntBits(range);
+
+			return hash;
+		}
+	}
+
+	/**
+	 * A cached network.
+	 */
+	private static final class Entry {
+
+		final NetworkConfiguration configuration;
+		final long memoryUse;
+
+		Entry(NetworkConfiguration configuration) {
+
+			WeightedGraph<Sensor, Link> network = configuration.getNetwork();
+
+			this.configuration = configuration;
+
+			memoryUse = network.vertices().size() * VERTEX_BYTES
+					+ network.edges().size() * EDGE_BYTES
+					+ configuration.size() * SENSOR_BYTES;
+		}
+	}
+
+}
@@ -0,0 +1,399 @@
+package model;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+import ui.Drawable;
+
+/**
+ * The result of orienting the antennas of a logical network.
+ * 
+ * A configuration holds the constructed network, the antenna properties that
+ * were chosen for each sensor, and the statistics of the network. Antenna
+ * properties are stored in arrays indexed by sensor index, rather than in the
+ * sensors themselves, so sensors are only geometry and may be shared by any
+ * number of configurations.
+ * 
+ * Configurations are immutable once built, so several may be built at the
+ * same time (on different threads) from the same logical network.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class NetworkConfiguration implements Drawable {
+
+	private final WeightedGraph<Sensor, Link> network;
+
+	// Antenna properties, by sensor index. Angles and directions are in
+	// degrees, with the angle centered on the direction.
+	private final AntennaType[] types;
+	private final float[] ranges;
+	private final float[] directions;
+	private final float[] angles;
+
+	private final double averageAngle;
+	private final double averageRange;
+	private final double totalEnergyUse;
+
+	// The longest antenna range, for finding the antennas which cover the
+	// visible area.
+	private final float longestRange;
+
+	/**
+	 * Create a configuration. The arrays are used as given, so they must not
+	 * be modified afterwards.
+	 * 
+	 * @param network
+	 *            the constructed network.
+	 * @param types
+	 *            the antenna type of each sensor.
+	 * @param ranges
+	 *            the antenna range of each sensor.
+	 * @param directions
+	 *            the antenna direction of each sensor, in degrees.
+	 * @param angles
+	 *            the antenna angle of each sensor, in degrees.
+	 * @param averageAngle
+	 *            the average antenna angle.
+	 * @param averageRange
+	 *            the average antenna range.
+	 * @param totalEnergyUse
+	 *            the total energy use of the antennas.
+	 */
+	NetworkConfiguration(WeightedGraph<Sensor, Link> network,
+			AntennaType[] types, float[] ranges, float[] directions,
+			float[] angles, double averageAngle, double averageRange,
+			double totalEnergyUse) {
+
+		this.network = network;
+
+		this.types = types;
+		this.ranges = ranges;
+		this.directions = directions;
+		this.angles = angles;
+
+		this.averageAngle = averageAngle;
+		this.averageRange = averageRange;
+		this.totalEnergyUse = totalEnergyUse;
+
+		float longest = 0f;
+
+		for (int i = 0; i < ranges.length; i++) {
+			longest = Math.max(longest, ranges[i]);
+		}
+
+		longestRange = longest;
+	}
+
+	/**
+	 * Get the constructed network. The network must not be modified.
+	 * 
+	 * @return a weighted graph of sensors and links.
+	 */
+	public WeightedGraph<Sensor, Link> getNetwork() {
+		return network;
+	}
+
+	/**
+	 * Get the number of sensors in the configuration.
+	 * 
+	 * @return the number of sensors.
+	 */
+	public int size() {
+		return types.length;
+	}
+
+	/**
+	 * Get the antenna type of a sensor.
+	 * 
+	 * @param index
+	 *            the index of a sensor.
+	 * 
+	 * @return the antenna type of the sensor.
+	 */
+	public AntennaType getAntennaType(int index) {
+		return types[index];
+	}
+
+	/**
+	 * Get the antenna range of a sensor.
+	 * 
+	 * @param index
+	 *            the index of a sensor.
+	 * 
+	 * @return the antenna range of the sensor.
+	 */
+	public float getAntennaRange(int index) {
+		return ranges[index];
+	}
+
+	/**
+	 * Get the antenna direction of a sensor.
+	 * 
+	 * @param index
+	 *            the index of a sensor.
+	 * 
+	 * @return the antenna direction of the sensor, in degrees.
+	 */
+	public float getAntennaDirection(int index) {
+		return directions[index];
+	}
+
+	/**
+	 * Get the antenna angle of a sensor.
+	 * 
+	 * @param index
+	 *            the index of a sensor.
+	 * 
+	 * @return the antenna angle of the sensor, in degrees.
+	 */
+	public float getAntennaAngle(int index) {
+		return angles[index];
+	}
+
+	/**
+	 * Get the average sensor angle for all sensors in the network.
+	 * 
+	 * @return the average sensor angle.
+	 */
+	public double getAverageAngle() {
+		return averageAngle;
+	}
+
+	/**
+	 * Get the average sensor range for all sensors in the network.
+	 * 
+	 * @return the average sensor range.
+	 */
+	public double getAverageRange() {
+		return averageRange;
+	}
+
+	/**
+	 * Get the total energy use for all sensors in the network.
+	 * 
+	 * @return the total energy use.
+	 */
+	public double getTotalEnergyUse() {
+		return totalEnergyUse;
+	}
+
+	/**
+	 * Get the smallest rectangle holding every sensor and the reach of its
+	 * antenna.
+	 * 
+	 * @return the bounds of the configuration.
+	 */
+	public Rectangle2D getBounds() {
+
+		Rectangle2D bounds = network.getBounds();
+
+		return new Rectangle2D.Double(bounds.getX() - longestRange,
+				bounds.getY() - longestRange, bounds.getWidth() + 2
+						* longestRange, bounds.getHeight() + 2 * longestRange);
+	}
+
+	@Override
+	public void paint(Graphics g) {
+
+		network.paintEdges(g);
+
+		Graphics2D g2 = (Graphics2D) g;
+		DrawingIndex<Sensor, Link> index = network.getDrawingIndex();
+
+		// Antenna coverage can't be made out when the sensors are drawn as
+		// density.
+		if (!Drawing.isDetailed(g2, index)) {
+			network.paintVertices(g);
+			return;
+		}
+
+		// Draw the area covered by each antenna which reaches the visible
+		// area, then the sensors on top. The coverage is filled as a single
+		// path, so overlapping sectors are shaded alike.
+		Rectangle2D area = Drawing.getVisibleArea(g2);
+		float labelMargin = (float) (Drawing.LABEL_MARGIN / Drawing
+				.getScale(g2));
+		IntList visible = new IntList();
+
+		index.query(area, Math.max(longestRange, labelMargin), visible);
+
+		Path2D.Float coverage = new Path2D.Float(Path2D.WIND_NON_ZERO,
+				visible.size() * 6);
+		Arc2D.Float sector = new Arc2D.Float(Arc2D.PIE);
+
+		for (int k = 0; k < visible.size(); k++) {
+
+			Sensor sensor = index.getVertex(visible.get(k));
+			int i = sensor.getIndex();
+
+			// The Java coordinate system has the origin in the top left
+			// instead of bottom left (normal when graphing). So we have to
+			// mirror the angles along the y-axis. The scaling which mirrors the
+			// y-axis has nothing to do with the angles, which is why this still
+			// has to be done (scaling is done in the CanvasPanel class).
+			float newDirection = directions[i] + (180f - directions[i]) * 2;
+
+			float xPos = sensor.getX() - ranges[i];
+			float yPos = sensor.getY() - ranges[i];
+			float width = ranges[i] * 2;
+			float height = width;
+			float startAngle = newDirection - (angles[i] / 2);
+			float arcAngle = angles[i];
+
+			if (area.intersects(xPos, yPos, width, height)) {
+				sector.setArc(xPos, yPos, width, height, startAngle, arcAngle,
+						Arc2D.PIE);
+				coverage.append(sector, false);
+			}
+		}
+
+		g.setColor(Drawing.ANTENNA_COLOR);
+		g2.fill(coverage);
+
+		Drawing.setLabelled(g2, index);
+		g.setColor(Drawing.VERTEX_COLOR);
+
+		for (int k = 0; k < visible.size(); k++) {
+			index.getVertex(visible.get(k)).paint(g);
+		}
+
+		g2.setRenderingHint(Drawing.LABELS, Boolean.TRUE);
+	}
+
+	/**
+	 * Collects the antenna properties of sensors while a network is built,
+	 * along with the network statistics.
+	 */
+	static final class Builder {
+
+		private final AntennaType[] types;
+		private final float[] ranges;
+		private final float[] directions;
+		private final float[] angles;
+
+		private double averageAngle = 0;
+		private double averageRange = 0;
+		private double totalEnergyUse = 0;
+		private int count = 0;
+
+		/**
+		 * Create a builder for a logical network.
+		 * 
+		 * Initially every sensor has an omnidirectional antenna with no
+		 * range.
+		 * 
+		 * @param size
+		 *            the number of sensors in the logical network.
+		 */
+		Builder(int size) {
+
+			types = new AntennaType[size];
+			ranges = new float[size];
+			directions = new float[size];
+			angles = new float[size];
+
+			Arrays.fill(types, AntennaType.OMNIDIRECTIONAL);
+			Arrays.fill(angles, 360f);
+		}
+
+		/**
+		 * Set a sensor to use an omnidirectional antenna, and include it in
+		 * the statistics.
+		 * 
+		 * @param index
+		 *            the index of the sensor.
+		 * @param range
+		 *            the range of the antenna.
+		 */
+		void setOmnidirectional(int index, float range) {
+			set(index, AntennaType.OMNIDIRECTIONAL, range, 0f, 360f);
+		}
+
+		/**
+		 * Set a sensor to use a directional antenna, and include it in the
+		 * statistics.
+		 * 
+		 * @param index
+		 *            the index of the sensor.
+		 * @param range
+		 *            the range of the antenna.
+		 * @param direction
+		 *            the direction of the antenna, in degrees.
+		 * @param angle
+		 *            the angle of the antenna, in degrees.
+		 */
+		void setDirectional(int index, float range, float direction,
+				float angle) {
+			set(index, AntennaType.DIRECTIONAL, range, direction, angle);
+		}
+
+		/**
+		 * Get the antenna direction set for a sensor.
+		 * 
+		 * @param index
+		 *            the index of the sensor.
+		 * 
+		 * @return the antenna direction, in degrees.
+		 */
+		float getAntennaDirection(int index) {
+			return directions[index];
+		}
+
+		/**
+		 * Get the antenna angle set for a sensor.
+		 * 
+		 * @param index
+		 *            the index of the sensor.
+		 * 
+		 * @return the antenna angle, in degrees.
+		 */
+		float getAntennaAngle(int index) {
+			return angles[index];
+		}
+
+		/**
+		 * Create the configuration.
+		 * 
+		 * @param network
+		 *            the constructed network.
+		 * 
+		 * @return the configuration.
+		 */
+		NetworkConfiguration build(WeightedGraph<Sensor, Link> network) {
+			return new NetworkConfiguration(network, types.clone(),
+					ranges.clone(), directions.clone(), angles.clone(),
+					averageAngle, averageRange, totalEnergyUse);
+		}
+
+		private void set(int index, AntennaType type, float range,
+				float direction, float angle) {
+
+			types[index] = type;
+			ranges[index] = range;
+			directions[index] = direction;
+			angles[index] = angle;
+
+			// Keep track of average angles & range.
+			double previousWeightedAngle = averageAngle * count / (count + 1);
+			double previousWeightedRange = averageRange * count / (count + 1);
+
+			double nextWeightedAngle = angle * 1 / (count + 1);
+			double nextWeightedRange = range * 1 / (count + 1);
+
+			averageAngle = previousWeightedAngle + nextWeightedAngle;
+			averageRange = previousWeightedRange + nextWeightedRange;
+
+			// Area = 1/2 r^2 angle.
+			totalEnergyUse += (0.5d * Math.pow(range, 2) * angle);
+
+			count++;
+		}
+	}
+
+}
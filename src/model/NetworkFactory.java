@@ -0,0 +1,355 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.List;
+
+import metrics.Metrics;
+import metrics.Timer;
+
+import algorithms.PrimMST;
+
+/**
+ * Creates the wireless networks for a physical network.
+ * 
+ * Every wireless network built on a physical network needs its minimum
+ * spanning tree, and the logical network built from it. The factory computes
+ * these once and shares them between all of the networks it hands out, along
+ * with the distances between sensors and the cache of constructed networks.
+ * 
+ * Everything is created lazily; nothing is computed until a network (or the
+ * logical network) is first asked for, and each wireless network is only
+ * created when it is first asked for.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class NetworkFactory {
+
+	private static final Timer LOGICAL_NETWORK = Metrics
+			.timer("network.logical");
+
+	private final WeightedGraph<Node, Link> physicalNetwork;
+
+	// Shared by all networks; created on first use.
+	private WeightedGraph<Node, Link> mst = null;
+	private float mstWeight = 0f;
+	private volatile WeightedGraph<Sensor, Link> logicalNetwork = null;
+	private List<Sensor> sensors = null;
+	private float longestLink = 0f;
+	private DistanceProvider distances = null;
+	private final NetworkCache cache = new NetworkCache();
+	private final NetworkActivity activity = new NetworkActivity();
+
+	private DirectionalNetwork directionalNetwork = null;
+	private OmnidirectionalNetwork omnidirectionalNetwork = null;
+
+	/**
+	 * Create a factory for networks on a physical network.
+	 * 
+	 * @param physicalNetwork
+	 *            a weighted graph of nodes and links which represents the
+	 *            physical network configuration.
+	 */
+	public NetworkFactory(WeightedGraph<Node, Link> physicalNetwork) {
+		this.physicalNetwork = physicalNetwork;
+	}
+
+	/**
+	 * Get the physical network.
+	 * 
+	 * @return a weighted graph of nodes and links, representing the physical
+	 *         network configuration.
+	 */
+	public WeightedGraph<Node, Link> getPhysicalNetwork() {
+		return physicalNetwork;
+	}
+
+	/**
+	 * Get the minimum spanning tree of the physical network.
+	 * 
+	 * @return the minimum spanning tree.
+	 */
+	public synchronized WeightedGraph<Node, Link> getMst() {
+
+		if (mst == null) {
+			PrimMST<Node, Link> prim = new PrimMST<Node, Link>(physicalNetwork);
+
+			mst = prim.getMst();
+			mstWeight = prim.getMstWeight();
+		}
+
+		return mst;
+	}
+
+	/**
+	 * Get the weight of the minimum spanning tree of the physical network.
+	 * 
+	 * @return the weight of the minimum spanning tree.
+	 */
+	public synchronized float getMstWeight() {
+
+		getMst();
+
+		return mstWeight;
+	}
+
+	/**
+	 * Get the logical network.
+	 * 
+	 * The logical network is shared by every network the factory creates, and
+	 * is never modified by them.
+	 * 
+	 * @return a weighted graph of sensors and links, representing the logical
+	 *         network configuration.
+	 */
+	public synchronized WeightedGraph<Sensor, Link> getLogicalNetwork() {
+
+		if (logicalNetwork == null) {
+
+			Timer.Sample sample = LOGICAL_NETWORK.start();
+			long start = System.nanoTime();
+
+			try {
+				initializeLogicalNetwork();
+			} finally {
+				sample.stop();
+			}
+
+			activity.recordPhase("network.logical", System.nanoTime() - start);
+		}
+
+		return logicalNetwork;
+	}
+
+	/**
+	 * Get the logical network if it has been computed, without waiting for
+	 * it to be.
+	 * 
+	 * @return the logical network, or null if it hasn't been computed.
+	 */
+	WeightedGraph<Sensor, Link> getComputedLogicalNetwork() {
+		return logicalNetwork;
+	}
+
+	/**
+	 * Get the sensors of the logical network, ordered by their index.
+	 * 
+	 * @return an unmodifiable list of the sensors.
+	 */
+	public synchronized List<Sensor> getSensors() {
+
+		getLogicalNetwork();
+
+		return sensors;
+	}
+
+	/**
+	 * Get the length of the longest link in the logical network.
+	 * 
+	 * @return the length of the longest link.
+	 */
+	public synchronized float getLongestLink() {
+
+		getLogicalNetwork();
+
+		return longestLink;
+	}
+
+	/**
+	 * Get the distances between the sensors of the logical network.
+	 * 
+	 * @return the distance provider for the logical network.
+	 */
+	public synchronized DistanceProvider getDistances() {
+
+		if (distances == null) {
+			// Most range tests are for ranges up to the longest logical link,
+			// so cache the distances within that neighbourhood.
+			distances = new DistanceProvider(getSensors(), getLongestLink());
+		}
+
+		return distances;
+	}
+
+	/**
+	 * Get the cache shared by the networks created by this factory.
+	 * 
+	 * @return the network cache.
+	 */
+	public NetworkCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Get what the networks of the factory have been doing.
+	 * 
+	 * @return the activity of the networks.
+	 */
+	NetworkActivity getActivity() {
+		return activity;
+	}
+
+	/**
+	 * Save the minimum spanning tree, and the networks constructed so far,
+	 * along with their statistics, to a snapshot file.
+	 * 
+	 * The snapshot can be restored with {@link #restoreSnapshot(File)} by a
+	 * factory for a physical network with the same content, which then
+	 * doesn't need to run any of the graph algorithms again. The node names
+	 * of the physical network must be unique.
+	 * 
+	 * @param file
+	 *            the file to save the snapshot to.
+	 * 
+	 * @throws IOException
+	 *             if writing the snapshot fails.
+	 */
+	public synchronized void saveSnapshot(File file) throws IOException {
+		NetworkSnapshot.save(this, file);
+	}
+
+	/**
+	 * Restore a snapshot saved by {@link #saveSnapshot(File)}.
+	 * 
+	 * A snapshot is only restored if it was taken of a physical network with
+	 * the same content as this one, and before this factory has computed its
+	 * minimum spanning tree.
+	 * 
+	 * @param file
+	 *            the file holding the snapshot.
+	 * 
+	 * @return true if the snapshot was restored, or false if it is stale or
+	 *         the factory has already computed its networks.
+	 * 
+	 * @throws IOException
+	 *             if reading the snapshot fails.
+	 */
+	public synchronized boolean restoreSnapshot(File file) throws IOException {
+
+		if (mst != null) {
+			return false;
+		}
+
+		boolean restored = false;
+
+		try {
+			restored = NetworkSnapshot.restore(this, file);
+
+		} finally {
+			// A snapshot which fails part way leaves the factory to compute
+			// everything from the start.
+			if (!restored) {
+				mst = null;
+				mstWeight = 0f;
+				logicalNetwork = null;
+				sensors = null;
+				longestLink = 0f;
+				distances = null;
+				cache.clear();
+			}
+		}
+
+		return restored;
+	}
+
+	/**
+	 * Use a minimum spanning tree restored from a snapshot.
+	 * 
+	 * @param mst
+	 *            the minimum spanning tree of the physical network.
+	 * @param mstWeight
+	 *            the weight of the minimum spanning tree.
+	 */
+	synchronized void restoreMst(WeightedGraph<Node, Link> mst, float mstWeight) {
+		this.mst = mst;
+		this.mstWeight = mstWeight;
+	}
+
+	/**
+	 * Get the directional network on the physical network.
+	 * 
+	 * @return the directional network.
+	 */
+	public synchronized DirectionalNetwork getDirectionalNetwork() {
+
+		if (directionalNetwork == null) {
+			directionalNetwork = new DirectionalNetwork(this);
+		}
+
+		return directionalNetwork;
+	}
+
+	/**
+	 * Get the omnidirectional network on the physical network.
+	 * 
+	 * @return the omnidirectional network.
+	 */
+	public synchronized OmnidirectionalNetwork getOmnidirectionalNetwork() {
+
+		if (omnidirectionalNetwork == null) {
+			omnidirectionalNetwork = new OmnidirectionalNetwork(this);
+		}
+
+		return omnidirectionalNetwork;
+	}
+
+	/**
+	 * Initialize the logical network from the physical network.
+	 * 
+	 * This will create a weighted graph of sensors with links connecting them,
+	 * based on the physical network's minimum spanning tree. The logical
+	 * network is undirected if the minimum spanning tree is.
+	 */
+	private void initializeLogicalNetwork() {
+
+		Hashtable<Node, Sensor> nodesToSensors = new Hashtable<Node, Sensor>();
+		List<Sensor> indexedSensors = new ArrayList<Sensor>();
+
+		WeightedGraph<Node, Link> mstGraph = getMst();
+		WeightedGraph<Sensor, Link> network = new WeightedGraph<Sensor, Link>(
+				mstGraph.isUndirected());
+
+		Iterator<Node> mstNodesIter = mstGraph.vertices().iterator();
+		Iterator<Link> mstLinksIter = mstGraph.edges().iterator();
+
+		// Insert all of the vertices first. For each node create a sensor,
+		// record it in the map, then insert into the network.
+		while (mstNodesIter.hasNext()) {
+
+			Node node = mstNodesIter.next();
+
+			Sensor sensor = new Sensor(node, indexedSensors.size());
+			nodesToSensors.put(node, sensor);
+			network.insertVertex(sensor);
+			indexedSensors.add(sensor);
+		}
+
+		// Insert all of the edges. For each edge we get the connected vertices,
+		// and then insert the edge between them.
+		while (mstLinksIter.hasNext()) {
+
+			Link link = mstLinksIter.next();
+
+			Iterator<Node> endNodes = mstGraph.endVertices(link).iterator();
+
+			// Each edge connects exactly two vertices.
+			Sensor u = nodesToSensors.get(endNodes.next());
+			Sensor v = nodesToSensors.get(endNodes.next());
+
+			Link logicalLink = network.insertEdge(u, v,
+					new Link(network.getVertexId(u), network.getVertexId(v)));
+			longestLink = Math.max(longestLink,
+					network.getWeight(u, v, logicalLink));
+		}
+
+		logicalNetwork = network;
+		sensors = Collections.unmodifiableList(indexedSensors);
+	}
+
+}
@@ -0,0 +1,309 @@
+package model;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Exposes a loaded network to JMX clients, such as jconsole; its size, the
+ * antenna statistics of the current network, how long each phase took, how
+ * well the network cache is doing and how many builds are under way.
+ * 
+ * A monitor is registered with the platform MBean server under the domain
+ * {@value #DOMAIN}, so any JMX client on the same host can attach to the
+ * process and read it. Reading an attribute never waits for, or starts, a
+ * computation.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class NetworkMonitor implements NetworkMonitorMXBean {
+
+	/**
+	 * The JMX domain of the monitors.
+	 */
+	public static final String DOMAIN = "networkgraph";
+
+	// Names of the statistics, in the order they are computed in by the
+	// graph.
+	private static final String[] STATISTICS = { "statistics.diameter",
+			"statistics.diameterHops", "statistics.averageShortestPathLength",
+			"statistics.averageShortestPathLengthHops" };
+
+	// Tells apart networks loaded from files of the same name.
+	private static final AtomicInteger ids = new AtomicInteger();
+
+	private final NetworkFactory factory;
+	private final String name;
+
+	private ObjectName objectName = null;
+
+	/**
+	 * Create a monitor for the networks of a factory.
+	 * 
+	 * @param factory
+	 *            the factory of the loaded network.
+	 * @param name
+	 *            the name the network was loaded from, such as its file
+	 *            name.
+	 */
+	public NetworkMonitor(NetworkFactory factory, String name) {
+		this.factory = factory;
+		this.name = name;
+	}
+
+	/**
+	 * Register the monitor with the platform MBean server.
+	 * 
+	 * @return the name the monitor is registered under.
+	 * 
+	 * @throws JMException
+	 *             if the monitor could not be registered.
+	 */
+	public synchronized ObjectName register() throws JMException {
+
+		if (objectName == null) {
+
+			ObjectName registered = new ObjectName(DOMAIN
+					+ ":type=Network,name=" + ObjectName.quote(name) + ",id="
+					+ ids.incrementAndGet());
+
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+					registered);
+			objectName = registered;
+		}
+
+		return objectName;
+	}
+
+	/**
+	 * Remove the monitor from the platform MBean server, once the network is
+	 * no longer loaded.
+	 */
+	public synchronized void unregister() {
+
+		if (objectName == null) {
+			return;
+		}
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+		try {
+			server.unregisterMBean(objectName);
+		} catch (JMException e) {
+			// It was already unregistered.
+		}
+
+		objectName = null;
+	}
+
+	/**
+	 * Get the name the monitor is registered under.
+	 * 
+	 * @return the name of the monitor, or null if it isn't registered.
+	 */
+	public synchronized ObjectName getObjectName() {
+		return objectName;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public int getPhysicalVertexCount() {
+		return factory.getPhysicalNetwork().vertices().size();
+	}
+
+	@Override
+	public int getPhysicalEdgeCount() {
+		return factory.getPhysicalNetwork().edges().size();
+	}
+
+	@Override
+	public int getLogicalVertexCount() {
+
+		Graph<Sensor, Link> logicalNetwork = factory
+				.getComputedLogicalNetwork();
+
+		return (logicalNetwork == null) ? -1 : logicalNetwork.vertices().size();
+	}
+
+	@Override
+	public int getLogicalEdgeCount() {
+
+		Graph<Sensor, Link> logicalNetwork = factory
+				.getComputedLogicalNetwork();
+
+		return (logicalNetwork == null) ? -1 : logicalNetwork.edges().size();
+	}
+
+	@Override
+	public String getCurrentNetwork() {
+
+		NetworkActivity.Latest latest = factory.getActivity().getLatest();
+
+		if (latest == null) {
+			return "none";
+		}
+
+		String type = latest.key.getType().toString().toLowerCase(Locale.ROOT);
+
+		if (latest.key.isSameRange()) {
+			return type + ", range " + latest.key.getRange();
+		}
+
+		return type + ", individual ranges";
+	}
+
+	@Override
+	public int getCurrentVertexCount() {
+
+		NetworkActivity.Latest latest = factory.getActivity().getLatest();
+
+		return (latest == null) ? -1 : latest.configuration.getNetwork()
+				.vertices().size();
+	}
+
+	@Override
+	public int getCurrentEdgeCount() {
+
+		NetworkActivity.Latest latest = factory.getActivity().getLatest();
+
+		return (latest == null) ? -1 : latest.configuration.getNetwork()
+				.edges().size();
+	}
+
+	@Override
+	public double getAverageAngle() {
+
+		NetworkActivity.Latest latest = factory.getActivity().getLatest();
+
+		return (latest == null) ? Double.NaN : latest.configuration
+				.getAverageAngle();
+	}
+
+	@Override
+	public double getAverageRange() {
+
+		NetworkActivity.Latest latest = factory.getActivity().getLatest();
+
+		return (latest == null) ? Double.NaN : latest.configuration
+				.getAverageRange();
+	}
+
+	@Override
+	public double getTotalEnergyUse() {
+
+		NetworkActivity.Latest latest = factory.getActivity().getLatest();
+
+		return (latest == null) ? Double.NaN : latest.configuration
+				.getTotalEnergyUse();
+	}
+
+	@Override
+	public Map<String, Double> getLastPhaseMillis() {
+
+		Map<String, Double> millis = new TreeMap<String, Double>();
+
+		for (Map.Entry<String, Long> phase : factory.getActivity()
+				.getPhaseNanos().entrySet()) {
+			millis.put(phase.getKey(), phase.getValue() / 1e6);
+		}
+
+		NetworkActivity.Latest latest = factory.getActivity().getLatest();
+
+		if (latest != null) {
+
+			long[] nanos = latest.configuration.getNetwork()
+					.getStatisticsNanos();
+
+			for (int i = 0; i < nanos.length; i++) {
+				if (nanos[i] > 0) {
+					millis.put(STATISTICS[i], nanos[i] / 1e6);
+				}
+			}
+		}
+
+		return millis;
+	}
+
+	@Override
+	public long getCacheHits() {
+		return factory.getCache().getHits();
+	}
+
+	@Override
+	public long getCacheMisses() {
+		return factory.getCache().getMisses();
+	}
+
+	@Override
+	public double getCacheHitRate() {
+
+		NetworkCache cache = factory.getCache();
+
+		long hits;
+		long misses;
+
+		synchronized (cache) {
+			hits = cache.getHits();
+			misses = cache.getMisses();
+		}
+
+		return (hits + misses == 0) ? Double.NaN : (double) hits
+				/ (hits + misses);
+	}
+
+	@Override
+	public int getCachedNetworks() {
+		return factory.getCache().size();
+	}
+
+	@Override
+	public long getCacheMemoryUse() {
+		return factory.getCache().getMemoryUse();
+	}
+
+	@Override
+	public int getPendingJobs() {
+		return factory.getActivity().getPendingJobs();
+	}
+
+	@Override
+	public int getRunningBuilds() {
+		return factory.getActivity().getRunningBuilds();
+	}
+
+	@Override
+	public String recompute() {
+
+		NetworkActivity.Latest latest = factory.getActivity().getLatest();
+
+		if (latest == null) {
+			return "No network has been built yet.";
+		}
+
+		long start = System.nanoTime();
+
+		latest.network.getCache().remove(latest.key);
+		latest.network.create(latest.key);
+
+		return String.format(Locale.ROOT, "Rebuilt the %s network in %.3f ms.",
+				getCurrentNetwork(), (System.nanoTime() - start) / 1e6);
+	}
+
+	@Override
+	public void clearCaches() {
+		factory.getCache().clear();
+	}
+
+}
@@ -0,0 +1,128 @@
+package model;
+
+import java.util.Map;
+
+/**
+ * The management interface of a loaded network, as shown by JMX clients such
+ * as jconsole.
+ * 
+ * Counts are -1, and antenna statistics NaN, for what hasn't been computed.
+ * The current network is the network which was last asked for.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public interface NetworkMonitorMXBean {
+
+	/**
+	 * @return the name the network was loaded from.
+	 */
+	String getName();
+
+	/**
+	 * @return the number of nodes in the physical network.
+	 */
+	int getPhysicalVertexCount();
+
+	/**
+	 * @return the number of links in the physical network.
+	 */
+	int getPhysicalEdgeCount();
+
+	/**
+	 * @return the number of sensors in the logical network.
+	 */
+	int getLogicalVertexCount();
+
+	/**
+	 * @return the number of links in the logical network.
+	 */
+	int getLogicalEdgeCount();
+
+	/**
+	 * @return a description of the current network.
+	 */
+	String getCurrentNetwork();
+
+	/**
+	 * @return the number of sensors in the current network.
+	 */
+	int getCurrentVertexCount();
+
+	/**
+	 * @return the number of links in the current network.
+	 */
+	int getCurrentEdgeCount();
+
+	/**
+	 * @return the average antenna angle of the current network.
+	 */
+	double getAverageAngle();
+
+	/**
+	 * @return the average antenna range of the current network.
+	 */
+	double getAverageRange();
+
+	/**
+	 * @return the total energy use of the current network.
+	 */
+	double getTotalEnergyUse();
+
+	/**
+	 * @return how long each phase took when last run, in milliseconds; the
+	 *         logical network, building networks, and the statistics of the
+	 *         current network.
+	 */
+	Map<String, Double> getLastPhaseMillis();
+
+	/**
+	 * @return the number of lookups which found a cached network.
+	 */
+	long getCacheHits();
+
+	/**
+	 * @return the number of lookups which didn't find a cached network.
+	 */
+	long getCacheMisses();
+
+	/**
+	 * @return the fraction of lookups which found a cached network.
+	 */
+	double getCacheHitRate();
+
+	/**
+	 * @return the number of cached networks.
+	 */
+	int getCachedNetworks();
+
+	/**
+	 * @return the estimated memory use of the cached networks, in bytes.
+	 */
+	long getCacheMemoryUse();
+
+	/**
+	 * @return the number of network builds handed to an executor which
+	 *         aren't done.
+	 */
+	int getPendingJobs();
+
+	/**
+	 * @return the number of networks being built.
+	 */
+	int getRunningBuilds();
+
+	/**
+	 * Build the current network again, rather than taking it from the cache.
+	 * 
+	 * @return a description of what was built.
+	 */
+	String recompute();
+
+	/**
+	 * Remove all networks from the cache.
+	 */
+	void clearCaches();
+
+}
@@ -0,0 +1,536 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Saves and restores everything a NetworkFactory computes for a physical
+ * network; the minimum spanning tree, and the constructed networks along
+ * with their statistics.
+ * 
+ * A snapshot starts with a hash of the content of the physical network it
+ * was computed for, and is only restored onto a physical network with the
+ * same hash. Nodes are stored by their position in name order, so node
+ * names must be unique.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+final class NetworkSnapshot {
+
+	private static final int MAGIC = 0x4E47534E; // "NGSN"
+	private static final int VERSION = 1;
+
+	private static final AntennaType[] ANTENNA_TYPES = AntennaType.values();
+
+	// Orders nodes by name, then position; the order nodes are stored in.
+	private static final Comparator<Node> NODE_ORDER = new Comparator<Node>() {
+
+		@Override
+		public int compare(Node o1, Node o2) {
+
+			int result = o1.getName().compareTo(o2.getName());
+
+			if (result == 0) {
+				result = Float.compare(o1.getX(), o2.getX());
+			}
+			if (result == 0) {
+				result = Float.compare(o1.getY(), o2.getY());
+			}
+
+			return result;
+		}
+	};
+
+	private NetworkSnapshot() {
+	}
+
+	/**
+	 * Compute a hash of the content of a physical network; the names and
+	 * positions of its nodes, and the links between them. The hash doesn't
+	 * depend on the order nodes and links are stored in.
+	 * 
+	 * @param physicalNetwork
+	 *            the physical network.
+	 * 
+	 * @return the SHA-256 hash of the network.
+	 */
+	static byte[] hash(WeightedGraph<Node, Link> physicalNetwork) {
+
+		List<Node> nodes = sortNodes(physicalNetwork);
+		Map<Node, Integer> indices = indexNodes(nodes);
+
+		MessageDigest digest;
+
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-256.
+			throw new IllegalStateException(e);
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new DigestOutputStream(new NullOutputStream(), digest)));
+
+		try {
+			out.writeInt(nodes.size());
+
+			for (int i = 0; i < nodes.size(); i++) {
+
+				Node n = nodes.get(i);
+
+				byte[] name = n.getName().getBytes("UTF-8");
+
+				out.writeInt(name.length);
+				out.write(name);
+				out.writeFloat(n.getX());
+				out.writeFloat(n.getY());
+
+				int[] targets = getTargets(physicalNetwork, n, indices);
+				Arrays.sort(targets);
+
+				out.writeInt(targets.length);
+
+				for (int j = 0; j < targets.length; j++) {
+					out.writeInt(targets[j]);
+				}
+			}
+
+			out.close();
+
+		} catch (IOException e) {
+			// Nothing is actually written anywhere.
+			throw new IllegalStateException(e);
+		}
+
+		return digest.digest();
+	}
+
+	/**
+	 * Save a snapshot of a factory.
+	 * 
+	 * @param factory
+	 *            the factory to save.
+	 * @param file
+	 *            the file to save the snapshot to.
+	 * 
+	 * @throws IOException
+	 *             if writing the file fails, or the node names of the
+	 *             physical network are not unique.
+	 */
+	static void save(NetworkFactory factory, File file) throws IOException {
+
+		WeightedGraph<Node, Link> physicalNetwork = factory.getPhysicalNetwork();
+		List<Node> nodes = sortNodes(physicalNetwork);
+
+		for (int i = 1; i < nodes.size(); i++) {
+			if (nodes.get(i - 1).getName().equals(nodes.get(i).getName())) {
+				throw new IOException("Node names are not unique.");
+			}
+		}
+
+		Map<Node, Integer> indices = indexNodes(nodes);
+		byte[] hash = hash(physicalNetwork);
+
+		// Sensors have the names and positions of their nodes, so are stored
+		// in the same order.
+		List<Sensor> sensors = sortSensors(factory.getSensors());
+		Map<Sensor, Integer> sensorIndices = indexNodes(sensors);
+
+		WeightedGraph<Node, Link> mst = factory.getMst();
+		WeightedGraph<Sensor, Link> logicalNetwork = factory.getLogicalNetwork();
+
+		// Only networks built from the current logical network are saved.
+		List<NetworkCache.Key> keys = new ArrayList<NetworkCache.Key>();
+		List<NetworkConfiguration> configurations = new ArrayList<NetworkConfiguration>();
+
+		for (Map.Entry<NetworkCache.Key, NetworkConfiguration> entry : factory
+				.getCache().getEntries().entrySet()) {
+
+			if (entry.getKey().getLogicalNetwork() == logicalNetwork) {
+				keys.add(entry.getKey());
+				configurations.add(entry.getValue());
+			}
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file), 1 << 16));
+
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.write(hash);
+			out.writeInt(nodes.size());
+
+			// The minimum spanning tree.
+			out.writeFloat(factory.getMstWeight());
+			writeStatistics(out, mst);
+
+			for (int i = 0; i < nodes.size(); i++) {
+				writeTargets(out, getTargets(mst, nodes.get(i), indices));
+			}
+
+			// The constructed networks.
+			out.writeInt(configurations.size());
+
+			for (int i = 0; i < configurations.size(); i++) {
+
+				NetworkCache.Key key = keys.get(i);
+				NetworkConfiguration configuration = configurations.get(i);
+				WeightedGraph<Sensor, Link> network = configuration.getNetwork();
+
+				out.writeByte(key.getType().ordinal());
+				out.writeBoolean(key.isSameRange());
+				out.writeFloat(key.getRange());
+
+				out.writeDouble(configuration.getAverageAngle());
+				out.writeDouble(configuration.getAverageRange());
+				out.writeDouble(configuration.getTotalEnergyUse());
+				writeStatistics(out, network);
+
+				for (int j = 0; j < sensors.size(); j++) {
+
+					Sensor s = sensors.get(j);
+					int index = s.getIndex();
+
+					out.writeByte(configuration.getAntennaType(index).ordinal());
+					out.writeFloat(configuration.getAntennaRange(index));
+					out.writeFloat(configuration.getAntennaDirection(index));
+					out.writeFloat(configuration.getAntennaAngle(index));
+
+					writeTargets(out, getTargets(network, s, sensorIndices));
+				}
+			}
+
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Restore a snapshot into a factory which hasn't computed anything yet.
+	 * 
+	 * @param factory
+	 *            the factory to restore.
+	 * @param file
+	 *            the file holding the snapshot.
+	 * 
+	 * @return true if the snapshot was restored, or false if it was taken of
+	 *         a different physical network.
+	 * 
+	 * @throws IOException
+	 *             if reading the file fails, or it isn't a valid snapshot.
+	 */
+	static boolean restore(NetworkFactory factory, File file)
+			throws IOException {
+
+		WeightedGraph<Node, Link> physicalNetwork = factory.getPhysicalNetwork();
+
+		DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(file), 1 << 16));
+
+		try {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a network snapshot.");
+			}
+
+			if (in.readInt() != VERSION) {
+				// Snapshots of other versions are simply stale.
+				return false;
+			}
+
+			byte[] hash = new byte[32];
+			in.readFully(hash);
+
+			if (!Arrays.equals(hash, hash(physicalNetwork))) {
+				return false;
+			}
+
+			List<Node> nodes = sortNodes(physicalNetwork);
+
+			if (in.readInt() != nodes.size()) {
+				throw new IOException("The network snapshot is damaged.");
+			}
+
+			// The minimum spanning tree uses the links of the physical
+			// network.
+			float mstWeight = in.readFloat();
+			float[] mstStatistics = readStatistics(in);
+
+			WeightedGraph<Node, Link> mst = new WeightedGraph<Node, Link>(
+					physicalNetwork.isUndirected());
+
+			for (int i = 0; i < nodes.size(); i++) {
+				mst.insertVertex(nodes.get(i));
+			}
+
+			for (int i = 0; i < nodes.size(); i++) {
+
+				Node from = nodes.get(i);
+				int[] targets = readTargets(in, nodes.size());
+
+				for (int j = 0; j < targets.length; j++) {
+
+					// An undirected link is listed by both of its nodes.
+					if (mst.isUndirected() && targets[j] < i) {
+						continue;
+					}
+
+					Node to = nodes.get(targets[j]);
+					Link link = findLink(physicalNetwork, from, to);
+
+					if (link == null) {
+						throw new IOException("The network snapshot is damaged.");
+					}
+
+					mst.insertEdge(from, to, link);
+				}
+			}
+
+			mst.restoreStatistics(mstStatistics);
+			factory.restoreMst(mst, mstWeight);
+
+			// The logical network is built from the minimum spanning tree,
+			// then its sensors are put in name order.
+			WeightedGraph<Sensor, Link> logicalNetwork = factory
+					.getLogicalNetwork();
+			List<Sensor> sensors = sortSensors(factory.getSensors());
+
+			int configurationCount = in.readInt();
+
+			for (int i = 0; i < configurationCount; i++) {
+
+				AntennaType type = readAntennaType(in);
+				boolean sameRange = in.readBoolean();
+				float range = in.readFloat();
+
+				double averageAngle = in.readDouble();
+				double averageRange = in.readDouble();
+				double totalEnergyUse = in.readDouble();
+				float[] statistics = readStatistics(in);
+
+				AntennaType[] types = new AntennaType[sensors.size()];
+				float[] ranges = new float[sensors.size()];
+				float[] directions = new float[sensors.size()];
+				float[] angles = new float[sensors.size()];
+
+				WeightedGraph<Sensor, Link> network = new WeightedGraph<Sensor, Link>(
+						false, WeightProviders.<Sensor, Link> computedDistance());
+
+				// The graph numbers the sensors in name order, as the targets
+				// of their links are written.
+				for (int j = 0; j < sensors.size(); j++) {
+					network.insertVertex(sensors.get(j));
+				}
+
+				for (int j = 0; j < sensors.size(); j++) {
+
+					Sensor v = sensors.get(j);
+					int index = v.getIndex();
+
+					types[index] = readAntennaType(in);
+					ranges[index] = in.readFloat();
+					directions[index] = in.readFloat();
+					angles[index] = in.readFloat();
+
+					int[] targets = readTargets(in, sensors.size());
+
+					for (int k = 0; k < targets.length; k++) {
+
+						Sensor u = sensors.get(targets[k]);
+						network.insertEdge(v, u, new Link(j, targets[k]));
+					}
+				}
+
+				network.restoreStatistics(statistics);
+
+				NetworkConfiguration configuration = new NetworkConfiguration(
+						network, types, ranges, directions, angles,
+						averageAngle, averageRange, totalEnergyUse);
+
+				factory.getCache().put(
+						new NetworkCache.Key(logicalNetwork, type, sameRange,
+								range), configuration);
+			}
+
+			return true;
+
+		} finally {
+			in.close();
+		}
+	}
+
+	private static List<Node> sortNodes(WeightedGraph<Node, Link> graph) {
+
+		List<Node> nodes = new ArrayList<Node>(graph.vertices());
+		Collections.sort(nodes, NODE_ORDER);
+
+		return nodes;
+	}
+
+	private static List<Sensor> sortSensors(List<Sensor> sensors) {
+
+		List<Sensor> sorted = new ArrayList<Sensor>(sensors);
+		Collections.sort(sorted, NODE_ORDER);
+
+		return sorted;
+	}
+
+	private static <V extends Vertex> Map<V, Integer> indexNodes(List<V> nodes) {
+
+		Map<V, Integer> indices = new HashMap<V, Integer>();
+
+		for (int i = 0; i < nodes.size(); i++) {
+			indices.put(nodes.get(i), i);
+		}
+
+		return indices;
+	}
+
+	// Get the indices of the vertices the outgoing edges of v lead to.
+	private static <V extends Vertex> int[] getTargets(
+			WeightedGraph<V, Link> graph, V v, Map<? extends Vertex, Integer> indices) {
+
+		Set<Link> edges = graph.incidentEdges(v);
+		int[] targets = new int[edges.size()];
+		int count = 0;
+
+		Iterator<Link> edgeIter = edges.iterator();
+
+		while (edgeIter.hasNext()) {
+
+			Link link = edgeIter.next();
+
+			// Only use outgoing edges; a self loop has no opposite vertex.
+			if (graph.isOutgoing(v, link)) {
+
+				V u = graph.opposite(v, link);
+				targets[count++] = indices.get(u == null ? v : u);
+			}
+		}
+
+		return Arrays.copyOf(targets, count);
+	}
+
+	private static Link findLink(WeightedGraph<Node, Link> graph, Node from,
+			Node to) {
+
+		Iterator<Link> edgeIter = graph.incidentEdges(from).iterator();
+
+		while (edgeIter.hasNext()) {
+
+			Link link = edgeIter.next();
+
+			if (graph.isOutgoing(from, link)) {
+
+				Node target = graph.opposite(from, link);
+
+				if ((target == null ? from : target) == to) {
+					return link;
+				}
+			}
+		}
+
+		return null;
+	}
+
+	private static void writeTargets(DataOutputStream out, int[] targets)
+			throws IOException {
+
+		out.writeInt(targets.length);
+
+		for (int i = 0; i < targets.length; i++) {
+			out.writeInt(targets[i]);
+		}
+	}
+
+	private static int[] readTargets(DataInputStream in, int nodeCount)
+			throws IOException {
+
+		int count = in.readInt();
+
+		if (count < 0 || count > nodeCount) {
+			throw new IOException("The network snapshot is damaged.");
+		}
+
+		int[] targets = new int[count];
+
+		for (int i = 0; i < count; i++) {
+
+			targets[i] = in.readInt();
+
+			if (targets[i] < 0 || targets[i] >= nodeCount) {
+				throw new IOException("The network snapshot is damaged.");
+			}
+		}
+
+		return targets;
+	}
+
+	private static void writeStatistics(DataOutputStream out,
+			WeightedGraph<?, ?> graph) throws IOException {
+
+		float[] statistics = graph.getComputedStatistics();
+
+		for (int i = 0; i < statistics.length; i++) {
+			out.writeFloat(statistics[i]);
+		}
+	}
+
+	private static float[] readStatistics(DataInputStream in)
+			throws IOException {
+
+		float[] statistics = new float[4];
+
+		for (int i = 0; i < statistics.length; i++) {
+			statistics[i] = in.readFloat();
+		}
+
+		return statistics;
+	}
+
+	private static AntennaType readAntennaType(DataInputStream in)
+			throws IOException {
+
+		int ordinal = in.readUnsignedByte();
+
+		if (ordinal >= ANTENNA_TYPES.length) {
+			throw new IOException("The network snapshot is damaged.");
+		}
+
+		return ANTENNA_TYPES[ordinal];
+	}
+
+	// Discards everything written to it; only the digest is wanted.
+	private static final class NullOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	}
+
+}
@@ -1,8 +1,8 @@
 package model;
 
-import java.awt.Color;
-import java.awt.Font;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.geom.Ellipse2D;
 
 import ui.Drawable;
 
@@ -34,28 +34,26 @@ public class Node extends Vertex implements Drawable {
 		return this.name;
 	}
 
-	// Drawing related code.
+	// Drawing related code. Nodes keep the same size on screen however far
+	// the graph is zoomed.
 	private float radius = 4;
 
 	@Override
 	public void paint(Graphics g) {
 
-		g.setColor(Color.BLACK);
+		Graphics2D g2 = (Graphics2D) g;
+		float r = (float) (radius / Drawing.getScale(g2));
 
-		// Draw the node itself.
-		int xPos = (int) (getX() - radius);
-		int yPos = (int) (getY() - radius);
-		int width = (int) (radius * 2);
-		int height = width;
-
-		g.fillOval(xPos, yPos, width, height);
+		g.setColor(Drawing.VERTEX_COLOR);
 
-		// Label the node.
-		int nameXPos = (int) (getX() + (radius * 1.5f));
-		int nameYPos = (int) (getY());
+		// Draw the node itself.
+		g2.fill(new Ellipse2D.Float(getX() - r, getY() - r, r * 2, r * 2));
 
-		g.setFont(new Font("Dialog", Font.BOLD, 14));
-		g.drawString(getName(), nameXPos, nameYPos);
+		// Label the node, unless the graph is zoomed too far out to read it.
+		if (Drawing.isLabelled(g2)) {
+			g.setFont(Drawing.getLabelFont(g2));
+			g2.drawString(getName(), getX() + (r * 1.5f), getY());
+		}
 	}
 
 }
@@ -1,11 +1,11 @@
 package model;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Set;
 
+import metrics.Counter;
+import metrics.Metrics;
+
 /**
  * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
  * @version 1.0
@@ -13,7 +13,8 @@ import java.util.Set;
  */
 public class OmnidirectionalNetwork extends WirelessNetwork {
 
-	int index = 0;
+	private static final Counter STRAGGLER_CHECKS = Metrics
+			.counter("network.stragglerChecks");
 
 	/**
 	 * Constructor for a network.
@@ -26,14 +27,20 @@ public class OmnidirectionalNetwork extends WirelessNetwork {
 		super(physicalNetwork);
 	}
 
-	@Override
-	public WeightedGraph<Sensor, Link> createOptimalNetwork(boolean sameRange) {
+	/**
+	 * Constructor for a network which shares its logical network with the
+	 * other networks of a factory.
+	 * 
+	 * @param factory
+	 *            the factory which computes the logical network.
+	 */
+	OmnidirectionalNetwork(NetworkFactory factory) {
+		super(factory);
+	}
 
-		if (sameRange) {
-			return createNetwork(getOptimalAntennaRange());
-		} else {
-			return createOptimalNetwork();
-		}
+	@Override
+	public AntennaType getAntennaType() {
+		return AntennaType.OMNIDIRECTIONAL;
 	}
 
 	/**
@@ -43,10 +50,16 @@ public class OmnidirectionalNetwork extends WirelessNetwork {
 	 * 
 	 * @return the constructed network.
 	 */
-	private WeightedGraph<Sensor, Link> createOptimalNetwork() {
+	@Override
+	protected NetworkConfiguration buildOptimalNetwork() {
 
-		resetStatistics();
-		WeightedGraph<Sensor, Link> network = new WeightedGraph<Sensor, Link>();
+		NetworkConfiguration.Builder config = newConfiguration();
+		WeightedGraph<Sensor, Link> network = createConfigurationGraph();
+		IntList inRange = new IntList();
+
+		// Counted as the network is built, and added to the metrics once.
+		long evaluations = 0;
+		long stragglerChecks = 0;
 
 		// Add all vertices in the logical network to the new network.
 		Iterator<Sensor> verticesIter = logicalNetwork.vertices().iterator();
@@ -72,53 +85,58 @@ public class OmnidirectionalNetwork extends WirelessNetwork {
 				Link e = edgesIter.next();
 
 				// Only use outgoing edges.
-				if (logicalNetwork.endVertices(e).iterator().next().equals(v)) {
+				if (logicalNetwork.isOutgoing(v, e)) {
 
-					float edgeWeight = e.getWeight();
+					Sensor u = logicalNetwork.opposite(v, e);
+					float edgeWeight = logicalNetwork.getWeight(v, u, e);
 
 					if (edgeWeight >= range) {
 						range = edgeWeight;
 					}
 
 					// We have to connect all adjacent vertices anyway.
-					Sensor u = logicalNetwork.opposite(v, e);
-					Link link = new Link(v.getName() + u.getName());
+					Link link = new Link(network.getVertexId(v),
+							network.getVertexId(u));
 					network.insertEdge(v, u, link);
 				}
 			}
 
 			// Now we have the correct range to use, set it.
-			v.setAntennaType(AntennaType.OMNIDIRECTIONAL);
-			v.setAntennaRange(range);
-
-			// Keep track of average angles & range.
-			updateStats(v);
+			config.setOmnidirectional(v.getIndex(), range);
 
 			// Double check; add any other connections to the graph which are
 			// covered by the sensor range.
-			Iterator<Sensor> vertsIter = logicalNetwork.vertices().iterator();
+			inRange.clear();
+			evaluations += getDistances().getWithinRange(v.getIndex(), range,
+					inRange);
+			stragglerChecks += inRange.size();
 
-			while (vertsIter.hasNext()) {
+			for (int i = 0; i < inRange.size(); i++) {
 
-				Sensor u = vertsIter.next();
+				Sensor u = sensors.get(inRange.get(i));
 
-				if (v.getDistance(u) <= range && !v.equals(u)
-						&& !network.areAdjacent(v, u)) {
+				if (!network.areAdjacent(v, u)) {
 
-					Link link = new Link(v.getName() + u.getName());
+					Link link = new Link(network.getVertexId(v),
+							network.getVertexId(u));
 					network.insertEdge(v, u, link);
 				}
 			}
 		}
 
-		return network;
+		DistanceProvider.EVALUATIONS.add(evaluations);
+		STRAGGLER_CHECKS.add(stragglerChecks);
+
+		return config.build(network);
 	}
 
 	@Override
-	public WeightedGraph<Sensor, Link> createNetwork(float sensorRange) {
+	protected NetworkConfiguration buildNetwork(float sensorRange) {
 
-		resetStatistics();
-		WeightedGraph<Sensor, Link> network = new WeightedGraph<Sensor, Link>();
+		NetworkConfiguration.Builder config = newConfiguration();
+		WeightedGraph<Sensor, Link> network = createConfigurationGraph();
+		IntList inRange = new IntList();
+		long evaluations = 0;
 
 		// Add all vertices in the logical network to the new network.
 		Iterator<Sensor> verticesIter = logicalNetwork.vertices().iterator();
@@ -129,101 +147,33 @@ public class OmnidirectionalNetwork extends WirelessNetwork {
 
 		// Add edges which have the proper sensor range to the network.
 		Iterator<Sensor> vertsUIter = logicalNetwork.vertices().iterator();
-		Iterator<Sensor> vertsVIter;
 
-		// For every pair of vertices, if their distance is less than or equal
-		// to the new distance we want to create an edge between them. Only do
-		// this if the vertices are not the same.
+		// For every vertex, find the other vertices whose distance is less
+		// than or equal to the new distance. We want to create an edge to each
+		// of them.
 		while (vertsUIter.hasNext()) {
 
 			Sensor u = vertsUIter.next();
 
-			u.setAntennaType(AntennaType.OMNIDIRECTIONAL);
-			u.setAntennaRange(sensorRange);
-
-			vertsVIter = logicalNetwork.vertices().iterator();
-
-			while (vertsVIter.hasNext()) {
-				Sensor v = vertsVIter.next();
+			inRange.clear();
+			evaluations += getDistances().getWithinRange(u.getIndex(),
+					sensorRange, inRange);
 
-				// If the distance is less than the range then we add an edge.
-				if (u.getDistance(v) <= sensorRange && v != u) {
+			for (int i = 0; i < inRange.size(); i++) {
 
-					Link link = new Link(u.getName() + v.getName());
-					network.insertEdge(u, v, link);
-				}
+				// The distance is less than the range, so we add an edge.
+				Sensor v = sensors.get(inRange.get(i));
+				Link link = new Link(network.getVertexId(u),
+						network.getVertexId(v));
+				network.insertEdge(u, v, link);
 			}
 
-			// Keep track of average angles & range.
-			updateStats(u);
-		}
-
-		return network;
-	}
-
-	/**
-	 * Get the longest edge weight connecting two vertices.
-	 * 
-	 * Only edges in the logical network (MST of the input network) are taken
-	 * into account. This produces the optimal antenna range in the case that
-	 * all sensors must have the same range.
-	 * 
-	 * @return the longest edge weight.
-	 */
-	private float getOptimalAntennaRange() {
-
-		// Our antenna range needs to be at least as large as
-		// the longest edge. (Range is measured as radius)
-		List<Link> edges = new ArrayList<Link>(logicalNetwork.edges());
-		Collections.sort(edges);
-
-		// The list is sorted in non-decreasing order, so get the last element.
-		int numEdges = edges.size();
-		float edgeLength = 0f;
-
-		// Make sure there are no errors if there are no edges.
-		if (numEdges > 0) {
-			edgeLength = edges.get(numEdges - 1).getWeight();
+			config.setOmnidirectional(u.getIndex(), sensorRange);
 		}
 
-		return edgeLength;
-	}
+		DistanceProvider.EVALUATIONS.add(evaluations);
 
-	/**
-	 * Update the network statistics, using info from a newly set sensor.
-	 * 
-	 * @param setSensor
-	 *            the sensor whose properties were initialized/set.
-	 */
-	private void updateStats(Sensor setSensor) {
-
-		// Keep track of average angles & range.
-		float sensorAngle = setSensor.getAntennaAngle();
-		float sensorRange = setSensor.getAntennaRange();
-
-		double previousWeightedAngle = averageAngle * index / (index + 1);
-		double previousWeightedRange = averageRange * index / (index + 1);
-
-		double nextWeightedAngle = sensorAngle * 1 / (index + 1);
-		double nextWeightedRange = sensorRange * 1 / (index + 1);
-
-		averageAngle = previousWeightedAngle + nextWeightedAngle;
-		averageRange = previousWeightedRange + nextWeightedRange;
-
-		// Area = 1/2 r^2 angle.
-		totalEnergyUse += (0.5d * Math.pow(sensorRange, 2) * sensorAngle);
-
-		index++;
-	}
-
-	/**
-	 * Reset the variables used for statistics.
-	 */
-	private void resetStatistics() {
-		averageAngle = 0;
-		averageRange = 0;
-		totalEnergyUse = 0;
-		index = 0;
+		return config.build(network);
 	}
 
 }
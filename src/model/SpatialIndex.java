@@ -0,0 +1,184 @@
+package model;
+
+/**
+ * A uniform grid over a set of points in the plane.
+ * 
+ * Points are referred to by their index in the coordinate arrays the grid was
+ * built from. Queries return candidate points whose grid cell overlaps the
+ * queried area; the caller is expected to filter the candidates exactly, as
+ * the grid only narrows down which points need to be looked at.
+ * 
+ * The grid is stored in compressed form; an array holding the points of each
+ * cell one after another, and an array of offsets into it.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class SpatialIndex {
+
+	// Never use more than this many cells per point, however small the
+	// requested cell size is.
+	private static final int MAX_CELLS_PER_POINT = 4;
+
+	private final int count;
+
+	private float minX;
+	private float minY;
+	private float cellSize;
+	private int columns;
+	private int rows;
+
+	private int[] cellStart;
+	private int[] cellPoints;
+
+	/**
+	 * Build a grid over a set of points.
+	 * 
+	 * @param xs
+	 *            the x positions of the points.
+	 * @param ys
+	 *            the y positions of the points.
+	 * @param count
+	 *            the number of points; the first count entries of the arrays
+	 *            are used.
+	 * @param cellSize
+	 *            the side length of a grid cell. Queries are fastest when the
+	 *            queried distance is close to this.
+	 */
+	public SpatialIndex(float[] xs, float[] ys, int count, float cellSize) {
+
+		this.count = count;
+
+		float maxX = -Float.MAX_VALUE;
+		float maxY = -Float.MAX_VALUE;
+		minX = Float.MAX_VALUE;
+		minY = Float.MAX_VALUE;
+
+		for (int i = 0; i < count; i++) {
+			minX = Math.min(minX, xs[i]);
+			minY = Math.min(minY, ys[i]);
+			maxX = Math.max(maxX, xs[i]);
+			maxY = Math.max(maxY, ys[i]);
+		}
+
+		if (count == 0) {
+			minX = minY = maxX = maxY = 0f;
+		}
+
+		// Grow the cells if the grid would otherwise be much larger than the
+		// number of points it holds.
+		float width = Math.max(maxX - minX, Float.MIN_VALUE);
+		float height = Math.max(maxY - minY, Float.MIN_VALUE);
+		double maxCells = Math.max(1d, (double) count * MAX_CELLS_PER_POINT);
+		double minCellSize = Math.sqrt((double) width * height / maxCells);
+
+		this.cellSize = (float) Math.max(cellSize, minCellSize);
+
+		if (!(this.cellSize > 0f)) {
+			this.cellSize = 1f;
+		}
+
+		columns = (int) (width / this.cellSize) + 1;
+		rows = (int) (height / this.cellSize) + 1;
+
+		// Count the points in each cell, then turn the counts into offsets and
+		// place the points.
+		int[] cellOf = new int[count];
+		cellStart = new int[columns * rows + 1];
+
+		for (int i = 0; i < count; i++) {
+			cellOf[i] = cell(column(xs[i]), row(ys[i]));
+			cellStart[cellOf[i] + 1]++;
+		}
+
+		for (int c = 0; c < columns * rows; c++) {
+			cellStart[c + 1] += cellStart[c];
+		}
+
+		int[] next = new int[columns * rows];
+		cellPoints = new int[count];
+
+		for (int i = 0; i < count; i++) {
+			int c = cellOf[i];
+			cellPoints[cellStart[c] + next[c]++] = i;
+		}
+	}
+
+	/**
+	 * Get the number of points in the grid.
+	 * 
+	 * @return the number of points in the grid.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Find the points which may be within the given rectangle.
+	 * 
+	 * @param fromX
+	 *            the smallest x position of the rectangle.
+	 * @param fromY
+	 *            the smallest y position of the rectangle.
+	 * @param toX
+	 *            the largest x position of the rectangle.
+	 * @param toY
+	 *            the largest y position of the rectangle.
+	 * @param result
+	 *            a list to add the indices of candidate points to.
+	 */
+	public void query(float fromX, float fromY, float toX, float toY,
+			IntList result) {
+
+		int firstColumn = column(fromX);
+		int lastColumn = column(toX);
+		int firstRow = row(fromY);
+		int lastRow = row(toY);
+
+		for (int r = firstRow; r <= lastRow; r++) {
+			for (int c = firstColumn; c <= lastColumn; c++) {
+
+				int cell = cell(c, r);
+
+				for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+					result.add(cellPoints[k]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Find the points which may be within a distance of a position.
+	 * 
+	 * @param x
+	 *            the x position.
+	 * @param y
+	 *            the y position.
+	 * @param distance
+	 *            the distance from the position.
+	 * @param result
+	 *            a list to add the indices of candidate points to.
+	 */
+	public void query(float x, float y, float distance, IntList result) {
+		query(x - distance, y - distance, x + distance, y + distance, result);
+	}
+
+	// Cell coordinates of a position, clamped to the grid.
+	private int column(float x) {
+		return clamp((int) Math.floor((x - minX) / cellSize), columns);
+	}
+
+	private int row(float y) {
+		return clamp((int) Math.floor((y - minY) / cellSize), rows);
+	}
+
+	private int cell(int column, int row) {
+		return row * columns + column;
+	}
+
+	private static int clamp(int value, int limit) {
+		return Math.max(0, Math.min(value, limit - 1));
+	}
+
+}
@@ -45,11 +45,33 @@ public abstract class Vertex {
 	 * @return an angle in degrees.
 	 */
 	public float getDirection(Vertex to) {
+		return getDirection(getX(), getY(), to.getX(), to.getY());
+	}
+
+	/**
+	 * Get the direction vector from one position to another.
+	 * 
+	 * The result is an angle in degrees with respect to the polar coordinate
+	 * system.
+	 * 
+	 * @param fromX
+	 *            the x position to measure from.
+	 * @param fromY
+	 *            the y position to measure from.
+	 * @param toX
+	 *            the x position to measure to.
+	 * @param toY
+	 *            the y position to measure to.
+	 * 
+	 * @return an angle in degrees.
+	 */
+	public static float getDirection(float fromX, float fromY, float toX,
+			float toY) {
 
 		// Convert the vector 'fromVertex -> toVertex' to a point, by moving the
 		// vector (tail) to the origin.
-		float yPos = to.getY() - getY();
-		float xPos = to.getX() - getX();
+		float yPos = toY - fromY;
+		float xPos = toX - fromX;
 
 		// Then get the angle from the point by using polar coordinate formula.
 		float direction = (float) Math.atan2(yPos, xPos);
@@ -78,9 +100,9 @@ public abstract class Vertex {
 	public float getDistance(Vertex to) {
 
 		// Get the distance, using the Pythagorean Theorem!
-		double xDistSquared = Math.pow((getX() - to.getX()), 2);
-		double yDistSquared = Math.pow((getY() - to.getY()), 2);
-		float distance = (float) Math.sqrt((xDistSquared + yDistSquared));
+		double xDist = getX() - to.getX();
+		double yDist = getY() - to.getY();
+		float distance = (float) Math.sqrt(xDist * xDist + yDist * yDist);
 
 		return distance;
 	}
@@ -0,0 +1,42 @@
+package model;
+
+/**
+ * Gives the weights of the edges of a weighted graph.
+ * 
+ * A provider may store the weight in each edge as the edge is inserted, or
+ * compute it each time it is asked for; graphs whose weights are only read now
+ * and then needn't pay for weighing every edge up front. Common providers are
+ * made by {@link WeightProviders}.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public interface WeightProvider<V extends Vertex, E extends WeightedEdgeInterface> {
+
+	/**
+	 * Called as an edge is inserted into a graph.
+	 * 
+	 * @param from
+	 *            the vertex the edge leads from.
+	 * @param to
+	 *            the vertex the edge leads to.
+	 * @param edge
+	 *            the inserted edge.
+	 */
+	void edgeInserted(V from, V to, E edge);
+
+	/**
+	 * Get the weight of an edge.
+	 * 
+	 * @param from
+	 *            the vertex the edge leads from.
+	 * @param to
+	 *            the vertex the edge leads to.
+	 * @param edge
+	 *            the edge.
+	 * 
+	 * @return the edge's weight.
+	 */
+	float getWeight(V from, V to, E edge);
+}
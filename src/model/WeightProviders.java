@@ -0,0 +1,93 @@
+package model;
+
+/**
+ * The weight providers used by weighted graphs.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class WeightProviders {
+
+	private static final WeightProvider<Vertex, WeightedEdgeInterface> STORED = new Stored();
+	private static final WeightProvider<Vertex, WeightedEdgeInterface> STORED_DISTANCE = new StoredDistance();
+	private static final WeightProvider<Vertex, WeightedEdgeInterface> COMPUTED_DISTANCE = new ComputedDistance();
+
+	private WeightProviders() {
+	}
+
+	/**
+	 * Get a provider of the weights stored in the edges; the weights are
+	 * whatever the edges were given, and aren't touched on insertion.
+	 * 
+	 * @return the provider.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V extends Vertex, E extends WeightedEdgeInterface> WeightProvider<V, E> stored() {
+		return (WeightProvider<V, E>) STORED;
+	}
+
+	/**
+	 * Get a provider which weighs each edge by the Euclidean distance between
+	 * its vertices, storing the weight in the edge as it is inserted.
+	 * 
+	 * @return the provider.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V extends Vertex, E extends WeightedEdgeInterface> WeightProvider<V, E> storedDistance() {
+		return (WeightProvider<V, E>) STORED_DISTANCE;
+	}
+
+	/**
+	 * Get a provider which computes the Euclidean distance between the
+	 * vertices of an edge whenever its weight is asked for. Nothing is stored
+	 * in the edges, so inserting them costs no distance computation.
+	 * 
+	 * @return the provider.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V extends Vertex, E extends WeightedEdgeInterface> WeightProvider<V, E> computedDistance() {
+		return (WeightProvider<V, E>) COMPUTED_DISTANCE;
+	}
+
+	private static final class Stored implements
+			WeightProvider<Vertex, WeightedEdgeInterface> {
+
+		public void edgeInserted(Vertex from, Vertex to,
+				WeightedEdgeInterface edge) {
+		}
+
+		public float getWeight(Vertex from, Vertex to,
+				WeightedEdgeInterface edge) {
+			return edge.getWeight();
+		}
+	}
+
+	private static final class StoredDistance implements
+			WeightProvider<Vertex, WeightedEdgeInterface> {
+
+		public void edgeInserted(Vertex from, Vertex to,
+				WeightedEdgeInterface edge) {
+			edge.setWeight(from.getDistance(to));
+		}
+
+		public float getWeight(Vertex from, Vertex to,
+				WeightedEdgeInterface edge) {
+			return edge.getWeight();
+		}
+	}
+
+	private static final class ComputedDistance implements
+			WeightProvider<Vertex, WeightedEdgeInterface> {
+
+		public void edgeInserted(Vertex from, Vertex to,
+				WeightedEdgeInterface edge) {
+		}
+
+		public float getWeight(Vertex from, Vertex to,
+				WeightedEdgeInterface edge) {
+			return from.getDistance(to);
+		}
+	}
+
+}
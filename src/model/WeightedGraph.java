@@ -2,7 +2,12 @@ package model;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+import metrics.Metrics;
+import metrics.StatisticsEvent;
+import metrics.Timer;
 import ui.Drawable;
 import algorithms.DijkstraSSSP;
 
@@ -14,6 +19,62 @@ import algorithms.DijkstraSSSP;
 public class WeightedGraph<V extends Vertex, E extends WeightedEdgeInterface>
 		extends Graph<V, E> implements Drawable {
 
+	private static final Timer DIAMETER = Metrics.timer("statistics.diameter");
+	private static final Timer DIAMETER_HOPS = Metrics
+			.timer("statistics.diameterHops");
+	private static final Timer AVERAGE_PATH = Metrics
+			.timer("statistics.averageShortestPathLength");
+	private static final Timer AVERAGE_PATH_HOPS = Metrics
+			.timer("statistics.averageShortestPathLengthHops");
+
+	// The statistics below need shortest paths between all pairs of vertices,
+	// so once computed they are kept until the graph changes.
+	private int statisticsVersion = -1;
+	private float diameter;
+	private int diameterHops;
+	private float averageShortestPathLength;
+	private float averageShortestPathLengthHops;
+
+	// How long each statistic took to compute, in the same order as the
+	// computed statistics; read without locking, while others are computed.
+	private final AtomicLongArray statisticsNanos = new AtomicLongArray(4);
+
+	private final WeightProvider<V, E> weights;
+
+	/**
+	 * Create an empty directed weighted graph, where edges are weighted by the
+	 * distance between their vertices.
+	 */
+	public WeightedGraph() {
+		this(false);
+	}
+
+	/**
+	 * Create an empty weighted graph, where edges are weighted by the distance
+	 * between their vertices.
+	 * 
+	 * @param undirected
+	 *            true for an undirected graph, where each edge leads both
+	 *            ways, or false for a directed graph.
+	 */
+	public WeightedGraph(boolean undirected) {
+		this(undirected, WeightProviders.<V, E> storedDistance());
+	}
+
+	/**
+	 * Create an empty weighted graph.
+	 * 
+	 * @param undirected
+	 *            true for an undirected graph, where each edge leads both
+	 *            ways, or false for a directed graph.
+	 * @param weights
+	 *            the provider of the edge weights.
+	 */
+	public WeightedGraph(boolean undirected, WeightProvider<V, E> weights) {
+		super(undirected);
+		this.weights = weights;
+	}
+
 	@Override
 	public E insertEdge(V v, V u, E e) {
 
@@ -24,23 +85,151 @@ public class WeightedGraph<V extends Vertex, E extends WeightedEdgeInterface>
 
 		E edge = super.insertEdge(v, u, e);
 
-		// Weight is currently the Euclidean distance between the vertices which
-		// are connected by the edge.
-		double xLengthSquared = Math.pow(Math.abs(u.getX() - v.getX()), 2);
-		double yLengthSquared = Math.pow(Math.abs(u.getY() - v.getY()), 2);
-		double length = Math.sqrt(xLengthSquared + yLengthSquared);
-
-		edge.setWeight((float) length);
+		if (edge != null) {
+			weights.edgeInserted(v, u, edge);
+		}
 
 		return edge;
 	}
 
+	/**
+	 * Get the weight of an edge of the graph.
+	 * 
+	 * @param edge
+	 *            an edge of the graph.
+	 * 
+	 * @return the edge's weight.
+	 */
+	public float getWeight(E edge) {
+
+		Iterator<V> endVertices = endVertices(edge).iterator();
+
+		V from = endVertices.next();
+		V to = endVertices.hasNext() ? endVertices.next() : from;
+
+		return weights.getWeight(from, to, edge);
+	}
+
+	/**
+	 * Get the weight of an edge of the graph, whose vertices are known.
+	 * 
+	 * @param from
+	 *            the vertex the edge leads from.
+	 * @param to
+	 *            the vertex the edge leads to.
+	 * @param edge
+	 *            an edge of the graph.
+	 * 
+	 * @return the edge's weight.
+	 */
+	public float getWeight(V from, V to, E edge) {
+		return weights.getWeight(from, (to == null) ? from : to, edge);
+	}
+
+	// Forget any statistics computed for an earlier version of the graph.
+	private void validateStatistics() {
+
+		if (statisticsVersion != version) {
+			diameter = Float.NaN;
+			diameterHops = -1;
+			averageShortestPathLength = Float.NaN;
+			averageShortestPathLengthHops = Float.NaN;
+
+			for (int i = 0; i < statisticsNanos.length(); i++) {
+				statisticsNanos.set(i, 0);
+			}
+
+			statisticsVersion = version;
+		}
+	}
+
+	// Stop computing statistics which are no longer wanted, when the thread
+	// computing them is interrupted. Nothing is kept from the computation.
+	private static void checkInterrupted() {
+
+		if (Thread.currentThread().isInterrupted()) {
+			throw new CancellationException("The computation was interrupted.");
+		}
+	}
+
+	/**
+	 * Get the statistics computed so far; the diameter, the diameter in hops,
+	 * and the average shortest path length and hops. Statistics which haven't
+	 * been computed are NaN (or -1 for the diameter in hops).
+	 * 
+	 * @return the computed statistics.
+	 */
+	synchronized float[] getComputedStatistics() {
+
+		validateStatistics();
+
+		return new float[] { diameter, diameterHops,
+				averageShortestPathLength, averageShortestPathLengthHops };
+	}
+
+	/**
+	 * Get how long each statistic took to compute, in the same order as
+	 * {@link #getComputedStatistics()}. Statistics which haven't been
+	 * computed took 0.
+	 * 
+	 * @return the computation times, in nanoseconds.
+	 */
+	long[] getStatisticsNanos() {
+
+		long[] nanos = new long[statisticsNanos.length()];
+
+		for (int i = 0; i < nanos.length; i++) {
+			nanos[i] = statisticsNanos.get(i);
+		}
+
+		return nanos;
+	}
+
+	/**
+	 * Restore statistics computed earlier for the current version of the
+	 * graph, as returned by {@link #getComputedStatistics()}.
+	 * 
+	 * @param statistics
+	 *            the computed statistics.
+	 */
+	synchronized void restoreStatistics(float[] statistics) {
+
+		validateStatistics();
+
+		diameter = statistics[0];
+		diameterHops = (int) statistics[1];
+		averageShortestPathLength = statistics[2];
+		averageShortestPathLengthHops = statistics[3];
+	}
+
 	/**
 	 * Get the diameter of the graph, using Euclidean distance.
 	 * 
 	 * @return the diameter of the graph.
+	 * 
+	 * @throws CancellationException
+	 *             if the thread is interrupted while computing it.
 	 */
-	public float getDiameter() {
+	public synchronized float getDiameter() {
+
+		validateStatistics();
+
+		if (Float.isNaN(diameter)) {
+			Timer.Sample sample = DIAMETER.start();
+			StatisticsEvent event = new StatisticsEvent();
+			event.begin();
+			long start = System.nanoTime();
+			diameter = computeDiameter();
+			statisticsNanos.set(0, System.nanoTime() - start);
+			sample.stop();
+			event.record("diameter", vertices().size(), edges().size(),
+					diameter);
+		}
+
+		return diameter;
+	}
+
+	private float computeDiameter() {
 
 		// To find the diameter of a graph, first find the shortest path between
 		// each pair of vertices. The greatest length of any of these paths is
@@ -50,6 +239,8 @@ public class WeightedGraph<V extends Vertex, E extends WeightedEdgeInterface>
 		Iterator<V> outer = vertices().iterator();
 
 		while (outer.hasNext()) {
+			checkInterrupted();
+
 			Iterator<V> inner = vertices().iterator();
 
 			V u = outer.next();
@@ -78,8 +269,30 @@ public class WeightedGraph<V extends Vertex, E extends WeightedEdgeInterface>
 	 * Get the diameter of the graph, using the number of hops.
 	 * 
 	 * @return the diameter of the graph.
+	 * 
+	 * @throws CancellationException
+	 *             if the thread is interrupted while computing it.
 	 */
-	public int getDiameterHops() {
+	public synchronized int getDiameterHops() {
+
+		validateStatistics();
+
+		if (diameterHops < 0) {
+			Timer.Sample sample = DIAMETER_HOPS.start();
+			StatisticsEvent event = new StatisticsEvent();
+			event.begin();
+			long start = System.nanoTime();
+			diameterHops = computeDiameterHops();
+			statisticsNanos.set(1, System.nanoTime() - start);
+			sample.stop();
+			event.record("diameterHops", vertices().size(), edges().size(),
+					diameterHops);
+		}
+
+		return diameterHops;
+	}
+
+	private int computeDiameterHops() {
 
 		// Since we're using Euclidean distance (straight line links, no
 		// negative paths also) the shortest path by hops is the same as the
@@ -92,6 +305,8 @@ public class WeightedGraph<V extends Vertex, E extends WeightedEdgeInterface>
 		Iterator<V> outer = vertices().iterator();
 
 		while (outer.hasNext()) {
+			checkInterrupted();
+
 			Iterator<V> inner = vertices().iterator();
 
 			V u = outer.next();
@@ -249,8 +464,30 @@ public class WeightedGraph<V extends Vertex, E extends WeightedEdgeInterface>
 	 * Find the average shortest path for the graph.
 	 * 
 	 * @return the average shortest path for the graph.
+	 * 
+	 * @throws CancellationException
+	 *             if the thread is interrupted while computing it.
 	 */
-	public float getAverageShortestPathLength() {
+	public synchronized float getAverageShortestPathLength() {
+
+		validateStatistics();
+
+		if (Float.isNaN(averageShortestPathLength)) {
+			Timer.Sample sample = AVERAGE_PATH.start();
+			StatisticsEvent event = new StatisticsEvent();
+			event.begin();
+			long start = System.nanoTime();
+			averageShortestPathLength = computeAverageShortestPathLength();
+			statisticsNanos.set(2, System.nanoTime() - start);
+			sample.stop();
+			event.record("averageShortestPathLength", vertices().size(),
+					edges().size(), averageShortestPathLength);
+		}
+
+		return averageShortestPathLength;
+	}
+
+	private float computeAverageShortestPathLength() {
 
 		// Similar to finding the diameter we iterate through every pair of
 		// vertices and get their shortest path length. Then we add the length
@@ -262,6 +499,8 @@ public class WeightedGraph<V extends Vertex, E extends WeightedEdgeInterface>
 		Iterator<V> outer = vertices().iterator();
 
 		while (outer.hasNext()) {
+			checkInterrupted();
+
 			Iterator<V> inner = vertices().iterator();
 
 			V u = outer.next();
@@ -296,14 +535,38 @@ public class WeightedGraph<V extends Vertex, E extends WeightedEdgeInterface>
 	 * Find the average shortest path for the graph using hops.
 	 * 
 	 * @return the average shortest path for the graph using hops.
+	 * 
+	 * @throws CancellationException
+	 *             if the thread is interrupted while computing it.
 	 */
-	public float getAverageShortestPathLengthHops() {
+	public synchronized float getAverageShortestPathLengthHops() {
+
+		validateStatistics();
+
+		if (Float.isNaN(averageShortestPathLengthHops)) {
+			Timer.Sample sample = AVERAGE_PATH_HOPS.start();
+			StatisticsEvent event = new StatisticsEvent();
+			event.begin();
+			long start = System.nanoTime();
+			averageShortestPathLengthHops = computeAverageShortestPathLengthHops();
+			statisticsNanos.set(3, System.nanoTime() - start);
+			sample.stop();
+			event.record("averageShortestPathLengthHops", vertices().size(),
+					edges().size(), averageShortestPathLengthHops);
+		}
+
+		return averageShortestPathLengthHops;
+	}
+
+	private float computeAverageShortestPathLengthHops() {
 
 		float averageMinPath = 0f;
 		float count = 0;
 
 		Iterator<V> outer = vertices().iterator();
 		while (outer.hasNext()) {
+			checkInterrupted();
+
 			Iterator<V> inner = vertices().iterator();
 
 			V u = outer.next();
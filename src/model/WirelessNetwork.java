@@ -1,38 +1,278 @@
 package model;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import metrics.Metrics;
+import metrics.NetworkEvent;
+import metrics.Timer;
+
 /**
+ * A network of sensors whose antennas are oriented to form a strongly
+ * connected network.
+ * 
+ * Building a network never modifies the logical network or its sensors; each
+ * build returns its own NetworkConfiguration. Any number of networks may
+ * therefore be built at the same time, see
+ * {@link #createNetworks(float[], ExecutorService)}.
+ * 
  * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
  * @version 1.0
  * @since 2012-09-23
  */
 public abstract class WirelessNetwork extends Network {
 
+	private static final Timer BUILD_OPTIMAL = Metrics
+			.timer("network.buildOptimal");
+	private static final Timer BUILD = Metrics.timer("network.build");
+
+	// Constructed networks are kept, so each only needs to be built once.
+	private NetworkCache cache = new NetworkCache();
+
 	public WirelessNetwork(WeightedGraph<Node, Link> physicalNetwork) {
 		super(physicalNetwork);
 	}
 
+	/**
+	 * Constructor for a network which shares its logical network, and its
+	 * cache of constructed networks, with the other networks of a factory.
+	 * 
+	 * @param factory
+	 *            the factory which computes the logical network.
+	 */
+	protected WirelessNetwork(NetworkFactory factory) {
+		super(factory);
+		cache = factory.getCache();
+	}
+
 	/**
 	 * Create a network from the logical network which is optimal.
 	 * 
+	 * Networks which were created before (and are still cached) are reused.
+	 * 
 	 * @param sameRange
 	 *            a boolean value indicating whether all sensors will have the
 	 *            same range.
 	 * 
-	 * @return the constructed network.
+	 * @return the configuration of the constructed network.
 	 */
-	public abstract WeightedGraph<Sensor, Link> createOptimalNetwork(
-			boolean sameRange);
+	public NetworkConfiguration createOptimalNetwork(boolean sameRange) {
+
+		if (sameRange) {
+			return createNetwork(getOptimalAntennaRange());
+		}
+
+		return create(new NetworkCache.Key(logicalNetwork, getAntennaType(),
+				false, 0f));
+	}
 
 	/**
 	 * Create a network from the logical network.
 	 * 
 	 * The network created will be configured such that all sensors have the
+	 * same range. Networks which were created before (and are still cached)
+	 * are reused.
+	 * 
+	 * @param sensorRange
+	 *            the range for each sensor.
+	 * 
+	 * @return the configuration of the constructed network.
+	 */
+	public NetworkConfiguration createNetwork(float sensorRange) {
+
+		return create(new NetworkCache.Key(logicalNetwork, getAntennaType(),
+				true, sensorRange));
+	}
+
+	/**
+	 * Create the network of a key, reusing it if it is cached.
+	 * 
+	 * @param key
+	 *            the key of the network, for this network's logical network
+	 *            and antenna type.
+	 * 
+	 * @return the configuration of the constructed network.
+	 */
+	NetworkConfiguration create(NetworkCache.Key key) {
+
+		NetworkActivity activity = getFactory().getActivity();
+		NetworkEvent event = new NetworkEvent();
+		event.begin();
+
+		NetworkConfiguration configuration = cache.get(key);
+		boolean cached = configuration != null;
+
+		if (!cached) {
+
+			Timer.Sample sample = key.isSameRange() ? BUILD.start()
+					: BUILD_OPTIMAL.start();
+			long start = System.nanoTime();
+
+			activity.buildStarted();
+
+			try {
+				configuration = key.isSameRange() ? buildNetwork(key
+						.getRange()) : buildOptimalNetwork();
+			} finally {
+				activity.buildFinished();
+				sample.stop();
+			}
+
+			activity.recordPhase(key.isSameRange() ? "network.build"
+					: "network.buildOptimal", System.nanoTime() - start);
+			cache.put(key, configuration);
+		}
+
+		activity.setLatest(this, key, configuration);
+		event.record(key.getType().toString(), key.isSameRange(),
+				key.getRange(), cached, configuration.getNetwork().vertices()
+						.size(), configuration.getNetwork().edges().size());
+
+		return configuration;
+	}
+
+	/**
+	 * Create networks for several ranges at once.
+	 * 
+	 * Each network is built as a separate task of the executor, so the
+	 * networks are built in parallel if the executor has several threads.
+	 * 
+	 * @param sensorRanges
+	 *            the range for each sensor, one per network.
+	 * @param executor
+	 *            the executor to build the networks with.
+	 * 
+	 * @return the configurations of the constructed networks, in the same
+	 *         order as the ranges.
+	 */
+	public List<Future<NetworkConfiguration>> createNetworks(
+			float[] sensorRanges, ExecutorService executor) {
+
+		final NetworkActivity activity = getFactory().getActivity();
+
+		List<Future<NetworkConfiguration>> configurations;
+		configurations = new ArrayList<Future<NetworkConfiguration>>();
+
+		for (int i = 0; i < sensorRanges.length; i++) {
+
+			final float sensorRange = sensorRanges[i];
+
+			// The job is pending until it is done, or cancelled before it
+			// was run.
+			FutureTask<NetworkConfiguration> job = new FutureTask<NetworkConfiguration>(
+					new Callable<NetworkConfiguration>() {
+
+						@Override
+						public NetworkConfiguration call() {
+							return createNetwork(sensorRange);
+						}
+					}) {
+
+				@Override
+				protected void done() {
+					activity.jobDone();
+				}
+			};
+
+			activity.jobSubmitted();
+
+			try {
+				executor.execute(job);
+			} catch (RuntimeException e) {
+				activity.jobDone();
+				throw e;
+			}
+
+			configurations.add(job);
+		}
+
+		return configurations;
+	}
+
+	/**
+	 * Build a network from the logical network which is optimal. Sensors may
+	 * have different ranges.
+	 * 
+	 * @return the configuration of the constructed network.
+	 */
+	protected abstract NetworkConfiguration buildOptimalNetwork();
+
+	/**
+	 * Build a network from the logical network, where all sensors have the
 	 * same range.
 	 * 
 	 * @param sensorRange
 	 *            the range for each sensor.
 	 * 
-	 * @return the constructed network.
+	 * @return the configuration of the constructed network.
+	 */
+	protected abstract NetworkConfiguration buildNetwork(float sensorRange);
+
+	/**
+	 * Get the type of antenna used by the sensors of this network.
+	 * 
+	 * @return the antenna type.
 	 */
-	public abstract WeightedGraph<Sensor, Link> createNetwork(float sensorRange);
+	public abstract AntennaType getAntennaType();
+
+	/**
+	 * Get the cache holding the networks constructed by this network.
+	 * 
+	 * @return the network cache.
+	 */
+	public NetworkCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Set the cache used to hold constructed networks. A cache may be shared
+	 * between wireless networks.
+	 * 
+	 * @param cache
+	 *            the network cache to use.
+	 */
+	public void setCache(NetworkCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Get the longest edge weight connecting two vertices.
+	 * 
+	 * Only edges in the logical network (MST of the input network) are taken
+	 * into account. This produces the optimal antenna range in the case that
+	 * all sensors must have the same range.
+	 * 
+	 * @return the longest edge weight.
+	 */
+	protected float getOptimalAntennaRange() {
+
+		// Our antenna range needs to be at least as large as
+		// the longest edge. (Range is measured as radius)
+		return getLongestLink();
+	}
+
+	/**
+	 * Start the configuration of a network built from the logical network.
+	 * 
+	 * @return a builder for the configuration.
+	 */
+	protected NetworkConfiguration.Builder newConfiguration() {
+		return new NetworkConfiguration.Builder(sensors.size());
+	}
+
+	/**
+	 * Create the graph of a network built from the logical network. Its links
+	 * are weighed only when asked for, such as by the network statistics, so
+	 * building it costs no distance computation.
+	 * 
+	 * @return an empty directed graph.
+	 */
+	protected WeightedGraph<Sensor, Link> createConfigurationGraph() {
+		return new WeightedGraph<Sensor, Link>(false,
+				WeightProviders.<Sensor, Link> computedDistance());
+	}
 }
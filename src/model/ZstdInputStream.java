@@ -0,0 +1,1121 @@
+package model;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream which decompresses Zstandard (zstd) compressed data, as
+ * described by RFC 8878.
+ * 
+ * Only decompression is supported, for frames which don't use a dictionary.
+ * Concatenated frames are decompressed one after the other, and skippable
+ * frames are skipped. Content checksums are skipped rather than verified.
+ * 
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class ZstdInputStream extends InputStream {
+
+	private static final int MAGIC = 0xFD2FB528;
+	private static final int SKIPPABLE_MAGIC = 0x184D2A50;
+	private static final int SKIPPABLE_MASK = 0xFFFFFFF0;
+
+	private static final int MAX_BLOCK_SIZE = 128 * 1024;
+	private static final int MAX_WINDOW_LOG = 27;
+
+	// Sequence codes; baselines and number of extra bits.
+	private static final int[] LITERAL_LENGTH_BASE = { 0, 1, 2, 3, 4, 5, 6,
+			7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 18, 20, 22, 24, 28, 32, 40,
+			48, 64, 128, 256, 512, 1024, 2048, 4096, 8192, 16384, 32768, 65536 };
+	private static final int[] LITERAL_LENGTH_BITS = { 0, 0, 0, 0, 0, 0, 0,
+			0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 3, 3, 4, 6, 7, 8, 9,
+			10, 11, 12, 13, 14, 15, 16 };
+
+	private static final int[] MATCH_LENGTH_BASE = { 3, 4, 5, 6, 7, 8, 9,
+			10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25,
+			26, 27, 28, 29, 30, 31, 32, 33, 34, 35, 37, 39, 41, 43, 47, 51,
+			59, 67, 83, 99, 131, 259, 515, 1027, 2051, 4099, 8195, 16387,
+			32771, 65539 };
+	private static final int[] MATCH_LENGTH_BITS = { 0, 0, 0, 0, 0, 0, 0, 0,
+			0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+			0, 0, 1, 1, 1, 1, 2, 2, 3, 3, 4, 4, 5, 7, 8, 9, 10, 11, 12, 13,
+			14, 15, 16 };
+
+	// The predefined distributions of the sequence codes.
+	private static final FseTable LITERAL_LENGTH_DEFAULT = FseTable.build(
+			new int[] { 4, 3, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 1, 1, 1, 2, 2,
+					2, 2, 2, 2, 2, 2, 2, 3, 2, 1, 1, 1, 1, 1, -1, -1, -1, -1 },
+			36, 6);
+	private static final FseTable MATCH_LENGTH_DEFAULT = FseTable.build(
+			new int[] { 1, 4, 3, 2, 2, 2, 2, 2, 2, 1, 1, 1, 1, 1, 1, 1, 1, 1,
+					1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,
+					1, 1, 1, 1, 1, 1, 1, 1, -1, -1, -1, -1, -1, -1, -1 }, 53, 6);
+	private static final FseTable OFFSET_DEFAULT = FseTable.build(new int[] {
+			1, 1, 1, 1, 1, 1, 2, 2, 2, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,
+			1, 1, -1, -1, -1, -1, -1 }, 29, 5);
+
+	private final InputStream in;
+
+	// The decompressed output. The start of the buffer holds the window of
+	// earlier output which matches refer to; output from readPos to
+	// writePos hasn't been read yet.
+	private byte[] window = new byte[0];
+	private int windowSize;
+	private int readPos = 0;
+	private int writePos = 0;
+
+	// The state of the current frame.
+	private boolean inFrame = false;
+	private boolean lastBlock;
+	private boolean hasChecksum;
+	private int blockMaximum;
+
+	// The compressed block being decoded, and the position within it.
+	private final byte[] block = new byte[MAX_BLOCK_SIZE];
+	private int cursor;
+
+	// Decoded literals of the current block.
+	private final byte[] literals = new byte[MAX_BLOCK_SIZE];
+	private int literalsLength;
+
+	// Tables and offsets which may be reused by the blocks of a frame.
+	private HuffmanTable huffmanTable;
+	private FseTable literalLengthTable;
+	private FseTable offsetTable;
+	private FseTable matchLengthTable;
+	private final int[] repeatOffsets = new int[3];
+
+	/**
+	 * Create a stream which decompresses the data read from another stream.
+	 * 
+	 * @param in
+	 *            the stream of compressed data.
+	 */
+	public ZstdInputStream(InputStream in) {
+		this.in = in;
+	}
+
+	@Override
+	public int read() throws IOException {
+
+		if (readPos == writePos && !fill()) {
+			return -1;
+		}
+
+		return window[readPos++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+
+		if (len == 0) {
+			return 0;
+		}
+
+		if (readPos == writePos && !fill()) {
+			return -1;
+		}
+
+		int count = Math.min(len, writePos - readPos);
+		System.arraycopy(window, readPos, b, off, count);
+		readPos += count;
+
+		return count;
+	}
+
+	@Override
+	public int available() {
+		return writePos - readPos;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	// Decompress until there is output to read, returning false at the end
+	// of the input.
+	private boolean fill() throws IOException {
+
+		while (readPos == writePos) {
+
+			if (!inFrame) {
+				if (!readFrameHeader()) {
+					return false;
+				}
+
+			} else if (lastBlock) {
+				if (hasChecksum) {
+					readFully(block, 0, 4);
+				}
+				inFrame = false;
+
+			} else {
+				decodeBlock();
+			}
+		}
+
+		return true;
+	}
+
+	// Read the header of the next frame, skipping skippable frames. Returns
+	// false at the end of the input.
+	private boolean readFrameHeader() throws IOException {
+
+		while (true) {
+
+			int first = in.read();
+
+			if (first < 0) {
+				return false;
+			}
+
+			int magic = first | readByte() << 8 | readByte() << 16
+					| readByte() << 24;
+
+			if ((magic & SKIPPABLE_MASK) == SKIPPABLE_MAGIC) {
+				skipFully(readIntLE() & 0xFFFFFFFFL);
+				continue;
+			}
+
+			if (magic != MAGIC) {
+				throw new IOException("Not zstd compressed data.");
+			}
+
+			break;
+		}
+
+		int descriptor = readByte();
+		int contentSizeFlag = descriptor >>> 6;
+		boolean singleSegment = (descriptor & 0x20) != 0;
+		int dictionaryIdFlag = descriptor & 3;
+
+		if ((descriptor & 0x08) != 0) {
+			throw corrupt();
+		}
+
+		hasChecksum = (descriptor & 0x04) != 0;
+
+		long size = 0;
+
+		if (!singleSegment) {
+			int windowDescriptor = readByte();
+			int windowLog = 10 + (windowDescriptor >>> 3);
+
+			if (windowLog > MAX_WINDOW_LOG) {
+				throw new IOException("The zstd window is too large.");
+			}
+
+			long windowBase = 1L << windowLog;
+			size = windowBase + (windowBase / 8) * (windowDescriptor & 7);
+		}
+
+		long dictionaryId = readLE(dictionaryIdFlag == 3 ? 4
+				: dictionaryIdFlag);
+
+		if (dictionaryId != 0) {
+			throw new IOException("zstd dictionaries are not supported.");
+		}
+
+		int contentSizeBytes = (contentSizeFlag == 0) ? (singleSegment ? 1 : 0)
+				: 1 << contentSizeFlag;
+		long contentSize = readLE(contentSizeBytes);
+
+		if (contentSizeBytes == 2) {
+			contentSize += 256;
+		}
+
+		if (singleSegment) {
+			if (contentSize < 0 || contentSize > 1L << MAX_WINDOW_LOG) {
+				throw new IOException("The zstd window is too large.");
+			}
+			size = contentSize;
+		}
+
+		blockMaximum = (int) Math.min(size, MAX_BLOCK_SIZE);
+
+		// A frame never refers back past its start, so when the size of its
+		// content is known the window need be no larger; a header alone
+		// can't make the decoder allocate more than the frame produces.
+		if (contentSizeBytes > 0 && contentSize >= 0 && contentSize < size) {
+			size = contentSize;
+		}
+
+		windowSize = (int) size;
+
+		// Room for the window, plus as much again of output, so the window
+		// only needs to be moved once per window of output.
+		int capacity = 2 * windowSize + MAX_BLOCK_SIZE;
+
+		if (window.length < capacity) {
+			window = new byte[capacity];
+		}
+
+		readPos = 0;
+		writePos = 0;
+
+		inFrame = true;
+		lastBlock = false;
+
+		huffmanTable = null;
+		literalLengthTable = null;
+		offsetTable = null;
+		matchLengthTable = null;
+
+		repeatOffsets[0] = 1;
+		repeatOffsets[1] = 4;
+		repeatOffsets[2] = 8;
+
+		return true;
+	}
+
+	private void decodeBlock() throws IOException {
+
+		int header = readByte() | readByte() << 8 | readByte() << 16;
+
+		lastBlock = (header & 1) != 0;
+		int type = (header >>> 1) & 3;
+		int size = header >>> 3;
+
+		// Move the window to the start of the buffer once there is no more
+		// room for a block.
+		if (writePos + MAX_BLOCK_SIZE > window.length) {
+
+			int keep = Math.min(writePos, windowSize);
+
+			System.arraycopy(window, writePos - keep, window, 0, keep);
+			readPos = keep;
+			writePos = keep;
+		}
+
+		switch (type) {
+		case 0:
+			if (size > blockMaximum) {
+				throw corrupt();
+			}
+			readFully(window, writePos, size);
+			writePos += size;
+			break;
+
+		case 1:
+			if (size > blockMaximum) {
+				throw corrupt();
+			}
+			byte value = (byte) readByte();
+
+			for (int i = 0; i < size; i++) {
+				window[writePos++] = value;
+			}
+			break;
+
+		case 2:
+			if (size > blockMaximum) {
+				throw corrupt();
+			}
+			readFully(block, 0, size);
+			cursor = 0;
+
+			decodeLiterals(size);
+			decodeSequences(size);
+			break;
+
+		default:
+			throw corrupt();
+		}
+	}
+
+	private void decodeLiterals(int end) throws IOException {
+
+		int b0 = byteAt(0, end);
+		int type = b0 & 3;
+		int sizeFormat = (b0 >>> 2) & 3;
+
+		if (type == 0 || type == 1) {
+
+			// Raw or RLE literals.
+			int regenerated;
+
+			if (sizeFormat == 1) {
+				regenerated = (b0 >>> 4) + (byteAt(1, end) << 4);
+				cursor = 2;
+			} else if (sizeFormat == 3) {
+				regenerated = (b0 >>> 4) + (byteAt(1, end) << 4)
+						+ (byteAt(2, end) << 12);
+				cursor = 3;
+			} else {
+				regenerated = b0 >>> 3;
+				cursor = 1;
+			}
+
+			if (regenerated > blockMaximum) {
+				throw corrupt();
+			}
+
+			if (type == 0) {
+				if (cursor + regenerated > end) {
+					throw corrupt();
+				}
+				System.arraycopy(block, cursor, literals, 0, regenerated);
+				cursor += regenerated;
+
+			} else {
+				byte value = (byte) byteAt(cursor, end);
+
+				for (int i = 0; i < regenerated; i++) {
+					literals[i] = value;
+				}
+				cursor++;
+			}
+
+			literalsLength = regenerated;
+			return;
+		}
+
+		// Huffman compressed literals, in one or four streams.
+		int regenerated;
+		int compressed;
+
+		if (sizeFormat <= 1) {
+			int header = b0 | byteAt(1, end) << 8 | byteAt(2, end) << 16;
+			regenerated = (header >>> 4) & 0x3FF;
+			compressed = (header >>> 14) & 0x3FF;
+			cursor = 3;
+
+		} else if (sizeFormat == 2) {
+			int header = b0 | byteAt(1, end) << 8 | byteAt(2, end) << 16
+					| byteAt(3, end) << 24;
+			regenerated = (header >>> 4) & 0x3FFF;
+			compressed = (header >>> 18) & 0x3FFF;
+			cursor = 4;
+
+		} else {
+			long header = b0 | byteAt(1, end) << 8 | byteAt(2, end) << 16
+					| (long) byteAt(3, end) << 24 | (long) byteAt(4, end) << 32;
+			regenerated = (int) ((header >>> 4) & 0x3FFFF);
+			compressed = (int) ((header >>> 22) & 0x3FFFF);
+			cursor = 5;
+		}
+
+		int literalsEnd = cursor + compressed;
+
+		if (regenerated > blockMaximum || literalsEnd > end) {
+			throw corrupt();
+		}
+
+		if (type == 2) {
+			huffmanTable = readHuffmanTable(literalsEnd);
+		} else if (huffmanTable == null) {
+			throw corrupt();
+		}
+
+		if (sizeFormat == 0) {
+			huffmanTable.decode(block, cursor, literalsEnd, literals, 0,
+					regenerated);
+
+		} else {
+			if (cursor + 6 > literalsEnd) {
+				throw corrupt();
+			}
+
+			int size1 = byteAt(cursor, end) | byteAt(cursor + 1, end) << 8;
+			int size2 = byteAt(cursor + 2, end) | byteAt(cursor + 3, end) << 8;
+			int size3 = byteAt(cursor + 4, end) | byteAt(cursor + 5, end) << 8;
+
+			int start1 = cursor + 6;
+			int start2 = start1 + size1;
+			int start3 = start2 + size2;
+			int start4 = start3 + size3;
+
+			int segment = (regenerated + 3) / 4;
+
+			if (start4 > literalsEnd || 3 * segment > regenerated) {
+				throw corrupt();
+			}
+
+			huffmanTable.decode(block, start1, start2, literals, 0, segment);
+			huffmanTable.decode(block, start2, start3, literals, segment,
+					segment);
+			huffmanTable.decode(block, start3, start4, literals,
+					2 * segment, segment);
+			huffmanTable.decode(block, start4, literalsEnd, literals,
+					3 * segment, regenerated - 3 * segment);
+		}
+
+		cursor = literalsEnd;
+		literalsLength = regenerated;
+	}
+
+	private HuffmanTable readHuffmanTable(int end) throws IOException {
+
+		int header = byteAt(cursor++, end);
+		int[] weights = new int[256];
+		int count;
+
+		if (header >= 128) {
+
+			// Weights stored directly, four bits each.
+			count = header - 127;
+			int bytes = (count + 1) / 2;
+
+			if (cursor + bytes > end) {
+				throw corrupt();
+			}
+
+			for (int i = 0; i < count; i++) {
+				int b = block[cursor + i / 2] & 0xFF;
+				weights[i] = (i % 2 == 0) ? (b >>> 4) : (b & 0xF);
+			}
+
+			cursor += bytes;
+
+		} else {
+
+			// Weights compressed with FSE, decoded by two interleaved
+			// states.
+			int weightsEnd = cursor + header;
+
+			if (weightsEnd > end) {
+				throw corrupt();
+			}
+
+			FseTable table = readFseTable(weightsEnd, 6, 255);
+			BackwardBits bits = new BackwardBits(block, cursor, weightsEnd);
+
+			int state1 = (int) bits.read(table.log);
+			int state2 = (int) bits.read(table.log);
+			count = 0;
+
+			while (true) {
+
+				if (count > 253) {
+					throw corrupt();
+				}
+
+				weights[count++] = table.symbols[state1];
+				state1 = table.base[state1]
+						+ (int) bits.read(table.bits[state1]);
+
+				if (bits.isOverflowed()) {
+					weights[count++] = table.symbols[state2];
+					break;
+				}
+
+				weights[count++] = table.symbols[state2];
+				state2 = table.base[state2]
+						+ (int) bits.read(table.bits[state2]);
+
+				if (bits.isOverflowed()) {
+					weights[count++] = table.symbols[state1];
+					break;
+				}
+			}
+
+			cursor = weightsEnd;
+		}
+
+		return HuffmanTable.build(weights, count);
+	}
+
+	private void decodeSequences(int end) throws IOException {
+
+		int b0 = byteAt(cursor++, end);
+		int count;
+
+		if (b0 < 128) {
+			count = b0;
+		} else if (b0 < 255) {
+			count = ((b0 - 128) << 8) + byteAt(cursor++, end);
+		} else {
+			count = byteAt(cursor, end) + (byteAt(cursor + 1, end) << 8)
+					+ 0x7F00;
+			cursor += 2;
+		}
+
+		int blockStart = writePos;
+		int literalPos = 0;
+
+		if (count > 0) {
+
+			int modes = byteAt(cursor++, end);
+
+			literalLengthTable = selectTable(modes >>> 6,
+					LITERAL_LENGTH_DEFAULT, literalLengthTable, 9, 35, end);
+			offsetTable = selectTable((modes >>> 4) & 3, OFFSET_DEFAULT,
+					offsetTable, 8, 31, end);
+			matchLengthTable = selectTable((modes >>> 2) & 3,
+					MATCH_LENGTH_DEFAULT, matchLengthTable, 9, 52, end);
+
+			FseTable ll = literalLengthTable;
+			FseTable of = offsetTable;
+			FseTable ml = matchLengthTable;
+
+			BackwardBits bits = new BackwardBits(block, cursor, end);
+
+			int llState = (int) bits.read(ll.log);
+			int ofState = (int) bits.read(of.log);
+			int mlState = (int) bits.read(ml.log);
+
+			for (int i = 0; i < count; i++) {
+
+				int ofCode = of.symbols[ofState];
+				int llCode = ll.symbols[llState];
+				int mlCode = ml.symbols[mlState];
+
+				if (ofCode > 31) {
+					throw corrupt();
+				}
+
+				long offsetValue = (1L << ofCode) + bits.read(ofCode);
+				int matchLength = MATCH_LENGTH_BASE[mlCode]
+						+ (int) bits.read(MATCH_LENGTH_BITS[mlCode]);
+				int literalLength = LITERAL_LENGTH_BASE[llCode]
+						+ (int) bits.read(LITERAL_LENGTH_BITS[llCode]);
+
+				if (i != count - 1) {
+					llState = ll.base[llState] + (int) bits.read(ll.bits[llState]);
+					mlState = ml.base[mlState] + (int) bits.read(ml.bits[mlState]);
+					ofState = of.base[ofState] + (int) bits.read(of.bits[ofState]);
+				}
+
+				int offset = resolveOffset(offsetValue, literalLength);
+
+				// Copy the literals, then the match.
+				if (literalPos + literalLength > literalsLength
+						|| writePos - blockStart + literalLength + matchLength > blockMaximum) {
+					throw corrupt();
+				}
+
+				System.arraycopy(literals, literalPos, window, writePos,
+						literalLength);
+				literalPos += literalLength;
+				writePos += literalLength;
+
+				if (offset <= 0 || offset > writePos) {
+					throw corrupt();
+				}
+
+				int from = writePos - offset;
+
+				if (offset >= matchLength) {
+					System.arraycopy(window, from, window, writePos,
+							matchLength);
+					writePos += matchLength;
+				} else {
+					for (int j = 0; j < matchLength; j++) {
+						window[writePos++] = window[from + j];
+					}
+				}
+			}
+
+			if (!bits.isEmpty()) {
+				throw corrupt();
+			}
+
+		} else if (cursor != end) {
+			throw corrupt();
+		}
+
+		// The rest of the literals follow the last sequence.
+		int remaining = literalsLength - literalPos;
+
+		if (writePos - blockStart + remaining > blockMaximum) {
+			throw corrupt();
+		}
+
+		System.arraycopy(literals, literalPos, window, writePos, remaining);
+		writePos += remaining;
+	}
+
+	private int resolveOffset(long offsetValue, int literalLength)
+			throws IOException {
+
+		int offset;
+
+		if (offsetValue > 3) {
+			if (offsetValue - 3 > Integer.MAX_VALUE) {
+				throw corrupt();
+			}
+
+			offset = (int) (offsetValue - 3);
+			repeatOffsets[2] = repeatOffsets[1];
+			repeatOffsets[1] = repeatOffsets[0];
+			repeatOffsets[0] = offset;
+
+		} else {
+			int index = (int) offsetValue - 1;
+
+			if (literalLength == 0) {
+				index++;
+			}
+
+			if (index == 0) {
+				offset = repeatOffsets[0];
+
+			} else {
+				offset = (index < 3) ? repeatOffsets[index]
+						: repeatOffsets[0] - 1;
+
+				if (index > 1) {
+					repeatOffsets[2] = repeatOffsets[1];
+				}
+				repeatOffsets[1] = repeatOffsets[0];
+				repeatOffsets[0] = offset;
+			}
+		}
+
+		return offset;
+	}
+
+	private FseTable selectTable(int mode, FseTable predefined,
+			FseTable previous, int maxLog, int maxSymbol, int end)
+			throws IOException {
+
+		switch (mode) {
+		case 0:
+			return predefined;
+
+		case 1:
+			int symbol = byteAt(cursor++, end);
+
+			if (symbol > maxSymbol) {
+				throw corrupt();
+			}
+			return FseTable.rle(symbol);
+
+		case 2:
+			return readFseTable(end, maxLog, maxSymbol);
+
+		default:
+			if (previous == null) {
+				throw corrupt();
+			}
+			return previous;
+		}
+	}
+
+	// Read an FSE table description from the block, at the cursor.
+	private FseTable readFseTable(int end, int maxLog, int maxSymbol)
+			throws IOException {
+
+		long bitPos = (long) cursor * 8;
+		long bitEnd = (long) end * 8;
+
+		if (bitPos + 4 > bitEnd) {
+			throw corrupt();
+		}
+
+		int log = (int) readBits(block, bitPos, 4) + 5;
+		bitPos += 4;
+
+		if (log > maxLog) {
+			throw corrupt();
+		}
+
+		int[] frequencies = new int[maxSymbol + 1];
+		int remaining = 1 << log;
+		int symbol = 0;
+
+		while (remaining > 0 && symbol <= maxSymbol) {
+
+			int bits = highestBit(remaining + 1) + 1;
+
+			if (bitPos + bits > bitEnd) {
+				throw corrupt();
+			}
+
+			int value = (int) readBits(block, bitPos, bits);
+			bitPos += bits;
+
+			int lowerMask = (1 << (bits - 1)) - 1;
+			int threshold = (1 << bits) - 1 - (remaining + 1);
+
+			if ((value & lowerMask) < threshold) {
+				bitPos--;
+				value &= lowerMask;
+			} else if (value > lowerMask) {
+				value -= threshold;
+			}
+
+			int probability = value - 1;
+			remaining -= Math.abs(probability);
+			frequencies[symbol++] = probability;
+
+			// A zero probability is followed by the number of symbols after
+			// it which also have zero probability.
+			if (probability == 0) {
+
+				while (true) {
+
+					if (bitPos + 2 > bitEnd) {
+						throw corrupt();
+					}
+
+					int repeat = (int) readBits(block, bitPos, 2);
+					bitPos += 2;
+
+					for (int i = 0; i < repeat && symbol <= maxSymbol; i++) {
+						frequencies[symbol++] = 0;
+					}
+
+					if (repeat != 3) {
+						break;
+					}
+				}
+			}
+		}
+
+		if (remaining != 0) {
+			throw corrupt();
+		}
+
+		cursor = (int) ((bitPos + 7) >>> 3);
+
+		return FseTable.build(frequencies, symbol, log);
+	}
+
+	private int byteAt(int index, int end) throws IOException {
+
+		if (index >= end) {
+			throw corrupt();
+		}
+
+		return block[index] & 0xFF;
+	}
+
+	private int readByte() throws IOException {
+
+		int b = in.read();
+
+		if (b < 0) {
+			throw new EOFException("Unexpected end of zstd data.");
+		}
+
+		return b;
+	}
+
+	private int readIntLE() throws IOException {
+		return readByte() | readByte() << 8 | readByte() << 16
+				| readByte() << 24;
+	}
+
+	private long readLE(int bytes) throws IOException {
+
+		long value = 0;
+
+		for (int i = 0; i < bytes; i++) {
+			value |= (long) readByte() << (8 * i);
+		}
+
+		return value;
+	}
+
+	private void readFully(byte[] b, int off, int len) throws IOException {
+
+		while (len > 0) {
+
+			int count = in.read(b, off, len);
+
+			if (count < 0) {
+				throw new EOFException("Unexpected end of zstd data.");
+			}
+
+			off += count;
+			len -= count;
+		}
+	}
+
+	private void skipFully(long count) throws IOException {
+
+		while (count > 0) {
+
+			long skipped = in.skip(count);
+
+			if (skipped <= 0) {
+				readByte();
+				skipped = 1;
+			}
+
+			count -= skipped;
+		}
+	}
+
+	private static IOException corrupt() {
+		return new IOException("The zstd data is corrupt.");
+	}
+
+	private static int highestBit(int value) {
+		return 31 - Integer.numberOfLeadingZeros(value);
+	}
+
+	// Read up to 56 bits, little-endian, starting at a bit position.
+	private static long readBits(byte[] src, long bitPos, int count) {
+
+		if (count == 0) {
+			return 0;
+		}
+
+		int index = (int) (bitPos >>> 3);
+		int shift = (int) (bitPos & 7);
+		int bytes = (shift + count + 7) >>> 3;
+
+		long value = 0;
+
+		for (int i = 0; i < bytes; i++) {
+			value |= (long) (src[index + i] & 0xFF) << (8 * i);
+		}
+
+		return (value >>> shift) & ((1L << count) - 1);
+	}
+
+	/**
+	 * A bitstream which is read backwards, from its last bit to its first, as
+	 * the entropy coded parts of zstd data are.
+	 */
+	private static final class BackwardBits {
+
+		private final byte[] src;
+		private final int start;
+
+		// Bits left to read; negative once reads have gone past the start.
+		private long offset;
+
+		BackwardBits(byte[] src, int start, int end) throws IOException {
+
+			if (end <= start || src[end - 1] == 0) {
+				throw corrupt();
+			}
+
+			this.src = src;
+			this.start = start;
+
+			// The highest set bit of the last byte marks the end of the
+			// stream.
+			offset = (long) (end - start) * 8 - 8
+					+ highestBit(src[end - 1] & 0xFF);
+		}
+
+		long read(int count) {
+
+			if (count == 0) {
+				return 0;
+			}
+
+			offset -= count;
+
+			if (offset >= 0) {
+				return readBits(src, start * 8L + offset, count);
+			}
+
+			// Bits before the start of the stream read as zero.
+			int available = (int) (count + offset);
+			long value = (available > 0) ? readBits(src, start * 8L,
+					available) : 0;
+
+			return (-offset >= 64) ? 0 : value << -offset;
+		}
+
+		boolean isOverflowed() {
+			return offset < 0;
+		}
+
+		boolean isEmpty() {
+			return offset == 0;
+		}
+
+		long getOffset() {
+			return offset;
+		}
+	}
+
+	/**
+	 * A decoding table for finite state entropy (tANS) coded symbols.
+	 */
+	private static final class FseTable {
+
+		final int log;
+		final int[] symbols;
+		final int[] bits;
+		final int[] base;
+
+		private FseTable(int log) {
+			this.log = log;
+			symbols = new int[1 << log];
+			bits = new int[1 << log];
+			base = new int[1 << log];
+		}
+
+		// A table which always decodes the same symbol.
+		static FseTable rle(int symbol) {
+
+			FseTable table = new FseTable(0);
+			table.symbols[0] = symbol;
+
+			return table;
+		}
+
+		// Build a table from the normalized frequencies of its symbols; a
+		// frequency of -1 means "less than one".
+		static FseTable build(int[] frequencies, int count, int log) {
+
+			FseTable table = new FseTable(log);
+			int size = 1 << log;
+			int[] next = new int[count];
+			int highThreshold = size;
+
+			// Low probability symbols go at the end of the table.
+			for (int s = 0; s < count; s++) {
+				if (frequencies[s] == -1) {
+					table.symbols[--highThreshold] = s;
+					next[s] = 1;
+				}
+			}
+
+			// Spread the other symbols over the table.
+			int step = (size >>> 1) + (size >>> 3) + 3;
+			int mask = size - 1;
+			int position = 0;
+
+			for (int s = 0; s < count; s++) {
+
+				if (frequencies[s] <= 0) {
+					continue;
+				}
+
+				next[s] = frequencies[s];
+
+				for (int i = 0; i < frequencies[s]; i++) {
+
+					table.symbols[position] = s;
+
+					do {
+						position = (position + step) & mask;
+					} while (position >= highThreshold);
+				}
+			}
+
+			for (int i = 0; i < size; i++) {
+
+				int state = next[table.symbols[i]]++;
+
+				table.bits[i] = log - highestBit(state);
+				table.base[i] = (state << table.bits[i]) - size;
+			}
+
+			return table;
+		}
+	}
+
+	/**
+	 * A decoding table for Huffman coded literals.
+	 */
+	private static final class HuffmanTable {
+
+		private static final int MAX_BITS = 11;
+
+		private final int maxBits;
+		private final byte[] symbols;
+		private final byte[] bits;
+
+		private HuffmanTable(int maxBits) {
+			this.maxBits = maxBits;
+			symbols = new byte[1 << maxBits];
+			bits = new byte[1 << maxBits];
+		}
+
+		// Build a table from the weights of all but the last symbol; the
+		// weight of the last symbol is implied.
+		static HuffmanTable build(int[] weights, int count) throws IOException {
+
+			int sum = 0;
+
+			for (int i = 0; i < count; i++) {
+
+				if (weights[i] > MAX_BITS) {
+					throw corrupt();
+				}
+				if (weights[i] > 0) {
+					sum += 1 << (weights[i] - 1);
+				}
+			}
+
+			if (sum == 0) {
+				throw corrupt();
+			}
+
+			int maxBits = highestBit(sum) + 1;
+			int rest = (1 << maxBits) - sum;
+
+			if (maxBits > MAX_BITS || Integer.bitCount(rest) != 1) {
+				throw corrupt();
+			}
+
+			weights[count++] = highestBit(rest) + 1;
+
+			// Longer codes come first in the table; within a length,
+			// symbols are in order.
+			int[] lengths = new int[count];
+			int[] rankCount = new int[maxBits + 1];
+
+			for (int i = 0; i < count; i++) {
+				lengths[i] = (weights[i] > 0) ? maxBits + 1 - weights[i] : 0;
+				rankCount[lengths[i]]++;
+			}
+
+			HuffmanTable table = new HuffmanTable(maxBits);
+			int[] rankIndex = new int[maxBits + 1];
+
+			for (int i = maxBits; i >= 1; i--) {
+				int next = rankIndex[i] + rankCount[i] * (1 << (maxBits - i));
+
+				if (i > 1) {
+					rankIndex[i - 1] = next;
+				}
+				for (int j = rankIndex[i]; j < next; j++) {
+					table.bits[j] = (byte) i;
+				}
+			}
+
+			for (int i = 0; i < count; i++) {
+
+				if (lengths[i] == 0) {
+					continue;
+				}
+
+				int code = rankIndex[lengths[i]];
+				int length = 1 << (maxBits - lengths[i]);
+
+				for (int j = code; j < code + length; j++) {
+					table.symbols[j] = (byte) i;
+				}
+
+				rankIndex[lengths[i]] += length;
+			}
+
+			return table;
+		}
+
+		// Decode one stream of literals.
+		void decode(byte[] src, int start, int end, byte[] out, int off,
+				int count) throws IOException {
+
+			BackwardBits stream = new BackwardBits(src, start, end);
+			int mask = (1 << maxBits) - 1;
+			int state = (int) stream.read(maxBits);
+
+			for (int i = 0; i < count; i++) {
+
+				out[off + i] = symbols[state];
+
+				int n = bits[state];
+				state = ((state << n) + (int) stream.read(n)) & mask;
+			}
+
+			if (stream.getOffset() != -maxBits) {
+				throw corrupt();
+			}
+		}
+	}
+
+}
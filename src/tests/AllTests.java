@@ -6,6 +6,13 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
 @SuiteClasses({ GraphTest.class, WeightedGraphTest.class,
-		DijkstraSSSPTest.class })
+		DijkstraSSSPTest.class, OrientationKernelTest.class,
+		GraphParserTest.class, BinaryGraphTest.class,
+		NetworkSnapshotTest.class, CompressedInputTest.class,
+		TileRendererTest.class, KdTreeTest.class,
+		AsyncHandlerTest.class, MetricsTest.class,
+		NetworkMonitorTest.class, FlightEventsTest.class,
+		DistanceProviderTest.class, NetworkCacheTest.class,
+		NetworkFactoryTest.class, NetworkConfigurationTest.class })
 public class AllTests {
 }
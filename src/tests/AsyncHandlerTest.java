@@ -0,0 +1,129 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import logging.AsyncHandler;
+
+import org.junit.Test;
+
+public class AsyncHandlerTest {
+
+	// Keeps the messages written to it, and may hold up the first one.
+	private static final class CollectingHandler extends Handler {
+
+		final List<String> messages = Collections
+				.synchronizedList(new ArrayList<String>());
+		final CountDownLatch release;
+
+		CollectingHandler(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public void publish(LogRecord record) {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			messages.add(record.getMessage());
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	@Test
+	public void testBlockKeepsEveryRecordInOrder() throws InterruptedException {
+
+		final CollectingHandler target = new CollectingHandler(
+				new CountDownLatch(0));
+		final AsyncHandler handler = new AsyncHandler(target, 16,
+				AsyncHandler.Overflow.BLOCK);
+
+		Thread[] threads = new Thread[4];
+
+		for (int t = 0; t < threads.length; t++) {
+
+			final String name = "t" + t;
+
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					for (int i = 0; i < 1000; i++) {
+						handler.publish(new LogRecord(Level.INFO, name + ":"
+								+ i));
+					}
+				}
+			});
+			threads[t].start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		handler.flush();
+
+		assertEquals(4000, target.messages.size());
+
+		// The records of each thread are written in the order published.
+		int[] next = new int[threads.length];
+
+		for (String message : target.messages) {
+			String[] parts = message.split(":");
+			int t = Integer.parseInt(parts[0].substring(1));
+			assertEquals(next[t]++, Integer.parseInt(parts[1]));
+		}
+
+		handler.close();
+	}
+
+	@Test
+	public void testDropCountsLostRecords() {
+
+		CountDownLatch release = new CountDownLatch(1);
+		CollectingHandler target = new CollectingHandler(release);
+		AsyncHandler handler = new AsyncHandler(target, 4,
+				AsyncHandler.Overflow.DROP);
+
+		// The writer holds at most one batch while the target is held up,
+		// so most of these records find the buffer full.
+		for (int i = 0; i < 100; i++) {
+			handler.publish(new LogRecord(Level.INFO, "m" + i));
+		}
+
+		release.countDown();
+		handler.close();
+
+		// Records taken before the buffer filled up may be written after
+		// the report, so it is checked once every record is counted.
+		int kept = 0;
+		String report = null;
+
+		for (String message : target.messages) {
+			if (message.startsWith("m")) {
+				kept++;
+			} else {
+				report = message;
+			}
+		}
+
+		assertTrue(kept < 100);
+		assertTrue(report.startsWith((100 - kept) + " log records"));
+	}
+
+}
@@ -0,0 +1,190 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+
+import model.BinaryGraph;
+import model.BinaryGraphWriter;
+import model.Link;
+import model.Node;
+import model.WeightProviders;
+import model.WeightedGraph;
+
+import org.junit.Test;
+
+public class BinaryGraphTest {
+
+	@Test
+	public void testRoundTrip() throws IOException {
+
+		WeightedGraph<Node, Link> graph = new WeightedGraph<Node, Link>();
+
+		Node a = graph.insertVertex(new Node("a", 0f, 0f));
+		Node b = graph.insertVertex(new Node("b\u00e9", 3f, 4f));
+		Node c = graph.insertVertex(new Node("ccc", -1.5f, 2.25f));
+
+		graph.insertEdge(a, b, new Link("ab"));
+		graph.insertEdge(b, a, new Link("ba"));
+		graph.insertEdge(b, c, new Link("bc"));
+
+		File file = File.createTempFile("graph", ".bin");
+		file.deleteOnExit();
+
+		try {
+			new BinaryGraphWriter().write(graph, file);
+
+			assertTrue(BinaryGraph.isBinaryGraph(file));
+
+			BinaryGraph binary = BinaryGraph.open(file);
+
+			assertEquals(3, binary.getNodeCount());
+			assertEquals(3, binary.getEdgeCount());
+
+			// Find the nodes by name, and check their edges.
+			HashMap<String, Integer> indices = new HashMap<String, Integer>();
+
+			for (int i = 0; i < binary.getNodeCount(); i++) {
+				indices.put(binary.getNodeName(i), i);
+			}
+
+			int bIndex = indices.get("b\u00e9");
+
+			assertEquals(3f, binary.getX(bIndex), 0f);
+			assertEquals(4f, binary.getY(bIndex), 0f);
+			assertEquals(2, binary.getDegree(bIndex));
+			assertEquals(0, binary.getDegree(indices.get("ccc")));
+
+			int first = binary.getFirstEdge(bIndex);
+			float weights = 0f;
+
+			for (int i = first; i < first + binary.getDegree(bIndex); i++) {
+				weights += binary.getEdgeWeight(i);
+			}
+
+			assertEquals(a.getDistance(b) + b.getDistance(c), weights, 0.001f);
+
+			// The materialized graph has the same shape, with the edges each
+			// way between a and b as a single link.
+			WeightedGraph<Node, Link> copy = binary.toWeightedGraph();
+
+			assertEquals(3, copy.vertices().size());
+			assertEquals(2, copy.edges().size());
+			assertTrue(copy.isUndirected());
+
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testStoredWeights() throws IOException {
+
+		// Weights which aren't the distances between the nodes.
+		WeightedGraph<Node, Link> graph = new WeightedGraph<Node, Link>(true,
+				WeightProviders.<Node, Link> stored());
+
+		Node a = graph.insertVertex(new Node("a", 0f, 0f));
+		Node b = graph.insertVertex(new Node("b", 3f, 4f));
+		Node c = graph.insertVertex(new Node("c", 6f, 8f));
+
+		graph.insertEdge(a, b, new Link("ab", 10f));
+		graph.insertEdge(b, c, new Link("bc", 0.5f));
+		graph.insertEdge(c, c, new Link("cc", 1f));
+
+		File file = File.createTempFile("graph", ".bin");
+		file.deleteOnExit();
+
+		try {
+			new BinaryGraphWriter().write(graph, file);
+
+			WeightedGraph<Node, Link> copy = BinaryGraph.open(file)
+					.toWeightedGraph();
+
+			HashMap<String, Node> nodes = new HashMap<String, Node>();
+
+			for (Node n : copy.vertices()) {
+				nodes.put(n.getName(), n);
+			}
+
+			// The loop is left out, and the other links keep their weights.
+			assertEquals(2, copy.edges().size());
+			assertEquals(10f, copy.getShortestPathLength(nodes.get("a"),
+					nodes.get("b")), 0f);
+			assertEquals(0.5f, copy.getShortestPathLength(nodes.get("b"),
+					nodes.get("c")), 0f);
+
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testComputedWeights() throws IOException {
+
+		// The links hold no weights; the graph computes the distances.
+		WeightedGraph<Node, Link> graph = new WeightedGraph<Node, Link>(true,
+				WeightProviders.<Node, Link> computedDistance());
+
+		Node a = graph.insertVertex(new Node("a", 0f, 0f));
+		Node b = graph.insertVertex(new Node("b", 3f, 4f));
+		Node c = graph.insertVertex(new Node("c", 3f, 16f));
+
+		graph.insertEdge(a, b, new Link(0, 1));
+		graph.insertEdge(b, c, new Link(1, 2));
+
+		File file = File.createTempFile("graph", ".bin");
+		file.deleteOnExit();
+
+		try {
+			new BinaryGraphWriter().write(graph, file);
+
+			BinaryGraph binary = BinaryGraph.open(file);
+
+			for (int i = 0; i < binary.getEdgeCount(); i++) {
+				assertTrue(binary.getEdgeWeight(i) > 0f);
+			}
+
+			WeightedGraph<Node, Link> copy = binary.toWeightedGraph();
+
+			HashMap<String, Node> nodes = new HashMap<String, Node>();
+
+			for (Node n : copy.vertices()) {
+				nodes.put(n.getName(), n);
+			}
+
+			assertEquals(5f, copy.getShortestPathLength(nodes.get("a"),
+					nodes.get("b")), 0f);
+			assertEquals(17f, copy.getShortestPathLength(nodes.get("a"),
+					nodes.get("c")), 0f);
+
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testTextFileIsNotBinary() throws IOException {
+
+		File file = File.createTempFile("graph", ".txt");
+		file.deleteOnExit();
+
+		try {
+			Writer writer = new FileWriter(file);
+			writer.write("NODE(a, 1, 2)\n");
+			writer.close();
+
+			assertFalse(BinaryGraph.isBinaryGraph(file));
+
+		} finally {
+			file.delete();
+		}
+	}
+
+}
@@ -0,0 +1,312 @@
+package tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import model.CompressedInput;
+import model.GraphParser;
+import model.Link;
+import model.Node;
+import model.WeightedGraph;
+import model.ZstdInputStream;
+
+import org.junit.Test;
+
+public class CompressedInputTest {
+
+	// createGraphText(), compressed by the zstd reference implementation at
+	// level 19; the literals are Huffman coded and the sequences FSE coded.
+	private static final String ZSTD_GRAPH = "28b52ffd601a04dd0b00a61d3e14a027"
+			+ "c506ff33bbbf8c5dd9ddbd13a7688faa324639003500370066c566f38959db43"
+			+ "0d3eb31166cf6e968eb50af6862d12b33f4b33ecd80899359128d6361b37b352"
+			+ "ec7d6c05eb016160077628000804141004acd5b0774564f64453ecdcec889935"
+			+ "63258ef5b071566e9badf2707690e177b331983d0b9688b512b377b668d81f0d"
+			+ "999d19176b0e12f1db057618081010b321ecd9b0c45a91d9a3a2621f6669ccec"
+			+ "1c3b72ac0d2bc1fa6cdc66c5eeb3251ec2ec60b3435cb051ec9998a50803c245"
+			+ "81358baa208a99108988f8c38e2186b8bbd9ab4ef4998b3ce2ffed0f1f7e3e9b"
+			+ "cde532993c1e8bc5e1f07ddbf6e0c17766554433128087a820d0121149a3d670"
+			+ "2db906f02209f001646914745756b63a6f7f1a05dd95952d8d5ef2d269caeb78"
+			+ "e5756261453c3e9bfd3e6df5facb164036fa2f7f2af192b15ab76a9f5a443164"
+			+ "2d8fc40bd1b45c3256eb56edd321876468c4dd967e0896e5ca3ee417ca7d9186"
+			+ "06463830ea5ec7ea35f1b4583a4eab1bf57c112d05";
+
+	// A skippable frame, then createBlockText() compressed at level 19 with
+	// the output flushed between its parts, so that the frame has a block of
+	// Huffman coded literals, an RLE block, a block reusing the Huffman
+	// table of the one before it, a raw block and a last block reusing the
+	// table again. The sequences use repeat offsets, and the frame has a
+	// checksum.
+	private static final String ZSTD_BLOCKS = "5e2a4d180500000068656c6c6f28b52ffd0468dc060066d42a14a097a603ff33"
+			+ "73c7bb444484ec9587e6a99218032700230023007e861722e6444ec6f061e643"
+			+ "90b9117351c5b77991998be2b4e3a57c0002c183878300820183826490f918f3"
+			+ "218a9bcd4599f98c171d17c2695e7c61f350e661675e353f86e6e4b82915c645"
+			+ "1ddff0221773dae6a5cc17c88398073a34af303fa69c103745cc0f7921c3e9cc"
+			+ "03d3c88b982fd43c6c1eea9457f163c49c949b32fc9c7921644e644e46f141f3"
+			+ "21ccdc0420a8101e218ebdd5805c7a101401f601cb2a571edf4a55e883c95851"
+			+ "ee6020618013c48d531b59b5e92b02760a6209007a24040012881310c0171bff"
+			+ "4e071fadeccd2d96001d5b6ebdb399ab4ce4df3316b16dc1c370675645f4cf88"
+			+ "d8072b18440104c3cdced9e1882df6accc0e65d6ca5819b345679606963eb047"
+			+ "ec87b5b02336fb33032ba810989694b699038095ae1cf00289f0016c35b61a4b"
+			+ "0d96461ca4e373eec31b8d134168e39c0474965a735b30b2ff504c36400600c6"
+			+ "7e816b4bfbe2fb54f6bddf7c1ce18701bf31de56720f4767668759aa883c59ea"
+			+ "56137bd285a1d83c54552f37ae655bda027998cce31a768e5fd9998f1f3f36ee"
+			+ "43784d0dfabea6dae4868edc296d4eff56e17020fb8fb1580590c509dc53cdaa"
+			+ "3b489952d3529d069feab5c206139849b2011eac3288319c52469571368f57f6"
+			+ "391d16fa8874f5987c175c41bb6d718e0f7059c7011b2f333d91c01da50d0dab"
+			+ "338d7e5e8f3ee66874a63ab1c39311a864c7dbcae060e1f3bf090067a2e325a0"
+			+ "213187d562c5a8250200a3c4094030ccc1de8dd9540dd1fc333322638f30c20c"
+			+ "83dc8999540991fc322322628b20821cec601f0c26bc1070dd1c2886523605d3"
+			+ "da579a251ca16d0e8558026b49060cdeb4d5";
+
+	@Test
+	public void testZstd() throws IOException {
+
+		byte[] compressed = fromHex(ZSTD_GRAPH);
+		byte[] expected = createGraphText().getBytes("US-ASCII");
+
+		assertArrayEquals(expected,
+				readAll(new ZstdInputStream(new ByteArrayInputStream(
+						compressed))));
+
+		// The same data, detected by its magic number.
+		assertArrayEquals(expected,
+				readAll(CompressedInput.open(new ByteArrayInputStream(
+						compressed))));
+
+		WeightedGraph<Node, Link> graph = new GraphParser().parse(Channels
+				.newChannel(new ByteArrayInputStream(compressed)));
+
+		assertEquals(40, graph.vertices().size());
+		assertEquals(39, graph.edges().size());
+	}
+
+	@Test
+	public void testBlockTypes() throws IOException {
+
+		assertArrayEquals(createBlockText(),
+				readAll(new ZstdInputStream(new ByteArrayInputStream(
+						fromHex(ZSTD_BLOCKS)))));
+	}
+
+	@Test
+	public void testCorrupt() {
+
+		Random random = new Random(42);
+
+		for (String hex : new String[] { ZSTD_GRAPH, ZSTD_BLOCKS }) {
+
+			byte[] compressed = fromHex(hex);
+
+			// Cut off anywhere inside a frame, the data is reported as
+			// truncated.
+			for (int length = 1; length < compressed.length; length++) {
+
+				if (hex == ZSTD_BLOCKS && length == 13) {
+					// Just the skippable frame, which is complete.
+					continue;
+				}
+
+				try {
+					readAll(new ZstdInputStream(new ByteArrayInputStream(
+							Arrays.copyOf(compressed, length))));
+					fail("Truncated input was decompressed.");
+				} catch (IOException e) {
+					// Expected.
+				}
+			}
+
+			// Corrupt data may decompress to garbage, but may not fail with
+			// anything but an IOException.
+			for (int i = 0; i < 2000; i++) {
+
+				byte[] corrupt = compressed.clone();
+
+				for (int j = random.nextInt(3); j >= 0; j--) {
+					corrupt[random.nextInt(corrupt.length)] ^= 1 << random
+							.nextInt(8);
+				}
+
+				try {
+					readAll(new ZstdInputStream(new ByteArrayInputStream(
+							corrupt)));
+				} catch (IOException e) {
+					// Expected.
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testWindowLimitedToContent() throws IOException {
+
+		// A frame claiming the largest window allowed, with 300 bytes of
+		// content in a single RLE block.
+		byte[] compressed = { 0x28, (byte) 0xB5, 0x2F, (byte) 0xFD, 0x40,
+				(byte) 0x88, 300 - 256, 0, 0x63, 0x09, 0x00, 'x' };
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long allocated = threads.getThreadAllocatedBytes(threadId);
+
+		byte[] expected = new byte[300];
+		Arrays.fill(expected, (byte) 'x');
+
+		assertArrayEquals(expected,
+				readAll(new ZstdInputStream(new ByteArrayInputStream(
+						compressed))));
+
+		// Nowhere near the 256MB the window and its output would take.
+		allocated = threads.getThreadAllocatedBytes(threadId) - allocated;
+		assertTrue(allocated < 4 * 1024 * 1024);
+	}
+
+	@Test
+	public void testGzipFile() throws IOException {
+
+		File file = File.createTempFile("graph", ".txt.gz");
+		file.deleteOnExit();
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try {
+			OutputStream out = new GZIPOutputStream(new FileOutputStream(file));
+
+			try {
+				out.write(createGraphText().getBytes("US-ASCII"));
+			} finally {
+				out.close();
+			}
+
+			WeightedGraph<Node, Link> graph = new GraphParser().parse(file);
+
+			assertEquals(40, graph.vertices().size());
+			assertEquals(39, graph.edges().size());
+
+			// Compressed files can't be split, but still parse.
+			graph = new GraphParser().parse(file, executor);
+
+			assertEquals(40, graph.vertices().size());
+			assertEquals(39, graph.edges().size());
+
+		} finally {
+			executor.shutdown();
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testUncompressed() throws IOException {
+
+		byte[] text = createGraphText().getBytes("US-ASCII");
+
+		assertArrayEquals(text,
+				readAll(CompressedInput.open(new ByteArrayInputStream(text))));
+	}
+
+	@Test
+	public void testTruncated() {
+
+		byte[] compressed = fromHex(ZSTD_GRAPH);
+		byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+
+		// The failure on the background thread reaches the reader.
+		try {
+			new GraphParser().parse(Channels.newChannel(new ByteArrayInputStream(
+					truncated)));
+			fail("Truncated input was parsed.");
+		} catch (IOException e) {
+			// Expected.
+		}
+	}
+
+	private static String createGraphText() {
+
+		StringBuilder text = new StringBuilder();
+
+		for (int i = 0; i < 40; i++) {
+			text.append("NODE(n" + i + ", " + (i * 37) % 200 + ", " + (i * 91)
+					% 200 + ")\n");
+		}
+
+		for (int i = 0; i < 39; i++) {
+			text.append("EDGE(n" + i + ", n" + (i + 1) + ")\n");
+		}
+
+		return text.toString();
+	}
+
+	private static byte[] createBlockText() {
+
+		byte[] text = createGraphText().getBytes(Charset.forName("US-ASCII"));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		out.write(text, 0, 600);
+
+		for (int i = 0; i < 300; i++) {
+			out.write('z');
+		}
+
+		out.write(text, 600, 400);
+
+		// Noise which doesn't compress.
+		int seed = 1;
+
+		for (int i = 0; i < 200; i++) {
+			seed = (seed * 1103515245 + 12345) & 0x7FFFFFFF;
+			out.write(seed >>> 16);
+		}
+
+		out.write(text, 1000, text.length - 1000);
+
+		return out.toByteArray();
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[1000];
+		int count;
+
+		try {
+			while ((count = in.read(buffer)) >= 0) {
+				out.write(buffer, 0, count);
+			}
+		} finally {
+			in.close();
+		}
+
+		return out.toByteArray();
+	}
+
+	private static byte[] fromHex(String hex) {
+
+		byte[] bytes = new byte[hex.length() / 2];
+
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) Integer.parseInt(
+					hex.substring(2 * i, 2 * i + 2), 16);
+		}
+
+		return bytes;
+	}
+
+}
@@ -60,7 +60,7 @@ public class DijkstraSSSPTest {
 		}
 
 		// Do the same thing for the edges.
-		if (expectedE.get(0).getName().equals("AB")) {
+		if (logicalNet.isOutgoing(expectedV.get(0), expectedE.get(0))) {
 			expectedE.remove(1);
 		} else {
 			expectedE.remove(0);
@@ -129,4 +129,38 @@ public class DijkstraSSSPTest {
 		assertEquals(4f, sssp.getPathWeight(), 0f);
 		path.clear();
 	}
+
+	@Test
+	public void undirectedTest() {
+		// The same network, with undirected links.
+		WeightedGraph<Node, Link> pn = new WeightedGraph<Node, Link>(true);
+
+		pn.insertVertex(a);
+		pn.insertVertex(b);
+		pn.insertVertex(c);
+		pn.insertVertex(d);
+
+		Link AB = new Link(a.getName() + b.getName());
+		Link AD = new Link(a.getName() + d.getName());
+		Link BC = new Link(b.getName() + c.getName());
+		Link BD = new Link(b.getName() + d.getName());
+
+		pn.insertEdge(a, b, AB);
+		pn.insertEdge(a, d, AD);
+		pn.insertEdge(b, c, BC);
+		pn.insertEdge(b, d, BD);
+
+		// Links can be followed against the order they were inserted in.
+		DijkstraSSSP<Node, Link> sssp = new DijkstraSSSP<Node, Link>(pn, c);
+
+		ArrayList<Link> path = new ArrayList<Link>();
+
+		// c -> a
+		sssp.generatePath(a);
+
+		path.add(BC);
+		path.add(AB);
+		assertEquals(path, sssp.getPathEdges());
+		assertEquals(12f, sssp.getPathWeight(), 0f);
+	}
 }
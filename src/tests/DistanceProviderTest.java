@@ -0,0 +1,147 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import model.DistanceProvider;
+import model.IntList;
+import model.Sensor;
+
+import org.junit.Test;
+
+public class DistanceProviderTest {
+
+	// Few enough sensors for the whole distance matrix to be cached.
+	private static List<Sensor> smallNetwork(Random random) {
+
+		List<Sensor> sensors = new ArrayList<Sensor>();
+
+		for (int i = 0; i < 300; i++) {
+			sensors.add(new Sensor("s" + i, random.nextFloat() * 100f,
+					random.nextFloat() * 100f));
+		}
+
+		return sensors;
+	}
+
+	// Two dense clusters joined by one long link, with too many sensors for
+	// the matrix; each neighbourhood would otherwise hold its whole cluster.
+	private static List<Sensor> clusteredNetwork(Random random) {
+
+		List<Sensor> sensors = new ArrayList<Sensor>();
+
+		for (int i = 0; i < 1500; i++) {
+			float offset = (i % 2 == 0) ? 0f : 1000f;
+			sensors.add(new Sensor("s" + i, offset + random.nextFloat() * 10f,
+					random.nextFloat() * 10f));
+		}
+
+		return sensors;
+	}
+
+	@Test
+	public void testMatrixDistances() {
+		checkDistances(smallNetwork(new Random(3)), 20f);
+	}
+
+	@Test
+	public void testNeighbourhoodDistances() {
+		checkDistances(clusteredNetwork(new Random(5)), 1000f);
+	}
+
+	@Test
+	public void testMatrixRangeBoundary() {
+		checkRangeBoundary(smallNetwork(new Random(11)), 20f);
+	}
+
+	@Test
+	public void testNeighbourhoodRangeBoundary() {
+		checkRangeBoundary(clusteredNetwork(new Random(13)), 1000f);
+	}
+
+	@Test
+	public void testNeighbourhoodWithinRange() {
+
+		List<Sensor> sensors = clusteredNetwork(new Random(17));
+		DistanceProvider distances = new DistanceProvider(sensors, 1000f);
+
+		float[] ranges = { 0.5f, 2f, 20f, 1000f, 2000f };
+
+		for (int i = 0; i < sensors.size(); i += 37) {
+			for (float range : ranges) {
+
+				IntList found = new IntList();
+				distances.getWithinRange(i, range, found);
+				found.sort();
+
+				IntList expected = new IntList();
+
+				for (int j = 0; j < sensors.size(); j++) {
+					if (j != i
+							&& sensors.get(i).getDistance(sensors.get(j)) <= range) {
+						expected.add(j);
+					}
+				}
+
+				assertTrue(Arrays.equals(expected.toArray(), found.toArray()));
+			}
+		}
+	}
+
+	// The cached distances match those of the sensors, before and after
+	// they are cached.
+	private static void checkDistances(List<Sensor> sensors, float radius) {
+
+		DistanceProvider distances = new DistanceProvider(sensors, radius);
+		Random random = new Random(1);
+
+		for (int n = 0; n < 5000; n++) {
+
+			int i = random.nextInt(sensors.size());
+			int j = random.nextInt(sensors.size());
+			float expected = sensors.get(i).getDistance(sensors.get(j));
+
+			assertEquals(expected, distances.getDistance(i, j), 0f);
+			assertEquals(expected, distances.getDistance(j, i), 0f);
+		}
+	}
+
+	// Ranges equal to a distance, and a step either side of it, are judged
+	// the same way as comparing the distance itself, whether or not it has
+	// been cached.
+	private static void checkRangeBoundary(List<Sensor> sensors, float radius) {
+
+		DistanceProvider distances = new DistanceProvider(sensors, radius);
+		Random random = new Random(2);
+
+		for (int n = 0; n < 5000; n++) {
+
+			int i = random.nextInt(sensors.size());
+			int j = random.nextInt(sensors.size());
+
+			if (i == j) {
+				continue;
+			}
+
+			float distance = sensors.get(i).getDistance(sensors.get(j));
+			float below = Math.nextAfter(distance, Double.NEGATIVE_INFINITY);
+			float above = Math.nextAfter(distance, Double.POSITIVE_INFINITY);
+
+			assertTrue(distances.isWithinRange(i, j, distance));
+			assertFalse(distances.isWithinRange(i, j, below));
+			assertTrue(distances.isWithinRange(i, j, above));
+
+			distances.getDistance(i, j);
+
+			assertTrue(distances.isWithinRange(j, i, distance));
+			assertFalse(distances.isWithinRange(j, i, below));
+		}
+	}
+
+}
@@ -0,0 +1,128 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import model.GraphParser;
+import model.Link;
+import model.NetworkFactory;
+import model.Node;
+import model.WeightedGraph;
+import model.WirelessNetwork;
+
+import org.junit.Test;
+
+import algorithms.DijkstraSSSP;
+
+public class FlightEventsTest {
+
+	private static final String GRAPH = "NODE(A, 0, 0)\nNODE(B, 0, 4)\n"
+			+ "NODE(C, 0, 12)\nNODE(D, 3, 8)\n"
+			+ "EDGE(A, B)\nEDGE(B, D)\nEDGE(D, C)\nEDGE(A, D)\n";
+
+	@Test
+	public void testEvents() throws IOException {
+
+		Recording recording = new Recording();
+		recording.enable("networkgraph.Dijkstra");
+		recording.enable("networkgraph.Prim");
+		recording.enable("networkgraph.Network");
+		recording.enable("networkgraph.Parse");
+		recording.enable("networkgraph.Statistics");
+		recording.start();
+
+		WeightedGraph<Node, Link> pn = new GraphParser()
+				.parse(new StringReader(GRAPH));
+		Node source = pn.vertices().iterator().next();
+
+		new DijkstraSSSP<Node, Link>(pn, source);
+
+		WirelessNetwork network = new NetworkFactory(pn)
+				.getDirectionalNetwork();
+		network.createOptimalNetwork(false).getNetwork().getDiameter();
+		network.createOptimalNetwork(false);
+
+		recording.stop();
+
+		List<RecordedEvent> events = read(recording);
+		recording.close();
+
+		RecordedEvent parse = find(events, "networkgraph.Parse").get(0);
+		assertEquals(4, parse.getInt("vertexCount"));
+		assertEquals(4, parse.getInt("edgeCount"));
+		assertFalse(parse.getBoolean("parallel"));
+
+		RecordedEvent dijkstra = find(events, "networkgraph.Dijkstra").get(0);
+		assertEquals(source.getName(), dijkstra.getString("source"));
+		assertEquals(4, dijkstra.getLong("verticesSettled"));
+		assertFalse(dijkstra.getDuration().isNegative());
+
+		assertEquals(1, find(events, "networkgraph.Prim").size());
+
+		List<RecordedEvent> networks = find(events, "networkgraph.Network");
+		assertEquals(2, networks.size());
+		assertFalse(networks.get(0).getBoolean("cached"));
+		assertTrue(networks.get(1).getBoolean("cached"));
+		assertEquals("DIRECTIONAL", networks.get(0).getString("antennaType"));
+
+		RecordedEvent diameter = find(events, "networkgraph.Statistics")
+				.get(0);
+		assertEquals("diameter", diameter.getString("statistic"));
+		assertEquals(4, diameter.getInt("vertexCount"));
+	}
+
+	@Test
+	public void testNotRecording() {
+
+		// Without a recording the events are never committed, and the
+		// algorithms run as usual.
+		WeightedGraph<Node, Link> pn = new WeightedGraph<Node, Link>(true);
+		Node a = pn.insertVertex(new Node("A", 0f, 0f));
+		Node b = pn.insertVertex(new Node("B", 0f, 4f));
+		pn.insertEdge(a, b, new Link(pn.getVertexId(a), pn.getVertexId(b)));
+
+		DijkstraSSSP<Node, Link> sssp = new DijkstraSSSP<Node, Link>(pn, a);
+		sssp.generatePath(b);
+
+		assertEquals(4f, sssp.getPathWeight(), 0f);
+	}
+
+	private static List<RecordedEvent> read(Recording recording)
+			throws IOException {
+
+		File file = File.createTempFile("events", ".jfr");
+		file.deleteOnExit();
+
+		try {
+			recording.dump(file.toPath());
+			return RecordingFile.readAllEvents(file.toPath());
+		} finally {
+			file.delete();
+		}
+	}
+
+	private static List<RecordedEvent> find(List<RecordedEvent> events,
+			String name) {
+
+		List<RecordedEvent> found = new ArrayList<RecordedEvent>();
+
+		for (RecordedEvent event : events) {
+			if (event.getEventType().getName().equals(name)) {
+				found.add(event);
+			}
+		}
+
+		return found;
+	}
+
+}
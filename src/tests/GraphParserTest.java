@@ -0,0 +1,271 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import model.GraphParser;
+import model.Link;
+import model.Node;
+import model.WeightedGraph;
+
+import org.junit.Test;
+
+public class GraphParserTest {
+
+	@Test
+	public void testParse() throws IOException {
+
+		String text = "// Two nodes joined by an edge.\n"
+				+ "NODE(a, 1, 2)\nNODE( b ,4.5,-6 )\r\n" + "EDGE(a, b)\n";
+
+		WeightedGraph<Node, Link> graph = new GraphParser()
+				.parse(new StringReader(text));
+
+		HashMap<String, Node> nodes = nodesByName(graph);
+
+		assertEquals(2, nodes.size());
+		assertEquals(1f, nodes.get("a").getX(), 0f);
+		assertEquals(2f, nodes.get("a").getY(), 0f);
+		assertEquals(4.5f, nodes.get("b").getX(), 0f);
+		assertEquals(-6f, nodes.get("b").getY(), 0f);
+
+		// Edges are undirected, so one link leads both ways.
+		assertEquals(1, graph.edges().size());
+		assertTrue(graph.areAdjacent(nodes.get("a"), nodes.get("b")));
+		assertTrue(graph.areAdjacent(nodes.get("b"), nodes.get("a")));
+	}
+
+	@Test
+	public void testInvalidRecords() throws IOException {
+
+		String text = "NODE(a, 1, 2)\nNODE(b, x, 2)\nEDGE(a, b)\n"
+				+ "EDGE(a, c)\nNODE(c, 3,";
+
+		WeightedGraph<Node, Link> graph = new GraphParser()
+				.parse(new StringReader(text));
+
+		// Nodes with bad positions, edges to unknown nodes and records cut
+		// off by the end of the file are skipped.
+		assertEquals(1, graph.vertices().size());
+		assertEquals(0, graph.edges().size());
+	}
+
+	@Test
+	public void testForwardReference() throws IOException {
+
+		String text = "EDGE(a, b)\nNODE(a, 1, 2)\nNODE(b, 3, 4)\n";
+
+		WeightedGraph<Node, Link> graph = new GraphParser()
+				.parse(new StringReader(text));
+
+		// The edge is inserted once both nodes are known.
+		assertEquals(2, graph.vertices().size());
+		assertEquals(1, graph.edges().size());
+	}
+
+	@Test
+	public void testLargeInput() throws IOException {
+
+		// Enough records that tokens straddle the tokenizer's buffer.
+		int count = 20000;
+
+		WeightedGraph<Node, Link> graph = new GraphParser()
+				.parse(new StringReader(chain(count)));
+
+		assertChain(graph, count);
+	}
+
+	@Test
+	public void testParallelParse() throws IOException {
+
+		// Enough records that the file is split into several parts.
+		int count = 60000;
+
+		File file = File.createTempFile("graph", ".txt");
+		file.deleteOnExit();
+
+		Writer writer = new FileWriter(file);
+		writer.write(chain(count));
+		writer.close();
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try {
+			assertChain(new GraphParser().parse(file, executor), count);
+		} finally {
+			executor.shutdown();
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testSplitRecord() throws IOException {
+
+		// The file is split into parts of at least a megabyte; the first
+		// split falls in the middle of a node named like a keyword.
+		int split = 1 << 20;
+		String record = "NODE(NODE, 7, 8)\nNODE(b, 1, 2)\nEDGE(EDGE, NODE)\n"
+				+ "NODE(EDGE, 3, 4)\nEDGE(NODE, b)\n";
+
+		StringBuilder text = new StringBuilder();
+
+		for (int i = 0; text.length() < split - 100; i++) {
+			text.append("NODE(f").append(i).append(", ").append(i)
+					.append(", 0)\n");
+		}
+
+		while (text.length() < split - "NODE(".length() - 1) {
+			text.append(' ');
+		}
+
+		text.append('\n').append(record);
+
+		for (int i = 0; i < 1000; i++) {
+			text.append("EDGE(f").append(i).append(", f").append(i + 1)
+					.append(")\n");
+		}
+
+		assertEquals("NODE, 7", text.substring(split, split + 7));
+
+		File file = File.createTempFile("graph", ".txt");
+		file.deleteOnExit();
+
+		Writer writer = new FileWriter(file);
+		writer.write(text.toString());
+		writer.close();
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try {
+			WeightedGraph<Node, Link> parallel = new GraphParser().parse(file,
+					executor);
+			WeightedGraph<Node, Link> sequential = new GraphParser()
+					.parse(new StringReader(text.toString()));
+
+			HashMap<String, Node> nodes = nodesByName(parallel);
+
+			assertEquals(nodesByName(sequential).size(), nodes.size());
+			assertEquals(sequential.edges().size(), parallel.edges().size());
+
+			assertEquals(7f, nodes.get("NODE").getX(), 0f);
+			assertEquals(1f, nodes.get("b").getX(), 0f);
+			assertEquals(3f, nodes.get("EDGE").getX(), 0f);
+			assertTrue(parallel.areAdjacent(nodes.get("EDGE"), nodes.get("NODE")));
+			assertTrue(parallel.areAdjacent(nodes.get("NODE"), nodes.get("b")));
+			assertEquals(1002, parallel.edges().size());
+
+		} finally {
+			executor.shutdown();
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testLinkDistance() throws IOException {
+
+		String text = "NODE(a, 0, 0)\nNODE(b, 3, 4)\nNODE(c, 10, 0)\n"
+				+ "EDGE(a, c)\n";
+
+		WeightedGraph<Node, Link> graph = new GraphParser().parse(
+				new StringReader(text), 5f);
+
+		HashMap<String, Node> nodes = nodesByName(graph);
+
+		// Only a and b are close enough; the edge in the file is ignored.
+		assertEquals(3, nodes.size());
+		assertEquals(1, graph.edges().size());
+		assertTrue(graph.areAdjacent(nodes.get("a"), nodes.get("b")));
+		assertTrue(graph.areAdjacent(nodes.get("b"), nodes.get("a")));
+		assertEquals(5f, graph.edges().iterator().next().getWeight(), 0f);
+	}
+
+	@Test
+	public void testLinkNodes() {
+
+		Random random = new Random(3);
+		WeightedGraph<Node, Link> graph = new WeightedGraph<Node, Link>(true);
+		Node[] nodes = new Node[500];
+
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = graph.insertVertex(new Node("n" + i,
+					random.nextFloat() * 1000, random.nextFloat() * 1000));
+		}
+
+		new GraphParser().linkNodes(graph, 60f);
+
+		// The same links as comparing every pair of nodes.
+		int links = 0;
+
+		for (int i = 0; i < nodes.length; i++) {
+			for (int j = 0; j < nodes.length; j++) {
+
+				boolean near = i != j && nodes[i].getDistance(nodes[j]) <= 60f;
+
+				assertEquals(near, graph.areAdjacent(nodes[i], nodes[j]));
+
+				if (near) {
+					links++;
+				}
+			}
+		}
+
+		// Each link leads both ways.
+		assertEquals(links, 2 * graph.edges().size());
+	}
+
+	// A chain of nodes, with the edges before the nodes they connect.
+	private static String chain(int count) {
+
+		StringBuilder text = new StringBuilder();
+
+		for (int i = 1; i < count; i++) {
+			text.append("EDGE(node").append(i - 1).append(", node").append(i)
+					.append(")\n");
+		}
+
+		for (int i = 0; i < count; i++) {
+			text.append("NODE(node").append(i).append(", ").append(i)
+					.append(", ").append(-i).append(")\n");
+		}
+
+		return text.toString();
+	}
+
+	private static void assertChain(WeightedGraph<Node, Link> graph, int count) {
+
+		HashMap<String, Node> nodes = nodesByName(graph);
+
+		assertEquals(count, nodes.size());
+		assertEquals(count - 1, graph.edges().size());
+
+		for (int i = 0; i < count; i++) {
+			Node n = nodes.get("node" + i);
+
+			assertEquals(i, n.getX(), 0f);
+			assertEquals(-i, n.getY(), 0f);
+		}
+	}
+
+	private static HashMap<String, Node> nodesByName(
+			WeightedGraph<Node, Link> graph) {
+
+		HashMap<String, Node> nodes = new HashMap<String, Node>();
+
+		for (Node n : graph.vertices()) {
+			nodes.put(n.getName(), n);
+		}
+
+		return nodes;
+	}
+
+}
@@ -1,9 +1,15 @@
 package tests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import model.Graph;
 import model.Link;
@@ -170,6 +176,138 @@ public class GraphTest {
 		assertEquals(false, pn.areAdjacent(a, d));
 	}
 
+	@Test
+	public void testUndirected() {
+
+		Graph<Node, Link> undirected = new Graph<Node, Link>(true);
+
+		undirected.insertVertex(a);
+		undirected.insertVertex(b);
+		undirected.insertVertex(c);
+
+		undirected.insertEdge(a, b, AB);
+
+		// One edge, leading both ways.
+		assertTrue(undirected.isUndirected());
+		assertEquals(1, undirected.edges().size());
+		assertEquals(true, undirected.areAdjacent(a, b));
+		assertEquals(true, undirected.areAdjacent(b, a));
+		assertEquals(false, undirected.areAdjacent(a, c));
+		assertTrue(undirected.isOutgoing(a, AB));
+		assertTrue(undirected.isOutgoing(b, AB));
+		assertFalse(undirected.isOutgoing(c, AB));
+
+		// A directed edge only leads away from its first vertex.
+		pn.insertVertex(a);
+		pn.insertVertex(b);
+		pn.insertEdge(a, b, AB);
+
+		assertFalse(pn.isUndirected());
+		assertTrue(pn.isOutgoing(a, AB));
+		assertFalse(pn.isOutgoing(b, AB));
+	}
+
+	@Test
+	public void testVertexIds() {
+
+		pn.insertVertex(a);
+		pn.insertVertex(b);
+
+		assertEquals(0, pn.getVertexId(a));
+		assertEquals(1, pn.getVertexId(b));
+		assertEquals(-1, pn.getVertexId(c));
+
+		// Another graph numbers the vertices its own way.
+		Graph<Node, Link> other = new Graph<Node, Link>();
+
+		other.insertVertex(b);
+		other.insertVertex(c);
+
+		assertEquals(0, other.getVertexId(b));
+		assertEquals(1, other.getVertexId(c));
+		assertEquals(1, pn.getVertexId(b));
+
+		// The numbers stay dense after a removal.
+		pn.insertVertex(c);
+		pn.removeVertex(a);
+
+		assertEquals(-1, pn.getVertexId(a));
+		assertEquals(0, pn.getVertexId(c));
+		assertEquals(1, pn.getVertexId(b));
+		assertSame(c, pn.getVertex(0));
+		assertSame(b, pn.getVertex(1));
+	}
+
+	@Test
+	public void testSharedVertexLinkNames() {
+
+		// A vertex inserted into two graphs, alongside a vertex of the same
+		// name.
+		Graph<Node, Link> other = new Graph<Node, Link>();
+		Node twin = new Node(a.getName(), 1f, 1f);
+
+		pn.insertVertex(a);
+		pn.insertVertex(b);
+		other.insertVertex(a);
+		other.insertVertex(twin);
+		other.insertVertex(b);
+
+		Link link = new Link(pn.getVertexId(a), pn.getVertexId(b));
+		Link first = new Link(other.getVertexId(a), other.getVertexId(b));
+		Link second = new Link(other.getVertexId(twin), other.getVertexId(b));
+
+		pn.insertEdge(a, b, link);
+		other.insertEdge(a, b, first);
+		other.insertEdge(twin, b, second);
+
+		// Each name comes from the numbers its own graph gives the vertices,
+		// so it is the same however many links were made before.
+		assertEquals("0-1", link.getName());
+		assertEquals("0-2", first.getName());
+		assertEquals("1-2", second.getName());
+
+		Set<String> names = new HashSet<String>();
+
+		for (Link edge : other.edges()) {
+			assertTrue(names.add(edge.getName()));
+		}
+
+		assertEquals(2, names.size());
+	}
+
+	@Test
+	public void testManyVertexIds() {
+
+		List<Node> nodes = new ArrayList<Node>();
+
+		for (int i = 0; i < 1000; i++) {
+			Node node = new Node("n" + i, i, i);
+			nodes.add(node);
+			pn.insertVertex(node);
+		}
+
+		for (int i = 0; i < 1000; i += 3) {
+			pn.removeVertex(nodes.get(i));
+		}
+
+		// The remaining vertices are numbered densely, and each number leads
+		// back to its vertex.
+		boolean[] used = new boolean[pn.vertices().size()];
+
+		for (int i = 0; i < 1000; i++) {
+
+			int id = pn.getVertexId(nodes.get(i));
+
+			if (i % 3 == 0) {
+				assertEquals(-1, id);
+			} else {
+				assertFalse(used[id]);
+				used[id] = true;
+				assertSame(nodes.get(i), pn.getVertex(id));
+			}
+		}
+	}
+
 	@Test
 	public void testRemoval() {
 		pn.insertVertex(a);
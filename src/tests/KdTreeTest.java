@@ -0,0 +1,66 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import model.KdTree;
+
+import org.junit.Test;
+
+public class KdTreeTest {
+
+	@Test
+	public void testNearestMatchesExhaustiveSearch() {
+
+		Random random = new Random(7);
+		int count = 2000;
+
+		float[] xs = new float[count];
+		float[] ys = new float[count];
+
+		// Coarse positions, so many points share a coordinate.
+		for (int i = 0; i < count; i++) {
+			xs[i] = random.nextInt(200);
+			ys[i] = random.nextInt(200);
+		}
+
+		KdTree tree = new KdTree(xs, ys, count);
+
+		for (int q = 0; q < 500; q++) {
+
+			float x = random.nextFloat() * 220 - 10;
+			float y = random.nextFloat() * 220 - 10;
+
+			double best = Double.MAX_VALUE;
+
+			for (int i = 0; i < count; i++) {
+				best = Math.min(best, squaredDistance(xs[i], ys[i], x, y));
+			}
+
+			int nearest = tree.nearest(x, y, Float.POSITIVE_INFINITY);
+
+			assertEquals(best, squaredDistance(xs[nearest], ys[nearest], x, y), 1e-9);
+		}
+	}
+
+	@Test
+	public void testNearestWithinDistance() {
+
+		float[] xs = { 0f, 10f, 20f };
+		float[] ys = { 0f, 0f, 0f };
+
+		KdTree tree = new KdTree(xs, ys, 3);
+
+		assertEquals(1, tree.nearest(12f, 1f, 5f));
+		assertEquals(-1, tree.nearest(5f, 6f, 5f));
+		assertEquals(-1, new KdTree(xs, ys, 0).nearest(0f, 0f, 100f));
+	}
+
+	private static double squaredDistance(float ax, float ay, float bx, float by) {
+		double dx = ax - bx;
+		double dy = ay - by;
+		return dx * dx + dy * dy;
+	}
+
+}
@@ -0,0 +1,150 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import logging.FileLogger;
+import metrics.Counter;
+import metrics.Metrics;
+import metrics.Timer;
+import model.Link;
+import model.NetworkFactory;
+import model.Node;
+import model.WeightedGraph;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import algorithms.DijkstraSSSP;
+import algorithms.PrimMST;
+
+public class MetricsTest {
+
+	@BeforeClass
+	public static void setUpClass() {
+		FileLogger.disableLogging();
+	}
+
+	@Before
+	public void setUp() {
+		Metrics.setEnabled(true);
+		Metrics.reset();
+	}
+
+	@After
+	public void tearDown() {
+		Metrics.setEnabled(false);
+		Metrics.reset();
+	}
+
+	private WeightedGraph<Node, Link> createGraph() {
+
+		WeightedGraph<Node, Link> pn = new WeightedGraph<Node, Link>(true);
+
+		Node a = new Node("A", 0f, 0f);
+		Node b = new Node("B", 0f, 4f);
+		Node c = new Node("C", 0f, 12f);
+		Node d = new Node("D", 3f, 8f);
+
+		pn.insertVertex(a);
+		pn.insertVertex(b);
+		pn.insertVertex(c);
+		pn.insertVertex(d);
+
+		pn.insertEdge(a, b, new Link(pn.getVertexId(a), pn.getVertexId(b)));
+		pn.insertEdge(b, d, new Link(pn.getVertexId(b), pn.getVertexId(d)));
+		pn.insertEdge(d, c, new Link(pn.getVertexId(d), pn.getVertexId(c)));
+		pn.insertEdge(a, d, new Link(pn.getVertexId(a), pn.getVertexId(d)));
+
+		return pn;
+	}
+
+	@Test
+	public void recordsAlgorithms() {
+
+		WeightedGraph<Node, Link> pn = createGraph();
+		Node source = pn.vertices().iterator().next();
+
+		new DijkstraSSSP<Node, Link>(pn, source);
+		new PrimMST<Node, Link>(pn);
+
+		Timer dijkstra = Metrics.timer("dijkstra");
+		Timer prim = Metrics.timer("prim");
+
+		assertEquals(1, dijkstra.getCount());
+		assertEquals(1, prim.getCount());
+		assertTrue(dijkstra.getTotalNanos() > 0);
+		assertTrue(dijkstra.getMaxNanos() >= dijkstra.getLastNanos());
+
+		assertEquals(4, Metrics.counter("dijkstra.verticesSettled").get());
+		assertEquals(4, Metrics.counter("prim.verticesSettled").get());
+		assertTrue(Metrics.counter("dijkstra.edgesRelaxed").get() > 0);
+		assertTrue(Metrics.counter("prim.heapOperations").get() > 0);
+
+		String report = Metrics.report();
+
+		assertTrue(report.contains("dijkstra.edgesRelaxed"));
+		assertTrue(report.contains("prim"));
+	}
+
+	@Test
+	public void recordsNetworkBuilds() {
+
+		NetworkFactory factory = new NetworkFactory(createGraph());
+
+		factory.getDirectionalNetwork().createOptimalNetwork(false);
+
+		// Every sensor is oriented, and checked for stragglers.
+		assertEquals(4, Metrics.timer("network.sensorProps").getCount());
+		assertTrue(Metrics.counter("network.stragglerChecks").get() > 0);
+		assertTrue(Metrics.counter("distance.evaluations").get() > 0);
+
+		long checks = Metrics.counter("network.stragglerChecks").get();
+
+		factory.getOmnidirectionalNetwork().createOptimalNetwork(false);
+
+		assertEquals(4, Metrics.timer("network.sensorProps").getCount());
+		assertTrue(Metrics.counter("network.stragglerChecks").get() > checks);
+	}
+
+	@Test
+	public void recordsNothingWhenDisabled() {
+
+		Metrics.setEnabled(false);
+
+		WeightedGraph<Node, Link> pn = createGraph();
+		new DijkstraSSSP<Node, Link>(pn, pn.vertices().iterator().next());
+
+		assertEquals(0, Metrics.timer("dijkstra").getCount());
+		assertEquals(0, Metrics.counter("dijkstra.verticesSettled").get());
+		assertEquals("", Metrics.report());
+	}
+
+	@Test
+	public void countsAcrossThreads() throws InterruptedException {
+
+		final Counter counter = Metrics.counter("test.counter");
+		Thread[] threads = new Thread[4];
+
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(new Runnable() {
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						counter.increment();
+					}
+				}
+			});
+			threads[i].start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(40000, counter.get());
+		assertTrue(Metrics.counter("test.counter") == counter);
+	}
+
+}
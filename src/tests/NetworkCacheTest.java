@@ -0,0 +1,145 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+
+import model.Link;
+import model.NetworkCache;
+import model.NetworkConfiguration;
+import model.NetworkFactory;
+import model.Node;
+import model.Sensor;
+import model.WeightedGraph;
+import model.WirelessNetwork;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class NetworkCacheTest {
+
+	WirelessNetwork network;
+	NetworkCache cache;
+
+	@Before
+	public void setUp() throws Exception {
+
+		NetworkFactory factory = new NetworkFactory(createNetwork());
+
+		network = factory.getOmnidirectionalNetwork();
+		cache = factory.getCache();
+	}
+
+	@Test
+	public void testHitsAndMisses() {
+
+		NetworkConfiguration first = network.createNetwork(100f);
+
+		assertEquals(0, cache.getHits());
+		assertEquals(1, cache.getMisses());
+
+		assertSame(first, network.createNetwork(100f));
+		network.createNetwork(120f);
+
+		assertEquals(1, cache.getHits());
+		assertEquals(2, cache.getMisses());
+		assertEquals(2, cache.size());
+
+		cache.clear();
+
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getMemoryUse());
+		assertNotSame(first, network.createNetwork(100f));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() {
+
+		// Find how much each network is thought to use.
+		network.createNetwork(100f);
+		long useA = cache.getMemoryUse();
+		network.createNetwork(120f);
+		long useB = cache.getMemoryUse() - useA;
+		network.createNetwork(140f);
+		long useC = cache.getMemoryUse() - useA - useB;
+
+		cache.clear();
+		cache.setMemoryLimit(useA + useB + useC - 1);
+
+		NetworkConfiguration a = network.createNetwork(100f);
+		network.createNetwork(120f);
+
+		// Using the first network again makes the second the eldest, so it
+		// goes to make room for the third.
+		assertSame(a, network.createNetwork(100f));
+		network.createNetwork(140f);
+
+		assertEquals(2, cache.size());
+		assertEquals(useA + useC, cache.getMemoryUse());
+
+		long misses = cache.getMisses();
+
+		assertSame(a, network.createNetwork(100f));
+		assertEquals(misses, cache.getMisses());
+
+		network.createNetwork(120f);
+		assertEquals(misses + 1, cache.getMisses());
+	}
+
+	@Test
+	public void testMemoryLimitKeepsNewest() {
+
+		cache.setMemoryLimit(1);
+
+		network.createNetwork(100f);
+		NetworkConfiguration newest = network.createNetwork(120f);
+
+		assertEquals(1, cache.size());
+		assertSame(newest, network.createNetwork(120f));
+	}
+
+	@Test
+	public void testInvalidatedByVersion() {
+
+		NetworkConfiguration before = network.createNetwork(100f);
+		WeightedGraph<Sensor, Link> logical = network.getLogicalNetwork();
+		int version = logical.getVersion();
+
+		// Any change to the logical network makes a new version, whose
+		// networks haven't been built.
+		Sensor sensor = logical.getVertex(0);
+		logical.removeVertex(logical.insertVertex(new Sensor("extra", sensor
+				.getX(), sensor.getY())));
+
+		assertEquals(version + 2, logical.getVersion());
+		assertNotSame(before, network.createNetwork(100f));
+		assertEquals(2, cache.getMisses());
+		assertSame(network.createNetwork(100f), network.createNetwork(100f));
+	}
+
+	private static WeightedGraph<Node, Link> createNetwork() {
+
+		Random random = new Random(19);
+		WeightedGraph<Node, Link> graph = new WeightedGraph<Node, Link>(true);
+		Node[] nodes = new Node[40];
+
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = graph.insertVertex(new Node("n" + i,
+					random.nextInt(400), random.nextInt(400)));
+		}
+
+		for (int i = 0; i < nodes.length; i++) {
+			for (int j = i + 1; j < nodes.length; j++) {
+
+				if (nodes[i].getDistance(nodes[j]) < 150) {
+					graph.insertEdge(nodes[i], nodes[j], new Link(i, j));
+				}
+			}
+		}
+
+		return graph;
+	}
+
+}
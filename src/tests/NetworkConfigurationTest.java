@@ -0,0 +1,154 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import model.Link;
+import model.NetworkConfiguration;
+import model.NetworkFactory;
+import model.Node;
+import model.Sensor;
+import model.WeightedGraph;
+import model.WirelessNetwork;
+
+import org.junit.Test;
+
+public class NetworkConfigurationTest {
+
+	private static final float[] RANGES = { 60f, 90f, 120f, 150f, 180f, 210f };
+
+	@Test
+	public void testDirectionalInParallel() throws Exception {
+
+		NetworkFactory factory = new NetworkFactory(createNetwork());
+		checkInParallel(factory, factory.getDirectionalNetwork());
+	}
+
+	@Test
+	public void testOmnidirectionalInParallel() throws Exception {
+
+		NetworkFactory factory = new NetworkFactory(createNetwork());
+		checkInParallel(factory, factory.getOmnidirectionalNetwork());
+	}
+
+	// Build networks at once on several threads, and check that the shared
+	// sensors are left alone and each configuration keeps its own antennas.
+	private static void checkInParallel(NetworkFactory factory,
+			WirelessNetwork network) throws Exception {
+
+		List<Sensor> sensors = factory.getSensors();
+		String before = describe(sensors);
+
+		NetworkConfiguration optimal = network.createOptimalNetwork(false);
+		float[][] optimalAntennas = antennas(optimal);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<NetworkConfiguration> configurations = new ArrayList<NetworkConfiguration>();
+
+		try {
+			for (Future<NetworkConfiguration> configuration : network
+					.createNetworks(RANGES, executor)) {
+				configurations.add(configuration.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(before, describe(sensors));
+		assertTrue(Arrays.deepEquals(optimalAntennas, antennas(optimal)));
+
+		// Each has its own range, bar the sensors with no others in range.
+		for (int i = 0; i < RANGES.length; i++) {
+
+			NetworkConfiguration configuration = configurations.get(i);
+			int inRange = 0;
+
+			for (int j = 0; j < configuration.size(); j++) {
+
+				float range = configuration.getAntennaRange(j);
+
+				assertTrue(range == RANGES[i] || range == 0f);
+				inRange += (range == RANGES[i]) ? 1 : 0;
+			}
+
+			assertTrue(inRange > 0);
+		}
+
+		// The same networks built one at a time, once the others are done,
+		// have the same antennas.
+		float[][][] parallel = new float[RANGES.length][][];
+
+		for (int i = 0; i < RANGES.length; i++) {
+			parallel[i] = antennas(configurations.get(i));
+		}
+
+		factory.getCache().clear();
+
+		for (int i = 0; i < RANGES.length; i++) {
+			assertTrue(Arrays.deepEquals(parallel[i],
+					antennas(network.createNetwork(RANGES[i]))));
+		}
+
+		assertEquals(before, describe(sensors));
+	}
+
+	// The ranges, directions and angles of the antennas of a configuration.
+	private static float[][] antennas(NetworkConfiguration configuration) {
+
+		float[][] antennas = new float[3][configuration.size()];
+
+		for (int i = 0; i < configuration.size(); i++) {
+			antennas[0][i] = configuration.getAntennaRange(i);
+			antennas[1][i] = configuration.getAntennaDirection(i);
+			antennas[2][i] = configuration.getAntennaAngle(i);
+		}
+
+		return antennas;
+	}
+
+	private static String describe(List<Sensor> sensors) {
+
+		StringBuilder description = new StringBuilder();
+
+		for (Sensor sensor : sensors) {
+			description.append(sensor.getIndex()).append(' ')
+					.append(sensor.getName()).append(' ')
+					.append(sensor.getX()).append(' ').append(sensor.getY())
+					.append('\n');
+		}
+
+		return description.toString();
+	}
+
+	private static WeightedGraph<Node, Link> createNetwork() {
+
+		Random random = new Random(29);
+		WeightedGraph<Node, Link> graph = new WeightedGraph<Node, Link>(true);
+		Node[] nodes = new Node[60];
+
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = graph.insertVertex(new Node("n" + i,
+					random.nextInt(500), random.nextInt(500)));
+		}
+
+		for (int i = 0; i < nodes.length; i++) {
+			for (int j = i + 1; j < nodes.length; j++) {
+
+				if (nodes[i].getDistance(nodes[j]) < 150) {
+					graph.insertEdge(nodes[i], nodes[j], new Link(i, j));
+				}
+			}
+		}
+
+		return graph;
+	}
+
+}
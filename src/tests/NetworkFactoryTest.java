@@ -0,0 +1,117 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+
+import logging.FileLogger;
+import metrics.Metrics;
+import model.DirectionalNetwork;
+import model.Link;
+import model.NetworkFactory;
+import model.Node;
+import model.OmnidirectionalNetwork;
+import model.WeightedGraph;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class NetworkFactoryTest {
+
+	@BeforeClass
+	public static void setUpClass() {
+		FileLogger.disableLogging();
+	}
+
+	@Before
+	public void setUp() {
+		Metrics.setEnabled(true);
+		Metrics.reset();
+	}
+
+	@After
+	public void tearDown() {
+		Metrics.setEnabled(false);
+		Metrics.reset();
+	}
+
+	@Test
+	public void testBuiltWhenFirstAskedFor() {
+
+		NetworkFactory factory = new NetworkFactory(createNetwork());
+
+		// Nothing is built with the factory.
+		assertEquals(0, Metrics.timer("prim").getCount());
+		assertEquals(0, Metrics.timer("network.logical").getCount());
+
+		factory.getMst();
+
+		assertEquals(1, Metrics.timer("prim").getCount());
+		assertEquals(0, Metrics.timer("network.logical").getCount());
+
+		factory.getLogicalNetwork();
+
+		assertEquals(1, Metrics.timer("prim").getCount());
+		assertEquals(1, Metrics.timer("network.logical").getCount());
+	}
+
+	@Test
+	public void testSharedBetweenNetworks() {
+
+		NetworkFactory factory = new NetworkFactory(createNetwork());
+
+		DirectionalNetwork directional = factory.getDirectionalNetwork();
+		OmnidirectionalNetwork omnidirectional = factory
+				.getOmnidirectionalNetwork();
+
+		assertSame(directional, factory.getDirectionalNetwork());
+		assertSame(omnidirectional, factory.getOmnidirectionalNetwork());
+
+		// Both networks use the one logical network, and its sensors and
+		// distances.
+		assertSame(factory.getLogicalNetwork(),
+				directional.getLogicalNetwork());
+		assertSame(factory.getLogicalNetwork(),
+				omnidirectional.getLogicalNetwork());
+		assertSame(factory.getMst(), factory.getMst());
+		assertSame(factory.getDistances(), factory.getDistances());
+		assertSame(factory.getCache(), directional.getCache());
+		assertSame(factory.getCache(), omnidirectional.getCache());
+
+		directional.createOptimalNetwork(false);
+		directional.createOptimalNetwork(true);
+		omnidirectional.createOptimalNetwork(false);
+		omnidirectional.createNetwork(100f);
+
+		// Which were built once, however many networks were built on them.
+		assertEquals(1, Metrics.timer("prim").getCount());
+		assertEquals(1, Metrics.timer("network.logical").getCount());
+	}
+
+	private static WeightedGraph<Node, Link> createNetwork() {
+
+		Random random = new Random(23);
+		WeightedGraph<Node, Link> graph = new WeightedGraph<Node, Link>(true);
+		Node[] nodes = new Node[30];
+
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = graph.insertVertex(new Node("n" + i,
+					random.nextInt(400), random.nextInt(400)));
+		}
+
+		for (int i = 0; i < nodes.length; i++) {
+			for (int j = i + 1; j < nodes.length; j++) {
+
+				if (nodes[i].getDistance(nodes[j]) < 150) {
+					graph.insertEdge(nodes[i], nodes[j], new Link(i, j));
+				}
+			}
+		}
+
+		return graph;
+	}
+
+}
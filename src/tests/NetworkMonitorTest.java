@@ -0,0 +1,168 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import model.Link;
+import model.NetworkConfiguration;
+import model.NetworkFactory;
+import model.NetworkMonitor;
+import model.Node;
+import model.WeightedGraph;
+import model.WirelessNetwork;
+
+import org.junit.Test;
+
+public class NetworkMonitorTest {
+
+	private final MBeanServer server = ManagementFactory
+			.getPlatformMBeanServer();
+
+	@Test
+	public void testAttributes() throws Exception {
+
+		NetworkFactory factory = new NetworkFactory(createNetwork());
+		NetworkMonitor monitor = new NetworkMonitor(factory, "test.txt");
+		ObjectName name = monitor.register();
+
+		try {
+			assertEquals(NetworkMonitor.DOMAIN, name.getDomain());
+			assertEquals(30, server.getAttribute(name, "PhysicalVertexCount"));
+
+			// Nothing is computed by looking.
+			assertEquals(-1, server.getAttribute(name, "LogicalVertexCount"));
+			assertEquals("none", server.getAttribute(name, "CurrentNetwork"));
+			assertTrue(Double.isNaN((Double) server.getAttribute(name,
+					"AverageRange")));
+
+			WirelessNetwork network = factory.getDirectionalNetwork();
+			NetworkConfiguration configuration = network
+					.createOptimalNetwork(false);
+			configuration.getNetwork().getDiameter();
+
+			assertEquals(30, server.getAttribute(name, "LogicalVertexCount"));
+			assertEquals(30, server.getAttribute(name, "CurrentVertexCount"));
+			assertEquals(configuration.getTotalEnergyUse(),
+					(Double) server.getAttribute(name, "TotalEnergyUse"), 0d);
+			assertEquals("directional, individual ranges",
+					server.getAttribute(name, "CurrentNetwork"));
+
+			TabularData phases = (TabularData) server.getAttribute(name,
+					"LastPhaseMillis");
+
+			assertTrue(phases.containsKey(new Object[] { "network.logical" }));
+			assertTrue(phases
+					.containsKey(new Object[] { "network.buildOptimal" }));
+			assertTrue(phases
+					.containsKey(new Object[] { "statistics.diameter" }));
+
+			// A second lookup is a hit.
+			network.createOptimalNetwork(false);
+
+			assertEquals(1L, server.getAttribute(name, "CacheHits"));
+			assertEquals(0.5d,
+					(Double) server.getAttribute(name, "CacheHitRate"), 0d);
+
+		} finally {
+			monitor.unregister();
+		}
+
+		assertFalse(server.isRegistered(name));
+		assertNull(monitor.getObjectName());
+	}
+
+	@Test
+	public void testOperations() throws Exception {
+
+		NetworkFactory factory = new NetworkFactory(createNetwork());
+		NetworkMonitor monitor = new NetworkMonitor(factory, "test.txt");
+		ObjectName name = monitor.register();
+
+		try {
+			WirelessNetwork network = factory.getOmnidirectionalNetwork();
+			NetworkConfiguration configuration = network.createNetwork(100f);
+
+			server.invoke(name, "recompute", null, null);
+
+			// The network was built again, and is the one now cached.
+			NetworkConfiguration rebuilt = network.createNetwork(100f);
+
+			assertFalse(configuration == rebuilt);
+			assertEquals(configuration.getTotalEnergyUse(),
+					rebuilt.getTotalEnergyUse(), 0d);
+
+			server.invoke(name, "clearCaches", null, null);
+
+			assertEquals(0, server.getAttribute(name, "CachedNetworks"));
+
+		} finally {
+			monitor.unregister();
+		}
+	}
+
+	@Test
+	public void testJobs() throws Exception {
+
+		NetworkFactory factory = new NetworkFactory(createNetwork());
+		NetworkMonitor monitor = new NetworkMonitor(factory, "test.txt");
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try {
+			List<Future<NetworkConfiguration>> configurations = factory
+					.getOmnidirectionalNetwork().createNetworks(
+							new float[] { 50f, 100f, 150f }, executor);
+
+			for (Future<NetworkConfiguration> configuration : configurations) {
+				configuration.get();
+			}
+
+			executor.shutdown();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+
+			assertEquals(0, monitor.getPendingJobs());
+			assertEquals(0, monitor.getRunningBuilds());
+			assertEquals(3, monitor.getCachedNetworks());
+
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static WeightedGraph<Node, Link> createNetwork() {
+
+		Random random = new Random(11);
+		WeightedGraph<Node, Link> graph = new WeightedGraph<Node, Link>(true);
+		Node[] nodes = new Node[30];
+
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = graph.insertVertex(new Node("n" + i,
+					random.nextInt(400), random.nextInt(400)));
+		}
+
+		for (int i = 0; i < nodes.length; i++) {
+			for (int j = i + 1; j < nodes.length; j++) {
+
+				if (nodes[i].getDistance(nodes[j]) < 150) {
+					graph.insertEdge(nodes[i], nodes[j], new Link(i, j));
+				}
+			}
+		}
+
+		return graph;
+	}
+
+}
@@ -0,0 +1,160 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import model.Link;
+import model.NetworkConfiguration;
+import model.NetworkFactory;
+import model.Node;
+import model.Sensor;
+import model.WeightedGraph;
+import model.WirelessNetwork;
+
+import org.junit.Test;
+
+public class NetworkSnapshotTest {
+
+	@Test
+	public void testRestore() throws IOException {
+
+		NetworkFactory original = new NetworkFactory(createNetwork(0f));
+		NetworkConfiguration[] configurations = createConfigurations(original);
+
+		File file = File.createTempFile("network", ".snapshot");
+		file.deleteOnExit();
+
+		try {
+			original.saveSnapshot(file);
+
+			// An identical physical network, made of different objects.
+			NetworkFactory restored = new NetworkFactory(createNetwork(0f));
+
+			assertTrue(restored.restoreSnapshot(file));
+			assertEquals(original.getMstWeight(), restored.getMstWeight(), 0f);
+			assertEquals(original.getLongestLink(), restored.getLongestLink(),
+					0f);
+
+			NetworkConfiguration[] copies = createConfigurations(restored);
+
+			// Every configuration comes from the snapshot.
+			assertEquals(0, restored.getCache().getMisses());
+
+			for (int i = 0; i < configurations.length; i++) {
+				assertSameConfiguration(original.getSensors(),
+						configurations[i], restored.getSensors(), copies[i]);
+			}
+
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testStaleSnapshot() throws IOException {
+
+		NetworkFactory original = new NetworkFactory(createNetwork(0f));
+		createConfigurations(original);
+
+		File file = File.createTempFile("network", ".snapshot");
+		file.deleteOnExit();
+
+		try {
+			original.saveSnapshot(file);
+
+			// A node has moved since the snapshot was taken.
+			NetworkFactory moved = new NetworkFactory(createNetwork(1f));
+
+			assertFalse(moved.restoreSnapshot(file));
+			assertEquals(original.getMst().edges().size(), moved.getMst()
+					.edges().size());
+
+		} finally {
+			file.delete();
+		}
+	}
+
+	// A random network, where the first node is moved by the given offset.
+	private static WeightedGraph<Node, Link> createNetwork(float offset) {
+
+		Random random = new Random(7);
+		WeightedGraph<Node, Link> graph = new WeightedGraph<Node, Link>(true);
+		Node[] nodes = new Node[40];
+
+		for (int i = 0; i < nodes.length; i++) {
+
+			float x = random.nextInt(400) + (i == 0 ? offset : 0f);
+			float y = random.nextInt(400);
+
+			nodes[i] = graph.insertVertex(new Node("n" + i, x, y));
+		}
+
+		for (int i = 0; i < nodes.length; i++) {
+			for (int j = i + 1; j < nodes.length; j++) {
+
+				Node u = nodes[i];
+				Node v = nodes[j];
+
+				if (u.getDistance(v) < 150) {
+					graph.insertEdge(u, v, new Link(u.getName() + v.getName()));
+				}
+			}
+		}
+
+		return graph;
+	}
+
+	private static NetworkConfiguration[] createConfigurations(
+			NetworkFactory factory) {
+
+		WirelessNetwork directional = factory.getDirectionalNetwork();
+		WirelessNetwork omnidirectional = factory.getOmnidirectionalNetwork();
+
+		return new NetworkConfiguration[] {
+				directional.createOptimalNetwork(true),
+				directional.createOptimalNetwork(false),
+				omnidirectional.createOptimalNetwork(true),
+				omnidirectional.createOptimalNetwork(false) };
+	}
+
+	private static void assertSameConfiguration(List<Sensor> sensors,
+			NetworkConfiguration configuration, List<Sensor> copySensors,
+			NetworkConfiguration copy) {
+
+		assertEquals(configuration.getAverageAngle(), copy.getAverageAngle(), 0);
+		assertEquals(configuration.getAverageRange(), copy.getAverageRange(), 0);
+		assertEquals(configuration.getTotalEnergyUse(),
+				copy.getTotalEnergyUse(), 0);
+		assertEquals(configuration.getNetwork().edges().size(), copy
+				.getNetwork().edges().size());
+
+		HashMap<String, Sensor> copiesByName = new HashMap<String, Sensor>();
+
+		for (Sensor s : copySensors) {
+			copiesByName.put(s.getName(), s);
+		}
+
+		for (Sensor s : sensors) {
+
+			int i = s.getIndex();
+			int j = copiesByName.get(s.getName()).getIndex();
+
+			assertEquals(configuration.getAntennaType(i),
+					copy.getAntennaType(j));
+			assertEquals(configuration.getAntennaRange(i),
+					copy.getAntennaRange(j), 0f);
+			assertEquals(configuration.getAntennaDirection(i),
+					copy.getAntennaDirection(j), 0f);
+			assertEquals(configuration.getAntennaAngle(i),
+					copy.getAntennaAngle(j), 0f);
+		}
+	}
+
+}
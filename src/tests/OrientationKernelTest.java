@@ -0,0 +1,76 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import algorithms.OrientationKernel;
+
+public class OrientationKernelTest {
+
+	@Test
+	public void testNoNeighbours() {
+
+		OrientationKernel kernel = OrientationKernel.get();
+		kernel.orient(0f, 0f);
+
+		assertEquals(0f, kernel.getDirection(), 0f);
+		assertEquals(0f, kernel.getAngle(), 0f);
+	}
+
+	@Test
+	public void testSingleNeighbour() {
+
+		OrientationKernel kernel = OrientationKernel.get();
+		kernel.add(0f, 5f);
+		kernel.orient(0f, 0f);
+
+		// A single neighbour is given a small, visible angle towards it.
+		assertEquals(90f, kernel.getDirection(), 0.001f);
+		assertEquals(10f, kernel.getAngle(), 0f);
+	}
+
+	@Test
+	public void testLargestGap() {
+
+		OrientationKernel kernel = OrientationKernel.get();
+		kernel.add(5f, 0f);
+		kernel.add(0f, 5f);
+		kernel.orient(0f, 0f);
+
+		// Neighbours at 0 & 90 degrees leave a 270 degree gap.
+		assertEquals(45f, kernel.getDirection(), 0.001f);
+		assertEquals(90f, kernel.getAngle(), 0.001f);
+
+		// Neighbours at 0, 90 & 180 degrees leave a 180 degree gap.
+		kernel.add(-5f, 0f);
+		kernel.orient(0f, 0f);
+
+		assertEquals(90f, kernel.getDirection(), 0.001f);
+		assertEquals(180f, kernel.getAngle(), 0.001f);
+	}
+
+	@Test
+	public void testScratchBuffersGrow() {
+
+		OrientationKernel kernel = OrientationKernel.get();
+
+		// Place neighbours around the circle, except for the third quadrant.
+		for (int i = 0; i <= 100; i++) {
+			double theta = Math.toRadians(270d * i / 100d);
+			kernel.add((float) Math.cos(theta), (float) Math.sin(theta));
+		}
+
+		kernel.orient(0f, 0f);
+
+		assertEquals(101, kernel.size());
+		assertEquals(270f, kernel.getAngle(), 0.01f);
+		assertEquals(135f, kernel.getDirection(), 0.01f);
+
+		// The same kernel is reused by the thread, cleared.
+		assertSame(kernel, OrientationKernel.get());
+		assertEquals(0, kernel.size());
+	}
+
+}
@@ -0,0 +1,54 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import model.Link;
+import model.Node;
+import model.WeightedGraph;
+
+import org.junit.Test;
+
+import ui.TileRenderer;
+
+public class TileRendererTest {
+
+	@Test
+	public void testExportPng() throws IOException {
+
+		WeightedGraph<Node, Link> graph = new WeightedGraph<Node, Link>();
+
+		// Vertices far enough apart for the image to span several tiles.
+		Node a = graph.insertVertex(new Node("a", 0f, 0f));
+		Node b = graph.insertVertex(new Node("b", 400f, 300f));
+
+		graph.insertEdge(a, b, new Link("ab"));
+
+		File file = File.createTempFile("graph", ".png");
+		file.deleteOnExit();
+
+		Rectangle2D area = new Rectangle2D.Double(-100, -100, 600, 500);
+
+		TileRenderer.exportPng(graph, area, 1.5, file);
+
+		BufferedImage image = ImageIO.read(file);
+
+		assertNotNull(image);
+		assertEquals(900, image.getWidth());
+		assertEquals(750, image.getHeight());
+
+		// The background is white, and the vertices are drawn in black
+		// where they fall, on either side of the tile boundaries.
+		assertEquals(0xFFFFFFFF, image.getRGB(10, 10));
+		assertEquals(0xFF000000, image.getRGB(150, 150));
+		assertEquals(0xFF000000, image.getRGB(750, 600));
+	}
+
+}
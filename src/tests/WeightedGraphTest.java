@@ -1,8 +1,13 @@
 package tests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CancellationException;
+
 import model.Link;
 import model.Node;
+import model.WeightProviders;
 import model.WeightedGraph;
 
 import org.junit.Before;
@@ -57,4 +62,86 @@ public class WeightedGraphTest {
 		assertEquals(6f, BD.getWeight(), 0.2f);
 	}
 
+	@Test
+	public void testComputedWeights() {
+
+		WeightedGraph<Node, Link> graph = new WeightedGraph<Node, Link>(false,
+				WeightProviders.<Node, Link> computedDistance());
+
+		graph.insertVertex(a);
+		graph.insertVertex(b);
+		graph.insertVertex(d);
+
+		graph.insertEdge(a, b, AB);
+		graph.insertEdge(b, d, BD);
+
+		// Nothing is stored in the links; the weights are computed.
+		assertEquals(0f, AB.getWeight(), 0);
+		assertEquals(3f, graph.getWeight(AB), 0);
+		assertEquals(b.getDistance(d), graph.getWeight(BD), 0);
+		assertEquals(3f + b.getDistance(d), graph.getShortestPathLength(a, d),
+				0);
+	}
+
+	@Test
+	public void testStoredWeights() {
+
+		WeightedGraph<Node, Link> graph = new WeightedGraph<Node, Link>(true,
+				WeightProviders.<Node, Link> stored());
+
+		graph.insertVertex(a);
+		graph.insertVertex(c);
+
+		graph.insertEdge(a, c, new Link("AC", 2f));
+
+		// The given weight is kept, rather than the distance.
+		assertEquals(2f, graph.getShortestPathLength(a, c), 0);
+	}
+
+	@Test
+	public void testInterrupted() {
+
+		pn.insertVertex(a);
+		pn.insertVertex(b);
+
+		pn.insertEdge(a, b, AB);
+
+		// An interrupted computation stops, and keeps nothing.
+		Thread.currentThread().interrupt();
+
+		try {
+			pn.getDiameter();
+			fail("The interrupted computation completed.");
+		} catch (CancellationException e) {
+			// Expected.
+		} finally {
+			Thread.interrupted();
+		}
+
+		assertEquals(3f, pn.getDiameter(), 0);
+	}
+
+	@Test
+	public void testStatisticsResetAfterMutation() {
+
+		WeightedGraph<Node, Link> graph = new WeightedGraph<Node, Link>(true);
+		Node e = new Node("E", 4f, 3f);
+
+		graph.insertVertex(a);
+		graph.insertVertex(b);
+		graph.insertVertex(e);
+
+		graph.insertEdge(a, b, AB);
+		graph.insertEdge(b, e, new Link("BE"));
+
+		assertEquals(7f, graph.getDiameter(), 0);
+		assertEquals(2, graph.getDiameterHops());
+
+		// The statistics of the earlier version are forgotten.
+		graph.insertEdge(a, e, new Link("AE"));
+
+		assertEquals(5f, graph.getDiameter(), 0);
+		assertEquals(1, graph.getDiameterHops());
+	}
+
 }
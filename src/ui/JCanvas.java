@@ -2,12 +2,27 @@ package ui;
 
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
 
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
 /**
  * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
@@ -17,10 +32,31 @@ import javax.swing.JPanel;
 class JCanvas extends JPanel {
 
 	private static final long serialVersionUID = 1L;
+
+	// The size of the square tiles the components are rendered to.
+	private static final int TILE_SIZE = TileRenderer.TILE_SIZE;
+
+	// The scale factor for one step of the mouse wheel.
+	private static final double ZOOM_STEP = 1.25;
+
+	// How far, in pixels, a translation may be from a whole number of pixels
+	// and still move the tiles rather than render them again.
+	private static final double PAN_TOLERANCE = 1e-6;
+
 	private List<Drawable> components = new ArrayList<Drawable>();
+	private List<Drawable> overlays = new ArrayList<Drawable>();
 
 	private AffineTransform canvasTransform = null;
 
+	// The components rendered into tiles. Painting only draws the tiles, so
+	// it takes the same time however much is drawn on them. Panning moves the
+	// tiles along with the drawing, so only the tiles it uncovers are
+	// rendered; other changes start a new layer of tiles. The tiles are
+	// rendered on the worker threads of the renderer, and until they are
+	// done, the previous layer is drawn in their place, scaled to fit.
+	private TileLayer layer = null;
+	private TileLayer staleLayer = null;
+
 	/**
 	 * Create a new canvas object.
 	 * 
@@ -30,45 +66,219 @@ class JCanvas extends JPanel {
 	public JCanvas() {
 		setLayout(null);
 		setDoubleBuffered(true);
+
+		// Pan by dragging, and zoom with the mouse wheel.
+		MouseAdapter navigation = new MouseAdapter() {
+
+			private Point dragFrom = null;
+
+			@Override
+			public void mousePressed(MouseEvent e) {
+				dragFrom = e.getPoint();
+			}
+
+			@Override
+			public void mouseDragged(MouseEvent e) {
+
+				if (dragFrom != null) {
+					pan(e.getX() - dragFrom.x, e.getY() - dragFrom.y);
+					dragFrom = e.getPoint();
+				}
+			}
+
+			@Override
+			public void mouseReleased(MouseEvent e) {
+				dragFrom = null;
+			}
+
+			@Override
+			public void mouseWheelMoved(MouseWheelEvent e) {
+				zoom(e.getPoint(),
+						Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()));
+			}
+		};
+
+		addMouseListener(navigation);
+		addMouseMotionListener(navigation);
+		addMouseWheelListener(navigation);
 	}
 
 	@Override
 	public void paintComponent(Graphics g) {
 		super.paintComponent(g);
 
-		AffineTransform baseTransform = null;
 		Graphics2D g2 = (Graphics2D) g;
 
-		// If we are drawing with a transformation then apply the transformation
-		// to the graphics object before drawing.
-		if (canvasTransform != null) {
+		// Tiles are rendered at the scale of the device, so they stay sharp
+		// on high resolution screens.
+		double scale = g2.getTransform().getScaleX();
+
+		// Keep the tiles if the canvas has only been panned by whole pixels
+		// since they were rendered; otherwise start a new layer.
+		Point offset = (layer != null && layer.scale == scale) ? layer
+				.getOffset(canvasTransform) : null;
+
+		if (offset == null) {
+			retireLayer();
+			layer = new TileLayer(g2, scale);
+			offset = new Point();
+		}
+
+		Rectangle bounds = new Rectangle(0, 0, getWidth(), getHeight());
+		Rectangle clip = g2.getClipBounds();
 
-			baseTransform = g2.getTransform();
+		if (clip == null) {
+			clip = bounds;
+		}
+
+		// The canvas, in the pixels of the layer.
+		Rectangle view = new Rectangle(bounds);
+		view.translate(-offset.x, -offset.y);
+
+		// Forget tiles which are well off the canvas, such as after it has
+		// been panned or resized. Those just off it are kept for panning
+		// back.
+		Rectangle kept = new Rectangle(view);
+		kept.grow(TILE_SIZE, TILE_SIZE);
+
+		Iterator<Point> tilesIter = layer.tiles.keySet().iterator();
+
+		while (tilesIter.hasNext()) {
+			Rectangle tileBounds = TileRenderer.getTileBounds(tilesIter.next());
+
+			if (!kept.intersects(tileBounds)) {
+				tilesIter.remove();
+			}
+		}
+
+		// Start rendering the tiles on the canvas which aren't rendered yet.
+		int firstColumn = toTile(view.x);
+		int firstRow = toTile(view.y);
+		int lastColumn = toTile(view.x + view.width - 1);
+		int lastRow = toTile(view.y + view.height - 1);
+
+		List<Point> missing = new ArrayList<Point>();
 
-			AffineTransform combinedTransform;
-			combinedTransform = new AffineTransform(baseTransform);
-			combinedTransform.concatenate(canvasTransform);
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int column = firstColumn; column <= lastColumn; column++) {
 
-			g2.setTransform(combinedTransform);
+				Point position = new Point(column, row);
+
+				if (!layer.tiles.containsKey(position)) {
+					missing.add(position);
+				}
+			}
 		}
 
-		// Draw all of the components.
-		Iterator<Drawable> componentsIter = components.iterator();
+		layer.render(missing);
+		layer.complete = missing.isEmpty();
+
+		// Draw the previous layer in place of the tiles still being
+		// rendered, until there are none.
+		if (layer.complete) {
+			staleLayer = null;
+		} else if (staleLayer != null) {
+			Area area = new Area();
+
+			for (Point position : missing) {
+				Rectangle tileBounds = TileRenderer.getTileBounds(position);
+				tileBounds.translate(offset.x, offset.y);
+				area.add(new Area(tileBounds));
+			}
 
-		while (componentsIter.hasNext()) {
-			componentsIter.next().paint(g2);
+			drawStaleLayer(g2, area);
 		}
 
-		// If we are using a transformation then we need to reset the graphics
-		// object after drawing the contained components.
+		// Draw the tiles which meet the area being painted.
+		for (Map.Entry<Point, BufferedImage> tile : layer.tiles.entrySet()) {
+
+			Rectangle tileBounds = TileRenderer.getTileBounds(tile.getKey());
+			tileBounds.translate(offset.x, offset.y);
+
+			if (clip.intersects(tileBounds)) {
+				g2.drawImage(tile.getValue(), tileBounds.x, tileBounds.y,
+						TILE_SIZE, TILE_SIZE, null);
+			}
+		}
+
+		// Draw the overlays on top of the tiles.
+		AffineTransform baseTransform = g2.getTransform();
+
 		if (canvasTransform != null) {
-			g2.setTransform(baseTransform);
+			g2.transform(canvasTransform);
+		}
+
+		Iterator<Drawable> overlaysIter = overlays.iterator();
+
+		while (overlaysIter.hasNext()) {
+			overlaysIter.next().paint(g2);
+		}
+
+		g2.setTransform(baseTransform);
+	}
+
+	// Draw the tiles of the previous layer within an area of the canvas,
+	// moved and scaled to where they are drawn now.
+	private void drawStaleLayer(Graphics2D g, Shape area) {
+
+		AffineTransform toCanvas = (canvasTransform != null) ? new AffineTransform(
+				canvasTransform) : new AffineTransform();
+
+		try {
+			toCanvas.concatenate(staleLayer.transform.createInverse());
+		} catch (NoninvertibleTransformException e) {
+			return;
+		}
+
+		Graphics2D staleGraphics = (Graphics2D) g.create();
+
+		try {
+			staleGraphics.clip(area);
+			staleGraphics.transform(toCanvas);
+			staleGraphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+					RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+
+			for (Map.Entry<Point, BufferedImage> tile : staleLayer.tiles
+					.entrySet()) {
+
+				Rectangle tileBounds = TileRenderer.getTileBounds(tile.getKey());
+				staleGraphics.drawImage(tile.getValue(), tileBounds.x,
+						tileBounds.y, TILE_SIZE, TILE_SIZE, null);
+			}
+
+		} finally {
+			staleGraphics.dispose();
 		}
 	}
 
+	// Stop rendering the current layer. It is kept to draw until the tiles of
+	// the next layer are rendered, if it was complete or there is no older
+	// layer; otherwise the older one is kept, so quick changes don't leave
+	// the canvas blank.
+	private void retireLayer() {
+
+		if (layer == null) {
+			return;
+		}
+
+		layer.cancel();
+
+		if (staleLayer == null || layer.complete) {
+			staleLayer = layer;
+		}
+
+		layer = null;
+	}
+
+	// Get the column or row of the tile a pixel falls in.
+	private static int toTile(int pixel) {
+		return (int) Math.floor(pixel / (double) TILE_SIZE);
+	}
+
 	/**
 	 * Set the transformation which is applied when drawing objects contained in
-	 * the canvas.
+	 * the canvas. The tiles are moved, if the transformation only pans the
+	 * canvas, or rendered again when it is next painted.
 	 * 
 	 * @param affineTransform
 	 *            an AffineTransform to be applied when drawing objects
@@ -76,16 +286,111 @@ class JCanvas extends JPanel {
 	 */
 	public void setTransform(AffineTransform affineTransform) {
 		canvasTransform = affineTransform;
+		repaint();
+	}
+
+	/**
+	 * Map a point on screen to the coordinates the objects of the canvas are
+	 * drawn in.
+	 * 
+	 * @param point
+	 *            a point on the canvas, in pixels.
+	 * 
+	 * @return the point in the coordinates of the objects.
+	 */
+	public Point2D toCanvasPoint(Point point) {
+
+		if (canvasTransform == null) {
+			return new Point2D.Double(point.x, point.y);
+		}
+
+		try {
+			return canvasTransform.inverseTransform(point, null);
+		} catch (NoninvertibleTransformException e) {
+			return new Point2D.Double(Double.NaN, Double.NaN);
+		}
 	}
 
 	/**
-	 * Add a specified object to the canvas.
+	 * Get the number of pixels per unit the objects of the canvas are drawn
+	 * at.
+	 * 
+	 * @return the scale of the canvas.
+	 */
+	public double getCanvasScale() {
+
+		if (canvasTransform == null) {
+			return 1d;
+		}
+
+		return Math.sqrt(Math.abs(canvasTransform.getDeterminant()));
+	}
+
+	/**
+	 * Move the objects of the canvas.
+	 * 
+	 * @param dx
+	 *            the distance to move right, in pixels.
+	 * @param dy
+	 *            the distance to move down, in pixels.
+	 */
+	public void pan(double dx, double dy) {
+
+		AffineTransform transform = AffineTransform.getTranslateInstance(dx,
+				dy);
+
+		if (canvasTransform != null) {
+			transform.concatenate(canvasTransform);
+		}
+
+		setTransform(transform);
+	}
+
+	/**
+	 * Scale the objects of the canvas about a point.
+	 * 
+	 * @param center
+	 *            the point which stays in place, in pixels.
+	 * @param factor
+	 *            the factor to scale by.
+	 */
+	public void zoom(Point center, double factor) {
+
+		AffineTransform transform = AffineTransform.getTranslateInstance(
+				center.x, center.y);
+		transform.scale(factor, factor);
+		transform.translate(-center.x, -center.y);
+
+		if (canvasTransform != null) {
+			transform.concatenate(canvasTransform);
+		}
+
+		setTransform(transform);
+	}
+
+	/**
+	 * Add a specified object to the canvas. The object is drawn once, and the
+	 * drawing kept until the canvas changes; call {@link #invalidateTiles()}
+	 * if the object changes in the meantime.
 	 * 
 	 * @param drawable
 	 *            the object to add to the canvas.
 	 */
 	public void add(Drawable drawable) {
 		components.add(drawable);
+		invalidateTiles();
+	}
+
+	/**
+	 * Add an object to be drawn over the other objects of the canvas. Overlays
+	 * are drawn on every repaint, so adding or removing them doesn't redraw
+	 * the rest of the canvas.
+	 * 
+	 * @param drawable
+	 *            the object to add to the canvas.
+	 */
+	public void addOverlay(Drawable drawable) {
+		overlays.add(drawable);
 		repaint();
 	}
 
@@ -96,8 +401,12 @@ class JCanvas extends JPanel {
 	 *            the object to remove from the canvas.
 	 */
 	public void remove(Drawable drawable) {
-		components.remove(drawable);
-		repaint();
+
+		if (components.remove(drawable)) {
+			invalidateTiles();
+		} else if (overlays.remove(drawable)) {
+			repaint();
+		}
 	}
 
 	/**
@@ -105,7 +414,114 @@ class JCanvas extends JPanel {
 	 */
 	public void clear() {
 		components.clear();
+		overlays.clear();
+		invalidateTiles();
+	}
+
+	/**
+	 * Draw the objects of the canvas again, such as after one of them has
+	 * changed. The previous drawing is shown until the new one is rendered.
+	 */
+	public void invalidateTiles() {
+		retireLayer();
 		repaint();
 	}
 
+	// Tiles rendered with one transform, by column and row; tile (0, 0) has
+	// its corner at the origin of the pixels the transform maps to.
+	private final class TileLayer implements TileRenderer.TileListener {
+
+		private final AffineTransform transform;
+		private final double scale;
+		private final TileRenderer renderer;
+
+		private final Map<Point, BufferedImage> tiles = new HashMap<Point, BufferedImage>();
+		private final Map<Point, Future<BufferedImage>> pending = new HashMap<Point, Future<BufferedImage>>();
+
+		// Whether every tile on the canvas was rendered when it was last
+		// painted.
+		private boolean complete = false;
+
+		TileLayer(Graphics2D g, double scale) {
+			this.transform = (canvasTransform != null) ? new AffineTransform(
+					canvasTransform) : new AffineTransform();
+			this.scale = scale;
+			this.renderer = new TileRenderer(components, transform, scale,
+					getGraphicsConfiguration(), g.getRenderingHints(),
+					getFont(), null);
+		}
+
+		// Get how far, in whole pixels, the canvas has been panned from the
+		// transform of the layer to another, or null if the other transform
+		// isn't reached by panning.
+		Point getOffset(AffineTransform other) {
+
+			if (other == null) {
+				other = new AffineTransform();
+			}
+
+			if (other.getScaleX() != transform.getScaleX()
+					|| other.getScaleY() != transform.getScaleY()
+					|| other.getShearX() != transform.getShearX()
+					|| other.getShearY() != transform.getShearY()) {
+				return null;
+			}
+
+			double dx = other.getTranslateX() - transform.getTranslateX();
+			double dy = other.getTranslateY() - transform.getTranslateY();
+
+			if (Math.abs(dx - Math.rint(dx)) > PAN_TOLERANCE
+					|| Math.abs(dy - Math.rint(dy)) > PAN_TOLERANCE) {
+				return null;
+			}
+
+			return new Point((int) Math.rint(dx), (int) Math.rint(dy));
+		}
+
+		// Start rendering those of a set of tiles not already being rendered.
+		void render(List<Point> positions) {
+
+			List<Point> unstarted = new ArrayList<Point>();
+
+			for (Point position : positions) {
+				if (!pending.containsKey(position)) {
+					unstarted.add(position);
+				}
+			}
+
+			if (!unstarted.isEmpty()) {
+				pending.putAll(renderer.renderLater(unstarted, this));
+			}
+		}
+
+		// Stop rendering the tiles.
+		void cancel() {
+
+			for (Future<BufferedImage> tile : pending.values()) {
+				tile.cancel(true);
+			}
+
+			pending.clear();
+		}
+
+		public void tileDone(final Point position,
+				final Future<BufferedImage> tile) {
+
+			// Keep the tile on the event dispatch thread, unless the layer
+			// has been replaced in the meantime.
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+
+					if (layer != TileLayer.this || pending.get(position) != tile) {
+						return;
+					}
+
+					pending.remove(position);
+					tiles.put(position, TileRenderer.getTile(tile));
+					repaint();
+				}
+			});
+		}
+	}
+
 }
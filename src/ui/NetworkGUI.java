@@ -2,6 +2,7 @@ package ui;
 
 import java.awt.Color;
 import java.awt.Component;
+import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.GridBagConstraints;
@@ -11,12 +12,24 @@ import java.awt.Insets;
 import java.awt.Point;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.io.File;
+import java.io.IOException;
 import java.text.DecimalFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 
+import javax.management.JMException;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
@@ -27,22 +40,24 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JRadioButton;
 import javax.swing.JSeparator;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.UIManager;
 
+import algorithms.DijkstraSSSP;
 import logging.FileLogger;
-import model.DirectionalNetwork;
-import model.EdgeInterface;
-import model.Graph;
+import model.BinaryGraph;
 import model.GraphParser;
 import model.Link;
-import model.Network;
+import model.NetworkConfiguration;
+import model.NetworkFactory;
+import model.NetworkMonitor;
 import model.Node;
-import model.OmnidirectionalNetwork;
 import model.Vertex;
 import model.WeightedGraph;
 import model.WirelessNetwork;
@@ -84,6 +99,8 @@ public class NetworkGUI extends JPanel implements ActionListener {
 	private JButton getPathButton;
 	private JButton resetPathButton;
 
+	private JButton exportImageButton;
+
 	// Statistics Control Group
 	private JTextField averageAngleTextField;
 	private JTextField averageRangeTextField;
@@ -95,14 +112,33 @@ public class NetworkGUI extends JPanel implements ActionListener {
 
 	// Class members.
 	private JCanvas canvas;
-	private DirectionalNetwork dirNet = null;
-	private OmnidirectionalNetwork omniNet = null;
-	private WirelessNetwork currentNetwork = null;
+	private NetworkFactory networkFactory = null;
+
+	// Shows the loaded network to JMX clients, such as jconsole.
+	private NetworkMonitor networkMonitor = null;
+
+	// The physical network being loaded, and the selected network being
+	// computed, in the background.
+	private LoadWorker loading = null;
+	private NetworkWorker work = null;
+	private JProgressBar progressBar;
+
+	// The shortest paths from the vertex picked on the canvas, computed in
+	// the background while the end of the path is being picked.
+	private PathWorker<?> picking = null;
+	private Polyline pathOverlay = null;
+
+	// How far, in pixels, the pointer may be from a vertex to pick it.
+	private static final float PICK_DISTANCE = 8f;
 
 	// Keep the vertex type generic so we can draw both the physical network
 	// (Node) and a logical network (Sensor).
 	private WeightedGraph<? extends Vertex, Link> currentGraph = null;
 
+	// The antenna configuration of the current graph; null when the physical
+	// or logical network is shown.
+	private NetworkConfiguration currentConfiguration = null;
+
 	public static void main(String[] args) {
 		// Schedule a job for the event-dispatch thread to create & show the ui.
 		SwingUtilities.invokeLater(new Runnable() {
@@ -165,6 +201,26 @@ public class NetworkGUI extends JPanel implements ActionListener {
 				BorderFactory.createTitledBorder("Network"),
 				BorderFactory.createEmptyBorder(5, 5, 5, 5)));
 
+		// Vertices are named when hovered over, and a path is found by
+		// clicking its first vertex and then its last.
+		MouseAdapter picker = new MouseAdapter() {
+
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				if (SwingUtilities.isLeftMouseButton(e)) {
+					pickVertex(e.getPoint());
+				}
+			}
+
+			@Override
+			public void mouseMoved(MouseEvent e) {
+				hoverVertex(e.getPoint());
+			}
+		};
+
+		canvas.addMouseListener(picker);
+		canvas.addMouseMotionListener(picker);
+
 		// /////////////////////////////////////////////////////////////////////
 		// ///////////// Draw Network Control Group ////////////////////////////
 		// /////////////////////////////////////////////////////////////////////
@@ -501,9 +557,20 @@ public class NetworkGUI extends JPanel implements ActionListener {
 		loadGraphButton.setActionCommand("loadGraph");
 		loadGraphButton.addActionListener(this);
 
+		// Image export button; the shown network is drawn at print scale.
+		exportImageButton = new JButton("Export Image");
+		exportImageButton.setActionCommand("exportImage");
+		exportImageButton.addActionListener(this);
+		exportImageButton.setEnabled(false);
+
+		// Progress of the work done in the background.
+		progressBar = new JProgressBar(0, 100);
+
 		JPanel optionsPanel = new JPanel();
 
 		optionsPanel.add(loadGraphButton);
+		optionsPanel.add(exportImageButton);
+		optionsPanel.add(progressBar);
 
 		optionsPanel.setBorder(BorderFactory.createCompoundBorder(
 				BorderFactory.createTitledBorder("Options"),
@@ -549,64 +616,30 @@ public class NetworkGUI extends JPanel implements ActionListener {
 			int retVal = fileChooser.showOpenDialog(this);
 
 			if (retVal == JFileChooser.APPROVE_OPTION) {
-				// Get the file.
-				File file = fileChooser.getSelectedFile();
-
-				// Parse the file for the physical network.
-				WeightedGraph<Node, Link> pn = parseGraph(file);
 
-				// Run the orientation algorithm.
-				if (pn != null) {
-					dirNet = new DirectionalNetwork(pn);
-					omniNet = new OmnidirectionalNetwork(pn);
-
-					JOptionPane.showMessageDialog(this.getRootPane(),
-							"Network loaded!");
-
-					setDrawNetworkControlsEnabled(true);
-					setSetupControlsEnabled(drawSameRange.isSelected());
-					setPerformanceControlsEnabled(true);
-				}
+				// Parse the file for the physical network in the background.
+				// The current network is drawn once it is loaded.
+				startLoading(new LoadWorker(fileChooser.getSelectedFile(),
+						null, Float.NaN));
+				return;
 			}
 		}
 
-		// A graph should be loaded before any actual commands are available.
-		if (dirNet == null || omniNet == null) {
-			JOptionPane.showMessageDialog(this.getRootPane(),
-					"You must load a network graph before analyzing it.");
+		if ("exportImage".equals(e.getActionCommand())) {
+			exportImage();
 			return;
 		}
 
-		if (drawDirGraph.isSelected()) {
-			currentNetwork = dirNet;
-
-		} else if (drawOmniGraph.isSelected()) {
-			currentNetwork = omniNet;
-		}
-
-		if (drawPhysical.isSelected()) {
-			currentGraph = currentNetwork.getPhysicalNetwork();
-
-		} else if (drawLogical.isSelected()) {
-			currentGraph = currentNetwork.getLogicalNetwork();
-
-		} else if (drawSameRange.isSelected()) {
-			currentGraph = currentNetwork.createOptimalNetwork(true);
-
-		} else if (drawDiffRange.isSelected()) {
-			currentGraph = currentNetwork.createOptimalNetwork(false);
-		}
-
-		// Make sure that we have a selection on both button groups, if so then
-		// draw the network graph.
-		if (currentNetwork != null && currentGraph != null) {
-			drawGraph(currentGraph);
-		} else {
+		// A graph should be loaded before any actual commands are available.
+		if (networkFactory == null) {
+			JOptionPane.showMessageDialog(this.getRootPane(),
+					"You must load a network graph before analyzing it.");
 			return;
 		}
 
-		// Disable or enable the setup control group based on selected graph.
-		setSetupControlsEnabled(drawSameRange.isSelected());
+		String from = null;
+		String to = null;
+		float range = Float.NaN;
 
 		// Action event code for the shortest path retrieval.
 		if ("getPath".equals(e.getActionCommand())) {
@@ -621,33 +654,8 @@ public class NetworkGUI extends JPanel implements ActionListener {
 				return;
 			}
 
-			// Set up some temporary variables to prevent code repetition.
-			String from = pathFromTextField.getText();
-			String to = pathToTextField.getText();
-
-			// Get the route length.
-			int splh = currentGraph.getShortestPathLengthHops(from, to);
-			float spl = currentGraph.getShortestPathLength(from, to);
-			List<? extends Vertex> sp = currentGraph.getShortestPath(from, to);
-
-			pathLengthHopsTextField.setText(numFormatter.format(splh));
-			pathLengthTextField.setText(numFormatter.format(spl));
-
-			// Create a drawable object to add to the canvas object.
-			if (sp != null) {
-
-				Polyline polyline = new Polyline();
-				polyline.setColor(Color.red);
-
-				// Draw the path.
-				for (int i = 0; i < sp.size(); i++) {
-					Vertex v = sp.get(i);
-					Point vPoint = new Point((int) v.getX(), (int) v.getY());
-					polyline.add(vPoint);
-				}
-
-				canvas.add(polyline);
-			}
+			from = pathFromTextField.getText();
+			to = pathToTextField.getText();
 
 		} else if ("resetPath".equals(e.getActionCommand())) {
 
@@ -655,8 +663,6 @@ public class NetworkGUI extends JPanel implements ActionListener {
 			pathToTextField.setText("");
 			pathLengthTextField.setText("");
 			pathLengthHopsTextField.setText("");
-
-			drawGraph(currentGraph);
 		}
 
 		// Action event code for the sensor range updating.
@@ -673,10 +679,8 @@ public class NetworkGUI extends JPanel implements ActionListener {
 				return;
 			}
 
-			float newRange = 0f;
-
 			try {
-				newRange = Float.parseFloat(newRangeText);
+				range = Float.parseFloat(newRangeText);
 
 			} catch (NumberFormatException nfe) {
 
@@ -685,44 +689,158 @@ public class NetworkGUI extends JPanel implements ActionListener {
 				return;
 			}
 
-			currentGraph = currentNetwork.createNetwork(newRange);
-			drawGraph(currentGraph);
-
 		} else if ("resetSetup".equals(e.getActionCommand())) {
 
 			rangeUpdateTextField.setText("");
+		}
+
+		// Disable or enable the setup control group based on selected graph.
+		setSetupControlsEnabled(drawSameRange.isSelected());
+
+		// On any event we want to redraw the network and update its
+		// statistics. Whatever was being computed for the previous selection
+		// is no longer wanted.
+		startWork(new NetworkWorker(range, from, to));
+	}
+
+	// Write the shown network to a PNG file, at print scale, in the
+	// background.
+	private void exportImage() {
+
+		if (currentGraph == null) {
+			return;
+		}
+
+		final JFileChooser fileChooser = new JFileChooser();
+
+		if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+			return;
+		}
+
+		final File file = fileChooser.getSelectedFile();
+		final Drawable drawable;
+		final Rectangle2D bounds;
 
-			currentGraph = currentNetwork.createOptimalNetwork(true);
-			drawGraph(currentGraph);
+		if (currentConfiguration != null) {
+			drawable = currentConfiguration;
+			bounds = currentConfiguration.getBounds();
+		} else {
+			drawable = currentGraph;
+			bounds = currentGraph.getBounds();
 		}
 
-		// On any event we want to update the network statistics.
-		updateUiStatistics(currentNetwork, currentGraph);
+		new SwingWorker<Void, Void>() {
+
+			@Override
+			protected Void doInBackground() throws IOException {
+				TileRenderer.exportPng(drawable,
+						TileRenderer.getExportArea(bounds),
+						TileRenderer.PRINT_SCALE, file);
+				return null;
+			}
+
+			@Override
+			protected void done() {
+
+				try {
+					get();
+				} catch (InterruptedException e) {
+					return;
+				} catch (ExecutionException e) {
+					reportFailure("The image could not be written",
+							e.getCause());
+				}
+			}
+		}.execute();
 	}
 
-	// Populate the ui fields with information about the current network
-	private void updateUiStatistics(Network net,
-			WeightedGraph<? extends Vertex, Link> wg) {
-
-		// Update the normal graph statistics.
-		String fAvgAngle = numFormatter.format(net.getAverageAngle());
-		String fAvgRange = numFormatter.format(net.getAverageRange());
-		double totEnergy = net.getTotalEnergyUse() / 1000;
-		averageAngleTextField.setText(fAvgAngle);
-		averageRangeTextField.setText(fAvgRange);
-		totalEnergyUseTextField.setText(numFormatter.format(totEnergy));
-
-		// Update the average shortest path values.
-		float ASPL = wg.getAverageShortestPathLength();
-		float ASPLH = wg.getAverageShortestPathLengthHops();
-		averageSPLTextField.setText(numFormatter.format(ASPL));
-		averageSPLHopsTextField.setText(numFormatter.format(ASPLH));
-
-		// Update the graph diameter.
-		String fDiam = numFormatter.format(wg.getDiameter());
-		String fDiamHops = numFormatter.format(wg.getDiameterHops());
-		graphDiameterTextField.setText(fDiam);
-		graphDiameterHopsTextField.setText(fDiamHops);
+	// Start loading a physical network, in place of any earlier loading.
+	private void startLoading(LoadWorker loader) {
+
+		if (loading != null) {
+			loading.cancel(true);
+		}
+
+		// Whatever was being computed from the previous network is no longer
+		// wanted, and its statistics no longer apply.
+		if (work != null) {
+			work.cancel(true);
+			work = null;
+		}
+
+		showAntennaStatistics(null);
+		clearPathStatistics();
+
+		loading = loader;
+
+		progressBar.setIndeterminate(true);
+		loader.execute();
+	}
+
+	// Start computing the current selection, cancelling the computation of
+	// the previous selection.
+	private void startWork(NetworkWorker worker) {
+
+		if (work != null) {
+			work.cancel(true);
+		}
+
+		work = worker;
+
+		// Show the progress of the current work only.
+		worker.addPropertyChangeListener(new PropertyChangeListener() {
+			public void propertyChange(PropertyChangeEvent event) {
+				if (event.getSource() == work
+						&& "progress".equals(event.getPropertyName())) {
+					progressBar.setValue((Integer) event.getNewValue());
+				}
+			}
+		});
+
+		progressBar.setValue(0);
+		worker.execute();
+	}
+
+	// Report work which failed in the background.
+	private void reportFailure(String message, Throwable cause) {
+
+		if (logging) {
+			// LOGGING
+			FileLogger.log(Level.WARNING, NetworkGUI.class.getName() + ": "
+					+ message + "; " + cause);
+		}
+
+		JOptionPane.showMessageDialog(this.getRootPane(), message + ": "
+				+ cause.getMessage());
+	}
+
+	// Populate the ui fields with the antenna statistics of a configuration;
+	// the physical and logical networks don't have any antennas set.
+	private void showAntennaStatistics(NetworkConfiguration config) {
+
+		if (config != null) {
+			String fAvgAngle = numFormatter.format(config.getAverageAngle());
+			String fAvgRange = numFormatter.format(config.getAverageRange());
+			double totEnergy = config.getTotalEnergyUse() / 1000;
+			averageAngleTextField.setText(fAvgAngle);
+			averageRangeTextField.setText(fAvgRange);
+			totalEnergyUseTextField.setText(numFormatter.format(totEnergy));
+
+		} else {
+			averageAngleTextField.setText("");
+			averageRangeTextField.setText("");
+			totalEnergyUseTextField.setText("");
+		}
+	}
+
+	// Clear the shortest path statistics, until they are computed for the
+	// graph being shown.
+	private void clearPathStatistics() {
+
+		averageSPLTextField.setText("");
+		averageSPLHopsTextField.setText("");
+		graphDiameterTextField.setText("");
+		graphDiameterHopsTextField.setText("");
 	}
 
 	private void setDrawNetworkControlsEnabled(boolean enabled) {
@@ -753,17 +871,577 @@ public class NetworkGUI extends JPanel implements ActionListener {
 		resetPathButton.setEnabled(enabled);
 	}
 
-	// Redraw the input graph.
-	private void drawGraph(Graph<? extends Vertex, ? extends EdgeInterface> g) {
+	// Redraw the current graph, along with its antennas if it has them.
+	private void drawGraph() {
 		canvas.clear();
-		canvas.add(g);
+
+		if (currentConfiguration != null) {
+			canvas.add(currentConfiguration);
+		} else {
+			canvas.add(currentGraph);
+		}
+	}
+
+	// Find the vertex of the current graph under a point of the canvas.
+	private Vertex findVertex(Point point) {
+
+		return (currentGraph != null) ? findVertex(currentGraph, point) : null;
 	}
 
-	// This function loads a physical network from a file. It handles the
-	// tokenization, parsing, and object creation.
-	private WeightedGraph<Node, Link> parseGraph(File file) {
-		GraphParser graphParser = new GraphParser();
-		return graphParser.parse(file);
+	// Name the vertex under the pointer.
+	private void hoverVertex(Point point) {
+
+		Vertex vertex = findVertex(point);
+
+		if (vertex != null) {
+			canvas.setToolTipText(vertex.getName());
+			canvas.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+		} else {
+			canvas.setToolTipText(null);
+			canvas.setCursor(Cursor.getDefaultCursor());
+		}
+	}
+
+	// Pick the end of the path being picked, or else the start of a new one.
+	// The shortest paths from the start are found as soon as it is picked,
+	// so the path is shown as soon as its end is.
+	private void pickVertex(Point point) {
+
+		if (currentGraph == null || !getPathButton.isEnabled()) {
+			return;
+		}
+
+		if (picking != null && picking.graph == currentGraph
+				&& !picking.hasTarget() && picking.pickTarget(point)) {
+			return;
+		}
+
+		if (picking != null) {
+			picking.cancel(true);
+		}
+
+		picking = pickSource(currentGraph, point);
+
+		pathToTextField.setText("");
+		pathLengthTextField.setText("");
+		pathLengthHopsTextField.setText("");
+
+		if (picking != null) {
+			pathFromTextField.setText(picking.source.getName());
+		} else {
+			pathFromTextField.setText("");
+		}
+
+		if (pathOverlay != null) {
+			canvas.remove(pathOverlay);
+			pathOverlay = null;
+		}
+	}
+
+	private <V extends Vertex> PathWorker<V> pickSource(
+			WeightedGraph<V, Link> graph, Point point) {
+
+		V source = findVertex(graph, point);
+
+		if (source == null) {
+			return null;
+		}
+
+		PathWorker<V> worker = new PathWorker<V>(graph, source);
+		worker.execute();
+
+		return worker;
+	}
+
+	// Find the vertex of a graph under a point of the canvas.
+	private <V extends Vertex> V findVertex(WeightedGraph<V, Link> graph,
+			Point point) {
+
+		Point2D at = canvas.toCanvasPoint(point);
+
+		return graph.getNearestVertex((float) at.getX(), (float) at.getY(),
+				(float) (PICK_DISTANCE / canvas.getCanvasScale()));
+	}
+
+	// Draw a path over the current graph, in place of the path drawn before.
+	private void drawPath(List<? extends Vertex> path) {
+
+		if (pathOverlay != null) {
+			canvas.remove(pathOverlay);
+		}
+
+		Polyline polyline = new Polyline();
+		polyline.setColor(Color.red);
+
+		// Draw the path.
+		for (int i = 0; i < path.size(); i++) {
+			Vertex v = path.get(i);
+			Point vPoint = new Point((int) v.getX(), (int) v.getY());
+			polyline.add(vPoint);
+		}
+
+		canvas.addOverlay(polyline);
+		pathOverlay = polyline;
+	}
+
+	/**
+	 * Finds the shortest paths from a vertex picked on the canvas in the
+	 * background, and shows the path to the vertex picked after it. The end
+	 * of the path is usually picked after the paths are found, so it is shown
+	 * at once.
+	 */
+	private final class PathWorker<V extends Vertex> extends
+			SwingWorker<DijkstraSSSP<V, Link>, Void> {
+
+		private final WeightedGraph<V, Link> graph;
+		private final V source;
+
+		private V target = null;
+
+		PathWorker(WeightedGraph<V, Link> graph, V source) {
+			this.graph = graph;
+			this.source = source;
+		}
+
+		@Override
+		protected DijkstraSSSP<V, Link> doInBackground() {
+			return new DijkstraSSSP<V, Link>(graph, source);
+		}
+
+		boolean hasTarget() {
+			return target != null;
+		}
+
+		// Pick the end of the path, if there is a vertex at the point.
+		boolean pickTarget(Point point) {
+
+			target = findVertex(graph, point);
+
+			if (target == null) {
+				return false;
+			}
+
+			pathToTextField.setText(target.getName());
+
+			if (isDone()) {
+				showPath();
+			}
+
+			return true;
+		}
+
+		@Override
+		protected void done() {
+
+			if (picking == this && target != null) {
+				showPath();
+			}
+		}
+
+		private void showPath() {
+
+			DijkstraSSSP<V, Link> sssp;
+
+			try {
+				sssp = get();
+
+			} catch (CancellationException e) {
+				return;
+			} catch (InterruptedException e) {
+				return;
+			} catch (ExecutionException e) {
+				reportFailure("The path could not be found", e.getCause());
+				return;
+			}
+
+			sssp.generatePath(target);
+
+			pathLengthTextField.setText(numFormatter.format(sssp
+					.getPathWeight()));
+			pathLengthHopsTextField.setText(numFormatter.format(sssp
+					.getPathEdges().size()));
+
+			drawPath(sssp.getPathVerts());
+		}
+	}
+
+	/**
+	 * Loads a physical network from a file in the background. It handles the
+	 * tokenization, parsing, and object creation. Files in the binary graph
+	 * format are read directly. A file of only nodes is linked by a distance
+	 * asked of the user, once the nodes are read.
+	 */
+	private final class LoadWorker extends
+			SwingWorker<WeightedGraph<Node, Link>, Void> {
+
+		private final File file;
+		private final float linkDistance;
+
+		// The nodes read earlier, waiting to be linked.
+		private WeightedGraph<Node, Link> nodes;
+
+		LoadWorker(File file, WeightedGraph<Node, Link> nodes,
+				float linkDistance) {
+
+			this.file = file;
+			this.nodes = nodes;
+			this.linkDistance = linkDistance;
+		}
+
+		@Override
+		protected WeightedGraph<Node, Link> doInBackground() throws IOException {
+
+			GraphParser graphParser = new GraphParser();
+
+			if (nodes == null) {
+
+				WeightedGraph<Node, Link> pn;
+
+				if (BinaryGraph.isBinaryGraph(file)) {
+					pn = BinaryGraph.open(file).toWeightedGraph();
+				} else {
+					pn = graphParser.parse(file);
+				}
+
+				// A file of only nodes is linked by distance, once the
+				// distance has been asked for.
+				if (pn.vertices().size() > 1 && pn.edges().isEmpty()) {
+					nodes = pn;
+					return null;
+				}
+
+				return pn;
+			}
+
+			graphParser.linkNodes(nodes, linkDistance);
+
+			return nodes;
+		}
+
+		@Override
+		protected void done() {
+
+			if (loading != this) {
+				return;
+			}
+
+			loading = null;
+			progressBar.setIndeterminate(false);
+
+			WeightedGraph<Node, Link> pn;
+
+			try {
+				pn = get();
+
+			} catch (CancellationException e) {
+				return;
+			} catch (InterruptedException e) {
+				return;
+			} catch (ExecutionException e) {
+				reportFailure("The network could not be loaded", e.getCause());
+				return;
+			}
+
+			if (pn == null) {
+				askLinkDistance();
+				return;
+			}
+
+			// The networks (and the orientation algorithm) are only run once
+			// they are first drawn.
+			networkFactory = new NetworkFactory(pn);
+			monitor(file.getName());
+
+			JOptionPane.showMessageDialog(getRootPane(), "Network loaded!");
+
+			setDrawNetworkControlsEnabled(true);
+			setSetupControlsEnabled(drawSameRange.isSelected());
+			setPerformanceControlsEnabled(true);
+
+			startWork(new NetworkWorker(Float.NaN, null, null));
+		}
+
+		// Show the loaded network, in place of the previous one, to JMX
+		// clients.
+		private void monitor(String name) {
+
+			if (networkMonitor != null) {
+				networkMonitor.unregister();
+			}
+
+			networkMonitor = new NetworkMonitor(networkFactory, name);
+
+			try {
+				networkMonitor.register();
+			} catch (JMException e) {
+				if (logging) {
+					// LOGGING
+					FileLogger.log(Level.WARNING, NetworkGUI.class.getName()
+							+ ": monitor; The network could not be registered"
+							+ " with JMX; " + e);
+				}
+			}
+		}
+
+		private void askLinkDistance() {
+
+			String distance = JOptionPane.showInputDialog(getRootPane(),
+					"The network has no links. Link nodes within distance:");
+
+			if (distance == null) {
+				return;
+			}
+
+			try {
+				startLoading(new LoadWorker(file, nodes,
+						Float.parseFloat(distance)));
+			} catch (NumberFormatException e) {
+				JOptionPane.showMessageDialog(getRootPane(),
+						"The link distance must be a number.");
+			}
+		}
+	}
+
+	/**
+	 * Computes the selected network in the background, and shows it as it
+	 * is computed; first the graph is drawn, then each statistic is filled in
+	 * as it completes. The results are published to the event dispatch thread
+	 * in batches, and only the latest result for each field of a batch is
+	 * shown.
+	 */
+	private final class NetworkWorker extends SwingWorker<Void, Result> {
+
+		// The selection, taken when the work is started.
+		private final boolean directional;
+		private final JRadioButton graphType;
+
+		// The sensor range to apply, or NaN.
+		private final float range;
+
+		// The shortest path to find, if both are given.
+		private final String from;
+		private final String to;
+
+		private int steps;
+		private int stepsDone = 0;
+
+		NetworkWorker(float range, String from, String to) {
+
+			this.directional = drawDirGraph.isSelected();
+			this.graphType = drawPhysical.isSelected() ? drawPhysical
+					: drawLogical.isSelected() ? drawLogical : drawSameRange
+							.isSelected() ? drawSameRange : drawDiffRange;
+			this.range = range;
+			this.from = from;
+			this.to = to;
+
+			// The graph, the antenna statistics, four shortest path
+			// statistics, and the path if there is one.
+			steps = (from != null) ? 7 : 6;
+		}
+
+		@Override
+		protected Void doInBackground() {
+
+			WirelessNetwork network = directional ? networkFactory
+					.getDirectionalNetwork() : networkFactory
+					.getOmnidirectionalNetwork();
+
+			NetworkConfiguration configuration = null;
+			WeightedGraph<? extends Vertex, Link> graph;
+
+			if (!Float.isNaN(range)) {
+				configuration = network.createNetwork(range);
+			} else if (graphType == drawSameRange) {
+				configuration = network.createOptimalNetwork(true);
+			} else if (graphType == drawDiffRange) {
+				configuration = network.createOptimalNetwork(false);
+			}
+
+			if (configuration != null) {
+				graph = configuration.getNetwork();
+			} else if (graphType == drawLogical) {
+				graph = network.getLogicalNetwork();
+			} else {
+				graph = network.getPhysicalNetwork();
+			}
+
+			publish(Result.graph(graph, configuration));
+			step();
+
+			if (from != null) {
+
+				// Get the route length.
+				int splh = graph.getShortestPathLengthHops(from, to);
+				float spl = graph.getShortestPathLength(from, to);
+				List<? extends Vertex> sp = graph.getShortestPath(from, to);
+
+				publish(Result.value(pathLengthHopsTextField, splh),
+						Result.value(pathLengthTextField, spl));
+
+				if (sp != null) {
+					publish(Result.path(sp));
+				}
+
+				step();
+			}
+
+			publish(Result.antennas(configuration));
+			step();
+
+			// Update the average shortest path values, and the graph
+			// diameter. Each of these is a pass over all pairs of vertices,
+			// which stops if the work is cancelled.
+			publish(Result.value(averageSPLTextField,
+					graph.getAverageShortestPathLength()));
+			step();
+
+			publish(Result.value(averageSPLHopsTextField,
+					graph.getAverageShortestPathLengthHops()));
+			step();
+
+			publish(Result.value(graphDiameterTextField, graph.getDiameter()));
+			step();
+
+			publish(Result.value(graphDiameterHopsTextField,
+					graph.getDiameterHops()));
+			step();
+
+			return null;
+		}
+
+		private void step() {
+			stepsDone++;
+			setProgress(100 * stepsDone / steps);
+		}
+
+		@Override
+		protected void process(List<Result> results) {
+
+			if (isCancelled()) {
+				return;
+			}
+
+			Result shown = null;
+			Result antennas = null;
+			List<? extends Vertex> path = null;
+			Map<JTextField, Number> values = new LinkedHashMap<JTextField, Number>();
+
+			for (Result result : results) {
+
+				if (result.graph != null) {
+					shown = result;
+					path = null;
+				} else if (result.field != null) {
+					values.put(result.field, result.value);
+				} else if (result.path != null) {
+					path = result.path;
+				} else if (result.antennas) {
+					antennas = result;
+				}
+			}
+
+			if (shown != null) {
+
+				// A path picked on the previous graph is no longer wanted.
+				if (picking != null) {
+					picking.cancel(true);
+					picking = null;
+				}
+
+				currentGraph = shown.graph;
+				currentConfiguration = shown.configuration;
+
+				clearPathStatistics();
+				drawGraph();
+				exportImageButton.setEnabled(true);
+			}
+
+			if (path != null) {
+				drawPath(path);
+			}
+
+			if (antennas != null) {
+				showAntennaStatistics(antennas.configuration);
+			}
+
+			for (Map.Entry<JTextField, Number> value : values.entrySet()) {
+				value.getKey().setText(numFormatter.format(value.getValue()));
+			}
+		}
+
+		@Override
+		protected void done() {
+
+			if (work != this) {
+				return;
+			}
+
+			work = null;
+			progressBar.setValue(0);
+
+			try {
+				get();
+
+			} catch (CancellationException e) {
+				// A new selection replaced this one.
+			} catch (InterruptedException e) {
+				// A new selection replaced this one.
+			} catch (ExecutionException e) {
+				reportFailure("The network could not be computed",
+						e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * A result published by a {@link NetworkWorker}; a graph to draw, the
+	 * antennas of a configuration, a path to draw, or the value of a field.
+	 */
+	private static final class Result {
+
+		WeightedGraph<? extends Vertex, Link> graph = null;
+		NetworkConfiguration configuration = null;
+		boolean antennas = false;
+		List<? extends Vertex> path = null;
+		JTextField field = null;
+		Number value = null;
+
+		static Result graph(WeightedGraph<? extends Vertex, Link> graph,
+				NetworkConfiguration configuration) {
+
+			Result result = new Result();
+			result.graph = graph;
+			result.configuration = configuration;
+
+			return result;
+		}
+
+		static Result antennas(NetworkConfiguration configuration) {
+
+			Result result = new Result();
+			result.antennas = true;
+			result.configuration = configuration;
+
+			return result;
+		}
+
+		static Result path(List<? extends Vertex> path) {
+
+			Result result = new Result();
+			result.path = path;
+
+			return result;
+		}
+
+		static Result value(JTextField field, Number value) {
+
+			Result result = new Result();
+			result.field = field;
+			result.value = value;
+
+			return result;
+		}
 	}
 
 }
@@ -0,0 +1,617 @@
+package ui;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import model.BinaryGraph;
+import model.GraphParser;
+import model.Link;
+import model.Node;
+import model.WeightedGraph;
+
+/**
+ * Renders a set of drawable objects into square tiles, on several threads at
+ * once.
+ *
+ * Each tile is drawn into its own image, clipped to the tile, so the graphs
+ * only draw what their drawing index finds within it. The tiles of an area
+ * are rendered together on a shared pool of worker threads, one per
+ * processor, and composited by the caller as each is done.
+ *
+ * Images too large to hold in memory are written to a PNG file one row of
+ * tiles at a time, while the next row is being rendered.
+ *
+ * @author Andrew Wylie <andrew.dale.wylie@gmail.com>
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class TileRenderer {
+
+	/**
+	 * The size, in pixels, of the square tiles.
+	 */
+	static final int TILE_SIZE = 256;
+
+	/**
+	 * The scale for printing; 300 dots per inch, where one unit of a graph is
+	 * drawn as one point.
+	 */
+	public static final double PRINT_SCALE = 300d / 72d;
+
+	// The margin, in pixels, left around an exported graph so the labels of
+	// the vertices at its edge are kept.
+	private static final int EXPORT_MARGIN = 50;
+
+	// The largest IDAT chunk written to a PNG file.
+	private static final int PNG_CHUNK_SIZE = 1 << 16;
+
+	private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+			Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+
+				private final AtomicInteger count = new AtomicInteger();
+
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "TileRenderer-"
+							+ count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
+	private final List<Drawable> components;
+	private final AffineTransform transform;
+	private final double scale;
+
+	private final GraphicsConfiguration configuration;
+	private final RenderingHints hints;
+	private final Font font;
+	private final Color background;
+
+	/**
+	 * Create a renderer for a set of objects.
+	 *
+	 * @param components
+	 *            the objects to draw; they are drawn at the same time on
+	 *            several threads, so they must not change until the tiles
+	 *            are rendered.
+	 * @param transform
+	 *            the transformation from the units of the objects to pixels,
+	 *            or null for none.
+	 * @param scale
+	 *            the number of image pixels per pixel.
+	 * @param configuration
+	 *            the configuration to make images compatible with, or null.
+	 * @param hints
+	 *            the rendering hints to draw with, or null.
+	 * @param font
+	 *            the default font, or null.
+	 * @param background
+	 *            the color to fill tiles with before drawing, or null for
+	 *            transparent tiles.
+	 */
+	TileRenderer(List<Drawable> components, AffineTransform transform,
+			double scale, GraphicsConfiguration configuration,
+			RenderingHints hints, Font font, Color background) {
+
+		this.components = Collections.unmodifiableList(new ArrayList<Drawable>(
+				components));
+		this.transform = (transform != null) ? new AffineTransform(transform)
+				: new AffineTransform();
+		this.scale = scale;
+		this.configuration = configuration;
+		this.hints = hints;
+		this.font = font;
+		this.background = background;
+	}
+
+	/**
+	 * Get the area, in pixels, covered by a tile.
+	 *
+	 * @param position
+	 *            the column and row of the tile.
+	 *
+	 * @return the bounds of the tile.
+	 */
+	static Rectangle getTileBounds(Point position) {
+		return new Rectangle(position.x * TILE_SIZE, position.y * TILE_SIZE,
+				TILE_SIZE, TILE_SIZE);
+	}
+
+	/**
+	 * Render a single tile on the calling thread.
+	 *
+	 * @param position
+	 *            the column and row of the tile.
+	 *
+	 * @return the image of the tile.
+	 */
+	BufferedImage render(Point position) {
+
+		int size = (int) Math.ceil(TILE_SIZE * scale);
+		int transparency = (background == null) ? Transparency.TRANSLUCENT
+				: Transparency.OPAQUE;
+		BufferedImage tile;
+
+		if (configuration != null) {
+			tile = configuration.createCompatibleImage(size, size,
+					transparency);
+		} else if (background == null) {
+			tile = new BufferedImage(size, size,
+					BufferedImage.TYPE_INT_ARGB_PRE);
+		} else {
+			tile = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+		}
+
+		Graphics2D tileGraphics = tile.createGraphics();
+
+		try {
+			if (background != null) {
+				tileGraphics.setColor(background);
+				tileGraphics.fillRect(0, 0, size, size);
+			}
+
+			Rectangle tileBounds = getTileBounds(position);
+
+			if (hints != null) {
+				tileGraphics.setRenderingHints(hints);
+			}
+
+			if (font != null) {
+				tileGraphics.setFont(font);
+			}
+
+			tileGraphics.setColor(Color.black);
+
+			tileGraphics.scale(scale, scale);
+			tileGraphics.translate(-tileBounds.x, -tileBounds.y);
+			tileGraphics.clip(tileBounds);
+			tileGraphics.transform(transform);
+
+			for (Drawable component : components) {
+				component.paint(tileGraphics);
+			}
+
+		} finally {
+			tileGraphics.dispose();
+		}
+
+		return tile;
+	}
+
+	/**
+	 * Receives the tiles rendered in the background.
+	 */
+	interface TileListener {
+
+		/**
+		 * Called on the worker thread once a tile has been rendered, or has
+		 * failed or been cancelled.
+		 *
+		 * @param position
+		 *            the column and row of the tile.
+		 * @param tile
+		 *            the finished rendering of the tile; see
+		 *            {@link TileRenderer#getTile(Future)}.
+		 */
+		void tileDone(Point position, Future<BufferedImage> tile);
+	}
+
+	/**
+	 * Start rendering a set of tiles on the worker threads, without waiting
+	 * for them. The listener is told of each tile as it is done, so the
+	 * calling thread, such as the event dispatch thread, is never held up.
+	 *
+	 * @param positions
+	 *            the columns and rows of the tiles.
+	 * @param listener
+	 *            the listener to tell of each tile.
+	 *
+	 * @return the rendering of each tile, by its position, so it may be
+	 *         cancelled.
+	 */
+	Map<Point, Future<BufferedImage>> renderLater(Collection<Point> positions,
+			final TileListener listener) {
+
+		Map<Point, Future<BufferedImage>> futures = new HashMap<Point, Future<BufferedImage>>(
+				positions.size() * 2);
+
+		for (final Point position : positions) {
+
+			Callable<BufferedImage> task = new Callable<BufferedImage>() {
+				public BufferedImage call() {
+					return render(position);
+				}
+			};
+
+			FutureTask<BufferedImage> future = new FutureTask<BufferedImage>(
+					task) {
+
+				@Override
+				protected void done() {
+					listener.tileDone(position, this);
+				}
+			};
+
+			WORKERS.execute(future);
+			futures.put(position, future);
+		}
+
+		return futures;
+	}
+
+	/**
+	 * Get a tile which has finished rendering. Errors in drawing are thrown
+	 * on the calling thread.
+	 *
+	 * @param tile
+	 *            the finished rendering of the tile.
+	 *
+	 * @return the image of the tile.
+	 *
+	 * @throws CancellationException
+	 *             if the rendering was cancelled.
+	 */
+	static BufferedImage getTile(Future<BufferedImage> tile) {
+		return await(tile, Collections.singletonList(tile));
+	}
+
+	// Start rendering a set of tiles on the worker threads.
+	private Map<Point, Future<BufferedImage>> submit(Collection<Point> positions) {
+
+		Map<Point, Future<BufferedImage>> futures = new HashMap<Point, Future<BufferedImage>>(
+				positions.size() * 2);
+
+		for (final Point position : positions) {
+
+			Callable<BufferedImage> task = new Callable<BufferedImage>() {
+				public BufferedImage call() {
+					return render(position);
+				}
+			};
+
+			futures.put(position, WORKERS.submit(task));
+		}
+
+		return futures;
+	}
+
+	// Wait for a tile to be rendered. Errors in drawing are thrown on the
+	// waiting thread, and the other tiles are abandoned.
+	private static BufferedImage await(Future<BufferedImage> future,
+			Collection<Future<BufferedImage>> all) {
+
+		try {
+			return future.get();
+
+		} catch (InterruptedException e) {
+			cancel(all);
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Rendering was interrupted.");
+
+		} catch (ExecutionException e) {
+			cancel(all);
+			Throwable cause = e.getCause();
+
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	private static void cancel(Collection<Future<BufferedImage>> futures) {
+
+		for (Future<BufferedImage> future : futures) {
+			future.cancel(true);
+		}
+	}
+
+	/**
+	 * Write an image to a PNG stream, rendering it a row of tiles at a time.
+	 * Only two rows of tiles are held in memory at once, so the image may be
+	 * far larger than would fit in memory. The scale of the renderer should
+	 * make the tiles a whole number of pixels wide, so they meet exactly.
+	 *
+	 * @param out
+	 *            the stream to write to; it is not closed.
+	 * @param width
+	 *            the width of the image, in pixels.
+	 * @param height
+	 *            the height of the image, in pixels.
+	 *
+	 * @throws IOException
+	 *             if the image could not be written.
+	 * @throws CancellationException
+	 *             if the calling thread is interrupted.
+	 */
+	void writePng(OutputStream out, int width, int height) throws IOException {
+
+		int imageWidth = (int) Math.ceil(width * scale);
+		int imageHeight = (int) Math.ceil(height * scale);
+		int tileSize = (int) Math.round(TILE_SIZE * scale);
+		int columns = (width + TILE_SIZE - 1) / TILE_SIZE;
+		int rows = (height + TILE_SIZE - 1) / TILE_SIZE;
+
+		DataOutputStream png = new DataOutputStream(out);
+
+		png.write(new byte[] { (byte) 137, 'P', 'N', 'G', '\r', '\n', 26, '\n' });
+
+		// Eight bit RGB, without interlacing.
+		ByteArrayChunk header = new ByteArrayChunk(13);
+		header.writeInt(imageWidth);
+		header.writeInt(imageHeight);
+		header.write(new byte[] { 8, 2, 0, 0, 0 });
+		writeChunk(png, "IHDR", header.toByteArray());
+
+		// Compressing is done on the calling thread, and takes longer than
+		// rendering, so it is done as fast as it can be.
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		DeflaterOutputStream pixels = new DeflaterOutputStream(
+				new DataChunkStream(png), deflater, PNG_CHUNK_SIZE);
+
+		int[] argb = new int[imageWidth];
+		byte[] scanline = new byte[1 + imageWidth * 3];
+
+		try {
+			Map<Point, Future<BufferedImage>> next = submit(tileRow(0, columns));
+
+			for (int row = 0; row < rows; row++) {
+
+				Map<Point, Future<BufferedImage>> current = next;
+
+				// Render the next row while this one is compressed.
+				next = (row + 1 < rows) ? submit(tileRow(row + 1, columns))
+						: Collections.<Point, Future<BufferedImage>> emptyMap();
+
+				BufferedImage[] tiles = new BufferedImage[columns];
+
+				for (int column = 0; column < columns; column++) {
+					Future<BufferedImage> tile = current.get(new Point(column,
+							row));
+
+					try {
+						tiles[column] = await(tile, current.values());
+					} catch (RuntimeException e) {
+						cancel(next.values());
+						throw e;
+					}
+				}
+
+				int rowHeight = Math.min(tileSize, imageHeight - row * tileSize);
+
+				for (int y = 0; y < rowHeight; y++) {
+
+					for (int column = 0; column < columns; column++) {
+						int x = column * tileSize;
+						int w = Math.min(tileSize, imageWidth - x);
+						tiles[column].getRGB(0, y, w, 1, argb, x, imageWidth);
+					}
+
+					// Each byte is stored as its difference from the byte of
+					// the pixel to its left (the "sub" filter).
+					scanline[0] = 1;
+					int previous = 0;
+
+					for (int x = 0; x < imageWidth; x++) {
+						int rgb = argb[x];
+						int i = 1 + x * 3;
+						scanline[i] = (byte) ((rgb >> 16) - (previous >> 16));
+						scanline[i + 1] = (byte) ((rgb >> 8) - (previous >> 8));
+						scanline[i + 2] = (byte) (rgb - previous);
+						previous = rgb;
+					}
+
+					pixels.write(scanline);
+				}
+			}
+
+			pixels.finish();
+
+		} finally {
+			deflater.end();
+		}
+
+		writeChunk(png, "IEND", new byte[0]);
+		png.flush();
+	}
+
+	private static List<Point> tileRow(int row, int columns) {
+
+		List<Point> positions = new ArrayList<Point>(columns);
+
+		for (int column = 0; column < columns; column++) {
+			positions.add(new Point(column, row));
+		}
+
+		return positions;
+	}
+
+	private static void writeChunk(DataOutputStream png, String type,
+			byte[] data) throws IOException {
+
+		byte[] typeBytes = type.getBytes("US-ASCII");
+
+		CRC32 crc = new CRC32();
+		crc.update(typeBytes);
+		crc.update(data);
+
+		png.writeInt(data.length);
+		png.write(typeBytes);
+		png.write(data);
+		png.writeInt((int) crc.getValue());
+	}
+
+	// The compressed pixels, written out as IDAT chunks.
+	private static final class DataChunkStream extends OutputStream {
+
+		private final DataOutputStream png;
+
+		DataChunkStream(DataOutputStream png) {
+			this.png = png;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+
+			if (len > 0) {
+				writeChunk(png, "IDAT", Arrays.copyOfRange(b, off, off + len));
+			}
+		}
+	}
+
+	// A small chunk's data, put together before it is written.
+	private static final class ByteArrayChunk extends DataOutputStream {
+
+		ByteArrayChunk(int size) {
+			super(new ByteArrayOutputStream(size));
+		}
+
+		byte[] toByteArray() throws IOException {
+			flush();
+			return ((ByteArrayOutputStream) out).toByteArray();
+		}
+	}
+
+	/**
+	 * Write a drawing of an area to a PNG file.
+	 *
+	 * @param drawable
+	 *            the object to draw.
+	 * @param area
+	 *            the area to draw, in the units of the object.
+	 * @param scale
+	 *            the number of pixels per unit.
+	 * @param file
+	 *            the file to write.
+	 *
+	 * @throws IOException
+	 *             if the file could not be written.
+	 */
+	public static void exportPng(Drawable drawable, Rectangle2D area,
+			double scale, File file) throws IOException {
+
+		// Draw the area at the origin. The scale is applied by the renderer,
+		// like the scale of a high resolution screen, so labels and vertices
+		// keep their size relative to the rest of the drawing.
+		AffineTransform transform = AffineTransform.getTranslateInstance(
+				-area.getX(), -area.getY());
+
+		RenderingHints hints = new RenderingHints(
+				RenderingHints.KEY_ANTIALIASING,
+				RenderingHints.VALUE_ANTIALIAS_ON);
+		hints.put(RenderingHints.KEY_TEXT_ANTIALIASING,
+				RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+		// Round the scale so the tiles are a whole number of pixels wide.
+		double tileScale = Math.max(1, Math.round(TILE_SIZE * scale))
+				/ (double) TILE_SIZE;
+
+		TileRenderer renderer = new TileRenderer(
+				Collections.singletonList(drawable), transform, tileScale, null,
+				hints, null, Color.white);
+
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+
+		try {
+			renderer.writePng(out, (int) Math.ceil(area.getWidth()),
+					(int) Math.ceil(area.getHeight()));
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Get the area to export for a drawing; its bounds and a margin around
+	 * them.
+	 *
+	 * @param bounds
+	 *            the bounds of the drawing.
+	 *
+	 * @return the area to export, in the units of the drawing.
+	 */
+	public static Rectangle2D getExportArea(Rectangle2D bounds) {
+		return new Rectangle2D.Double(bounds.getX() - EXPORT_MARGIN,
+				bounds.getY() - EXPORT_MARGIN, bounds.getWidth() + 2
+						* EXPORT_MARGIN, bounds.getHeight() + 2
+						* EXPORT_MARGIN);
+	}
+
+	/**
+	 * Write the input graph of a file to a PNG image, without a display.
+	 *
+	 * Usage: TileRenderer graph-file png-file [scale]. The scale is the
+	 * number of pixels per unit of the graph, and defaults to the print
+	 * scale.
+	 *
+	 * @param args
+	 *            the graph file, the image file and the scale.
+	 *
+	 * @throws IOException
+	 *             if the graph could not be read or the image written.
+	 */
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 2 || args.length > 3) {
+			System.err.println("Usage: TileRenderer graph-file png-file [scale]");
+			System.exit(2);
+		}
+
+		File graphFile = new File(args[0]);
+		double scale = (args.length > 2) ? Double.parseDouble(args[2])
+				: PRINT_SCALE;
+
+		WeightedGraph<Node, Link> graph;
+
+		if (BinaryGraph.isBinaryGraph(graphFile)) {
+			graph = BinaryGraph.open(graphFile).toWeightedGraph();
+		} else {
+			graph = new GraphParser().parse(graphFile);
+		}
+
+		exportPng(graph, getExportArea(graph.getBounds()), scale, new File(args[1]));
+	}
+
+}